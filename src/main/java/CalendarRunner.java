@@ -1,16 +1,41 @@
+import calendar.controller.BatchController;
 import calendar.controller.CalendarController;
+import calendar.controller.CompiledScriptController;
 import calendar.controller.Controller;
 import calendar.controller.GuiController;
 import calendar.controller.GuiControllerImpl;
+import calendar.controller.HttpServerController;
+import calendar.controller.ParallelController;
+import calendar.controller.PipelinedController;
+import calendar.controller.SocketServerController;
+import calendar.controller.utils.Checkpoint;
+import calendar.controller.utils.CompiledScript;
+import calendar.controller.utils.DataDirectory;
+import calendar.controller.utils.LineSource;
+import calendar.controller.utils.MappedLineSource;
+import calendar.controller.utils.ReaderLineSource;
 import calendar.model.CalendarManager;
 import calendar.model.CalendarManagerImpl;
+import calendar.view.ChannelWriter;
 import calendar.view.ConsoleView;
 import calendar.view.GuiView;
 import calendar.view.GuiViewImpl;
+import calendar.view.JsonLinesView;
+import calendar.view.QuietView;
+import calendar.view.SummaryView;
 import calendar.view.View;
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.util.Scanner;
+import java.io.Closeable;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
 import javax.swing.SwingUtilities;
 
 /**
@@ -19,10 +44,24 @@ import javax.swing.SwingUtilities;
  */
 public class CalendarRunner {
 
+  private static final int OUTPUT_BUFFER_SIZE = 1 << 20;
+  private static final int DEFAULT_MAX_CLIENTS = 1024;
+
   /**
    * Main entry point for the calendar application.
    *
-   * @param args command line arguments: --mode interactive OR --mode headless.
+   * @param args command line arguments: --mode interactive OR --mode headless filename
+   *             [--checkpoint-every N] [--resume] [--input buffered|mapped]
+   *             [--pipelined [--parser-threads N]] [--parallel [--threads N]]
+   *             [--buffered-output | --async-output] [--output quiet|errors|summary|ndjson]
+   *             OR --mode batch directory-or-glob
+   *             OR --mode compile-script script compiled-script
+   *             OR --mode headless-bin compiled-script [--buffered-output | --async-output]
+   *             [--output quiet|errors|summary|ndjson]
+   *             OR --mode server --port N [--max-pending N] [--bind ADDRESS]
+   *             [--data-dir DIR]
+   *             OR --mode socket --port N [--max-clients N] [--bind ADDRESS]
+   *             [--data-dir DIR].
    */
   public static void main(String[] args) {
     if (args.length == 0) {
@@ -31,7 +70,18 @@ public class CalendarRunner {
     }
     if (args.length < 2) {
       System.err.println("Usage: java CalendarRunner --mode interactive");
-      System.err.println("   OR: java CalendarRunner --mode headless <filename>");
+      System.err.println("   OR: java CalendarRunner --mode headless <filename>"
+          + " [--checkpoint-every N] [--resume] [--input buffered|mapped]"
+          + " [--pipelined [--parser-threads N]] [--parallel [--threads N]]"
+          + " [--buffered-output | --async-output] [--output quiet|errors|summary|ndjson]");
+      System.err.println("   OR: java CalendarRunner --mode batch <directory|glob>");
+      System.err.println("   OR: java CalendarRunner --mode compile-script <in.txt> <out.bin>");
+      System.err.println("   OR: java CalendarRunner --mode headless-bin <file.bin>"
+          + " [--buffered-output | --async-output] [--output quiet|errors|summary|ndjson]");
+      System.err.println("   OR: java CalendarRunner --mode server --port N [--max-pending N]"
+          + " [--bind ADDRESS] [--data-dir DIR]");
+      System.err.println("   OR: java CalendarRunner --mode socket --port N [--max-clients N]"
+          + " [--bind ADDRESS] [--data-dir DIR]");
       System.exit(1);
     }
 
@@ -43,14 +93,29 @@ public class CalendarRunner {
       System.exit(1);
     }
 
-    CalendarManager manager = new CalendarManagerImpl();
-    View view = new ConsoleView();
-    Scanner scanner;
-    boolean isInteractive;
+    ConsoleView console = new ConsoleView();
+    View view = console;
+    LineSource lines;
+    Closeable input;
+    Controller controller;
+
+    if (mode.equalsIgnoreCase("batch")) {
+      runBatch(args, view);
+      return;
+    }
+    if (mode.equalsIgnoreCase("compile-script")) {
+      compileScript(args, view);
+      return;
+    }
+    if (mode.equalsIgnoreCase("server") || mode.equalsIgnoreCase("socket")) {
+      runServer(args, view, mode.equalsIgnoreCase("socket"));
+      return;
+    }
 
     if (mode.equalsIgnoreCase("interactive")) {
-      scanner = new Scanner(System.in);
-      isInteractive = true;
+      lines = new ReaderLineSource(new InputStreamReader(System.in));
+      input = (Closeable) lines;
+      controller = new CalendarController(new CalendarManagerImpl(), view, lines, true);
 
     } else if (mode.equalsIgnoreCase("headless")) {
       if (args.length < 3) {
@@ -59,28 +124,273 @@ public class CalendarRunner {
       }
 
       String fileName = args[2];
+      HeadlessOptions options = HeadlessOptions.parse(args, 3);
+      console = createConsole(options, console);
+      view = createOutputView(options, console);
 
       try {
-        File file = new File(fileName);
-        scanner = new Scanner(file);
-        isInteractive = false;
+        Path path = Paths.get(fileName);
+        lines = options.mappedInput ? new MappedLineSource(path) : new ReaderLineSource(path);
 
-      } catch (FileNotFoundException e) {
+      } catch (NoSuchFileException e) {
         System.err.println("Error: File not found: " + fileName);
         System.exit(1);
         return;
+      } catch (IOException e) {
+        System.err.println("Error: Cannot read file: " + fileName);
+        System.exit(1);
+        return;
+      }
+
+      input = (Closeable) lines;
+      controller = createHeadlessController(options, Paths.get(fileName), view, lines);
+
+    } else if (mode.equalsIgnoreCase("headless-bin")) {
+      if (args.length < 3) {
+        System.err.println("Error: headless-bin mode requires a compiled script");
+        System.exit(1);
+      }
+      HeadlessOptions options = HeadlessOptions.parse(args, 3);
+      if (options.checkpointEvery > 0 || options.resume || options.mappedInput
+          || options.pipelined || options.parallel) {
+        System.err.println("Error: headless-bin mode only takes --buffered-output,"
+            + " --async-output and --output");
+        System.exit(1);
+      }
+      console = createConsole(options, console);
+      view = createOutputView(options, console);
+
+      CompiledScript script;
+      try {
+        script = new CompiledScript(Paths.get(args[2]));
+      } catch (NoSuchFileException e) {
+        System.err.println("Error: File not found: " + args[2]);
+        System.exit(1);
+        return;
+      } catch (IOException e) {
+        System.err.println("Error: Cannot read compiled script: " + e.getMessage());
+        System.exit(1);
+        return;
       }
+      input = script;
+      controller = new CompiledScriptController(new CalendarManagerImpl(), view, script);
 
     } else {
-      System.err.println("Error: Mode must be 'interactive' or 'headless'");
+      System.err.println("Error: Mode must be 'interactive', 'headless', 'headless-bin',"
+          + " 'compile-script', 'batch', 'server' or 'socket'");
       System.exit(1);
       return;
     }
 
-    Controller controller = new CalendarController(manager, view, scanner, isInteractive);
     controller.run();
 
-    scanner.close();
+    try {
+      input.close();
+    } catch (IOException e) {
+      // Everything has been read, so there is nothing left to lose
+    }
+    if (view instanceof SummaryView) {
+      ((SummaryView) view).displaySummary();
+    }
+    if (console.checkError()
+        || view instanceof JsonLinesView && ((JsonLinesView) view).checkError()) {
+      System.err.println("Error: Cannot write output");
+      System.exit(1);
+    }
+  }
+
+  /**
+   * Creates the console headless output is written to. Buffered output is collected in a large
+   * buffer and written to standard output's channel when the buffer fills or the script ends,
+   * on a background thread with async output; otherwise every line is printed as it comes.
+   */
+  private static ConsoleView createConsole(HeadlessOptions options, ConsoleView console) {
+    if (!options.bufferedOutput && !options.asyncOutput) {
+      return console;
+    }
+    FileOutputStream stdout = new FileOutputStream(FileDescriptor.out);
+    return new ConsoleView(new ChannelWriter(stdout.getChannel(), OUTPUT_BUFFER_SIZE,
+        options.asyncOutput));
+  }
+
+  /**
+   * Wraps the console in a view that drops command output, except errors or a summary at the
+   * end, if asked to. NDJSON output bypasses the console and writes its records to standard
+   * output's own stream, after each record unless output is buffered.
+   */
+  private static View createOutputView(HeadlessOptions options, ConsoleView console) {
+    switch (options.output) {
+      case "quiet":
+        return new QuietView(console, false);
+      case "errors":
+        return new QuietView(console, true);
+      case "summary":
+        return new SummaryView(console);
+      case "ndjson":
+        return new JsonLinesView(new FileOutputStream(FileDescriptor.out),
+            !options.bufferedOutput);
+      default:
+        return console;
+    }
+  }
+
+  /**
+   * Parses a script once and writes its commands to a compiled script for headless-bin mode.
+   */
+  private static void compileScript(String[] args, View view) {
+    if (args.length < 4) {
+      System.err.println("Error: compile-script mode requires a script and an output file");
+      System.exit(1);
+    }
+
+    long startNanos = System.nanoTime();
+    try (ReaderLineSource lines = new ReaderLineSource(Paths.get(args[2]))) {
+      long commandCount = CompiledScript.compile(lines, Paths.get(args[3]), view);
+      view.displayMessage("Compiled " + commandCount + " commands into " + args[3] + " in "
+          + (System.nanoTime() - startNanos) / 1_000_000 + " ms");
+    } catch (NoSuchFileException e) {
+      System.err.println("Error: File not found: " + e.getMessage());
+      System.exit(1);
+    } catch (IOException e) {
+      System.err.println("Error: Cannot compile script: " + e.getMessage());
+      System.exit(1);
+    }
+  }
+
+  /**
+   * Runs every script in a directory, or matching a glob, in this process.
+   */
+  private static void runBatch(String[] args, View view) {
+    if (args.length < 3) {
+      System.err.println("Error: Batch mode requires a directory or glob");
+      System.exit(1);
+    }
+
+    List<Path> scripts;
+    try {
+      scripts = BatchController.findScripts(args[2]);
+    } catch (IOException e) {
+      System.err.println("Error: Cannot list scripts: " + e.getMessage());
+      System.exit(1);
+      return;
+    }
+    if (scripts.isEmpty()) {
+      System.err.println("Error: No scripts found: " + args[2]);
+      System.exit(1);
+    }
+    new BatchController(scripts, view).run();
+  }
+
+  /**
+   * Serves one shared calendar manager over HTTP, or over plain TCP connections speaking the
+   * headless command language, until the process is stopped. Either server listens on the
+   * loopback address and keeps clients' files in the working directory unless told otherwise.
+   */
+  private static void runServer(String[] args, View view, boolean socket) {
+    String limitOption = socket ? "--max-clients" : "--max-pending";
+    int port = -1;
+    int limit = socket ? DEFAULT_MAX_CLIENTS : HttpServerController.DEFAULT_MAX_PENDING;
+    InetAddress bindAddress = InetAddress.getLoopbackAddress();
+    Path dataDirectory = Paths.get("");
+    for (int i = 2; i < args.length; i++) {
+      if (args[i].equalsIgnoreCase("--port") && i + 1 < args.length) {
+        port = parseCount(args[++i], 0, "Error: --port requires a port between 0 and 65535");
+        if (port > 65535) {
+          System.err.println("Error: --port requires a port between 0 and 65535");
+          System.exit(1);
+        }
+      } else if (args[i].equalsIgnoreCase(limitOption) && i + 1 < args.length) {
+        limit = parseCount(args[++i], 1, "Error: " + limitOption + " requires a positive "
+            + (socket ? "client" : "request") + " count");
+      } else if (args[i].equalsIgnoreCase("--bind") && i + 1 < args.length) {
+        bindAddress = parseAddress(args[++i]);
+      } else if (args[i].equalsIgnoreCase("--data-dir") && i + 1 < args.length) {
+        dataDirectory = Paths.get(args[++i]);
+        if (!Files.isDirectory(dataDirectory)) {
+          System.err.println("Error: --data-dir is not a directory: " + args[i]);
+          System.exit(1);
+        }
+      } else {
+        System.err.println("Error: Unknown server option: " + args[i]);
+        System.exit(1);
+      }
+    }
+    if (port < 0) {
+      System.err.println("Error: " + (socket ? "Socket" : "Server") + " mode requires --port");
+      System.exit(1);
+    }
+    if (socket) {
+      new SocketServerController(new CalendarManagerImpl(), view, bindAddress, port, limit,
+          new DataDirectory(dataDirectory)).run();
+    } else {
+      new HttpServerController(new CalendarManagerImpl(), view, bindAddress, port, limit,
+          new DataDirectory(dataDirectory)).run();
+    }
+  }
+
+  /**
+   * Reads the address a server listens on, exiting with an error if it cannot be resolved.
+   */
+  private static InetAddress parseAddress(String value) {
+    try {
+      return InetAddress.getByName(value);
+    } catch (UnknownHostException e) {
+      System.err.println("Error: --bind requires an address of this host: " + value);
+      System.exit(1);
+      return null;
+    }
+  }
+
+  /**
+   * Reads a whole number of at least the given minimum, exiting with the message otherwise.
+   */
+  private static int parseCount(String value, int minimum, String message) {
+    try {
+      int count = Integer.parseInt(value);
+      if (count >= minimum) {
+        return count;
+      }
+    } catch (NumberFormatException e) {
+      // Reported below
+    }
+    System.err.println(message);
+    System.exit(1);
+    return minimum;
+  }
+
+  /**
+   * Creates a headless controller, restoring the last checkpoint first if asked to resume.
+   */
+  private static Controller createHeadlessController(HeadlessOptions options, Path scriptPath,
+                                                     View view, LineSource lines) {
+    if (options.parallel) {
+      return new ParallelController(new CalendarManagerImpl(), view, lines, options.threads);
+    }
+    if (options.pipelined) {
+      return new PipelinedController(new CalendarManagerImpl(), view, lines,
+          options.parserThreads);
+    }
+    if (options.checkpointEvery == 0 && !options.resume) {
+      return new CalendarController(new CalendarManagerImpl(), view, lines, false);
+    }
+
+    Path checkpointFile = Checkpoint.forScript(scriptPath);
+    CalendarManager manager = new CalendarManagerImpl();
+    long resumeLine = 0;
+    if (options.resume && Files.exists(checkpointFile)) {
+      try {
+        Checkpoint checkpoint = Checkpoint.load(checkpointFile);
+        manager = checkpoint.getManager();
+        resumeLine = checkpoint.getLineNumber();
+      } catch (IOException e) {
+        System.err.println("Error: Cannot read checkpoint: " + e.getMessage());
+        System.exit(1);
+      }
+    } else if (options.resume) {
+      System.err.println("No checkpoint found, starting from the beginning");
+    }
+    return new CalendarController(manager, view, lines, checkpointFile,
+        options.checkpointEvery, resumeLine);
   }
 
   private static void launchGui() {
@@ -92,4 +402,108 @@ public class CalendarRunner {
       view.display();
     });
   }
-}
\ No newline at end of file
+
+  /**
+   * Options given after the script name in headless mode.
+   */
+  private static class HeadlessOptions {
+    private int checkpointEvery;
+    private boolean resume;
+    private boolean mappedInput;
+    private boolean pipelined;
+    private int parserThreads = Math.max(1, Runtime.getRuntime().availableProcessors() - 2);
+    private boolean parallel;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private boolean bufferedOutput;
+    private boolean asyncOutput;
+    private String output = "all";
+
+    /**
+     * Parses the options, exiting with an error message if one is not valid.
+     */
+    static HeadlessOptions parse(String[] args, int from) {
+      HeadlessOptions options = new HeadlessOptions();
+      for (int i = from; i < args.length; i++) {
+        if (args[i].equalsIgnoreCase("--resume")) {
+          options.resume = true;
+        } else if (args[i].equalsIgnoreCase("--checkpoint-every") && i + 1 < args.length) {
+          try {
+            options.checkpointEvery = Integer.parseInt(args[++i]);
+          } catch (NumberFormatException e) {
+            options.checkpointEvery = -1;
+          }
+          if (options.checkpointEvery <= 0) {
+            System.err.println("Error: --checkpoint-every requires a positive line count");
+            System.exit(1);
+          }
+        } else if (args[i].equalsIgnoreCase("--input") && i + 1 < args.length) {
+          String input = args[++i];
+          if (!input.equalsIgnoreCase("buffered") && !input.equalsIgnoreCase("mapped")) {
+            System.err.println("Error: --input must be 'buffered' or 'mapped'");
+            System.exit(1);
+          }
+          options.mappedInput = input.equalsIgnoreCase("mapped");
+        } else if (args[i].equalsIgnoreCase("--pipelined")) {
+          options.pipelined = true;
+        } else if (args[i].equalsIgnoreCase("--parser-threads") && i + 1 < args.length) {
+          try {
+            options.parserThreads = Integer.parseInt(args[++i]);
+          } catch (NumberFormatException e) {
+            options.parserThreads = -1;
+          }
+          if (options.parserThreads <= 0) {
+            System.err.println("Error: --parser-threads requires a positive thread count");
+            System.exit(1);
+          }
+        } else if (args[i].equalsIgnoreCase("--buffered-output")) {
+          options.bufferedOutput = true;
+        } else if (args[i].equalsIgnoreCase("--async-output")) {
+          options.asyncOutput = true;
+        } else if (args[i].equalsIgnoreCase("--output") && i + 1 < args.length) {
+          options.output = args[++i].toLowerCase();
+          if (!options.output.equals("quiet") && !options.output.equals("errors")
+              && !options.output.equals("summary") && !options.output.equals("ndjson")) {
+            System.err.println("Error: --output must be 'quiet', 'errors', 'summary' or"
+                + " 'ndjson'");
+            System.exit(1);
+          }
+        } else if (args[i].equalsIgnoreCase("--parallel")) {
+          options.parallel = true;
+        } else if (args[i].equalsIgnoreCase("--threads") && i + 1 < args.length) {
+          try {
+            options.threads = Integer.parseInt(args[++i]);
+          } catch (NumberFormatException e) {
+            options.threads = -1;
+          }
+          if (options.threads <= 0) {
+            System.err.println("Error: --threads requires a positive thread count");
+            System.exit(1);
+          }
+        } else {
+          System.err.println("Error: Unknown option: " + args[i]);
+          System.exit(1);
+        }
+      }
+      if ((options.pipelined || options.parallel)
+          && (options.checkpointEvery > 0 || options.resume)) {
+        System.err.println("Error: --pipelined and --parallel cannot be combined with"
+            + " checkpoints");
+        System.exit(1);
+      }
+      if (options.pipelined && options.parallel) {
+        System.err.println("Error: Choose either --pipelined or --parallel");
+        System.exit(1);
+      }
+      if (options.bufferedOutput && options.asyncOutput) {
+        System.err.println("Error: Choose either --buffered-output or --async-output");
+        System.exit(1);
+      }
+      if (options.asyncOutput && options.output.equals("ndjson")) {
+        System.err.println("Error: --output ndjson can be buffered, but not with"
+            + " --async-output");
+        System.exit(1);
+      }
+      return options;
+    }
+  }
+}
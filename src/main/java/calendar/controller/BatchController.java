@@ -0,0 +1,192 @@
+package calendar.controller;
+
+import calendar.controller.utils.LineSource;
+import calendar.controller.utils.ReaderLineSource;
+import calendar.model.CalendarManagerImpl;
+import calendar.view.ConsoleView;
+import calendar.view.View;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Controller that runs many independent headless scripts in one process. Every script gets
+ * its own calendar manager, its own {@link CalendarController}, and a {@link ConsoleView}
+ * writing to an output file next to the script, named after it with ".out" added. Scripts run
+ * concurrently, on virtual threads when the Java runtime has them. The time taken for each
+ * script and the overall throughput are shown on the view.
+ */
+public class BatchController implements Controller {
+
+  /** Suffix of the file each script's output is written to. */
+  public static final String OUTPUT_SUFFIX = ".out";
+
+  private final List<Path> scripts;
+  private final View view;
+  private final ExecutorService executor;
+
+  /**
+   * Creates a BatchController that runs scripts on virtual threads when available, or on a
+   * pool of platform threads otherwise.
+   *
+   * @param scripts the scripts to run
+   * @param view    the view to report timings on
+   * @throws IllegalArgumentException if scripts is null or empty
+   */
+  public BatchController(List<Path> scripts, View view) {
+    this(scripts, view, TaskExecutors.newPerTaskExecutor("batch-script"));
+  }
+
+  /**
+   * Creates a BatchController that runs scripts on a given executor, which is shut down once
+   * every script has run.
+   *
+   * @param scripts  the scripts to run
+   * @param view     the view to report timings on
+   * @param executor the executor to run scripts on
+   * @throws IllegalArgumentException if scripts is null or empty, or executor is null
+   */
+  public BatchController(List<Path> scripts, View view, ExecutorService executor) {
+    if (scripts == null || scripts.isEmpty()) {
+      throw new IllegalArgumentException("No scripts to run");
+    }
+    if (executor == null) {
+      throw new IllegalArgumentException("Executor cannot be null");
+    }
+    this.scripts = List.copyOf(scripts);
+    this.view = view;
+    this.executor = executor;
+  }
+
+  /**
+   * Finds the scripts to run: every file in a directory, or the files matching a glob such
+   * as {@code tenants/*.txt}. Output and checkpoint files are skipped.
+   *
+   * @param location a directory, or a glob whose last part matches file names
+   * @return the scripts, sorted by path
+   * @throws IOException if the directory cannot be listed
+   */
+  public static List<Path> findScripts(String location) throws IOException {
+    Path directory;
+    String glob;
+    if (location.matches(".*[*?\\[{].*")) {
+      int separator = Math.max(location.lastIndexOf('/'),
+          location.lastIndexOf(File.separatorChar));
+      directory = separator < 0 ? Paths.get(".")
+          : Paths.get(separator == 0 ? "/" : location.substring(0, separator));
+      glob = location.substring(separator + 1);
+    } else {
+      directory = Paths.get(location);
+      glob = "*";
+      if (!Files.isDirectory(directory)) {
+        throw new IOException("Not a directory: " + location);
+      }
+    }
+
+    List<Path> scripts = new ArrayList<>();
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, glob)) {
+      for (Path file : files) {
+        String name = file.getFileName().toString();
+        if (Files.isRegularFile(file) && !name.endsWith(OUTPUT_SUFFIX)
+            && !name.endsWith(".checkpoint")) {
+          scripts.add(file);
+        }
+      }
+    }
+    Collections.sort(scripts);
+    return scripts;
+  }
+
+  @Override
+  public void run() {
+    long startNanos = System.nanoTime();
+    List<Future<ScriptTiming>> results = new ArrayList<>();
+    try {
+      for (Path script : scripts) {
+        results.add(executor.submit(() -> runScript(script)));
+      }
+
+      int completed = 0;
+      long totalLines = 0;
+      for (int i = 0; i < results.size(); i++) {
+        try {
+          ScriptTiming timing = results.get(i).get();
+          completed++;
+          totalLines += timing.lineCount;
+          view.displayMessage("Ran " + scripts.get(i) + " (" + timing.lineCount + " lines) in "
+              + timing.elapsedNanos / 1_000_000 + " ms, output in " + timing.outputPath);
+        } catch (ExecutionException e) {
+          view.displayError("Script " + scripts.get(i) + " failed: "
+              + e.getCause().getMessage());
+        }
+      }
+
+      long elapsedNanos = System.nanoTime() - startNanos;
+      double seconds = Math.max(elapsedNanos, 1) / 1_000_000_000.0;
+      view.displayMessage("Ran " + completed + " of " + scripts.size() + " scripts ("
+          + totalLines + " lines) in " + elapsedNanos / 1_000_000 + " ms, "
+          + Math.round(completed / seconds) + " scripts/sec, "
+          + Math.round(totalLines / seconds) + " lines/sec");
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      view.displayError("Batch interrupted");
+    } finally {
+      executor.shutdownNow();
+      view.flush();
+    }
+  }
+
+  /**
+   * Runs one script with its own manager and output file, and measures how long it took.
+   */
+  private ScriptTiming runScript(Path script) throws IOException {
+    long startNanos = System.nanoTime();
+    Path outputPath = script.resolveSibling(script.getFileName() + OUTPUT_SUFFIX);
+    long[] lineCount = new long[1];
+    try (ReaderLineSource source = new ReaderLineSource(script);
+         PrintStream out = new PrintStream(new BufferedOutputStream(
+             Files.newOutputStream(outputPath), 1 << 16), false, StandardCharsets.UTF_8)) {
+      LineSource lines = () -> {
+        CharSequence line = source.nextLine();
+        if (line != null) {
+          lineCount[0]++;
+        }
+        return line;
+      };
+      new CalendarController(new CalendarManagerImpl(), new ConsoleView(out), lines, false)
+          .run();
+      if (out.checkError()) {
+        throw new IOException("Cannot write " + outputPath);
+      }
+    }
+    return new ScriptTiming(outputPath.toAbsolutePath().toString(), lineCount[0],
+        System.nanoTime() - startNanos);
+  }
+
+  /**
+   * Outcome of running one script.
+   */
+  private static class ScriptTiming {
+    private final String outputPath;
+    private final long lineCount;
+    private final long elapsedNanos;
+
+    ScriptTiming(String outputPath, long lineCount, long elapsedNanos) {
+      this.outputPath = outputPath;
+      this.lineCount = lineCount;
+      this.elapsedNanos = elapsedNanos;
+    }
+  }
+}
@@ -1,9 +1,15 @@
 package calendar.controller;
 
 import calendar.controller.commands.Command;
+import calendar.controller.utils.Checkpoint;
+import calendar.controller.utils.CommandLines;
 import calendar.controller.utils.CommandParserImpl;
+import calendar.controller.utils.LineSource;
 import calendar.model.CalendarManager;
 import calendar.view.View;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Scanner;
 
 /**
@@ -14,9 +20,12 @@ public class CalendarController implements Controller {
 
   private final CalendarManager manager;
   private final View view;
-  private final Scanner scanner;
+  private final LineSource lines;
   private final CommandParserImpl parser;
   private final boolean isInteractive;
+  private final Path checkpointFile;
+  private final int checkpointEvery;
+  private final long resumeLine;
 
   /**
    * Creates a CalendarController.
@@ -28,30 +37,129 @@ public class CalendarController implements Controller {
    */
   public CalendarController(CalendarManager manager, View view, Scanner scanner,
                             boolean isInteractive) {
+    this(manager, view, () -> scanner.hasNextLine() ? scanner.nextLine() : null,
+        isInteractive);
+  }
+
+  /**
+   * Creates a CalendarController that reads commands from a line source.
+   *
+   * @param manager the calendar manager to operate on
+   * @param view the view for displaying output
+   * @param lines the source of input commands
+   * @param isInteractive true if running in interactive mode, false for headless
+   */
+  public CalendarController(CalendarManager manager, View view, LineSource lines,
+                            boolean isInteractive) {
     this.manager = manager;
     this.view = view;
-    this.scanner = scanner;
+    this.lines = lines;
     this.parser = new CommandParserImpl();
     this.isInteractive = isInteractive;
+    this.checkpointFile = null;
+    this.checkpointEvery = 0;
+    this.resumeLine = 0;
+  }
+
+  /**
+   * Creates a headless CalendarController that saves a checkpoint every few lines, so a
+   * script that is stopped part way can be resumed. A checkpoint that falls inside a batch is
+   * saved once the batch is committed or rolled back. The checkpoint is deleted once the script
+   * reaches its exit command.
+   *
+   * @param manager         the calendar manager to operate on, restored from the checkpoint
+   *                        when resuming
+   * @param view            the view for displaying output
+   * @param lines           the source reading the script from its first line
+   * @param checkpointFile  the file to save checkpoints to
+   * @param checkpointEvery the number of lines between checkpoints, or 0 to not save any
+   * @param resumeLine      the number of lines already run, skipped without running them
+   * @throws IllegalArgumentException if checkpointFile is null or a count is negative
+   */
+  public CalendarController(CalendarManager manager, View view, LineSource lines,
+                            Path checkpointFile, int checkpointEvery, long resumeLine) {
+    if (checkpointFile == null) {
+      throw new IllegalArgumentException("Checkpoint file cannot be null");
+    }
+    if (checkpointEvery < 0 || resumeLine < 0) {
+      throw new IllegalArgumentException("Checkpoint interval and resume line cannot be "
+          + "negative");
+    }
+    this.manager = manager;
+    this.view = view;
+    this.lines = lines;
+    this.parser = new CommandParserImpl();
+    this.isInteractive = false;
+    this.checkpointFile = checkpointFile;
+    this.checkpointEvery = checkpointEvery;
+    this.resumeLine = resumeLine;
   }
 
   @Override
   public void run() {
+    try {
+      runScript();
+    } finally {
+      view.flush();
+    }
+  }
+
+  /**
+   * Runs the commands, stopping at the exit command or the end of the input.
+   */
+  private void runScript() {
     if (isInteractive) {
       view.displayMessage("Calendar application started. Type 'exit' to quit.");
     }
 
+    long lineNumber = 0;
+    try {
+      while (lineNumber < resumeLine && lines.nextLine() != null) {
+        lineNumber++;
+      }
+    } catch (IOException e) {
+      view.displayError("Error reading input: " + e.getMessage());
+      return;
+    }
+    if (lineNumber < resumeLine) {
+      view.displayError("Script has fewer lines than the checkpoint (" + resumeLine + ")");
+      return;
+    }
+    if (resumeLine > 0) {
+      view.displayMessage("Resuming after line " + resumeLine);
+    }
+
     boolean shouldContinue = true;
     boolean exitCommandSeen = false;
+    boolean checkpointDue = false;
 
-    while (shouldContinue && scanner.hasNextLine()) {
-      String commandLine = scanner.nextLine().trim();
+    while (shouldContinue) {
+      if (checkpointEvery > 0 && lineNumber > resumeLine && lineNumber % checkpointEvery == 0) {
+        checkpointDue = true;
+      }
+      // Staged changes are not part of any calendar yet, so wait for the batch to close
+      if (checkpointDue && !manager.isBatchOpen()) {
+        saveCheckpoint(lineNumber);
+        checkpointDue = false;
+      }
+      CharSequence line;
+      try {
+        line = lines.nextLine();
+      } catch (IOException e) {
+        view.displayError("Error reading input: " + e.getMessage());
+        return;
+      }
+      if (line == null) {
+        break;
+      }
+      CharSequence commandLine = CommandLines.trim(line);
+      lineNumber++;
 
-      if (commandLine.isEmpty()) {
+      if (commandLine.length() == 0) {
         continue;
       }
 
-      if (commandLine.equals("exit")) {
+      if (CommandLines.isExit(commandLine)) {
         exitCommandSeen = true;
         shouldContinue = false;
         if (isInteractive) {
@@ -60,19 +168,49 @@ public class CalendarController implements Controller {
         continue;
       }
 
+      view.lineStarted(lineNumber);
+      manager.lineStarted(lineNumber);
       try {
         Command command = parser.parse(commandLine);
+        view.commandStarted(command.getClass().getSimpleName());
         command.execute(manager, view);
 
       } catch (IllegalArgumentException e) {
+        view.commandFailed(e);
         view.displayError("Invalid command: " + e.getMessage());
       } catch (Exception e) {
+        view.commandFailed(e);
         view.displayError("Error executing command: " + e.getMessage());
       }
+      if (isInteractive) {
+        view.flush();
+      }
     }
 
     if (!isInteractive && !exitCommandSeen) {
       view.displayError("Headless mode file must end with 'exit' command");
+    } else if (exitCommandSeen && checkpointFile != null) {
+      deleteCheckpoint();
+    }
+  }
+
+  /**
+   * Saves the manager's state as of the given number of lines run. A failed save is reported
+   * and the script carries on.
+   */
+  private void saveCheckpoint(long linesRun) {
+    try {
+      Checkpoint.save(checkpointFile, manager, linesRun);
+    } catch (IOException | RuntimeException e) {
+      view.displayError("Could not save checkpoint: " + e.getMessage());
+    }
+  }
+
+  private void deleteCheckpoint() {
+    try {
+      Files.deleteIfExists(checkpointFile);
+    } catch (IOException e) {
+      view.displayError("Could not delete checkpoint: " + e.getMessage());
     }
   }
 }
\ No newline at end of file
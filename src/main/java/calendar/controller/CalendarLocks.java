@@ -0,0 +1,40 @@
+package calendar.controller;
+
+import calendar.model.Calendar;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Locks shared by the sessions of a server: one lock over the set of calendars, held for
+ * reading by commands on a single calendar and for writing by commands that change which
+ * calendars exist or touch several, and a lock for each calendar. They are explicit locks
+ * rather than monitors so virtual threads waiting on them do not hold on to their carrier.
+ */
+final class CalendarLocks {
+
+  private final ReadWriteLock calendars = new ReentrantReadWriteLock();
+  private final Map<Calendar, Lock> calendarLocks = new ConcurrentHashMap<>();
+
+  /**
+   * Gets the lock over the set of calendars.
+   *
+   * @return the lock
+   */
+  ReadWriteLock calendars() {
+    return calendars;
+  }
+
+  /**
+   * Gets the lock for one calendar.
+   *
+   * @param calendar the calendar
+   * @return the calendar's lock
+   */
+  Lock forCalendar(Calendar calendar) {
+    return calendarLocks.computeIfAbsent(calendar, key -> new ReentrantLock());
+  }
+}
@@ -0,0 +1,82 @@
+package calendar.controller;
+
+import calendar.controller.commands.Command;
+import calendar.controller.utils.CompiledScript;
+import calendar.model.CalendarManager;
+import calendar.view.View;
+import java.io.IOException;
+
+/**
+ * Controller that replays a compiled script: commands are read already parsed from a
+ * {@link CompiledScript} and run in order, so the output is the same as running the script's
+ * text with {@link CalendarController} in headless mode, without the cost of parsing it.
+ */
+public class CompiledScriptController implements Controller {
+
+  private final CalendarManager manager;
+  private final View view;
+  private final CompiledScript script;
+
+  /**
+   * Creates a CompiledScriptController.
+   *
+   * @param manager the calendar manager to operate on
+   * @param view    the view for displaying output
+   * @param script  the compiled script to replay
+   * @throws IllegalArgumentException if script is null
+   */
+  public CompiledScriptController(CalendarManager manager, View view, CompiledScript script) {
+    if (script == null) {
+      throw new IllegalArgumentException("Compiled script cannot be null");
+    }
+    this.manager = manager;
+    this.view = view;
+    this.script = script;
+  }
+
+  @Override
+  public void run() {
+    try {
+      runScript();
+    } finally {
+      view.flush();
+    }
+  }
+
+  /**
+   * Replays the compiled commands, stopping at the exit command or the end of the script.
+   */
+  private void runScript() {
+    while (true) {
+      Command command;
+      try {
+        command = script.next();
+      } catch (IOException e) {
+        view.displayError("Error reading compiled script: " + e.getMessage());
+        return;
+      }
+      if (command == null) {
+        break;
+      }
+
+      view.lineStarted(script.getLineNumber());
+      manager.lineStarted(script.getLineNumber());
+      try {
+        if (!CompiledScript.isParseFailure(command)) {
+          view.commandStarted(command.getClass().getSimpleName());
+        }
+        command.execute(manager, view);
+      } catch (IllegalArgumentException e) {
+        view.commandFailed(e);
+        view.displayError("Invalid command: " + e.getMessage());
+      } catch (Exception e) {
+        view.commandFailed(e);
+        view.displayError("Error executing command: " + e.getMessage());
+      }
+    }
+
+    if (!script.reachedExit()) {
+      view.displayError("Headless mode file must end with 'exit' command");
+    }
+  }
+}
@@ -0,0 +1,376 @@
+package calendar.controller;
+
+import calendar.controller.commands.Command;
+import calendar.controller.utils.ApiCommandParser;
+import calendar.controller.utils.ApiRequest;
+import calendar.controller.utils.DataDirectory;
+import calendar.model.CalendarManager;
+import calendar.view.JsonLinesView;
+import calendar.view.View;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Controller that serves the calendar manager over HTTP, with a JSON API described by
+ * {@link ApiCommandParser}. Every request runs one command on its own virtual thread when the
+ * Java runtime has them. Each client connection gets a session with its own active calendar;
+ * a client can keep its session across connections by sending back the X-Session header of
+ * an earlier response. The response body is the command's output as JSON lines, the same
+ * records {@link JsonLinesView} writes. A request takes a place under the pending limit before
+ * it is queued for a thread; requests beyond the limit are turned away at once with 503 on the
+ * server's own thread rather than queued, so a busy server keeps answering quickly. The server
+ * listens on the loopback address unless another is given, and writes exported files only in
+ * its data directory.
+ */
+public class HttpServerController implements Controller {
+
+  /** Header naming the session a request belongs to. */
+  public static final String SESSION_HEADER = "X-Session";
+
+  /** Number of requests being handled or waiting at once used when none is given. */
+  public static final int DEFAULT_MAX_PENDING = 1024;
+
+  private static final int MAX_BODY_SIZE = 1 << 16;
+  private static final long SESSION_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(10);
+  private static final int MIN_SWEEP_SIZE = 1024;
+
+  /** Set while a request over the pending limit runs on the server's thread. */
+  private static final ThreadLocal<Boolean> SHED = new ThreadLocal<>();
+
+  static {
+    // The server writes a response's headers and body separately, so with Nagle's algorithm
+    // the body waits for the client's delayed acknowledgement, some 40 ms, on every request
+    if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+      System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+  }
+
+  private final CalendarManager manager;
+  private final View view;
+  private final InetAddress bindAddress;
+  private final int port;
+  private final Semaphore pending;
+  private final CalendarLocks locks;
+  private final ApiCommandParser parser;
+  private final Map<String, Session> sessions;
+  private final CountDownLatch stopped;
+  private HttpServer server;
+  private ExecutorService executor;
+  private volatile int sweepSize;
+
+  /**
+   * Creates an HttpServerController that listens on the loopback address and writes files in
+   * the working directory.
+   *
+   * @param manager    the calendar manager every client shares
+   * @param view       the view to report the server's address on
+   * @param port       the port to listen on, or 0 for any free port
+   * @param maxPending the most requests being handled or waiting at once
+   * @throws IllegalArgumentException if the port is out of range or maxPending is not positive
+   */
+  public HttpServerController(CalendarManager manager, View view, int port, int maxPending) {
+    this(manager, view, InetAddress.getLoopbackAddress(), port, maxPending,
+        new DataDirectory(Paths.get("")));
+  }
+
+  /**
+   * Creates an HttpServerController.
+   *
+   * @param manager     the calendar manager every client shares
+   * @param view        the view to report the server's address on
+   * @param bindAddress the address to listen on
+   * @param port        the port to listen on, or 0 for any free port
+   * @param maxPending  the most requests being handled or waiting at once
+   * @param files       the directory exported files are written in
+   * @throws IllegalArgumentException if the port is out of range or maxPending is not positive
+   */
+  public HttpServerController(CalendarManager manager, View view, InetAddress bindAddress,
+                              int port, int maxPending, DataDirectory files) {
+    if (port < 0 || port > 65535) {
+      throw new IllegalArgumentException("Port must be between 0 and 65535");
+    }
+    if (maxPending <= 0) {
+      throw new IllegalArgumentException("Pending request limit must be positive");
+    }
+    this.manager = manager;
+    this.view = view;
+    this.bindAddress = bindAddress;
+    this.port = port;
+    this.pending = new Semaphore(maxPending);
+    this.locks = new CalendarLocks();
+    this.parser = new ApiCommandParser(files);
+    this.sessions = new ConcurrentHashMap<>();
+    this.stopped = new CountDownLatch(1);
+    this.sweepSize = MIN_SWEEP_SIZE;
+  }
+
+  /**
+   * Serves requests until {@link #stop()} is called.
+   */
+  @Override
+  public void run() {
+    try {
+      start();
+    } catch (IOException e) {
+      view.displayError("Cannot start server: " + e.getMessage());
+      view.flush();
+      return;
+    }
+    view.displayMessage("Listening on http://" + hostString(bindAddress) + ":" + getPort());
+    view.flush();
+    try {
+      stopped.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      stop();
+    }
+  }
+
+  /**
+   * Starts serving requests without waiting for the server to stop.
+   *
+   * @throws IOException if the port cannot be listened on
+   */
+  public synchronized void start() throws IOException {
+    if (server != null) {
+      throw new IllegalStateException("Server already started");
+    }
+    server = HttpServer.create(new InetSocketAddress(bindAddress, port), 0);
+    executor = TaskExecutors.newPerTaskExecutor("http-request");
+    server.setExecutor(this::admit);
+    server.createContext("/", this::handle);
+    server.start();
+  }
+
+  /**
+   * Gets the port the server listens on, which is chosen by the system if 0 was asked for.
+   *
+   * @return the port
+   * @throws IllegalStateException if the server has not been started
+   */
+  public synchronized int getPort() {
+    if (server == null) {
+      throw new IllegalStateException("Server not started");
+    }
+    return server.getAddress().getPort();
+  }
+
+  /**
+   * Gets the address the server listens on.
+   *
+   * @return the address
+   * @throws IllegalStateException if the server has not been started
+   */
+  public synchronized InetAddress getAddress() {
+    if (server == null) {
+      throw new IllegalStateException("Server not started");
+    }
+    return server.getAddress().getAddress();
+  }
+
+  /**
+   * Stops the server, letting requests being handled finish for up to a second.
+   */
+  public synchronized void stop() {
+    if (server != null) {
+      server.stop(1);
+      executor.shutdown();
+    }
+    stopped.countDown();
+  }
+
+  /**
+   * Queues a request for a thread if it gets a place under the pending limit, which it keeps
+   * until it has been handled. Otherwise the request runs at once on the calling server thread,
+   * marked to be turned away, as only running it gives access to its exchange to answer. The
+   * executor's own queue never holds more requests than the limit.
+   */
+  private void admit(Runnable request) {
+    if (!pending.tryAcquire()) {
+      SHED.set(Boolean.TRUE);
+      try {
+        request.run();
+      } finally {
+        SHED.remove();
+      }
+      return;
+    }
+    try {
+      executor.execute(() -> {
+        try {
+          request.run();
+        } finally {
+          pending.release();
+        }
+      });
+    } catch (RuntimeException e) {
+      pending.release();
+      throw e;
+    }
+  }
+
+  /**
+   * Handles one request, or turns it away if it came over the pending limit.
+   */
+  private void handle(HttpExchange exchange) throws IOException {
+    try {
+      if (SHED.get() != null) {
+        exchange.getResponseHeaders().set("Retry-After", "1");
+        respondWithError(exchange, 503, "Server is busy, try again later");
+        return;
+      }
+      respond(exchange);
+    } finally {
+      exchange.close();
+    }
+  }
+
+  /**
+   * Runs the request's command for its session and sends back the command's output.
+   */
+  private void respond(HttpExchange exchange) throws IOException {
+    String method = exchange.getRequestMethod();
+    String path = exchange.getRequestURI().getPath();
+    Command command;
+    try {
+      ApiRequest request = method.equals("GET")
+          ? ApiRequest.fromQuery(exchange.getRequestURI().getRawQuery())
+          : ApiRequest.fromJson(readBody(exchange));
+      command = parser.parse(method, path, request);
+    } catch (IllegalArgumentException e) {
+      respondWithError(exchange, 400, "Invalid request: " + e.getMessage());
+      return;
+    }
+    if (command == null) {
+      respondWithError(exchange, 404, "Unknown request: " + method + " " + path);
+      return;
+    }
+
+    Session session = session(exchange);
+    ByteArrayOutputStream body = new ByteArrayOutputStream(256);
+    JsonLinesView output = new JsonLinesView(body, false);
+    int status = 200;
+    session.lock.lock();
+    try {
+      session.lastUsed = System.currentTimeMillis();
+      try {
+        output.commandStarted(command.getClass().getSimpleName());
+        session.manager.execute(command, output);
+      } catch (IllegalArgumentException e) {
+        output.commandFailed(e);
+        output.displayError("Invalid command: " + e.getMessage());
+        status = 400;
+      } catch (Exception e) {
+        output.commandFailed(e);
+        output.displayError("Error executing command: " + e.getMessage());
+        status = 409;
+      }
+    } finally {
+      session.lock.unlock();
+    }
+    output.flush();
+    send(exchange, status, body.toByteArray());
+  }
+
+  /**
+   * Finds the request's session, named by its session header or else by the connection it
+   * came on, starting a new session if there is none.
+   */
+  private Session session(HttpExchange exchange) {
+    String id = exchange.getRequestHeaders().getFirst(SESSION_HEADER);
+    if (id == null || id.isEmpty()) {
+      id = exchange.getRemoteAddress().toString();
+    }
+    exchange.getResponseHeaders().set(SESSION_HEADER, id);
+    Session session = sessions.get(id);
+    if (session == null) {
+      if (sessions.size() >= sweepSize) {
+        removeIdleSessions();
+      }
+      session = sessions.computeIfAbsent(id,
+          key -> new Session(new SessionManager(manager, locks)));
+    }
+    return session;
+  }
+
+  /**
+   * Forgets sessions that have not been used for a while, as clients do not say when they
+   * are done, and waits for the number of sessions to double before looking again.
+   */
+  private synchronized void removeIdleSessions() {
+    long cutoff = System.currentTimeMillis() - SESSION_TIMEOUT_MILLIS;
+    for (Iterator<Session> it = sessions.values().iterator(); it.hasNext(); ) {
+      if (it.next().lastUsed < cutoff) {
+        it.remove();
+      }
+    }
+    sweepSize = Math.max(MIN_SWEEP_SIZE, 2 * sessions.size());
+  }
+
+  /**
+   * Gets an address as it is written in a URL, with an IPv6 address in brackets.
+   */
+  static String hostString(InetAddress address) {
+    String host = address.getHostAddress();
+    return address instanceof Inet6Address ? "[" + host + "]" : host;
+  }
+
+  private static String readBody(HttpExchange exchange) throws IOException {
+    try (InputStream in = exchange.getRequestBody()) {
+      byte[] body = in.readNBytes(MAX_BODY_SIZE + 1);
+      if (body.length > MAX_BODY_SIZE) {
+        throw new IllegalArgumentException("Request body is larger than " + MAX_BODY_SIZE
+            + " bytes");
+      }
+      return new String(body, StandardCharsets.UTF_8);
+    }
+  }
+
+  private static void respondWithError(HttpExchange exchange, int status, String message)
+      throws IOException {
+    ByteArrayOutputStream body = new ByteArrayOutputStream(128);
+    JsonLinesView output = new JsonLinesView(body, false);
+    output.displayError(message);
+    output.flush();
+    send(exchange, status, body.toByteArray());
+  }
+
+  private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+    exchange.getResponseHeaders().set("Content-Type", "application/x-ndjson; charset=utf-8");
+    exchange.sendResponseHeaders(status, body.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(body);
+    }
+  }
+
+  /**
+   * A client's session, the lock its requests take turns on, and when it was last used.
+   */
+  private static class Session {
+    private final SessionManager manager;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile long lastUsed;
+
+    Session(SessionManager manager) {
+      this.manager = manager;
+      this.lastUsed = System.currentTimeMillis();
+    }
+  }
+}
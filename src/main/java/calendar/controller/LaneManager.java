@@ -0,0 +1,103 @@
+package calendar.controller;
+
+import calendar.model.Calendar;
+import calendar.model.CalendarManager;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Calendar manager seen by a command running in one lane of a {@link ParallelController}:
+ * the active calendar is the one the script had in use when the command was read, so lanes
+ * never share the real manager's active calendar. Commands that change the set of calendars
+ * or touch two of them are never run in a lane, and fail here if they are.
+ */
+class LaneManager implements CalendarManager {
+
+  private final CalendarManager manager;
+  private final Calendar activeCalendar;
+
+  /**
+   * Creates a LaneManager.
+   *
+   * @param manager        the shared manager
+   * @param activeCalendar the calendar in use for the command, or null if none
+   */
+  LaneManager(CalendarManager manager, Calendar activeCalendar) {
+    this.manager = manager;
+    this.activeCalendar = activeCalendar;
+  }
+
+  @Override
+  public Calendar getActiveCalendar() {
+    return activeCalendar;
+  }
+
+  @Override
+  public List<Calendar> getAllCalendars() {
+    return manager.getAllCalendars();
+  }
+
+  @Override
+  public void createCalendar(String name, ZoneId timeZone) {
+    throw notInLane();
+  }
+
+  @Override
+  public void useCalendar(String name) {
+    throw notInLane();
+  }
+
+  @Override
+  public void editCalendar(String name, String property, Object newValue) {
+    throw notInLane();
+  }
+
+  @Override
+  public void copyEvent(String eventName, LocalDateTime sourceDateTime, String targetCalendarName,
+                        LocalDateTime targetDateTime) {
+    throw notInLane();
+  }
+
+  @Override
+  public void copyEventsOnDate(LocalDate sourceDate, String targetCalendarName,
+                               LocalDate targetDate) {
+    throw notInLane();
+  }
+
+  @Override
+  public void copyEventsBetween(LocalDate startDate, LocalDate endDate, String targetCalendarName,
+                                LocalDate targetStartDate) {
+    throw notInLane();
+  }
+
+  @Override
+  public void beginBatch() {
+    throw notInLane();
+  }
+
+  @Override
+  public int commitBatch() {
+    throw notInLane();
+  }
+
+  @Override
+  public void rollbackBatch() {
+    throw notInLane();
+  }
+
+  @Override
+  public boolean isBatchOpen() {
+    return false;
+  }
+
+  @Override
+  public void lineStarted(long lineNumber) {
+    manager.lineStarted(lineNumber);
+  }
+
+  private IllegalStateException notInLane() {
+    return new IllegalStateException("Command cannot run in a single calendar's lane");
+  }
+}
@@ -0,0 +1,271 @@
+package calendar.controller;
+
+import calendar.controller.commands.BeginBatchCommand;
+import calendar.controller.commands.Command;
+import calendar.controller.commands.CommitBatchCommand;
+import calendar.controller.commands.CopyCommand;
+import calendar.controller.commands.CreateCalendarCommand;
+import calendar.controller.commands.EditCalendarCommand;
+import calendar.controller.commands.ExportAllCommand;
+import calendar.controller.commands.RollbackBatchCommand;
+import calendar.controller.commands.UseCalendarCommand;
+import calendar.controller.utils.CommandLines;
+import calendar.controller.utils.CommandParserImpl;
+import calendar.controller.utils.LineSource;
+import calendar.model.Calendar;
+import calendar.model.CalendarManager;
+import calendar.view.RecordingView;
+import calendar.view.View;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Controller for headless scripts that runs commands for different calendars at the same
+ * time. Each calendar gets a lane: commands that only touch the calendar in use are queued
+ * on that calendar's lane and run in script order there, while lanes run concurrently.
+ * Copies wait for both the source and the target lane. Commands that change which calendars
+ * exist, or read all of them, and batch commands wait for every lane to finish first. While a
+ * batch is open, its staged calendar is the lane commands are queued on. Output is recorded per
+ * command and shown in script order, so it is the same as a serial run's.
+ */
+public class ParallelController implements Controller {
+
+  /** Most commands whose output is held back waiting for an earlier command. */
+  static final int MAX_PENDING = 4096;
+
+  private final CalendarManager manager;
+  private final View view;
+  private final LineSource lines;
+  private final int threads;
+
+  /**
+   * Creates a ParallelController.
+   *
+   * @param manager the calendar manager to operate on
+   * @param view    the view for displaying output
+   * @param lines   the source of the script's lines
+   * @param threads the number of threads running lanes
+   * @throws IllegalArgumentException if lines is null or threads is not positive
+   */
+  public ParallelController(CalendarManager manager, View view, LineSource lines, int threads) {
+    if (lines == null) {
+      throw new IllegalArgumentException("Line source cannot be null");
+    }
+    if (threads <= 0) {
+      throw new IllegalArgumentException("Thread count must be positive");
+    }
+    this.manager = manager;
+    this.view = view;
+    this.lines = lines;
+    this.threads = threads;
+  }
+
+  @Override
+  public void run() {
+    ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+      Thread thread = new Thread(runnable, "calendar-lane");
+      thread.setDaemon(true);
+      return thread;
+    });
+    try {
+      runScript(pool);
+    } finally {
+      pool.shutdown();
+      view.flush();
+    }
+  }
+
+  private void runScript(ExecutorService pool) {
+    CommandParserImpl parser = new CommandParserImpl();
+    Map<Calendar, CompletableFuture<Void>> lanes = new IdentityHashMap<>();
+    Deque<Output> outputs = new ArrayDeque<>();
+    Calendar inUse = manager.getActiveCalendar();
+    boolean exitCommandSeen = false;
+    long lineNumber = 0;
+
+    CharSequence line;
+    while (true) {
+      try {
+        line = lines.nextLine();
+      } catch (IOException e) {
+        awaitAll(lanes);
+        showAll(outputs);
+        view.displayError("Error reading input: " + e.getMessage());
+        return;
+      }
+      if (line == null) {
+        break;
+      }
+      CharSequence commandLine = CommandLines.trim(line);
+      lineNumber++;
+      if (commandLine.length() == 0) {
+        continue;
+      }
+      if (CommandLines.isExit(commandLine)) {
+        exitCommandSeen = true;
+        break;
+      }
+
+      RecordingView output = new RecordingView();
+      output.lineStarted(lineNumber);
+      long sourceLine = lineNumber;
+      Command command;
+      try {
+        command = parser.parse(commandLine);
+      } catch (IllegalArgumentException e) {
+        output.commandFailed(e);
+        output.displayError("Invalid command: " + e.getMessage());
+        command = null;
+      } catch (Exception e) {
+        output.commandFailed(e);
+        output.displayError("Error executing command: " + e.getMessage());
+        command = null;
+      }
+
+      CompletableFuture<Void> done = CompletableFuture.completedFuture(null);
+      if (command instanceof UseCalendarCommand) {
+        synchronized (manager) {
+          execute(command, manager, output, sourceLine);
+          inUse = manager.getActiveCalendar();
+        }
+      } else if (command instanceof BeginBatchCommand || command instanceof CommitBatchCommand
+          || command instanceof RollbackBatchCommand) {
+        awaitAll(lanes);
+        synchronized (manager) {
+          execute(command, manager, output, sourceLine);
+          inUse = manager.getActiveCalendar();
+        }
+      } else if (command instanceof CreateCalendarCommand
+          || command instanceof EditCalendarCommand || command instanceof ExportAllCommand) {
+        awaitAll(lanes);
+        synchronized (manager) {
+          execute(command, manager, output, sourceLine);
+        }
+      } else if (command != null && inUse == null) {
+        execute(command, new LaneManager(manager, null), output, sourceLine);
+      } else if (command instanceof CopyCommand) {
+        done = scheduleCopy((CopyCommand) command, inUse, lanes, output, pool, sourceLine);
+      } else if (command != null) {
+        Calendar calendar = inUse;
+        Command laneCommand = command;
+        done = lane(lanes, calendar).thenRunAsync(
+            () -> execute(laneCommand, new LaneManager(manager, calendar), output, sourceLine),
+            pool);
+        lanes.put(calendar, done);
+      }
+
+      outputs.add(new Output(output, done));
+      showCompleted(outputs);
+      if (outputs.size() > MAX_PENDING) {
+        outputs.peek().done.join();
+        showCompleted(outputs);
+      }
+    }
+
+    awaitAll(lanes);
+    showAll(outputs);
+    if (inUse != null) {
+      synchronized (manager) {
+        manager.useCalendar(inUse.getCalendarName());
+      }
+    }
+    if (!exitCommandSeen) {
+      view.displayError("Headless mode file must end with 'exit' command");
+    }
+  }
+
+  /**
+   * Queues a copy after both the source and the target lane. The copy runs on the shared
+   * manager, with the source selected, while holding the manager's lock.
+   */
+  private CompletableFuture<Void> scheduleCopy(CopyCommand command, Calendar source,
+                                               Map<Calendar, CompletableFuture<Void>> lanes,
+                                               RecordingView output, ExecutorService pool,
+                                               long line) {
+    Calendar target = null;
+    for (Calendar calendar : manager.getAllCalendars()) {
+      if (calendar.getCalendarName().equals(command.getTargetCalendarName())) {
+        target = calendar;
+      }
+    }
+
+    CompletableFuture<Void> after = target == null || target == source ? lane(lanes, source)
+        : CompletableFuture.allOf(lane(lanes, source), lane(lanes, target));
+    CompletableFuture<Void> done = after.thenRunAsync(() -> {
+      synchronized (manager) {
+        manager.useCalendar(source.getCalendarName());
+        execute(command, manager, output, line);
+      }
+    }, pool);
+    lanes.put(source, done);
+    if (target != null) {
+      lanes.put(target, done);
+    }
+    return done;
+  }
+
+  private CompletableFuture<Void> lane(Map<Calendar, CompletableFuture<Void>> lanes,
+                                       Calendar calendar) {
+    return lanes.getOrDefault(calendar, CompletableFuture.completedFuture(null));
+  }
+
+  private void awaitAll(Map<Calendar, CompletableFuture<Void>> lanes) {
+    CompletableFuture.allOf(lanes.values().toArray(new CompletableFuture<?>[0])).join();
+    lanes.clear();
+  }
+
+  private void execute(Command command, CalendarManager target, View output, long line) {
+    target.lineStarted(line);
+    try {
+      output.commandStarted(command.getClass().getSimpleName());
+      command.execute(target, output);
+    } catch (IllegalArgumentException e) {
+      output.commandFailed(e);
+      output.displayError("Invalid command: " + e.getMessage());
+    } catch (Exception e) {
+      output.commandFailed(e);
+      output.displayError("Error executing command: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Shows the output of finished commands at the front of the queue.
+   */
+  private void showCompleted(Deque<Output> outputs) {
+    while (!outputs.isEmpty() && outputs.peek().done.isDone()) {
+      Output output = outputs.poll();
+      output.done.join();
+      output.recorded.replay(view);
+    }
+  }
+
+  private void showAll(Deque<Output> outputs) {
+    List<Output> remaining = new ArrayList<>(outputs);
+    outputs.clear();
+    for (Output output : remaining) {
+      output.done.join();
+      output.recorded.replay(view);
+    }
+  }
+
+  /**
+   * Recorded output of one command, shown once the command has run.
+   */
+  private static class Output {
+    private final RecordingView recorded;
+    private final CompletableFuture<Void> done;
+
+    Output(RecordingView recorded, CompletableFuture<Void> done) {
+      this.recorded = recorded;
+      this.done = done;
+    }
+  }
+}
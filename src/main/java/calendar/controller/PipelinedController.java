@@ -0,0 +1,251 @@
+package calendar.controller;
+
+import calendar.controller.commands.Command;
+import calendar.controller.utils.CommandLines;
+import calendar.controller.utils.CommandParserImpl;
+import calendar.controller.utils.LineSource;
+import calendar.model.CalendarManager;
+import calendar.view.View;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Controller for headless scripts that reads, parses and runs commands in a pipeline.
+ * A reader thread splits the script into batches of lines, a pool of parser threads turns
+ * each batch into commands, and the calling thread runs the commands one at a time in script
+ * order. Batches are queued in the order they were read, so commands run exactly as they would
+ * in {@link CalendarController}; errors name the script line they came from.
+ */
+public class PipelinedController implements Controller {
+
+  /** Number of lines parsed together by one parser task. */
+  static final int BATCH_SIZE = 256;
+
+  private final CalendarManager manager;
+  private final View view;
+  private final LineSource lines;
+  private final int parserThreads;
+  private volatile boolean stopped;
+
+  /**
+   * Creates a PipelinedController.
+   *
+   * @param manager       the calendar manager to operate on
+   * @param view          the view for displaying output
+   * @param lines         the source of the script's lines
+   * @param parserThreads the number of threads parsing commands
+   * @throws IllegalArgumentException if lines is null or parserThreads is not positive
+   */
+  public PipelinedController(CalendarManager manager, View view, LineSource lines,
+                             int parserThreads) {
+    if (lines == null) {
+      throw new IllegalArgumentException("Line source cannot be null");
+    }
+    if (parserThreads <= 0) {
+      throw new IllegalArgumentException("Parser thread count must be positive");
+    }
+    this.manager = manager;
+    this.view = view;
+    this.lines = lines;
+    this.parserThreads = parserThreads;
+  }
+
+  @Override
+  public void run() {
+    try {
+      runScript();
+    } finally {
+      view.flush();
+    }
+  }
+
+  /**
+   * Runs the parsed commands in order, stopping at the exit command or the end of the script.
+   */
+  private void runScript() {
+    ExecutorService parsers = Executors.newFixedThreadPool(parserThreads, runnable -> {
+      Thread thread = new Thread(runnable, "command-parser");
+      thread.setDaemon(true);
+      return thread;
+    });
+    BlockingQueue<Future<Batch>> batches = new ArrayBlockingQueue<>(4 * parserThreads);
+    ThreadLocal<CommandParserImpl> parser = ThreadLocal.withInitial(CommandParserImpl::new);
+    Thread reader = new Thread(() -> readBatches(parsers, parser, batches), "script-reader");
+    reader.setDaemon(true);
+    stopped = false;
+    reader.start();
+
+    boolean exitCommandSeen = false;
+    try {
+      Batch batch;
+      do {
+        batch = batches.take().get();
+        exitCommandSeen = runBatch(batch);
+      } while (!exitCommandSeen && !batch.last);
+
+      if (batch.readError != null) {
+        view.displayError("Error reading input: " + batch.readError.getMessage());
+        return;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      view.displayError("Script interrupted");
+      return;
+    } catch (ExecutionException e) {
+      view.displayError("Error parsing commands: " + e.getCause().getMessage());
+      return;
+    } finally {
+      stopped = true;
+      reader.interrupt();
+      parsers.shutdownNow();
+    }
+
+    if (!exitCommandSeen) {
+      view.displayError("Headless mode file must end with 'exit' command");
+    }
+  }
+
+  /**
+   * Runs the commands of a batch in order.
+   *
+   * @return true if the batch reached the exit command
+   */
+  private boolean runBatch(Batch batch) {
+    for (int i = 0; i < batch.size; i++) {
+      view.lineStarted(batch.lineNumbers[i]);
+      manager.lineStarted(batch.lineNumbers[i]);
+      if (batch.failures[i] != null) {
+        view.commandFailed(batch.failures[i]);
+      }
+      if (batch.failures[i] instanceof IllegalArgumentException) {
+        view.displayError("Invalid command on line " + batch.lineNumbers[i] + ": "
+            + batch.failures[i].getMessage());
+        continue;
+      }
+      if (batch.failures[i] != null) {
+        view.displayError("Error executing command on line " + batch.lineNumbers[i] + ": "
+            + batch.failures[i].getMessage());
+        continue;
+      }
+      if (batch.commands[i] == null) {
+        return true;
+      }
+
+      try {
+        view.commandStarted(batch.commands[i].getClass().getSimpleName());
+        batch.commands[i].execute(manager, view);
+      } catch (IllegalArgumentException e) {
+        view.commandFailed(e);
+        view.displayError("Invalid command on line " + batch.lineNumbers[i] + ": "
+            + e.getMessage());
+      } catch (Exception e) {
+        view.commandFailed(e);
+        view.displayError("Error executing command on line " + batch.lineNumbers[i] + ": "
+            + e.getMessage());
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Reads the script on the reader thread, handing each batch of lines to the parsers and
+   * queueing the pending result. Reading stops after the exit command.
+   */
+  private void readBatches(ExecutorService parsers, ThreadLocal<CommandParserImpl> parser,
+                           BlockingQueue<Future<Batch>> batches) {
+    IOException readError = null;
+    List<String> texts = new ArrayList<>(BATCH_SIZE);
+    List<Long> lineNumbers = new ArrayList<>(BATCH_SIZE);
+    long lineNumber = 0;
+    try {
+      CharSequence line;
+      while (!stopped && (line = lines.nextLine()) != null) {
+        lineNumber++;
+        CharSequence trimmed = CommandLines.trim(line);
+        if (trimmed.length() == 0) {
+          continue;
+        }
+        // Parsed on another thread after the source has moved on, so copied out here
+        String text = trimmed.toString();
+        texts.add(text);
+        lineNumbers.add(lineNumber);
+        if (CommandLines.isExit(text)) {
+          break;
+        }
+        if (texts.size() == BATCH_SIZE) {
+          batches.put(submit(parsers, parser, texts, lineNumbers));
+          texts = new ArrayList<>(BATCH_SIZE);
+          lineNumbers = new ArrayList<>(BATCH_SIZE);
+        }
+      }
+    } catch (IOException e) {
+      readError = e;
+    } catch (InterruptedException e) {
+      return;
+    }
+
+    try {
+      if (!texts.isEmpty()) {
+        batches.put(submit(parsers, parser, texts, lineNumbers));
+      }
+      batches.put(CompletableFuture.completedFuture(Batch.end(readError)));
+    } catch (InterruptedException e) {
+      // Stopped by the controller, which no longer waits for the end
+    }
+  }
+
+  private Future<Batch> submit(ExecutorService parsers, ThreadLocal<CommandParserImpl> parser,
+                               List<String> texts, List<Long> lineNumbers) {
+    return parsers.submit(() -> {
+      Batch batch = new Batch(texts.size());
+      CommandParserImpl commandParser = parser.get();
+      for (int i = 0; i < batch.size; i++) {
+        batch.lineNumbers[i] = lineNumbers.get(i);
+        try {
+          batch.commands[i] = commandParser.parse(texts.get(i));
+        } catch (RuntimeException e) {
+          batch.failures[i] = e;
+        }
+      }
+      return batch;
+    });
+  }
+
+  /**
+   * Parsed commands for consecutive non-blank lines of a script. A null command with no
+   * failure is the exit command.
+   */
+  private static class Batch {
+    private final int size;
+    private final long[] lineNumbers;
+    private final Command[] commands;
+    private final RuntimeException[] failures;
+    private boolean last;
+    private IOException readError;
+
+    Batch(int size) {
+      this.size = size;
+      this.lineNumbers = new long[size];
+      this.commands = new Command[size];
+      this.failures = new RuntimeException[size];
+    }
+
+    /**
+     * Creates the empty batch that marks the end of the script.
+     */
+    static Batch end(IOException readError) {
+      Batch batch = new Batch(0);
+      batch.last = true;
+      batch.readError = readError;
+      return batch;
+    }
+  }
+}
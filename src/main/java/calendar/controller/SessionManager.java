@@ -0,0 +1,173 @@
+package calendar.controller;
+
+import calendar.controller.commands.Command;
+import calendar.controller.commands.CopyCommand;
+import calendar.controller.commands.CreateCalendarCommand;
+import calendar.controller.commands.EditCalendarCommand;
+import calendar.controller.commands.ExportAllCommand;
+import calendar.model.Calendar;
+import calendar.model.CalendarManager;
+import calendar.model.exceptions.DuplicateEventException;
+import calendar.view.View;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Calendar manager seen by one client of a server: the calendars are shared with every other
+ * client, but the active calendar belongs to the session, so clients never switch each
+ * other's calendar. Commands are run through {@link #execute}, which holds the lock over the
+ * set of calendars for reading and the active calendar's lock, so clients using different
+ * calendars run at the same time; commands that change which calendars exist or touch more
+ * than one hold the lock over the set of calendars for writing. Batches stage changes on the
+ * shared manager, so they cannot be used here.
+ */
+class SessionManager implements CalendarManager {
+
+  private final CalendarManager manager;
+  private final CalendarLocks locks;
+  private volatile Calendar activeCalendar;
+
+  /**
+   * Creates a SessionManager with no calendar in use.
+   *
+   * @param manager the shared manager
+   * @param locks   the locks every session of the shared manager holds while running commands
+   */
+  SessionManager(CalendarManager manager, CalendarLocks locks) {
+    this.manager = manager;
+    this.locks = locks;
+  }
+
+  /**
+   * Runs a command for the session, holding the locks the command needs.
+   *
+   * @param command the command to run
+   * @param view    the view for the command's output
+   * @throws Exception if the command fails
+   */
+  void execute(Command command, View view) throws Exception {
+    if (command instanceof CreateCalendarCommand || command instanceof EditCalendarCommand
+        || command instanceof CopyCommand || command instanceof ExportAllCommand) {
+      locks.calendars().writeLock().lock();
+      try {
+        command.execute(this, view);
+      } finally {
+        locks.calendars().writeLock().unlock();
+      }
+      return;
+    }
+
+    locks.calendars().readLock().lock();
+    try {
+      Calendar calendar = activeCalendar;
+      if (calendar == null) {
+        command.execute(this, view);
+        return;
+      }
+      Lock calendarLock = locks.forCalendar(calendar);
+      calendarLock.lock();
+      try {
+        command.execute(this, view);
+      } finally {
+        calendarLock.unlock();
+      }
+    } finally {
+      locks.calendars().readLock().unlock();
+    }
+  }
+
+  @Override
+  public void createCalendar(String name, ZoneId timeZone) {
+    manager.createCalendar(name, timeZone);
+  }
+
+  @Override
+  public void useCalendar(String name) {
+    for (Calendar calendar : manager.getAllCalendars()) {
+      if (calendar.getCalendarName().equals(name)) {
+        activeCalendar = calendar;
+        return;
+      }
+    }
+    throw new IllegalArgumentException("Calendar with name " + name + " does not exist.");
+  }
+
+  @Override
+  public Calendar getActiveCalendar() {
+    return activeCalendar;
+  }
+
+  @Override
+  public List<Calendar> getAllCalendars() {
+    return manager.getAllCalendars();
+  }
+
+  @Override
+  public void editCalendar(String name, String property, Object newValue) {
+    manager.editCalendar(name, property, newValue);
+  }
+
+  @Override
+  public void copyEvent(String eventName, LocalDateTime sourceDateTime, String targetCalendarName,
+                        LocalDateTime targetDateTime) throws DuplicateEventException {
+    useSessionCalendar();
+    manager.copyEvent(eventName, sourceDateTime, targetCalendarName, targetDateTime);
+  }
+
+  @Override
+  public void copyEventsOnDate(LocalDate sourceDate, String targetCalendarName,
+                               LocalDate targetDate) throws DuplicateEventException {
+    useSessionCalendar();
+    manager.copyEventsOnDate(sourceDate, targetCalendarName, targetDate);
+  }
+
+  @Override
+  public void copyEventsBetween(LocalDate startDate, LocalDate endDate, String targetCalendarName,
+                                LocalDate targetStartDate) throws DuplicateEventException {
+    useSessionCalendar();
+    manager.copyEventsBetween(startDate, endDate, targetCalendarName, targetStartDate);
+  }
+
+  @Override
+  public void beginBatch() {
+    throw noBatches();
+  }
+
+  @Override
+  public int commitBatch() {
+    throw noBatches();
+  }
+
+  @Override
+  public void rollbackBatch() {
+    throw noBatches();
+  }
+
+  @Override
+  public boolean isBatchOpen() {
+    return false;
+  }
+
+  @Override
+  public void lineStarted(long lineNumber) {
+    // Sessions cannot open batches, so there is nothing to name the line for
+  }
+
+  /**
+   * Makes the session's calendar the shared manager's active one, as copies copy from it.
+   * Only called while holding the lock for writing.
+   */
+  private void useSessionCalendar() {
+    if (activeCalendar == null) {
+      throw new IllegalStateException("No active calendar selected.");
+    }
+    manager.useCalendar(activeCalendar.getCalendarName());
+  }
+
+  private IllegalStateException noBatches() {
+    return new IllegalStateException("Batches cannot be used while calendars are shared");
+  }
+}
@@ -0,0 +1,282 @@
+package calendar.controller;
+
+import calendar.controller.commands.Command;
+import calendar.controller.utils.CommandParser;
+import calendar.controller.utils.CommandParserImpl;
+import calendar.controller.utils.DataDirectory;
+import calendar.model.CalendarManager;
+import calendar.view.JsonLinesView;
+import calendar.view.View;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Controller that serves the calendar manager over plain TCP connections, each speaking the
+ * headless command language one line at a time. Every connection has its own parser and a
+ * session with its own active calendar over the calendars all clients share, and is served by
+ * its own virtual thread when the Java runtime has them. Replies are JSON lines, the records
+ * {@link JsonLinesView} writes, whose line is the number of the line on the connection that
+ * the command came from. A client need not wait for a reply before sending its next command:
+ * replies are held back while more commands are waiting to be read and written out together,
+ * so a client streaming commands gets its replies in a few large writes. Connections beyond
+ * the client limit are sent an error and closed. The server listens on the loopback address
+ * unless another is given, and imports and exports files only in its data directory.
+ */
+public class SocketServerController implements Controller {
+
+  private static final int READ_BUFFER_SIZE = 1 << 16;
+
+  private final CalendarManager manager;
+  private final View view;
+  private final InetAddress bindAddress;
+  private final int port;
+  private final DataDirectory files;
+  private final Semaphore clients;
+  private final CalendarLocks locks;
+  private final Set<Socket> connections;
+  private final CountDownLatch stopped;
+  private ServerSocket serverSocket;
+  private ExecutorService executor;
+
+  /**
+   * Creates a SocketServerController that listens on the loopback address and keeps files in
+   * the working directory.
+   *
+   * @param manager    the calendar manager every client shares
+   * @param view       the view to report the server's address on
+   * @param port       the port to listen on, or 0 for any free port
+   * @param maxClients the most clients connected at once
+   * @throws IllegalArgumentException if the port is out of range or maxClients is not positive
+   */
+  public SocketServerController(CalendarManager manager, View view, int port, int maxClients) {
+    this(manager, view, InetAddress.getLoopbackAddress(), port, maxClients,
+        new DataDirectory(Paths.get("")));
+  }
+
+  /**
+   * Creates a SocketServerController.
+   *
+   * @param manager     the calendar manager every client shares
+   * @param view        the view to report the server's address on
+   * @param bindAddress the address to listen on
+   * @param port        the port to listen on, or 0 for any free port
+   * @param maxClients  the most clients connected at once
+   * @param files       the directory imported and exported files are kept in
+   * @throws IllegalArgumentException if the port is out of range or maxClients is not positive
+   */
+  public SocketServerController(CalendarManager manager, View view, InetAddress bindAddress,
+                                int port, int maxClients, DataDirectory files) {
+    if (port < 0 || port > 65535) {
+      throw new IllegalArgumentException("Port must be between 0 and 65535");
+    }
+    if (maxClients <= 0) {
+      throw new IllegalArgumentException("Client limit must be positive");
+    }
+    this.manager = manager;
+    this.view = view;
+    this.bindAddress = bindAddress;
+    this.port = port;
+    this.files = files;
+    this.clients = new Semaphore(maxClients);
+    this.locks = new CalendarLocks();
+    this.connections = ConcurrentHashMap.newKeySet();
+    this.stopped = new CountDownLatch(1);
+  }
+
+  /**
+   * Serves clients until {@link #stop()} is called.
+   */
+  @Override
+  public void run() {
+    try {
+      start();
+    } catch (IOException e) {
+      view.displayError("Cannot start server: " + e.getMessage());
+      view.flush();
+      return;
+    }
+    view.displayMessage("Listening on " + HttpServerController.hostString(bindAddress) + ":"
+        + getPort());
+    view.flush();
+    try {
+      stopped.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      stop();
+    }
+  }
+
+  /**
+   * Starts accepting clients without waiting for the server to stop.
+   *
+   * @throws IOException if the port cannot be listened on
+   */
+  public synchronized void start() throws IOException {
+    if (serverSocket != null) {
+      throw new IllegalStateException("Server already started");
+    }
+    serverSocket = new ServerSocket(port, 0, bindAddress);
+    executor = TaskExecutors.newPerConnectionExecutor("socket-client");
+    Thread acceptor = new Thread(this::acceptClients, "socket-accept");
+    acceptor.setDaemon(true);
+    acceptor.start();
+  }
+
+  /**
+   * Gets the port the server listens on, which is chosen by the system if 0 was asked for.
+   *
+   * @return the port
+   * @throws IllegalStateException if the server has not been started
+   */
+  public synchronized int getPort() {
+    if (serverSocket == null) {
+      throw new IllegalStateException("Server not started");
+    }
+    return serverSocket.getLocalPort();
+  }
+
+  /**
+   * Gets the address the server listens on.
+   *
+   * @return the address
+   * @throws IllegalStateException if the server has not been started
+   */
+  public synchronized InetAddress getAddress() {
+    if (serverSocket == null) {
+      throw new IllegalStateException("Server not started");
+    }
+    return serverSocket.getInetAddress();
+  }
+
+  /**
+   * Stops the server, closing every client's connection.
+   */
+  public synchronized void stop() {
+    if (serverSocket != null) {
+      closeQuietly(serverSocket);
+      for (Socket connection : connections) {
+        closeQuietly(connection);
+      }
+      executor.shutdown();
+    }
+    stopped.countDown();
+  }
+
+  /**
+   * Accepts connections until the server socket is closed, turning away clients over the
+   * limit.
+   */
+  private void acceptClients() {
+    while (true) {
+      Socket socket;
+      try {
+        socket = serverSocket.accept();
+      } catch (IOException e) {
+        if (serverSocket.isClosed()) {
+          return;
+        }
+        continue;
+      }
+      if (!clients.tryAcquire()) {
+        refuse(socket);
+        continue;
+      }
+      connections.add(socket);
+      try {
+        executor.execute(() -> serve(socket));
+      } catch (RuntimeException e) {
+        connections.remove(socket);
+        clients.release();
+        closeQuietly(socket);
+      }
+    }
+  }
+
+  /**
+   * Runs a client's commands until it sends exit or closes its connection.
+   */
+  private void serve(Socket socket) {
+    try {
+      socket.setTcpNoDelay(true);
+      BufferedReader reader = new BufferedReader(new InputStreamReader(
+          socket.getInputStream(), StandardCharsets.UTF_8), READ_BUFFER_SIZE);
+      JsonLinesView output = new JsonLinesView(socket.getOutputStream(), false);
+      runCommands(reader, output);
+      output.flush();
+    } catch (IOException e) {
+      // The client went away; its session goes with it
+    } finally {
+      connections.remove(socket);
+      clients.release();
+      closeQuietly(socket);
+    }
+  }
+
+  /**
+   * Reads and runs commands in order, writing replies out whenever no more commands are
+   * waiting to be read.
+   */
+  private void runCommands(BufferedReader reader, JsonLinesView output) throws IOException {
+    CommandParser parser = new CommandParserImpl(files);
+    SessionManager session = new SessionManager(manager, locks);
+    long lineNumber = 0;
+    String line;
+    while ((line = reader.readLine()) != null) {
+      String commandLine = line.trim();
+      lineNumber++;
+      if (commandLine.equals("exit")) {
+        return;
+      }
+      if (!commandLine.isEmpty()) {
+        output.lineStarted(lineNumber);
+        try {
+          Command command = parser.parse(commandLine);
+          output.commandStarted(command.getClass().getSimpleName());
+          session.execute(command, output);
+        } catch (IllegalArgumentException e) {
+          output.commandFailed(e);
+          output.displayError("Invalid command: " + e.getMessage());
+        } catch (Exception e) {
+          output.commandFailed(e);
+          output.displayError("Error executing command: " + e.getMessage());
+        }
+      }
+      if (!reader.ready()) {
+        output.flush();
+        if (output.checkError()) {
+          return;
+        }
+      }
+    }
+  }
+
+  private static void refuse(Socket socket) {
+    try {
+      JsonLinesView output = new JsonLinesView(socket.getOutputStream(), false);
+      output.displayError("Server is busy, try again later");
+      output.flush();
+    } catch (IOException e) {
+      // Closed below either way
+    }
+    closeQuietly(socket);
+  }
+
+  private static void closeQuietly(AutoCloseable closeable) {
+    try {
+      closeable.close();
+    } catch (Exception e) {
+      // Nothing more can be done for a connection that cannot be closed
+    }
+  }
+}
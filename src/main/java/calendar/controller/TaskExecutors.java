@@ -0,0 +1,62 @@
+package calendar.controller;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Creates executors for tasks that spend most of their time waiting, such as scripts writing
+ * their output or requests waiting on a client, so each can have its own thread.
+ */
+final class TaskExecutors {
+
+  private TaskExecutors() {
+  }
+
+  /**
+   * Creates an executor that starts a virtual thread per task if the runtime supports them,
+   * or a pool with a few platform threads per processor otherwise.
+   *
+   * @param threadName the name of the pool's platform threads
+   * @return the new executor
+   */
+  static ExecutorService newPerTaskExecutor(String threadName) {
+    ExecutorService virtualThreads = newVirtualThreadExecutor();
+    if (virtualThreads != null) {
+      return virtualThreads;
+    }
+    return Executors.newFixedThreadPool(4 * Runtime.getRuntime().availableProcessors(),
+        runnable -> newDaemonThread(runnable, threadName));
+  }
+
+  /**
+   * Creates an executor for tasks that last as long as a client stays connected, so none may
+   * wait for another to end: a virtual thread per task if the runtime supports them, or a
+   * platform thread per task otherwise, which the caller limits by limiting its clients.
+   *
+   * @param threadName the name of the platform threads
+   * @return the new executor
+   */
+  static ExecutorService newPerConnectionExecutor(String threadName) {
+    ExecutorService virtualThreads = newVirtualThreadExecutor();
+    if (virtualThreads != null) {
+      return virtualThreads;
+    }
+    return Executors.newCachedThreadPool(runnable -> newDaemonThread(runnable, threadName));
+  }
+
+  private static ExecutorService newVirtualThreadExecutor() {
+    try {
+      Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return (ExecutorService) factory.invoke(null);
+    } catch (ReflectiveOperationException e) {
+      return null;
+    }
+  }
+
+  private static Thread newDaemonThread(Runnable runnable, String threadName) {
+    Thread thread = new Thread(runnable, threadName);
+    thread.setDaemon(true);
+    return thread;
+  }
+}
@@ -0,0 +1,18 @@
+package calendar.controller.commands;
+
+import calendar.model.CalendarManager;
+import calendar.view.View;
+
+/**
+ * Command to open a batch on the active calendar, staging its changes until the batch is
+ * committed or rolled back.
+ */
+public class BeginBatchCommand implements Command {
+
+  @Override
+  public void execute(CalendarManager manager, View view) throws Exception {
+    manager.beginBatch();
+    view.displayMessage("Batch started on calendar: "
+        + manager.getActiveCalendar().getCalendarName());
+  }
+}
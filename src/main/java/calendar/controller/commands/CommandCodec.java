@@ -0,0 +1,356 @@
+package calendar.controller.commands;
+
+import calendar.model.EventStatus;
+import calendar.model.LocationType;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Writes parsed commands to and reads them back from a compact binary form, so a script can
+ * be parsed once and replayed many times. Each command is written as a one-byte kind followed
+ * by its arguments; reading it back gives a command that does exactly what the original does.
+ * Only commands built by the command parser can be written: commands holding a custom
+ * exporter or importer cannot.
+ */
+public final class CommandCodec {
+
+  private static final int CREATE_CALENDAR = 1;
+  private static final int EDIT_CALENDAR = 2;
+  private static final int USE_CALENDAR = 3;
+  private static final int CREATE_EVENT = 4;
+  private static final int EDIT_EVENT = 5;
+  private static final int COPY_EVENT = 6;
+  private static final int COPY_EVENTS_ON_DATE = 7;
+  private static final int COPY_EVENTS_BETWEEN = 8;
+  private static final int PRINT_EVENTS = 9;
+  private static final int SHOW_STATUS = 10;
+  private static final int EXPORT = 11;
+  private static final int EXPORT_ALL = 12;
+  private static final int IMPORT = 13;
+  private static final int BEGIN_BATCH = 14;
+  private static final int COMMIT_BATCH = 15;
+  private static final int ROLLBACK_BATCH = 16;
+
+  private static final int NO_DATE_TIME = 0;
+  private static final int MINUTE_DATE_TIME = 1;
+  private static final int FULL_DATE_TIME = 2;
+
+  private static final int STRING_VALUE = 0;
+  private static final int LOCATION_VALUE = 1;
+  private static final int DATE_TIME_VALUE = 2;
+  private static final int STATUS_VALUE = 3;
+  private static final int ZONE_VALUE = 4;
+
+  /** Longest string that is written or read, in UTF-8 bytes, so a corrupt length is caught. */
+  static final int MAX_STRING_LENGTH = 1 << 20;
+
+  private CommandCodec() {
+  }
+
+  /**
+   * Writes a command.
+   *
+   * @param command the command to write
+   * @param out     the output to write to
+   * @throws IOException              if writing fails
+   * @throws IllegalArgumentException if the command cannot be written
+   */
+  public static void write(Command command, DataOutput out) throws IOException {
+    if (command instanceof CreateCalendarCommand) {
+      out.writeByte(CREATE_CALENDAR);
+      ((CreateCalendarCommand) command).write(out);
+    } else if (command instanceof EditCalendarCommand) {
+      out.writeByte(EDIT_CALENDAR);
+      ((EditCalendarCommand) command).write(out);
+    } else if (command instanceof UseCalendarCommand) {
+      out.writeByte(USE_CALENDAR);
+      ((UseCalendarCommand) command).write(out);
+    } else if (command instanceof CreateEventCommand) {
+      out.writeByte(CREATE_EVENT);
+      ((CreateEventCommand) command).write(out);
+    } else if (command instanceof EditEventCommand) {
+      out.writeByte(EDIT_EVENT);
+      ((EditEventCommand) command).write(out);
+    } else if (command instanceof CopyEventCommand) {
+      out.writeByte(COPY_EVENT);
+      ((CopyEventCommand) command).write(out);
+    } else if (command instanceof CopyEventsOnDateCommand) {
+      out.writeByte(COPY_EVENTS_ON_DATE);
+      ((CopyEventsOnDateCommand) command).write(out);
+    } else if (command instanceof CopyEventsBetweenCommand) {
+      out.writeByte(COPY_EVENTS_BETWEEN);
+      ((CopyEventsBetweenCommand) command).write(out);
+    } else if (command instanceof PrintEventsCommand) {
+      out.writeByte(PRINT_EVENTS);
+      ((PrintEventsCommand) command).write(out);
+    } else if (command instanceof ShowStatusCommand) {
+      out.writeByte(SHOW_STATUS);
+      ((ShowStatusCommand) command).write(out);
+    } else if (command instanceof ExportCommand) {
+      out.writeByte(EXPORT);
+      ((ExportCommand) command).write(out);
+    } else if (command instanceof ExportAllCommand) {
+      out.writeByte(EXPORT_ALL);
+      ((ExportAllCommand) command).write(out);
+    } else if (command instanceof ImportCommand) {
+      out.writeByte(IMPORT);
+      ((ImportCommand) command).write(out);
+    } else if (command instanceof BeginBatchCommand) {
+      out.writeByte(BEGIN_BATCH);
+    } else if (command instanceof CommitBatchCommand) {
+      out.writeByte(COMMIT_BATCH);
+    } else if (command instanceof RollbackBatchCommand) {
+      out.writeByte(ROLLBACK_BATCH);
+    } else {
+      throw new IllegalArgumentException("Cannot compile command: "
+          + (command == null ? null : command.getClass().getSimpleName()));
+    }
+  }
+
+  /**
+   * Reads a command written by {@link #write(Command, DataOutput)}.
+   *
+   * @param in the input to read from
+   * @return the command
+   * @throws IOException if reading fails, the input ends early, or it holds no command
+   */
+  public static Command read(DataInput in) throws IOException {
+    int kind = in.readUnsignedByte();
+    switch (kind) {
+      case CREATE_CALENDAR:
+        return CreateCalendarCommand.read(in);
+      case EDIT_CALENDAR:
+        return EditCalendarCommand.read(in);
+      case USE_CALENDAR:
+        return UseCalendarCommand.read(in);
+      case CREATE_EVENT:
+        return CreateEventCommand.read(in);
+      case EDIT_EVENT:
+        return EditEventCommand.read(in);
+      case COPY_EVENT:
+        return CopyEventCommand.read(in);
+      case COPY_EVENTS_ON_DATE:
+        return CopyEventsOnDateCommand.read(in);
+      case COPY_EVENTS_BETWEEN:
+        return CopyEventsBetweenCommand.read(in);
+      case PRINT_EVENTS:
+        return PrintEventsCommand.read(in);
+      case SHOW_STATUS:
+        return ShowStatusCommand.read(in);
+      case EXPORT:
+        return ExportCommand.read(in);
+      case EXPORT_ALL:
+        return ExportAllCommand.read(in);
+      case IMPORT:
+        return ImportCommand.read(in);
+      case BEGIN_BATCH:
+        return new BeginBatchCommand();
+      case COMMIT_BATCH:
+        return new CommitBatchCommand();
+      case ROLLBACK_BATCH:
+        return new RollbackBatchCommand();
+      default:
+        throw new IOException("Unknown command kind: " + kind);
+    }
+  }
+
+  /**
+   * Writes a string as its UTF-8 length, in as few bytes as it fits in, then its bytes.
+   *
+   * @throws IllegalArgumentException if the string is longer than {@link #MAX_STRING_LENGTH}
+   */
+  static void writeString(String value, DataOutput out) throws IOException {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    int length = bytes.length;
+    if (length > MAX_STRING_LENGTH) {
+      throw new IllegalArgumentException("Cannot compile a value of " + length + " bytes");
+    }
+    while (length >= 0x80) {
+      out.writeByte(length & 0x7f | 0x80);
+      length >>>= 7;
+    }
+    out.writeByte(length);
+    out.write(bytes);
+  }
+
+  static String readString(DataInput in) throws IOException {
+    int length = 0;
+    int shift = 0;
+    int b;
+    do {
+      if (shift > 28) {
+        throw new IOException("Corrupt string length");
+      }
+      b = in.readUnsignedByte();
+      length |= (b & 0x7f) << shift;
+      shift += 7;
+    } while ((b & 0x80) != 0);
+    if (length < 0 || length > MAX_STRING_LENGTH) {
+      throw new IOException("Corrupt string length: " + length);
+    }
+    byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Writes a string that may be null.
+   */
+  static void writeOptionalString(String value, DataOutput out) throws IOException {
+    out.writeBoolean(value != null);
+    if (value != null) {
+      writeString(value, out);
+    }
+  }
+
+  static String readOptionalString(DataInput in) throws IOException {
+    return in.readBoolean() ? readString(in) : null;
+  }
+
+  /**
+   * Writes an enum constant by its name, which stays the same when constants are added or
+   * reordered.
+   */
+  static void writeEnum(Enum<?> value, DataOutput out) throws IOException {
+    writeString(value.name(), out);
+  }
+
+  static <E extends Enum<E>> E readEnum(Class<E> type, DataInput in) throws IOException {
+    String name = readString(in);
+    try {
+      return Enum.valueOf(type, name);
+    } catch (IllegalArgumentException e) {
+      throw new IOException("Unknown " + type.getSimpleName() + ": " + name);
+    }
+  }
+
+  /**
+   * Writes a date that may be null.
+   */
+  static void writeDate(LocalDate date, DataOutput out) throws IOException {
+    out.writeBoolean(date != null);
+    if (date != null) {
+      out.writeLong(date.toEpochDay());
+    }
+  }
+
+  static LocalDate readDate(DataInput in) throws IOException {
+    return in.readBoolean() ? LocalDate.ofEpochDay(in.readLong()) : null;
+  }
+
+  /**
+   * Writes a date and time that may be null. Times on a whole minute, as commands give them,
+   * are written as a count of minutes in four bytes.
+   */
+  static void writeDateTime(LocalDateTime dateTime, DataOutput out) throws IOException {
+    if (dateTime == null) {
+      out.writeByte(NO_DATE_TIME);
+      return;
+    }
+    long epochSecond = dateTime.toEpochSecond(ZoneOffset.UTC);
+    long epochMinute = epochSecond / 60;
+    if (epochSecond % 60 == 0 && dateTime.getNano() == 0 && (int) epochMinute == epochMinute) {
+      out.writeByte(MINUTE_DATE_TIME);
+      out.writeInt((int) epochMinute);
+    } else {
+      out.writeByte(FULL_DATE_TIME);
+      out.writeLong(epochSecond);
+      out.writeInt(dateTime.getNano());
+    }
+  }
+
+  static LocalDateTime readDateTime(DataInput in) throws IOException {
+    int form = in.readUnsignedByte();
+    switch (form) {
+      case NO_DATE_TIME:
+        return null;
+      case MINUTE_DATE_TIME:
+        return LocalDateTime.ofEpochSecond(in.readInt() * 60L, 0, ZoneOffset.UTC);
+      case FULL_DATE_TIME:
+        long epochSecond = in.readLong();
+        return LocalDateTime.ofEpochSecond(epochSecond, in.readInt(), ZoneOffset.UTC);
+      default:
+        throw new IOException("Unknown date and time form: " + form);
+    }
+  }
+
+  /**
+   * Writes a set of weekdays, which may be null, as one bit per day.
+   */
+  static void writeWeekdays(Set<DayOfWeek> weekdays, DataOutput out) throws IOException {
+    int bits = 0;
+    if (weekdays != null) {
+      for (DayOfWeek day : weekdays) {
+        bits |= 1 << day.ordinal();
+      }
+    }
+    out.writeByte(weekdays == null ? -1 : bits);
+  }
+
+  static Set<DayOfWeek> readWeekdays(DataInput in) throws IOException {
+    int bits = in.readByte();
+    if (bits == -1) {
+      return null;
+    }
+    Set<DayOfWeek> weekdays = EnumSet.noneOf(DayOfWeek.class);
+    for (DayOfWeek day : DayOfWeek.values()) {
+      if ((bits & 1 << day.ordinal()) != 0) {
+        weekdays.add(day);
+      }
+    }
+    return weekdays;
+  }
+
+  /**
+   * Writes the new value of an edited property.
+   *
+   * @throws IllegalArgumentException if the value's type cannot be written
+   */
+  static void writeValue(Object value, DataOutput out) throws IOException {
+    if (value instanceof String) {
+      out.writeByte(STRING_VALUE);
+      writeString((String) value, out);
+    } else if (value instanceof LocationType) {
+      out.writeByte(LOCATION_VALUE);
+      writeEnum((LocationType) value, out);
+    } else if (value instanceof LocalDateTime) {
+      out.writeByte(DATE_TIME_VALUE);
+      writeDateTime((LocalDateTime) value, out);
+    } else if (value instanceof EventStatus) {
+      out.writeByte(STATUS_VALUE);
+      writeEnum((EventStatus) value, out);
+    } else if (value instanceof ZoneId) {
+      out.writeByte(ZONE_VALUE);
+      writeString(((ZoneId) value).getId(), out);
+    } else {
+      throw new IllegalArgumentException("Cannot compile property value: " + value);
+    }
+  }
+
+  static Object readValue(DataInput in) throws IOException {
+    int type = in.readUnsignedByte();
+    switch (type) {
+      case STRING_VALUE:
+        return readString(in);
+      case LOCATION_VALUE:
+        return readEnum(LocationType.class, in);
+      case DATE_TIME_VALUE:
+        return readDateTime(in);
+      case STATUS_VALUE:
+        return readEnum(EventStatus.class, in);
+      case ZONE_VALUE:
+        return ZoneId.of(readString(in));
+      default:
+        throw new IOException("Unknown property value type: " + type);
+    }
+  }
+}
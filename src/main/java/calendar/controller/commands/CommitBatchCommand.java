@@ -0,0 +1,24 @@
+package calendar.controller.commands;
+
+import calendar.model.CalendarManager;
+import calendar.model.exceptions.DuplicateEventException;
+import calendar.model.exceptions.EventNotFoundException;
+import calendar.model.exceptions.UnclearEventException;
+import calendar.view.View;
+
+/**
+ * Command to make every change staged in the open batch. If any of them fails, none is made.
+ */
+public class CommitBatchCommand implements Command {
+
+  @Override
+  public void execute(CalendarManager manager, View view) throws Exception {
+    int changeCount;
+    try {
+      changeCount = manager.commitBatch();
+    } catch (DuplicateEventException | EventNotFoundException | UnclearEventException e) {
+      throw new IllegalStateException("Batch rolled back: " + e.getMessage(), e);
+    }
+    view.displayMessage("Batch committed: " + changeCount + " changes");
+  }
+}
@@ -0,0 +1,15 @@
+package calendar.controller.commands;
+
+/**
+ * A command that copies events from the active calendar into another calendar, so it
+ * touches both of them.
+ */
+public interface CopyCommand extends Command {
+
+  /**
+   * Gets the name of the calendar events are copied into.
+   *
+   * @return the target calendar name
+   */
+  String getTargetCalendarName();
+}
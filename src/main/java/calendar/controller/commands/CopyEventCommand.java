@@ -2,12 +2,15 @@ package calendar.controller.commands;
 
 import calendar.model.CalendarManager;
 import calendar.view.View;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.time.LocalDateTime;
 
 /**
  * Command to copy a single event to another calendar.
  */
-public class CopyEventCommand implements Command {
+public class CopyEventCommand implements CopyCommand {
 
   private final String eventName;
   private final LocalDateTime sourceDateTime;
@@ -30,6 +33,32 @@ public class CopyEventCommand implements Command {
     this.targetDateTime = targetDateTime;
   }
 
+  /**
+   * Writes the command's arguments for {@link CommandCodec}.
+   */
+  void write(DataOutput out) throws IOException {
+    CommandCodec.writeString(eventName, out);
+    CommandCodec.writeDateTime(sourceDateTime, out);
+    CommandCodec.writeString(targetCalendarName, out);
+    CommandCodec.writeDateTime(targetDateTime, out);
+  }
+
+  /**
+   * Reads a command written by {@link #write(DataOutput)}.
+   */
+  static CopyEventCommand read(DataInput in) throws IOException {
+    String eventName = CommandCodec.readString(in);
+    LocalDateTime sourceDateTime = CommandCodec.readDateTime(in);
+    String targetCalendarName = CommandCodec.readString(in);
+    return new CopyEventCommand(eventName, sourceDateTime, targetCalendarName,
+        CommandCodec.readDateTime(in));
+  }
+
+  @Override
+  public String getTargetCalendarName() {
+    return targetCalendarName;
+  }
+
   @Override
   public void execute(CalendarManager manager, View view) throws Exception {
     if (manager.getActiveCalendar() == null) {
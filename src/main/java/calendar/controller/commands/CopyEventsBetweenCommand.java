@@ -2,12 +2,15 @@ package calendar.controller.commands;
 
 import calendar.model.CalendarManager;
 import calendar.view.View;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.time.LocalDate;
 
 /**
  * Command to copy events between two dates to another calendar.
  */
-public class CopyEventsBetweenCommand implements Command {
+public class CopyEventsBetweenCommand implements CopyCommand {
 
   private final LocalDate startDate;
   private final LocalDate endDate;
@@ -30,6 +33,32 @@ public class CopyEventsBetweenCommand implements Command {
     this.targetStartDate = targetStartDate;
   }
 
+  /**
+   * Writes the command's arguments for {@link CommandCodec}.
+   */
+  void write(DataOutput out) throws IOException {
+    CommandCodec.writeDate(startDate, out);
+    CommandCodec.writeDate(endDate, out);
+    CommandCodec.writeString(targetCalendarName, out);
+    CommandCodec.writeDate(targetStartDate, out);
+  }
+
+  /**
+   * Reads a command written by {@link #write(DataOutput)}.
+   */
+  static CopyEventsBetweenCommand read(DataInput in) throws IOException {
+    LocalDate startDate = CommandCodec.readDate(in);
+    LocalDate endDate = CommandCodec.readDate(in);
+    String targetCalendarName = CommandCodec.readString(in);
+    return new CopyEventsBetweenCommand(startDate, endDate, targetCalendarName,
+        CommandCodec.readDate(in));
+  }
+
+  @Override
+  public String getTargetCalendarName() {
+    return targetCalendarName;
+  }
+
   @Override
   public void execute(CalendarManager manager, View view) throws Exception {
     if (manager.getActiveCalendar() == null) {
@@ -2,12 +2,15 @@ package calendar.controller.commands;
 
 import calendar.model.CalendarManager;
 import calendar.view.View;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.time.LocalDate;
 
 /**
  * Command to copy all events on a specific date to another calendar.
  */
-public class CopyEventsOnDateCommand implements Command {
+public class CopyEventsOnDateCommand implements CopyCommand {
 
   private final LocalDate sourceDate;
   private final String targetCalendarName;
@@ -27,6 +30,29 @@ public class CopyEventsOnDateCommand implements Command {
     this.targetDate = targetDate;
   }
 
+  /**
+   * Writes the command's arguments for {@link CommandCodec}.
+   */
+  void write(DataOutput out) throws IOException {
+    CommandCodec.writeDate(sourceDate, out);
+    CommandCodec.writeString(targetCalendarName, out);
+    CommandCodec.writeDate(targetDate, out);
+  }
+
+  /**
+   * Reads a command written by {@link #write(DataOutput)}.
+   */
+  static CopyEventsOnDateCommand read(DataInput in) throws IOException {
+    LocalDate sourceDate = CommandCodec.readDate(in);
+    String targetCalendarName = CommandCodec.readString(in);
+    return new CopyEventsOnDateCommand(sourceDate, targetCalendarName, CommandCodec.readDate(in));
+  }
+
+  @Override
+  public String getTargetCalendarName() {
+    return targetCalendarName;
+  }
+
   @Override
   public void execute(CalendarManager manager, View view) throws Exception {
     if (manager.getActiveCalendar() == null) {
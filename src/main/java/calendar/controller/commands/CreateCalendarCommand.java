@@ -2,6 +2,9 @@ package calendar.controller.commands;
 
 import calendar.model.CalendarManager;
 import calendar.view.View;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.time.ZoneId;
 
 /**
@@ -23,6 +26,22 @@ public class CreateCalendarCommand implements Command {
     this.timeZone = timeZone;
   }
 
+  /**
+   * Writes the command's arguments for {@link CommandCodec}.
+   */
+  void write(DataOutput out) throws IOException {
+    CommandCodec.writeString(name, out);
+    CommandCodec.writeString(timeZone.getId(), out);
+  }
+
+  /**
+   * Reads a command written by {@link #write(DataOutput)}.
+   */
+  static CreateCalendarCommand read(DataInput in) throws IOException {
+    String name = CommandCodec.readString(in);
+    return new CreateCalendarCommand(name, ZoneId.of(CommandCodec.readString(in)));
+  }
+
   @Override
   public void execute(CalendarManager manager, View view) throws Exception {
     manager.createCalendar(name, timeZone);
@@ -3,6 +3,9 @@ package calendar.controller.commands;
 import calendar.model.Calendar;
 import calendar.model.CalendarManager;
 import calendar.view.View;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -113,6 +116,49 @@ public class CreateEventCommand implements Command {
     this.seriesEndDate = endDate;
   }
 
+  private CreateEventCommand(String subject, LocalDateTime startDateTime,
+                             LocalDateTime endDateTime, boolean isAllDay, boolean isSeries,
+                             Set<DayOfWeek> weekdays, Integer occurrences,
+                             LocalDate seriesEndDate) {
+    this.subject = subject;
+    this.startDateTime = startDateTime;
+    this.endDateTime = endDateTime;
+    this.isAllDay = isAllDay;
+    this.isSeries = isSeries;
+    this.weekdays = weekdays;
+    this.occurrences = occurrences;
+    this.seriesEndDate = seriesEndDate;
+  }
+
+  /**
+   * Writes the command's arguments for {@link CommandCodec}.
+   */
+  void write(DataOutput out) throws IOException {
+    CommandCodec.writeString(subject, out);
+    CommandCodec.writeDateTime(startDateTime, out);
+    CommandCodec.writeDateTime(endDateTime, out);
+    out.writeBoolean(isAllDay);
+    out.writeBoolean(isSeries);
+    CommandCodec.writeWeekdays(weekdays, out);
+    out.writeInt(occurrences == null ? -1 : occurrences);
+    CommandCodec.writeDate(seriesEndDate, out);
+  }
+
+  /**
+   * Reads a command written by {@link #write(DataOutput)}.
+   */
+  static CreateEventCommand read(DataInput in) throws IOException {
+    String subject = CommandCodec.readString(in);
+    LocalDateTime startDateTime = CommandCodec.readDateTime(in);
+    LocalDateTime endDateTime = CommandCodec.readDateTime(in);
+    boolean isAllDay = in.readBoolean();
+    boolean isSeries = in.readBoolean();
+    Set<DayOfWeek> weekdays = CommandCodec.readWeekdays(in);
+    int occurrences = in.readInt();
+    return new CreateEventCommand(subject, startDateTime, endDateTime, isAllDay, isSeries,
+        weekdays, occurrences == -1 ? null : occurrences, CommandCodec.readDate(in));
+  }
+
   @Override
   public void execute(CalendarManager manager, View view) throws Exception {
     Calendar calendar = manager.getActiveCalendar();
@@ -2,6 +2,9 @@ package calendar.controller.commands;
 
 import calendar.model.CalendarManager;
 import calendar.view.View;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 
 /**
  * Command to edit calendar properties.
@@ -25,6 +28,24 @@ public class EditCalendarCommand implements Command {
     this.newValue = newValue;
   }
 
+  /**
+   * Writes the command's arguments for {@link CommandCodec}.
+   */
+  void write(DataOutput out) throws IOException {
+    CommandCodec.writeString(calendarName, out);
+    CommandCodec.writeString(property, out);
+    CommandCodec.writeValue(newValue, out);
+  }
+
+  /**
+   * Reads a command written by {@link #write(DataOutput)}.
+   */
+  static EditCalendarCommand read(DataInput in) throws IOException {
+    String calendarName = CommandCodec.readString(in);
+    String property = CommandCodec.readString(in);
+    return new EditCalendarCommand(calendarName, property, CommandCodec.readValue(in));
+  }
+
   @Override
   public void execute(CalendarManager manager, View view) throws Exception {
     manager.editCalendar(calendarName, property, newValue);
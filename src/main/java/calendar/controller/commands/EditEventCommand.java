@@ -4,6 +4,9 @@ import calendar.model.Calendar;
 import calendar.model.CalendarManager;
 import calendar.model.EditSettings;
 import calendar.view.View;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.time.LocalDateTime;
 
 /**
@@ -35,6 +38,29 @@ public class EditEventCommand implements Command {
     this.scope = scope;
   }
 
+  /**
+   * Writes the command's arguments for {@link CommandCodec}.
+   */
+  void write(DataOutput out) throws IOException {
+    CommandCodec.writeString(subject, out);
+    CommandCodec.writeDateTime(startDateTime, out);
+    CommandCodec.writeString(property, out);
+    CommandCodec.writeValue(newValue, out);
+    CommandCodec.writeEnum(scope, out);
+  }
+
+  /**
+   * Reads a command written by {@link #write(DataOutput)}.
+   */
+  static EditEventCommand read(DataInput in) throws IOException {
+    String subject = CommandCodec.readString(in);
+    LocalDateTime startDateTime = CommandCodec.readDateTime(in);
+    String property = CommandCodec.readString(in);
+    Object newValue = CommandCodec.readValue(in);
+    return new EditEventCommand(subject, startDateTime, property, newValue,
+        CommandCodec.readEnum(EditSettings.class, in));
+  }
+
   @Override
   public void execute(CalendarManager manager, View view) throws Exception {
     Calendar calendar = manager.getActiveCalendar();
@@ -0,0 +1,174 @@
+package calendar.controller.commands;
+
+import calendar.controller.utils.Exporter;
+import calendar.controller.utils.ExporterFactory;
+import calendar.model.Calendar;
+import calendar.model.CalendarManager;
+import calendar.model.Event;
+import calendar.view.View;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Command to export every calendar to its own file in a directory.
+ * Calendars are exported concurrently on a pool bounded by the number of processors.
+ */
+public class ExportAllCommand implements Command {
+
+  private final String directory;
+  private final String extension;
+
+  /**
+   * Creates an ExportAllCommand.
+   *
+   * @param directory the directory to write the exported files to
+   * @param format    the export format, either "csv" or "ics"
+   * @throws IllegalArgumentException if the format is not supported
+   */
+  public ExportAllCommand(String directory, String format) {
+    this.directory = directory;
+    this.extension = "." + format.toLowerCase();
+    if (!ExporterFactory.isSupportedFormat(extension)) {
+      throw new IllegalArgumentException("Unsupported export format: " + format);
+    }
+  }
+
+  /**
+   * Writes the command's arguments for {@link CommandCodec}.
+   */
+  void write(DataOutput out) throws IOException {
+    CommandCodec.writeString(directory, out);
+    CommandCodec.writeString(extension.substring(1), out);
+  }
+
+  /**
+   * Reads a command written by {@link #write(DataOutput)}.
+   */
+  static ExportAllCommand read(DataInput in) throws IOException {
+    String directory = CommandCodec.readString(in);
+    return new ExportAllCommand(directory, CommandCodec.readString(in));
+  }
+
+  @Override
+  public void execute(CalendarManager manager, View view) throws Exception {
+    List<Calendar> calendars = manager.getAllCalendars();
+    if (calendars.isEmpty()) {
+      throw new IllegalStateException("No calendars to export.");
+    }
+
+    Path targetDirectory = Paths.get(directory);
+    Files.createDirectories(targetDirectory);
+
+    int poolSize = Math.min(calendars.size(), Runtime.getRuntime().availableProcessors());
+    ExecutorService executor = Executors.newFixedThreadPool(poolSize);
+    long startNanos = System.nanoTime();
+
+    List<Future<ExportTiming>> results = new ArrayList<>();
+    try {
+      Set<String> usedNames = new HashSet<>();
+      for (Calendar calendar : calendars) {
+        Path filePath = targetDirectory.resolve(uniqueFileName(calendar, usedNames));
+        results.add(executor.submit(() -> exportCalendar(calendar, filePath)));
+      }
+
+      int exportedCount = 0;
+      long totalEvents = 0;
+      long totalBytes = 0;
+      for (Future<ExportTiming> result : results) {
+        try {
+          ExportTiming timing = result.get();
+          exportedCount++;
+          totalEvents += timing.eventCount;
+          totalBytes += timing.byteCount;
+          view.displayMessage("Exported " + timing.calendarName + " (" + timing.eventCount
+              + " events) to " + timing.absolutePath + " in " + timing.elapsedNanos / 1_000_000
+              + " ms");
+        } catch (ExecutionException e) {
+          view.displayError("Export failed: " + e.getCause().getMessage());
+        }
+      }
+
+      long elapsedNanos = System.nanoTime() - startNanos;
+      double seconds = Math.max(elapsedNanos, 1) / 1_000_000_000.0;
+      view.displayMessage("Exported " + exportedCount + " of " + calendars.size()
+          + " calendars (" + totalEvents + " events, " + totalBytes + " bytes) in "
+          + elapsedNanos / 1_000_000 + " ms, " + Math.round(totalEvents / seconds)
+          + " events/sec, " + Math.round(totalBytes / seconds / 1024) + " KB/sec");
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Exports a single calendar and measures how long it took.
+   */
+  private ExportTiming exportCalendar(Calendar calendar, Path filePath) throws Exception {
+    long startNanos = System.nanoTime();
+    long[] eventCount = new long[1];
+    Iterable<Event> events = () -> new Iterator<>() {
+      private final Iterator<Event> source = calendar.getOrderedEvents().iterator();
+
+      @Override
+      public boolean hasNext() {
+        return source.hasNext();
+      }
+
+      @Override
+      public Event next() {
+        eventCount[0]++;
+        return source.next();
+      }
+    };
+    Exporter exporter = ExporterFactory.createExporter(filePath.toString());
+    String absolutePath = exporter.export(events, filePath, calendar);
+    return new ExportTiming(calendar.getCalendarName(), absolutePath, eventCount[0],
+        Files.size(filePath), System.nanoTime() - startNanos);
+  }
+
+  /**
+   * Builds a file name from the calendar name that is safe on every file system and not
+   * already taken by another calendar in this export.
+   */
+  private String uniqueFileName(Calendar calendar, Set<String> usedNames) {
+    String baseName = calendar.getCalendarName().replaceAll("[^A-Za-z0-9._-]", "_");
+    String fileName = baseName + extension;
+    int suffix = 2;
+    while (!usedNames.add(fileName.toLowerCase())) {
+      fileName = baseName + "-" + suffix++ + extension;
+    }
+    return fileName;
+  }
+
+  /**
+   * Outcome of exporting one calendar.
+   */
+  private static class ExportTiming {
+    private final String calendarName;
+    private final String absolutePath;
+    private final long eventCount;
+    private final long byteCount;
+    private final long elapsedNanos;
+
+    ExportTiming(String calendarName, String absolutePath, long eventCount, long byteCount,
+                 long elapsedNanos) {
+      this.calendarName = calendarName;
+      this.absolutePath = absolutePath;
+      this.eventCount = eventCount;
+      this.byteCount = byteCount;
+      this.elapsedNanos = elapsedNanos;
+    }
+  }
+}
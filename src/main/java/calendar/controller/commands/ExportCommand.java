@@ -2,28 +2,40 @@ package calendar.controller.commands;
 
 import calendar.controller.utils.Exporter;
 import calendar.controller.utils.ExporterFactory;
+import calendar.controller.utils.GzipExporter;
 import calendar.model.Calendar;
 import calendar.model.CalendarManager;
+import calendar.model.ChangeSet;
 import calendar.model.Event;
 import calendar.view.View;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.List;
+import java.time.LocalDate;
 
 /**
  * Command to export the calendar to a CSV or iCal file.
+ * Events are written in start-time order straight from the calendar, optionally limited to
+ * a range of dates, or to the events that changed since an earlier export. Every export
+ * reports a change token to pass to a later incremental export.
  */
 public class ExportCommand implements Command {
   private final String fileName;
   private final Exporter customExporter;
+  private final LocalDate fromDate;
+  private final LocalDate toDate;
+  private final String sinceToken;
+  private final int compressionLevel;
+  private final int bufferSize;
 
   /** Creates an ExportCommand with the specified file name.
    *
    * @param fileName the name of the file to export to
    */
   public ExportCommand(String fileName) {
-    this.fileName = fileName;
-    this.customExporter = null;
+    this(fileName, null, null, null);
   }
 
   /**
@@ -33,8 +45,132 @@ public class ExportCommand implements Command {
    * @param exporter the custom exporter to use
    */
   public ExportCommand(String fileName, Exporter exporter) {
+    this(fileName, exporter, null, null);
+  }
+
+  /**
+   * Creates an ExportCommand that only exports events overlapping a range of dates.
+   *
+   * @param fileName the name of the file to export to
+   * @param fromDate the first date to export
+   * @param toDate   the last date to export (inclusive)
+   * @throws IllegalArgumentException if toDate is before fromDate
+   */
+  public ExportCommand(String fileName, LocalDate fromDate, LocalDate toDate) {
+    this(fileName, null, fromDate, toDate);
+  }
+
+  /**
+   * Creates an ExportCommand with a custom exporter that only exports events overlapping a
+   * range of dates. A null range exports every event.
+   *
+   * @param fileName the name of the file to export to
+   * @param exporter the custom exporter to use, or null to pick one from the file extension
+   * @param fromDate the first date to export, or null for all events
+   * @param toDate   the last date to export (inclusive), or null for all events
+   * @throws IllegalArgumentException if toDate is before fromDate
+   */
+  public ExportCommand(String fileName, Exporter exporter, LocalDate fromDate, LocalDate toDate) {
+    this(fileName, exporter, fromDate, toDate, null);
+  }
+
+  /**
+   * Creates an ExportCommand that only exports the events added, changed or removed since a
+   * change token from an earlier export. The file's format must be able to mark events as
+   * removed, or a receiver applying the changes would keep the removed events.
+   *
+   * @param fileName   the name of the file to export to
+   * @param sinceToken the change token printed by an earlier export
+   * @throws IllegalArgumentException if the file's format cannot mark events as removed
+   */
+  public ExportCommand(String fileName, String sinceToken) {
+    this(fileName, null, null, null, sinceToken);
+    if (!ExporterFactory.createExporter(withDefaultExtension(fileName)).supportsRemovals()) {
+      throw new IllegalArgumentException("Removed events cannot be marked in "
+          + withDefaultExtension(fileName) + "; export changes to .ics or .ndjson instead");
+    }
+  }
+
+  /**
+   * Creates an ExportCommand with a custom exporter that only exports the events added,
+   * changed or removed since a change token from an earlier export.
+   *
+   * @param fileName   the name of the file to export to
+   * @param exporter   the custom exporter to use, or null to pick one from the file extension
+   * @param sinceToken the change token printed by an earlier export
+   */
+  public ExportCommand(String fileName, Exporter exporter, String sinceToken) {
+    this(fileName, exporter, null, null, sinceToken);
+  }
+
+  private ExportCommand(String fileName, Exporter exporter, LocalDate fromDate, LocalDate toDate,
+                        String sinceToken) {
+    this(fileName, exporter, fromDate, toDate, sinceToken, GzipExporter.DEFAULT_LEVEL,
+        GzipExporter.DEFAULT_BUFFER_SIZE);
+  }
+
+  private ExportCommand(String fileName, Exporter exporter, LocalDate fromDate, LocalDate toDate,
+                        String sinceToken, int compressionLevel, int bufferSize) {
+    if (fromDate != null && toDate != null && toDate.isBefore(fromDate)) {
+      throw new IllegalArgumentException("Export end date cannot be before start date");
+    }
+    if (compressionLevel < 0 || compressionLevel > 9) {
+      throw new IllegalArgumentException("Compression level must be between 0 and 9");
+    }
+    if (bufferSize <= 0) {
+      throw new IllegalArgumentException("Buffer size must be positive");
+    }
     this.fileName = fileName;
     this.customExporter = exporter;
+    this.fromDate = fromDate;
+    this.toDate = toDate;
+    this.sinceToken = sinceToken;
+    this.compressionLevel = compressionLevel;
+    this.bufferSize = bufferSize;
+  }
+
+  /**
+   * Gets a copy of this command that compresses its file with the given level and buffer
+   * size. They only apply to compressed formats such as .csv.gz.
+   *
+   * @param level      the deflate level, from 0 (none) to 9 (smallest)
+   * @param bufferSize the size in bytes of the compression buffers
+   * @return the command with the compression settings
+   * @throws IllegalArgumentException if the file is not written compressed, the level is out
+   *                                  of range or the buffer size is not positive
+   */
+  public ExportCommand withCompression(int level, int bufferSize) {
+    if (customExporter != null || !ExporterFactory.isCompressedFormat(fileName)) {
+      throw new IllegalArgumentException("Compression options only apply to .gz files");
+    }
+    return new ExportCommand(fileName, null, fromDate, toDate, sinceToken, level, bufferSize);
+  }
+
+  /**
+   * Writes the command's arguments for {@link CommandCodec}.
+   */
+  void write(DataOutput out) throws IOException {
+    if (customExporter != null) {
+      throw new IllegalArgumentException("Cannot compile an export with a custom exporter");
+    }
+    CommandCodec.writeString(fileName, out);
+    CommandCodec.writeDate(fromDate, out);
+    CommandCodec.writeDate(toDate, out);
+    CommandCodec.writeOptionalString(sinceToken, out);
+    out.writeByte(compressionLevel);
+    out.writeInt(bufferSize);
+  }
+
+  /**
+   * Reads a command written by {@link #write(DataOutput)}.
+   */
+  static ExportCommand read(DataInput in) throws IOException {
+    String fileName = CommandCodec.readString(in);
+    LocalDate fromDate = CommandCodec.readDate(in);
+    LocalDate toDate = CommandCodec.readDate(in);
+    String sinceToken = CommandCodec.readOptionalString(in);
+    return new ExportCommand(fileName, null, fromDate, toDate, sinceToken, in.readByte(),
+        in.readInt());
   }
 
   @Override
@@ -45,22 +181,67 @@ public class ExportCommand implements Command {
           "No active calendar selected. Use 'use calendar' command first.");
     }
 
-    List<Event> events = calendar.getAllEvents();
-
-    String finalFileName = fileName;
-    if (!fileName.toLowerCase().endsWith(".csv") && !fileName.toLowerCase().endsWith(".ical")
-        && !fileName.toLowerCase().endsWith(".ics")) {
-      finalFileName = fileName + ".csv";
-    }
-
+    String finalFileName = withDefaultExtension(fileName);
     Path filePath = Paths.get(finalFileName);
 
     Exporter exporter =
-        customExporter != null ? customExporter : ExporterFactory.createExporter(finalFileName);
+        customExporter != null ? customExporter
+            : ExporterFactory.createExporter(finalFileName, compressionLevel, bufferSize);
+
+    if (sinceToken != null) {
+      exportChanges(calendar, exporter, filePath, view);
+      return;
+    }
 
+    String token = calendar.getChangeToken();
+    Iterable<Event> events;
+    if (fromDate != null && toDate != null) {
+      events = calendar.getOrderedEventsInRange(fromDate.atStartOfDay(),
+          toDate.plusDays(1).atStartOfDay());
+    } else {
+      events = calendar.getOrderedEvents();
+    }
 
     String absolutePath = exporter.export(events, filePath, calendar);
 
     view.displayExportSuccess(absolutePath);
+    view.displayMessage("Export token: " + token);
+  }
+
+  /**
+   * Gets the file name to export to, adding .csv to names whose format is not known.
+   */
+  private static String withDefaultExtension(String fileName) {
+    return ExporterFactory.isSupportedFormat(fileName) ? fileName : fileName + ".csv";
+  }
+
+  /**
+   * Exports only what changed since the token, or everything if the calendar can no longer
+   * tell what changed.
+   */
+  private void exportChanges(Calendar calendar, Exporter exporter, Path filePath, View view)
+      throws Exception {
+    ChangeSet changes = calendar.getChangesSince(sinceToken);
+    String absolutePath;
+    if (changes.isFullSnapshot()) {
+      absolutePath = exporter.export(changes.getChangedEvents(), filePath, calendar);
+    } else {
+      absolutePath = exporter.exportChanges(changes.getChangedEvents(),
+          changes.getRemovedEvents(), filePath, calendar);
+    }
+
+    view.displayExportSuccess(absolutePath);
+    if (changes.isFullSnapshot()) {
+      view.displayMessage("Changes since the token are no longer known; exported all "
+          + changes.getChangedEvents().size() + " events");
+    } else {
+      String message = "Exported " + changes.getChangedEvents().size() + " changed and "
+          + changes.getRemovedEvents().size() + " removed events";
+      if (!changes.getRemovedEvents().isEmpty() && !exporter.supportsRemovals()) {
+        message += " (removed events cannot be marked in this format and were left out)";
+      }
+      view.displayMessage(message);
+    }
+    view.displayMessage("Export token: " + changes.getToken());
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,82 @@
+package calendar.controller.commands;
+
+import calendar.controller.utils.ImportResult;
+import calendar.controller.utils.Importer;
+import calendar.controller.utils.ImporterFactory;
+import calendar.model.Calendar;
+import calendar.model.CalendarManager;
+import calendar.view.View;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.TreeSet;
+
+/**
+ * Command to import events from an iCal file into the active calendar.
+ */
+public class ImportCommand implements Command {
+  private final String fileName;
+  private final Importer customImporter;
+
+  /**
+   * Creates an ImportCommand with the specified file name.
+   *
+   * @param fileName the name of the file to import from
+   */
+  public ImportCommand(String fileName) {
+    this.fileName = fileName;
+    this.customImporter = null;
+  }
+
+  /**
+   * Creates an ImportCommand with the specified file name and custom importer.
+   *
+   * @param fileName the name of the file to import from
+   * @param importer the custom importer to use
+   */
+  public ImportCommand(String fileName, Importer importer) {
+    this.fileName = fileName;
+    this.customImporter = importer;
+  }
+
+  /**
+   * Writes the command's arguments for {@link CommandCodec}.
+   */
+  void write(DataOutput out) throws IOException {
+    if (customImporter != null) {
+      throw new IllegalArgumentException("Cannot compile an import with a custom importer");
+    }
+    CommandCodec.writeString(fileName, out);
+  }
+
+  /**
+   * Reads a command written by {@link #write(DataOutput)}.
+   */
+  static ImportCommand read(DataInput in) throws IOException {
+    return new ImportCommand(CommandCodec.readString(in));
+  }
+
+  @Override
+  public void execute(CalendarManager manager, View view) throws Exception {
+    Calendar calendar = manager.getActiveCalendar();
+    if (calendar == null) {
+      throw new IllegalStateException(
+          "No active calendar selected. Use 'use calendar' command first.");
+    }
+
+    Importer importer =
+        customImporter != null ? customImporter : ImporterFactory.createImporter(fileName);
+
+    ImportResult result = importer.importEvents(Paths.get(fileName), calendar);
+
+    String message = "Imported " + result.getImportedCount() + " events ("
+        + result.getSkippedCount() + " skipped) in " + result.getElapsedMillis() + " ms, "
+        + result.getEventsPerSecond() + " events/sec";
+    if (!result.getUnknownTimeZones().isEmpty()) {
+      message += "; unknown time zones read as " + calendar.getTimeZone() + ": "
+          + String.join(", ", new TreeSet<>(result.getUnknownTimeZones()));
+    }
+    view.displayMessage(message);
+  }
+}
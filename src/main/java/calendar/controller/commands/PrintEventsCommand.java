@@ -4,6 +4,9 @@ import calendar.model.Calendar;
 import calendar.model.CalendarManager;
 import calendar.model.Event;
 import calendar.view.View;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -43,6 +46,30 @@ public class PrintEventsCommand implements Command {
     this.isRangeQuery = true;
   }
 
+  /**
+   * Writes the command's arguments for {@link CommandCodec}.
+   */
+  void write(DataOutput out) throws IOException {
+    out.writeBoolean(isRangeQuery);
+    if (isRangeQuery) {
+      CommandCodec.writeDateTime(startDateTime, out);
+      CommandCodec.writeDateTime(endDateTime, out);
+    } else {
+      CommandCodec.writeDate(date, out);
+    }
+  }
+
+  /**
+   * Reads a command written by {@link #write(DataOutput)}.
+   */
+  static PrintEventsCommand read(DataInput in) throws IOException {
+    if (!in.readBoolean()) {
+      return new PrintEventsCommand(CommandCodec.readDate(in));
+    }
+    LocalDateTime startDateTime = CommandCodec.readDateTime(in);
+    return new PrintEventsCommand(startDateTime, CommandCodec.readDateTime(in));
+  }
+
   @Override
   public void execute(CalendarManager manager, View view) {
     Calendar calendar = manager.getActiveCalendar();
@@ -0,0 +1,16 @@
+package calendar.controller.commands;
+
+import calendar.model.CalendarManager;
+import calendar.view.View;
+
+/**
+ * Command to discard every change staged in the open batch.
+ */
+public class RollbackBatchCommand implements Command {
+
+  @Override
+  public void execute(CalendarManager manager, View view) throws Exception {
+    manager.rollbackBatch();
+    view.displayMessage("Batch rolled back");
+  }
+}
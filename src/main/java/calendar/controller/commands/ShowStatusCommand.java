@@ -3,6 +3,9 @@ package calendar.controller.commands;
 import calendar.model.Calendar;
 import calendar.model.CalendarManager;
 import calendar.view.View;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.time.LocalDateTime;
 
 /**
@@ -21,6 +24,20 @@ public class ShowStatusCommand implements Command {
     this.dateTime = dateTime;
   }
 
+  /**
+   * Writes the command's arguments for {@link CommandCodec}.
+   */
+  void write(DataOutput out) throws IOException {
+    CommandCodec.writeDateTime(dateTime, out);
+  }
+
+  /**
+   * Reads a command written by {@link #write(DataOutput)}.
+   */
+  static ShowStatusCommand read(DataInput in) throws IOException {
+    return new ShowStatusCommand(CommandCodec.readDateTime(in));
+  }
+
   @Override
   public void execute(CalendarManager manager, View view) {
     Calendar calendar = manager.getActiveCalendar();
@@ -2,6 +2,9 @@ package calendar.controller.commands;
 
 import calendar.model.CalendarManager;
 import calendar.view.View;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 
 /**
  * Command to set the active calendar.
@@ -19,6 +22,20 @@ public class UseCalendarCommand implements Command {
     this.calendarName = calendarName;
   }
 
+  /**
+   * Writes the command's arguments for {@link CommandCodec}.
+   */
+  void write(DataOutput out) throws IOException {
+    CommandCodec.writeString(calendarName, out);
+  }
+
+  /**
+   * Reads a command written by {@link #write(DataOutput)}.
+   */
+  static UseCalendarCommand read(DataInput in) throws IOException {
+    return new UseCalendarCommand(CommandCodec.readString(in));
+  }
+
   @Override
   public void execute(CalendarManager manager, View view) throws Exception {
     manager.useCalendar(calendarName);
@@ -0,0 +1,258 @@
+package calendar.controller.utils;
+
+import calendar.controller.commands.Command;
+import calendar.controller.commands.CopyEventCommand;
+import calendar.controller.commands.CopyEventsBetweenCommand;
+import calendar.controller.commands.CopyEventsOnDateCommand;
+import calendar.controller.commands.CreateCalendarCommand;
+import calendar.controller.commands.CreateEventCommand;
+import calendar.controller.commands.EditCalendarCommand;
+import calendar.controller.commands.EditEventCommand;
+import calendar.controller.commands.ExportCommand;
+import calendar.controller.commands.PrintEventsCommand;
+import calendar.controller.commands.ShowStatusCommand;
+import calendar.controller.commands.UseCalendarCommand;
+import calendar.model.EditSettings;
+import calendar.model.EventStatus;
+import calendar.model.LocationType;
+import java.nio.file.Paths;
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Creates the command for a request to the HTTP API from its method, path and fields. Each
+ * endpoint stands for one command of the headless language, with the command's arguments as
+ * named fields:
+ * <ul>
+ *   <li>POST /calendars: name, timezone</li>
+ *   <li>POST /calendars/use: name</li>
+ *   <li>POST /calendars/edit: name, property, value</li>
+ *   <li>POST /events: subject, and start and end or an all-day date; optionally repeats
+ *       (weekday letters) with times or until</li>
+ *   <li>POST /events/edit: subject, start, property, value, and scope (event, events or
+ *       series, event by default)</li>
+ *   <li>POST /events/copy: subject, start, target and to; or on, target and to; or between,
+ *       and, target and to</li>
+ *   <li>GET /events: date, or from and to</li>
+ *   <li>GET /status: at</li>
+ *   <li>POST /export: file, and optionally from and to, or since</li>
+ * </ul>
+ * Exported files are written in the parser's {@link DataDirectory}, and their names must stay
+ * inside it.
+ */
+public class ApiCommandParser {
+
+  private static final String WEEKDAY_LETTERS = "MTWRFSU";
+
+  private final DataDirectory files;
+
+  /**
+   * Creates an ApiCommandParser that writes files in the working directory.
+   */
+  public ApiCommandParser() {
+    this(new DataDirectory(Paths.get("")));
+  }
+
+  /**
+   * Creates an ApiCommandParser that writes files in a given directory.
+   *
+   * @param files the directory exported files are written in
+   */
+  public ApiCommandParser(DataDirectory files) {
+    this.files = files;
+  }
+
+  /**
+   * Creates the command for a request.
+   *
+   * @param method  the request's HTTP method
+   * @param path    the request's path, without a query string
+   * @param request the request's fields
+   * @return the command, or null if no endpoint has that method and path
+   * @throws IllegalArgumentException if a field is missing or invalid
+   */
+  public Command parse(String method, String path, ApiRequest request) {
+    if (method.equals("GET")) {
+      switch (path) {
+        case "/events":
+          return parsePrintEvents(request);
+        case "/status":
+          return new ShowStatusCommand(request.getDateTime("at"));
+        default:
+          return null;
+      }
+    }
+    if (!method.equals("POST")) {
+      return null;
+    }
+    switch (path) {
+      case "/calendars":
+        return new CreateCalendarCommand(request.getText("name"),
+            parseZone(request.getText("timezone")));
+      case "/calendars/use":
+        return new UseCalendarCommand(request.getText("name"));
+      case "/calendars/edit":
+        return parseEditCalendar(request);
+      case "/events":
+        return parseCreateEvent(request);
+      case "/events/edit":
+        return parseEditEvent(request);
+      case "/events/copy":
+        return parseCopy(request);
+      case "/export":
+        return parseExport(request);
+      default:
+        return null;
+    }
+  }
+
+  private Command parseEditCalendar(ApiRequest request) {
+    String property = request.getText("property");
+    String value = request.getText("value");
+    return new EditCalendarCommand(request.getText("name"), property,
+        property.equalsIgnoreCase("timezone") ? parseZone(value) : value);
+  }
+
+  private Command parseCreateEvent(ApiRequest request) {
+    String subject = request.getText("subject");
+    boolean allDay = request.has("date");
+    Set<DayOfWeek> weekdays = request.has("repeats")
+        ? parseWeekdays(request.getText("repeats")) : null;
+
+    if (allDay) {
+      LocalDate date = request.getDate("date");
+      if (weekdays == null) {
+        return new CreateEventCommand(subject, date);
+      } else if (request.has("times")) {
+        return new CreateEventCommand(subject, date, weekdays, request.getInt("times"));
+      }
+      return new CreateEventCommand(subject, date, weekdays, request.getDate("until"));
+    }
+
+    LocalDateTime start = request.getDateTime("start");
+    LocalDateTime end = request.getDateTime("end");
+    if (weekdays == null) {
+      return new CreateEventCommand(subject, start, end);
+    } else if (request.has("times")) {
+      return new CreateEventCommand(subject, start, end, weekdays, request.getInt("times"));
+    }
+    return new CreateEventCommand(subject, start, end, weekdays, request.getDate("until"));
+  }
+
+  private Command parseEditEvent(ApiRequest request) {
+    EditSettings scope;
+    String scopeName = request.has("scope") ? request.getText("scope") : "event";
+    switch (scopeName) {
+      case "event":
+        scope = EditSettings.SINGLE;
+        break;
+      case "events":
+        scope = EditSettings.FORWARD;
+        break;
+      case "series":
+        scope = EditSettings.ALL_EVENTS;
+        break;
+      default:
+        throw new IllegalArgumentException("Invalid scope: " + scopeName);
+    }
+
+    String property = request.getText("property");
+    Object newValue;
+    switch (property.toLowerCase()) {
+      case "subject":
+      case "description":
+        newValue = request.getText("value");
+        break;
+      case "location":
+        newValue = parseLocation(request.getText("value"));
+        break;
+      case "start":
+      case "end":
+        newValue = request.getDateTime("value");
+        break;
+      case "status":
+        try {
+          newValue = EventStatus.valueOf(request.getText("value").toUpperCase());
+        } catch (IllegalArgumentException e) {
+          throw new IllegalArgumentException("Invalid status: " + request.getText("value"));
+        }
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown property: " + property);
+    }
+
+    return new EditEventCommand(request.getText("subject"), request.getDateTime("start"),
+        property, newValue, scope);
+  }
+
+  private Command parseCopy(ApiRequest request) {
+    String target = request.getText("target");
+    if (request.has("subject")) {
+      return new CopyEventCommand(request.getText("subject"), request.getDateTime("start"),
+          target, request.getDateTime("to"));
+    } else if (request.has("on")) {
+      return new CopyEventsOnDateCommand(request.getDate("on"), target, request.getDate("to"));
+    }
+    return new CopyEventsBetweenCommand(request.getDate("between"), request.getDate("and"),
+        target, request.getDate("to"));
+  }
+
+  private Command parsePrintEvents(ApiRequest request) {
+    if (request.has("date")) {
+      return new PrintEventsCommand(request.getDate("date"));
+    }
+    return new PrintEventsCommand(request.getDateTime("from"), request.getDateTime("to"));
+  }
+
+  private Command parseExport(ApiRequest request) {
+    String file = files.resolve(request.getText("file"));
+    if (request.has("since")) {
+      return new ExportCommand(file, request.getText("since"));
+    } else if (request.has("from")) {
+      return new ExportCommand(file, request.getDate("from"), request.getDate("to"));
+    }
+    return new ExportCommand(file);
+  }
+
+  private static ZoneId parseZone(String value) {
+    try {
+      return ZoneId.of(value);
+    } catch (DateTimeException e) {
+      throw new IllegalArgumentException("Invalid timezone: " + value);
+    }
+  }
+
+  /**
+   * Reads a location as the headless language does: physical or online, and no location for
+   * anything else.
+   */
+  private static LocationType parseLocation(String value) {
+    if (value.equalsIgnoreCase("physical")) {
+      return LocationType.PHYSICAL;
+    } else if (value.equalsIgnoreCase("online")) {
+      return LocationType.ONLINE;
+    }
+    return LocationType.NONE;
+  }
+
+  /**
+   * Reads weekday letters: M=Monday, T=Tuesday, W=Wednesday, R=Thursday, F=Friday,
+   * S=Saturday, U=Sunday.
+   */
+  private static Set<DayOfWeek> parseWeekdays(String letters) {
+    Set<DayOfWeek> weekdays = EnumSet.noneOf(DayOfWeek.class);
+    for (int i = 0; i < letters.length(); i++) {
+      int day = WEEKDAY_LETTERS.indexOf(letters.charAt(i));
+      if (day == -1) {
+        throw new IllegalArgumentException("Invalid weekday character: " + letters.charAt(i));
+      }
+      weekdays.add(DayOfWeek.of(day + 1));
+    }
+    return weekdays;
+  }
+}
@@ -0,0 +1,278 @@
+package calendar.controller.utils;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The fields of a request to the HTTP API, read from a flat JSON object in the request body
+ * or from a query string. Field values are strings, numbers or booleans, all kept as text and
+ * converted when they are read; a null value is the same as a missing field.
+ */
+public final class ApiRequest {
+
+  private static final DateTimeFormatter DATE_TIME_FORMATTER =
+      DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm");
+
+  private final Map<String, String> fields;
+
+  private ApiRequest(Map<String, String> fields) {
+    this.fields = fields;
+  }
+
+  /**
+   * Reads the fields of a JSON object. Nested objects and arrays are not accepted.
+   *
+   * @param json the JSON text, which may be empty for a request without fields
+   * @return the request's fields
+   * @throws IllegalArgumentException if the text is not a flat JSON object
+   */
+  public static ApiRequest fromJson(String json) {
+    Map<String, String> fields = new HashMap<>();
+    JsonReader reader = new JsonReader(json);
+    if (reader.atEnd()) {
+      return new ApiRequest(fields);
+    }
+    reader.expect('{');
+    if (!reader.consume('}')) {
+      do {
+        String name = reader.readString();
+        reader.expect(':');
+        String value = reader.readValue();
+        if (value != null) {
+          fields.put(name, value);
+        }
+      } while (reader.consume(','));
+      reader.expect('}');
+    }
+    if (!reader.atEnd()) {
+      throw new IllegalArgumentException("Invalid JSON: unexpected text after the object");
+    }
+    return new ApiRequest(fields);
+  }
+
+  /**
+   * Reads the fields of a URL query string such as {@code date=2025-05-05}.
+   *
+   * @param query the query string without its leading question mark, or null if there is none
+   * @return the request's fields
+   */
+  public static ApiRequest fromQuery(String query) {
+    Map<String, String> fields = new HashMap<>();
+    if (query == null || query.isEmpty()) {
+      return new ApiRequest(fields);
+    }
+    for (String pair : query.split("&")) {
+      int equals = pair.indexOf('=');
+      String name = equals == -1 ? pair : pair.substring(0, equals);
+      String value = equals == -1 ? "" : pair.substring(equals + 1);
+      fields.put(URLDecoder.decode(name, StandardCharsets.UTF_8),
+          URLDecoder.decode(value, StandardCharsets.UTF_8));
+    }
+    return new ApiRequest(fields);
+  }
+
+  /**
+   * Checks whether the request has a field.
+   *
+   * @param name the field's name
+   * @return true if the field is present
+   */
+  public boolean has(String name) {
+    return fields.containsKey(name);
+  }
+
+  /**
+   * Gets a field's text.
+   *
+   * @param name the field's name
+   * @return the field's value
+   * @throws IllegalArgumentException if the field is missing
+   */
+  public String getText(String name) {
+    String value = fields.get(name);
+    if (value == null) {
+      throw new IllegalArgumentException("Missing field: " + name);
+    }
+    return value;
+  }
+
+  /**
+   * Gets a field holding a date, such as 2025-05-05.
+   *
+   * @param name the field's name
+   * @return the date
+   * @throws IllegalArgumentException if the field is missing or not a date
+   */
+  public LocalDate getDate(String name) {
+    String value = getText(name);
+    try {
+      return LocalDate.parse(value);
+    } catch (DateTimeParseException e) {
+      throw new IllegalArgumentException("Invalid date in " + name + ": " + value);
+    }
+  }
+
+  /**
+   * Gets a field holding a date and time, such as 2025-05-05T10:00.
+   *
+   * @param name the field's name
+   * @return the date and time
+   * @throws IllegalArgumentException if the field is missing or not a date and time
+   */
+  public LocalDateTime getDateTime(String name) {
+    String value = getText(name);
+    try {
+      return LocalDateTime.parse(value, DATE_TIME_FORMATTER);
+    } catch (DateTimeParseException e) {
+      throw new IllegalArgumentException("Invalid date and time in " + name + ": " + value);
+    }
+  }
+
+  /**
+   * Gets a field holding a whole number.
+   *
+   * @param name the field's name
+   * @return the number
+   * @throws IllegalArgumentException if the field is missing or not a whole number
+   */
+  public int getInt(String name) {
+    String value = getText(name);
+    try {
+      return Integer.parseInt(value);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid number in " + name + ": " + value);
+    }
+  }
+
+  /**
+   * Reads the tokens of a flat JSON object.
+   */
+  private static class JsonReader {
+    private final String text;
+    private int position;
+
+    JsonReader(String text) {
+      this.text = text;
+    }
+
+    boolean atEnd() {
+      skipWhitespace();
+      return position == text.length();
+    }
+
+    boolean consume(char c) {
+      skipWhitespace();
+      if (position < text.length() && text.charAt(position) == c) {
+        position++;
+        return true;
+      }
+      return false;
+    }
+
+    void expect(char c) {
+      if (!consume(c)) {
+        throw new IllegalArgumentException("Invalid JSON: expected '" + c + "' at position "
+            + position);
+      }
+    }
+
+    /**
+     * Reads a string, number, boolean or null, returning numbers and booleans as their text
+     * and null as null.
+     */
+    String readValue() {
+      skipWhitespace();
+      if (position == text.length()) {
+        throw new IllegalArgumentException("Invalid JSON: missing value");
+      }
+      char c = text.charAt(position);
+      if (c == '"') {
+        return readString();
+      }
+      if (c == '{' || c == '[') {
+        throw new IllegalArgumentException("Request fields must be strings, numbers or"
+            + " booleans");
+      }
+      int start = position;
+      while (position < text.length() && "{}[],: \t\r\n\"".indexOf(text.charAt(position)) < 0) {
+        position++;
+      }
+      String literal = text.substring(start, position);
+      if (literal.equals("null")) {
+        return null;
+      }
+      if (literal.equals("true") || literal.equals("false")
+          || literal.matches("-?\\d+(\\.\\d+)?([eE][+-]?\\d+)?")) {
+        return literal;
+      }
+      throw new IllegalArgumentException("Invalid JSON value: " + literal);
+    }
+
+    String readString() {
+      expect('"');
+      StringBuilder value = new StringBuilder();
+      while (position < text.length()) {
+        char c = text.charAt(position++);
+        if (c == '"') {
+          return value.toString();
+        }
+        if (c != '\\') {
+          value.append(c);
+          continue;
+        }
+        if (position == text.length()) {
+          break;
+        }
+        char escaped = text.charAt(position++);
+        switch (escaped) {
+          case 'b':
+            value.append('\b');
+            break;
+          case 'f':
+            value.append('\f');
+            break;
+          case 'n':
+            value.append('\n');
+            break;
+          case 'r':
+            value.append('\r');
+            break;
+          case 't':
+            value.append('\t');
+            break;
+          case 'u':
+            if (position + 4 > text.length()) {
+              throw new IllegalArgumentException("Invalid JSON: incomplete \\u escape");
+            }
+            try {
+              value.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+            } catch (NumberFormatException e) {
+              throw new IllegalArgumentException("Invalid JSON: bad \\u escape");
+            }
+            position += 4;
+            break;
+          case '"':
+          case '\\':
+          case '/':
+            value.append(escaped);
+            break;
+          default:
+            throw new IllegalArgumentException("Invalid JSON: bad escape \\" + escaped);
+        }
+      }
+      throw new IllegalArgumentException("Invalid JSON: unterminated string");
+    }
+
+    private void skipWhitespace() {
+      while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+        position++;
+      }
+    }
+  }
+}
@@ -0,0 +1,113 @@
+package calendar.controller.utils;
+
+import calendar.model.CalendarManager;
+import calendar.model.ManagerSnapshot;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Progress of a headless script saved to disk: the state of the calendar manager and the
+ * number of script lines that had been run when it was taken. A checkpoint file is replaced
+ * atomically, so a crash while saving leaves the previous checkpoint intact.
+ */
+public class Checkpoint {
+
+  private final CalendarManager manager;
+  private final long lineNumber;
+
+  private Checkpoint(CalendarManager manager, long lineNumber) {
+    this.manager = manager;
+    this.lineNumber = lineNumber;
+  }
+
+  /**
+   * Gets the calendar manager restored from the checkpoint.
+   *
+   * @return the restored manager
+   */
+  public CalendarManager getManager() {
+    return manager;
+  }
+
+  /**
+   * Gets the number of script lines that had been run when the checkpoint was taken.
+   *
+   * @return the number of lines to skip when resuming
+   */
+  public long getLineNumber() {
+    return lineNumber;
+  }
+
+  /**
+   * Gets the checkpoint file used for a script.
+   *
+   * @param scriptPath the path of the headless script
+   * @return the path of its checkpoint file, next to the script
+   */
+  public static Path forScript(Path scriptPath) {
+    return scriptPath.resolveSibling(scriptPath.getFileName() + ".checkpoint");
+  }
+
+  /**
+   * Saves a checkpoint, replacing any earlier one. The data is written to a temporary file,
+   * forced to disk and then moved over the checkpoint file.
+   *
+   * @param filePath   the checkpoint file
+   * @param manager    the manager whose state to save
+   * @param lineNumber the number of script lines run so far
+   * @throws IOException if writing the checkpoint fails
+   */
+  public static void save(Path filePath, CalendarManager manager, long lineNumber)
+      throws IOException {
+    Path absolute = filePath.toAbsolutePath();
+    Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(),
+        ".tmp");
+    try {
+      try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+        OutputStream stream = Channels.newOutputStream(channel);
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16));
+        out.writeLong(lineNumber);
+        ManagerSnapshot.write(manager, out);
+        out.flush();
+        channel.force(true);
+      }
+      try {
+        Files.move(temp, absolute, StandardCopyOption.ATOMIC_MOVE,
+            StandardCopyOption.REPLACE_EXISTING);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  /**
+   * Loads a checkpoint.
+   *
+   * @param filePath the checkpoint file
+   * @return the checkpoint
+   * @throws IOException if the file cannot be read or is not a checkpoint
+   */
+  public static Checkpoint load(Path filePath) throws IOException {
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+        Files.newInputStream(filePath), 1 << 16))) {
+      long lineNumber = in.readLong();
+      if (lineNumber < 0) {
+        throw new IOException("Not a checkpoint file: " + filePath);
+      }
+      return new Checkpoint(ManagerSnapshot.read(in), lineNumber);
+    }
+  }
+}
@@ -0,0 +1,290 @@
+package calendar.controller.utils;
+
+import calendar.model.Event;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Formats chunks of an export on a ForkJoinPool and writes the resulting bytes to a file
+ * strictly in the order the chunks were submitted. Each chunk is formatted into its own
+ * buffer and encoded as UTF-8 by the worker, so the output is byte for byte what formatting
+ * the same text on one thread would produce. Only a few chunks per worker are kept in flight,
+ * which bounds memory however large the export is.
+ */
+class ChunkedWriter {
+
+  /** Default number of events per chunk. */
+  static final int DEFAULT_CHUNK_SIZE = 2048;
+
+  /**
+   * Submits the chunks of one export.
+   */
+  interface Export {
+    void submitTo(ChunkedWriter out) throws IOException;
+  }
+
+  /**
+   * Formats one chunk of an export.
+   */
+  interface ChunkFormatter {
+    void format(ChunkBuffer buffer) throws IOException;
+  }
+
+  /**
+   * Formats one event of an export.
+   */
+  interface EventFormatter {
+    void format(ExportBuffer buffer, Event event) throws IOException;
+  }
+
+  private final FileChannel channel;
+  private final ForkJoinPool pool;
+  private final int maxPending;
+  private final Deque<ForkJoinTask<ChunkBuffer>> pending;
+  private ChunkBuffer insertAtFirstMark;
+
+  /**
+   * Creates a ChunkedWriter that writes to an open channel.
+   *
+   * @param channel the channel to write to, positioned where the output should start
+   * @param pool    the pool to format chunks on
+   */
+  ChunkedWriter(FileChannel channel, ForkJoinPool pool) {
+    this.channel = channel;
+    this.pool = pool;
+    this.maxPending = Math.max(2, 2 * pool.getParallelism());
+    this.pending = new ArrayDeque<>();
+  }
+
+  /**
+   * Creates or replaces a file and writes an export's chunks to it.
+   *
+   * @param filePath the file to write
+   * @param pool     the pool to format chunks on
+   * @param export   submits the chunks in output order
+   * @throws IOException if formatting or writing fails
+   */
+  static void writeFile(Path filePath, ForkJoinPool pool, Export export) throws IOException {
+    try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      ChunkedWriter out = new ChunkedWriter(channel, pool);
+      try {
+        export.submitTo(out);
+        out.finish();
+      } finally {
+        out.cancel();
+      }
+    }
+  }
+
+  /**
+   * Checks the settings of an exporter that formats in chunks.
+   *
+   * @param pool      the pool to format chunks on
+   * @param chunkSize the number of events per chunk
+   * @throws IllegalArgumentException if pool is null or chunkSize is not positive
+   */
+  static void checkSettings(ForkJoinPool pool, int chunkSize) {
+    if (pool == null) {
+      throw new IllegalArgumentException("Pool cannot be null");
+    }
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("Chunk size must be positive");
+    }
+  }
+
+  /**
+   * Sets text to write once, at the position the first chunk to call
+   * {@link ChunkBuffer#mark()} marked.
+   *
+   * @param text the formatted text to insert
+   */
+  void insertAtFirstMark(ChunkBuffer text) {
+    this.insertAtFirstMark = text;
+  }
+
+  /**
+   * Schedules a chunk for formatting, first writing out completed chunks if too many are in
+   * flight.
+   *
+   * @param formatter formats the chunk
+   * @throws IOException if formatting or writing an earlier chunk failed
+   */
+  void submit(ChunkFormatter formatter) throws IOException {
+    pending.add(pool.submit(() -> {
+      ChunkBuffer buffer = new ChunkBuffer();
+      formatter.format(buffer);
+      buffer.finish();
+      return buffer;
+    }));
+    while (pending.size() > maxPending) {
+      writeNext();
+    }
+  }
+
+  /**
+   * Schedules events for formatting in chunks of a given size.
+   *
+   * @param events    the events to format, in output order
+   * @param chunkSize the number of events per chunk
+   * @param formatter formats a single event
+   * @throws IOException if formatting or writing an earlier chunk failed
+   */
+  void submitAll(Iterable<Event> events, int chunkSize, EventFormatter formatter)
+      throws IOException {
+    List<Event> chunk = new ArrayList<>(chunkSize);
+    for (Event event : events) {
+      chunk.add(event);
+      if (chunk.size() == chunkSize) {
+        submitEvents(chunk, formatter);
+        chunk = new ArrayList<>(chunkSize);
+      }
+    }
+    if (!chunk.isEmpty()) {
+      submitEvents(chunk, formatter);
+    }
+  }
+
+  /**
+   * Schedules one chunk of events for formatting.
+   *
+   * @param chunk     the events to format, in output order
+   * @param formatter formats a single event
+   * @throws IOException if formatting or writing an earlier chunk failed
+   */
+  void submitEvents(List<Event> chunk, EventFormatter formatter) throws IOException {
+    submit(buffer -> {
+      for (Event event : chunk) {
+        formatter.format(buffer, event);
+      }
+    });
+  }
+
+  /**
+   * Waits for every chunk and writes the remaining output.
+   *
+   * @throws IOException if formatting or writing failed
+   */
+  void finish() throws IOException {
+    while (!pending.isEmpty()) {
+      writeNext();
+    }
+  }
+
+  /**
+   * Cancels any chunks that have not been written, after a failure.
+   */
+  void cancel() {
+    for (ForkJoinTask<ChunkBuffer> task : pending) {
+      task.cancel(true);
+    }
+    pending.clear();
+  }
+
+  private void writeNext() throws IOException {
+    ChunkBuffer chunk;
+    try {
+      chunk = pending.poll().get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Export interrupted");
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new IOException(e.getCause());
+    }
+
+    if (chunk.mark >= 0 && insertAtFirstMark != null) {
+      writeFully(chunk.bytes.buffer(0, chunk.mark));
+      writeFully(insertAtFirstMark.bytes.buffer(0, insertAtFirstMark.bytes.size()));
+      writeFully(chunk.bytes.buffer(chunk.mark, chunk.bytes.size()));
+      insertAtFirstMark = null;
+    } else {
+      writeFully(chunk.bytes.buffer(0, chunk.bytes.size()));
+    }
+  }
+
+  private void writeFully(ByteBuffer bytes) throws IOException {
+    while (bytes.hasRemaining()) {
+      channel.write(bytes);
+    }
+  }
+
+  /**
+   * Buffer that a chunk is formatted into, holding the chunk's UTF-8 bytes once finished.
+   */
+  static class ChunkBuffer extends ExportBuffer {
+    private final Bytes bytes;
+    private final Writer encoder;
+    private int mark;
+
+    ChunkBuffer() {
+      this(new Bytes());
+    }
+
+    private ChunkBuffer(Bytes bytes) {
+      this(bytes, new OutputStreamWriter(bytes, StandardCharsets.UTF_8));
+    }
+
+    private ChunkBuffer(Bytes bytes, Writer encoder) {
+      super(encoder);
+      this.bytes = bytes;
+      this.encoder = encoder;
+      this.mark = -1;
+    }
+
+    /**
+     * Marks the current position, if no earlier position in this chunk was marked.
+     *
+     * @throws IOException if encoding the text so far fails
+     */
+    void mark() throws IOException {
+      if (mark < 0) {
+        finish();
+        mark = bytes.size();
+      }
+    }
+
+    /**
+     * Encodes everything appended so far.
+     *
+     * @throws IOException if encoding fails
+     */
+    void finish() throws IOException {
+      flushBuffer();
+      encoder.flush();
+    }
+  }
+
+  /**
+   * Byte array stream whose contents can be wrapped without copying.
+   */
+  private static class Bytes extends ByteArrayOutputStream {
+    Bytes() {
+      super(1 << 14);
+    }
+
+    ByteBuffer buffer(int from, int to) {
+      return ByteBuffer.wrap(buf, from, to - from);
+    }
+  }
+}
@@ -0,0 +1,240 @@
+package calendar.controller.utils;
+
+import calendar.model.Calendar;
+import calendar.model.Event;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exports calendar events to a binary columnar file for analytic scans, read back with
+ * {@link ColumnarReader}.
+ *
+ * <p>Events are grouped into blocks. Within a block each column is stored contiguously: start
+ * and end as epoch seconds, subject and series id as indexes into dictionaries, and location,
+ * status and the all-day flag as one byte each. A footer at the end of the file holds the
+ * dictionaries and, for every block, its position and the minimum and maximum start and end,
+ * so a reader can skip blocks outside a time range and load only the columns it needs.
+ *
+ * <p>Layout: magic, blocks, footer, footer position, magic. All numbers are big-endian.
+ */
+public class ColumnarExporter implements Exporter {
+
+  /** Marks the start and end of a columnar file. */
+  static final int MAGIC = 0x4543_4f4c;
+
+  /** Version of the layout written by this exporter. */
+  static final int VERSION = 1;
+
+  /** Bytes a single row takes across all columns of a block. */
+  static final int ROW_BYTES = 8 + 8 + 4 + 4 + 1 + 1 + 1;
+
+  /** Default number of rows per block. */
+  public static final int DEFAULT_BLOCK_SIZE = 4096;
+
+  private final int blockSize;
+
+  /**
+   * Creates a ColumnarExporter with the default block size.
+   */
+  public ColumnarExporter() {
+    this(DEFAULT_BLOCK_SIZE);
+  }
+
+  /**
+   * Creates a ColumnarExporter with a given number of rows per block. Smaller blocks let
+   * readers skip more precisely at the cost of a larger footer.
+   *
+   * @param blockSize the number of events per block
+   * @throws IllegalArgumentException if blockSize is not positive
+   */
+  public ColumnarExporter(int blockSize) {
+    if (blockSize <= 0) {
+      throw new IllegalArgumentException("Block size must be positive");
+    }
+    this.blockSize = blockSize;
+  }
+
+  @Override
+  public String export(Iterable<Event> events, Path filePath, Calendar calendar)
+      throws IOException {
+    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+        Files.newOutputStream(filePath), 1 << 16))) {
+      new BlockWriter(out, calendar, blockSize).writeAll(events);
+    }
+
+    return filePath.toAbsolutePath().toString();
+  }
+
+  /**
+   * Writes the changed events as ordinary rows. Columnar files have no way to mark a row as
+   * removed, so removed events are left out.
+   */
+  @Override
+  public String exportChanges(Iterable<Event> changed, Iterable<Event> removed, Path filePath,
+                              Calendar calendar) throws IOException {
+    return export(changed, filePath, calendar);
+  }
+
+  @Override
+  public boolean supportsRemovals() {
+    return false;
+  }
+
+  /**
+   * Buffers one block of rows at a time and keeps the dictionaries and block index for the
+   * footer.
+   */
+  private static class BlockWriter {
+    private final DataOutputStream out;
+    private final Calendar calendar;
+    private final ZoneRules rules;
+    private final long[] starts;
+    private final long[] ends;
+    private final int[] subjects;
+    private final int[] seriesIds;
+    private final byte[] locations;
+    private final byte[] statuses;
+    private final byte[] allDay;
+    private final Map<String, Integer> subjectIndex;
+    private final List<String> subjectDictionary;
+    private final Map<String, Integer> seriesIndex;
+    private final List<String> seriesDictionary;
+    private final List<long[]> blockIndex;
+    private int rows;
+    private long position;
+
+    BlockWriter(DataOutputStream out, Calendar calendar, int blockSize) {
+      this.out = out;
+      this.calendar = calendar;
+      this.rules = calendar.getTimeZone().getRules();
+      this.starts = new long[blockSize];
+      this.ends = new long[blockSize];
+      this.subjects = new int[blockSize];
+      this.seriesIds = new int[blockSize];
+      this.locations = new byte[blockSize];
+      this.statuses = new byte[blockSize];
+      this.allDay = new byte[blockSize];
+      this.subjectIndex = new HashMap<>();
+      this.subjectDictionary = new ArrayList<>();
+      this.seriesIndex = new HashMap<>();
+      this.seriesDictionary = new ArrayList<>();
+      this.blockIndex = new ArrayList<>();
+    }
+
+    void writeAll(Iterable<Event> events) throws IOException {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      position = 8;
+
+      for (Event event : events) {
+        starts[rows] = epochSecond(event.getStartDateTime());
+        ends[rows] = epochSecond(event.getEndDateTime());
+        subjects[rows] = encode(event.getSubject(), subjectIndex, subjectDictionary);
+        seriesIds[rows] = event.getSeriesId().isPresent()
+            ? encode(event.getSeriesId().get(), seriesIndex, seriesDictionary) : -1;
+        locations[rows] = (byte) event.getLocation().ordinal();
+        statuses[rows] = (byte) event.getStatus().ordinal();
+        allDay[rows] = (byte) (event.isAllDayEvent() ? 1 : 0);
+        rows++;
+        if (rows == starts.length) {
+          flushBlock();
+        }
+      }
+      flushBlock();
+      writeFooter();
+    }
+
+    private long epochSecond(LocalDateTime dateTime) {
+      return dateTime.toEpochSecond(rules.getOffset(dateTime));
+    }
+
+    private static int encode(String value, Map<String, Integer> index, List<String> dictionary) {
+      Integer id = index.get(value);
+      if (id == null) {
+        id = dictionary.size();
+        index.put(value, id);
+        dictionary.add(value);
+      }
+      return id;
+    }
+
+    private void flushBlock() throws IOException {
+      if (rows == 0) {
+        return;
+      }
+      long minStart = Long.MAX_VALUE;
+      long maxStart = Long.MIN_VALUE;
+      long minEnd = Long.MAX_VALUE;
+      long maxEnd = Long.MIN_VALUE;
+      for (int i = 0; i < rows; i++) {
+        minStart = Math.min(minStart, starts[i]);
+        maxStart = Math.max(maxStart, starts[i]);
+        minEnd = Math.min(minEnd, ends[i]);
+        maxEnd = Math.max(maxEnd, ends[i]);
+      }
+      blockIndex.add(new long[] {position, rows, minStart, maxStart, minEnd, maxEnd});
+
+      for (int i = 0; i < rows; i++) {
+        out.writeLong(starts[i]);
+      }
+      for (int i = 0; i < rows; i++) {
+        out.writeLong(ends[i]);
+      }
+      for (int i = 0; i < rows; i++) {
+        out.writeInt(subjects[i]);
+      }
+      for (int i = 0; i < rows; i++) {
+        out.writeInt(seriesIds[i]);
+      }
+      out.write(locations, 0, rows);
+      out.write(statuses, 0, rows);
+      out.write(allDay, 0, rows);
+
+      position += (long) rows * ROW_BYTES;
+      rows = 0;
+    }
+
+    private void writeFooter() throws IOException {
+      long footerPosition = position;
+      writeString(calendar.getCalendarName());
+      writeString(calendar.getTimeZone().getId());
+      writeDictionary(subjectDictionary);
+      writeDictionary(seriesDictionary);
+
+      out.writeInt(blockIndex.size());
+      for (long[] block : blockIndex) {
+        out.writeLong(block[0]);
+        out.writeInt((int) block[1]);
+        for (int i = 2; i < block.length; i++) {
+          out.writeLong(block[i]);
+        }
+      }
+
+      out.writeLong(footerPosition);
+      out.writeInt(MAGIC);
+    }
+
+    private void writeDictionary(List<String> dictionary) throws IOException {
+      out.writeInt(dictionary.size());
+      for (String value : dictionary) {
+        writeString(value);
+      }
+    }
+
+    private void writeString(String value) throws IOException {
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      out.writeInt(bytes.length);
+      out.write(bytes);
+    }
+  }
+}
@@ -0,0 +1,397 @@
+package calendar.controller.utils;
+
+import calendar.model.EventStatus;
+import calendar.model.LocationType;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Reads files written by {@link ColumnarExporter}. Only the footer is read when the file is
+ * opened. Queries then read only the blocks whose start and end statistics overlap the
+ * requested time range, and only the columns that were asked for.
+ */
+public class ColumnarReader implements Closeable {
+
+  /**
+   * The columns stored for each event, in the order they appear within a block.
+   */
+  public enum Column {
+    START(0, 8), END(8, 8), SUBJECT(16, 4), SERIES_ID(20, 4), LOCATION(24, 1), STATUS(25, 1),
+    ALL_DAY(26, 1);
+
+    private final int offsetPerRow;
+    private final int width;
+
+    Column(int offsetPerRow, int width) {
+      this.offsetPerRow = offsetPerRow;
+      this.width = width;
+    }
+  }
+
+  private final FileChannel channel;
+  private final String calendarName;
+  private final ZoneId timeZone;
+  private final String[] subjects;
+  private final String[] seriesIds;
+  private final long[] blockPositions;
+  private final int[] blockRows;
+  private final long[] blockMinStart;
+  private final long[] blockMaxEnd;
+
+  private ColumnarReader(FileChannel channel) throws IOException {
+    this.channel = channel;
+
+    long size = channel.size();
+    if (size < 20 || readAt(0, 4).getInt() != ColumnarExporter.MAGIC) {
+      throw new IOException("Not a columnar calendar file");
+    }
+    if (readAt(4, 4).getInt() != ColumnarExporter.VERSION) {
+      throw new IOException("Unsupported columnar file version");
+    }
+    ByteBuffer tail = readAt(size - 12, 12);
+    long footerPosition = tail.getLong();
+    if (tail.getInt() != ColumnarExporter.MAGIC || footerPosition < 8
+        || footerPosition > size - 12) {
+      throw new IOException("Columnar calendar file is truncated");
+    }
+
+    ByteBuffer footer = readAt(footerPosition, (int) (size - 12 - footerPosition));
+    this.calendarName = readString(footer);
+    this.timeZone = ZoneId.of(readString(footer));
+    this.subjects = readDictionary(footer);
+    this.seriesIds = readDictionary(footer);
+
+    int blocks = footer.getInt();
+    this.blockPositions = new long[blocks];
+    this.blockRows = new int[blocks];
+    this.blockMinStart = new long[blocks];
+    this.blockMaxEnd = new long[blocks];
+    for (int i = 0; i < blocks; i++) {
+      blockPositions[i] = footer.getLong();
+      blockRows[i] = footer.getInt();
+      blockMinStart[i] = footer.getLong();
+      footer.getLong();
+      footer.getLong();
+      blockMaxEnd[i] = footer.getLong();
+    }
+  }
+
+  /**
+   * Opens a columnar file and reads its footer.
+   *
+   * @param path the file to read
+   * @return a reader for the file
+   * @throws IOException if the file cannot be read or is not a columnar calendar file
+   */
+  public static ColumnarReader open(Path path) throws IOException {
+    FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+    try {
+      return new ColumnarReader(channel);
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Gets the name of the calendar the file was exported from.
+   *
+   * @return the calendar name
+   */
+  public String getCalendarName() {
+    return calendarName;
+  }
+
+  /**
+   * Gets the time zone of the calendar the file was exported from.
+   *
+   * @return the calendar's time zone
+   */
+  public ZoneId getTimeZone() {
+    return timeZone;
+  }
+
+  /**
+   * Gets the number of blocks in the file.
+   *
+   * @return the block count
+   */
+  public int getBlockCount() {
+    return blockRows.length;
+  }
+
+  /**
+   * Gets the number of events in the file.
+   *
+   * @return the event count
+   */
+  public long getRowCount() {
+    long total = 0;
+    for (int rows : blockRows) {
+      total += rows;
+    }
+    return total;
+  }
+
+  /**
+   * Reads the given columns of every event.
+   *
+   * @param columns the columns to load
+   * @return the events' values for the requested columns
+   * @throws IOException if reading fails
+   */
+  public Rows readAll(Set<Column> columns) throws IOException {
+    return read(null, null, columns);
+  }
+
+  /**
+   * Reads the given columns of the events that overlap a time range. Blocks whose statistics
+   * show they cannot overlap the range are skipped without being read.
+   *
+   * @param from    the start of the range, or null for no lower bound
+   * @param to      the end of the range (exclusive), or null for no upper bound
+   * @param columns the columns to load
+   * @return the matching events' values for the requested columns
+   * @throws IOException if reading fails
+   */
+  public Rows read(Instant from, Instant to, Set<Column> columns) throws IOException {
+    long fromSecond = from == null ? Long.MIN_VALUE : from.getEpochSecond();
+    long toSecond = to == null ? Long.MAX_VALUE : to.getEpochSecond();
+    boolean filtered = from != null || to != null;
+
+    Set<Column> requested = EnumSet.noneOf(Column.class);
+    requested.addAll(columns);
+    Set<Column> loaded = EnumSet.copyOf(requested);
+    if (filtered) {
+      loaded.add(Column.START);
+      loaded.add(Column.END);
+    }
+    Rows result = new Rows(requested);
+
+    for (int block = 0; block < blockRows.length; block++) {
+      if (blockMinStart[block] >= toSecond || blockMaxEnd[block] <= fromSecond) {
+        continue;
+      }
+      int rows = blockRows[block];
+      ByteBuffer[] data = new ByteBuffer[Column.values().length];
+      for (Column column : loaded) {
+        data[column.ordinal()] = readAt(blockPositions[block] + (long) column.offsetPerRow * rows,
+            column.width * rows);
+      }
+      result.blocksRead++;
+
+      for (int row = 0; row < rows; row++) {
+        if (filtered) {
+          long start = data[Column.START.ordinal()].getLong(row * 8);
+          long end = data[Column.END.ordinal()].getLong(row * 8);
+          if (start >= toSecond || end <= fromSecond) {
+            continue;
+          }
+        }
+        result.add(data, row);
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  private ByteBuffer readAt(long position, int length) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(length);
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, position + buffer.position()) < 0) {
+        throw new EOFException("Columnar calendar file is truncated");
+      }
+    }
+    return buffer.flip();
+  }
+
+  private static String readString(ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.getInt()];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static String[] readDictionary(ByteBuffer buffer) {
+    String[] dictionary = new String[buffer.getInt()];
+    for (int i = 0; i < dictionary.length; i++) {
+      dictionary[i] = readString(buffer);
+    }
+    return dictionary;
+  }
+
+  /**
+   * The values of the requested columns for the events a query matched, stored column by
+   * column. Asking for a column that was not requested throws IllegalStateException.
+   */
+  public class Rows {
+    private final Set<Column> columns;
+    private long[] starts = new long[0];
+    private long[] ends = new long[0];
+    private int[] subjectIds = new int[0];
+    private int[] seriesIdIds = new int[0];
+    private byte[] locations = new byte[0];
+    private byte[] statuses = new byte[0];
+    private byte[] allDay = new byte[0];
+    private int size;
+    private int capacity;
+    private int blocksRead;
+
+    private Rows(Set<Column> columns) {
+      this.columns = columns;
+    }
+
+    private void add(ByteBuffer[] data, int row) {
+      if (size == capacity) {
+        capacity = Math.max(16, size * 2);
+        starts = columns.contains(Column.START) ? Arrays.copyOf(starts, capacity) : starts;
+        ends = columns.contains(Column.END) ? Arrays.copyOf(ends, capacity) : ends;
+        subjectIds = columns.contains(Column.SUBJECT)
+            ? Arrays.copyOf(subjectIds, capacity) : subjectIds;
+        seriesIdIds = columns.contains(Column.SERIES_ID)
+            ? Arrays.copyOf(seriesIdIds, capacity) : seriesIdIds;
+        locations = columns.contains(Column.LOCATION)
+            ? Arrays.copyOf(locations, capacity) : locations;
+        statuses = columns.contains(Column.STATUS) ? Arrays.copyOf(statuses, capacity) : statuses;
+        allDay = columns.contains(Column.ALL_DAY) ? Arrays.copyOf(allDay, capacity) : allDay;
+      }
+      if (columns.contains(Column.START)) {
+        starts[size] = data[Column.START.ordinal()].getLong(row * 8);
+      }
+      if (columns.contains(Column.END)) {
+        ends[size] = data[Column.END.ordinal()].getLong(row * 8);
+      }
+      if (columns.contains(Column.SUBJECT)) {
+        subjectIds[size] = data[Column.SUBJECT.ordinal()].getInt(row * 4);
+      }
+      if (columns.contains(Column.SERIES_ID)) {
+        seriesIdIds[size] = data[Column.SERIES_ID.ordinal()].getInt(row * 4);
+      }
+      if (columns.contains(Column.LOCATION)) {
+        locations[size] = data[Column.LOCATION.ordinal()].get(row);
+      }
+      if (columns.contains(Column.STATUS)) {
+        statuses[size] = data[Column.STATUS.ordinal()].get(row);
+      }
+      if (columns.contains(Column.ALL_DAY)) {
+        allDay[size] = data[Column.ALL_DAY.ordinal()].get(row);
+      }
+      size++;
+    }
+
+    private void require(Column column) {
+      if (!columns.contains(column)) {
+        throw new IllegalStateException("Column " + column + " was not read");
+      }
+    }
+
+    /**
+     * Gets the number of events read.
+     *
+     * @return the number of rows
+     */
+    public int size() {
+      return size;
+    }
+
+    /**
+     * Gets the number of blocks that had to be read to answer the query.
+     *
+     * @return the number of blocks read
+     */
+    public int getBlocksRead() {
+      return blocksRead;
+    }
+
+    /**
+     * Gets the start of an event.
+     *
+     * @param row the row index
+     * @return the event's start instant
+     */
+    public Instant getStart(int row) {
+      require(Column.START);
+      return Instant.ofEpochSecond(starts[row]);
+    }
+
+    /**
+     * Gets the end of an event.
+     *
+     * @param row the row index
+     * @return the event's end instant
+     */
+    public Instant getEnd(int row) {
+      require(Column.END);
+      return Instant.ofEpochSecond(ends[row]);
+    }
+
+    /**
+     * Gets the subject of an event.
+     *
+     * @param row the row index
+     * @return the event's subject
+     */
+    public String getSubject(int row) {
+      require(Column.SUBJECT);
+      return subjects[subjectIds[row]];
+    }
+
+    /**
+     * Gets the series id of an event.
+     *
+     * @param row the row index
+     * @return the event's series id, or null if it is not part of a series
+     */
+    public String getSeriesId(int row) {
+      require(Column.SERIES_ID);
+      return seriesIdIds[row] < 0 ? null : seriesIds[seriesIdIds[row]];
+    }
+
+    /**
+     * Gets the location of an event.
+     *
+     * @param row the row index
+     * @return the event's location type
+     */
+    public LocationType getLocation(int row) {
+      require(Column.LOCATION);
+      return LocationType.values()[locations[row]];
+    }
+
+    /**
+     * Gets the status of an event.
+     *
+     * @param row the row index
+     * @return the event's status
+     */
+    public EventStatus getStatus(int row) {
+      require(Column.STATUS);
+      return EventStatus.values()[statuses[row]];
+    }
+
+    /**
+     * Checks whether an event is an all-day event.
+     *
+     * @param row the row index
+     * @return true if the event is an all-day event
+     */
+    public boolean isAllDay(int row) {
+      require(Column.ALL_DAY);
+      return allDay[row] != 0;
+    }
+  }
+}
@@ -0,0 +1,40 @@
+package calendar.controller.utils;
+
+/**
+ * Helpers for command lines read from a {@link LineSource}, which work on the line as a
+ * {@link CharSequence} so a line that is a view of the source's buffer is not copied.
+ */
+public final class CommandLines {
+
+  private CommandLines() {
+  }
+
+  /**
+   * Removes whitespace at both ends of a line, as {@link String#trim()} does, by taking a
+   * subsequence of it rather than a copy.
+   *
+   * @param line the line
+   * @return the line without surrounding whitespace, which is the line itself if it has none
+   */
+  public static CharSequence trim(CharSequence line) {
+    int start = 0;
+    int end = line.length();
+    while (start < end && line.charAt(start) <= ' ') {
+      start++;
+    }
+    while (end > start && line.charAt(end - 1) <= ' ') {
+      end--;
+    }
+    return start == 0 && end == line.length() ? line : line.subSequence(start, end);
+  }
+
+  /**
+   * Checks whether a line, already trimmed, is the exit command.
+   *
+   * @param line the trimmed line
+   * @return true if the line is exactly "exit"
+   */
+  public static boolean isExit(CharSequence line) {
+    return "exit".contentEquals(line);
+  }
+}
@@ -3,15 +3,17 @@ package calendar.controller.utils;
 import calendar.controller.commands.Command;
 
 /**
- * Interface for parsing command line strings into Command objects.
+ * Interface for parsing command lines into Command objects. A line is read as a character
+ * sequence, so a line that is a view of a mapped file can be parsed without copying it.
  */
 public interface CommandParser {
   /**
-   * Parses a command line string into a Command object.
+   * Parses a command line into a Command object. Parts of the line that the command keeps
+   * are copied, so the line may be reused once this returns.
    *
-   * @param commandLine the command line string to parse
+   * @param commandLine the command line to parse
    * @return the corresponding Command object
    * @throws IllegalArgumentException if the command line is invalid
    */
-  Command parse(String commandLine) throws IllegalArgumentException;
+  Command parse(CharSequence commandLine) throws IllegalArgumentException;
 }
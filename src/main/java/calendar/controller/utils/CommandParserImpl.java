@@ -1,6 +1,8 @@
 package calendar.controller.utils;
 
+import calendar.controller.commands.BeginBatchCommand;
 import calendar.controller.commands.Command;
+import calendar.controller.commands.CommitBatchCommand;
 import calendar.controller.commands.CopyEventCommand;
 import calendar.controller.commands.CopyEventsBetweenCommand;
 import calendar.controller.commands.CopyEventsOnDateCommand;
@@ -8,8 +10,11 @@ import calendar.controller.commands.CreateCalendarCommand;
 import calendar.controller.commands.CreateEventCommand;
 import calendar.controller.commands.EditCalendarCommand;
 import calendar.controller.commands.EditEventCommand;
+import calendar.controller.commands.ExportAllCommand;
 import calendar.controller.commands.ExportCommand;
+import calendar.controller.commands.ImportCommand;
 import calendar.controller.commands.PrintEventsCommand;
+import calendar.controller.commands.RollbackBatchCommand;
 import calendar.controller.commands.ShowStatusCommand;
 import calendar.controller.commands.UseCalendarCommand;
 import calendar.model.EditSettings;
@@ -20,14 +25,14 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Map;
 import java.util.Set;
-import java.util.function.Function;
 
 /**
  * Parses command strings and creates corresponding Command objects.
+ * The command is chosen by switching on its leading words, longest keyword first, so the
+ * choice never depends on the order keywords were registered in. The rest of the line is
+ * then read as spans by a {@link CommandTokenizer}.
  */
 public class CommandParserImpl implements CommandParser {
 
@@ -36,92 +41,146 @@ public class CommandParserImpl implements CommandParser {
   private static final DateTimeFormatter DATE_FORMATTER =
       DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
-  private final Map<String, Function<String, Command>> commandParsers;
+  private final DataDirectory files;
 
   /**
-   * Constructs a CommandParser and initializes the command routing map.
+   * Creates a CommandParserImpl that takes import and export file names as they are given.
    */
   public CommandParserImpl() {
-    this.commandParsers = new HashMap<>();
-    initializeCommandParsers();
+    this(null);
   }
 
   /**
-   * Parses a command string and returns the corresponding Command object.
+   * Creates a CommandParserImpl that keeps imported and exported files inside a directory, for
+   * commands sent by clients of a server.
    *
-   * @param commandLine the command string to parse
+   * @param files the directory file names are resolved against, or null to take them as given
+   */
+  public CommandParserImpl(DataDirectory files) {
+    this.files = files;
+  }
+
+  /**
+   * Parses a command line and returns the corresponding Command object.
+   *
+   * @param commandLine the command line to parse
    * @return the parsed Command
    * @throws IllegalArgumentException if the command is invalid
    */
   @Override
-  public Command parse(String commandLine) throws IllegalArgumentException {
-    if (commandLine == null || commandLine.trim().isEmpty()) {
+  public Command parse(CharSequence commandLine) throws IllegalArgumentException {
+    if (commandLine == null) {
+      throw new IllegalArgumentException("Command cannot be empty");
+    }
+    CharSequence trimmed = CommandLines.trim(commandLine);
+    if (trimmed.length() == 0) {
       throw new IllegalArgumentException("Command cannot be empty");
     }
 
-    String trimmed = commandLine.trim();
-
-    if (trimmed.equals("exit")) {
+    if (CommandLines.isExit(trimmed)) {
       return null;
     }
 
-    for (Map.Entry<String, Function<String, Command>> entry : commandParsers.entrySet()) {
-      if (trimmed.startsWith(entry.getKey())) {
-        return entry.getValue().apply(trimmed);
-      }
+    CommandTokenizer tokens = new CommandTokenizer(trimmed);
+    switch (trimmed.charAt(0)) {
+      case 'b':
+        if (tokens.is("begin batch")) {
+          return new BeginBatchCommand();
+        }
+        break;
+      case 'c':
+        if (tokens.is("commit")) {
+          return new CommitBatchCommand();
+        } else if (tokens.startsWith("create calendar", 0)) {
+          return parseCreateCalendar(tokens, "create calendar".length());
+        } else if (tokens.startsWith("create event", 0)) {
+          return parseCreateCommand(tokens, "create event ".length());
+        } else if (tokens.startsWith("copy events between", 0)) {
+          return parseCopyEventsBetween(tokens, "copy events between".length());
+        } else if (tokens.startsWith("copy events on", 0)) {
+          return parseCopyEventsOnDate(tokens, "copy events on".length());
+        } else if (tokens.startsWith("copy event ", 0)) {
+          return parseCopyEvent(tokens, "copy event".length());
+        }
+        break;
+      case 'e':
+        if (tokens.startsWith("edit calendar", 0)) {
+          return parseEditCalendar(tokens, "edit calendar".length());
+        } else if (tokens.startsWith("edit series ", 0)) {
+          return parseEditCommand(tokens, "edit series ".length(), EditSettings.ALL_EVENTS);
+        } else if (tokens.startsWith("edit events ", 0)) {
+          return parseEditCommand(tokens, "edit events ".length(), EditSettings.FORWARD);
+        } else if (tokens.startsWith("edit event ", 0)) {
+          return parseEditCommand(tokens, "edit event ".length(), EditSettings.SINGLE);
+        } else if (tokens.startsWith("export cal", 0)) {
+          return parseExportCommand(tokens, "export cal ".length());
+        } else if (tokens.startsWith("export all", 0)) {
+          return parseExportAllCommand(tokens, "export all".length());
+        }
+        break;
+      case 'u':
+        if (tokens.startsWith("use calendar", 0)) {
+          return parseUseCalendar(tokens, "use calendar".length());
+        }
+        break;
+      case 'p':
+        if (tokens.startsWith("print events on", 0)) {
+          return parsePrintOnDateCommand(tokens, "print events on ".length());
+        } else if (tokens.startsWith("print events from", 0)) {
+          return parsePrintRangeCommand(tokens, "print events from ".length());
+        }
+        break;
+      case 'i':
+        if (tokens.startsWith("import cal", 0)) {
+          return parseImportCommand(tokens, "import cal".length());
+        }
+        break;
+      case 'r':
+        if (tokens.is("rollback")) {
+          return new RollbackBatchCommand();
+        }
+        break;
+      case 's':
+        if (tokens.startsWith("show status on", 0)) {
+          return parseShowStatusCommand(tokens, "show status on ".length());
+        }
+        break;
+      default:
+        break;
     }
 
     throw new IllegalArgumentException("Unknown command: " + trimmed);
   }
 
   /**
-   * Initializes the commandParsers map with command keywords and their parsing functions.
+   * Checks that a command is long enough to hold its keyword, which for some commands ends
+   * with a space that trimming the line may have removed.
    */
-  private void initializeCommandParsers() {
-    commandParsers.put("create calendar", this::parseCreateCalendar);
-    commandParsers.put("create event", this::parseCreateCommand);
-
-    commandParsers.put("edit calendar", this::parseEditCalendar);
-    commandParsers.put("edit series ", this::parseEditCommand);
-    commandParsers.put("edit events ", this::parseEditCommand);
-    commandParsers.put("edit event ", this::parseEditCommand);
-
-    commandParsers.put("use calendar", this::parseUseCalendar);
-
-    commandParsers.put("copy events between", this::parseCopyEventsBetween);
-    commandParsers.put("copy events on", this::parseCopyEventsOnDate);
-    commandParsers.put("copy event ", this::parseCopyEvent);
-
-    commandParsers.put("print events on", this::parsePrintOnDateCommand);
-    commandParsers.put("print events from", this::parsePrintRangeCommand);
-
-    commandParsers.put("export cal", this::parseExportCommand);
-
-    commandParsers.put("show status on", this::parseShowStatusCommand);
+  private void requireArguments(CommandTokenizer tokens, int from, String message) {
+    if (from > tokens.length()) {
+      throw new IllegalArgumentException(message);
+    }
   }
 
-
-
   /**
    * Parses create calendar command.
    * Format: create calendar --name CalendarName --timezone Area/Location
    */
-  private Command parseCreateCalendar(String command) {
-    String remaining = command.substring("create calendar".length()).trim();
+  private Command parseCreateCalendar(CommandTokenizer tokens, int from) {
+    int start = tokens.trimStart(from, tokens.length());
 
-    if (!remaining.startsWith("--name")) {
+    if (!tokens.startsWith("--name", start)) {
       throw new IllegalArgumentException("Expected --name after 'create calendar'");
     }
 
-    remaining = remaining.substring("--name".length()).trim();
+    start = tokens.trimStart(start + "--name".length(), tokens.length());
 
-    String[] parts = remaining.split("--timezone");
-    if (parts.length != 2) {
+    if (tokens.split("--timezone", start, tokens.length()) != 2) {
       throw new IllegalArgumentException("Missing --timezone in create calendar command");
     }
 
-    String name = parts[0].trim();
-    String timezoneStr = parts[1].trim();
+    String name = tokens.text(tokens.start(0), tokens.end(0));
+    String timezoneStr = tokens.text(tokens.start(1), tokens.end(1));
 
     try {
       ZoneId timezone = ZoneId.of(timezoneStr);
@@ -135,14 +194,14 @@ public class CommandParserImpl implements CommandParser {
    * Parses use calendar command.
    * Format: use calendar --name CalendarName
    */
-  private Command parseUseCalendar(String command) {
-    String remaining = command.substring("use calendar".length()).trim();
+  private Command parseUseCalendar(CommandTokenizer tokens, int from) {
+    int start = tokens.trimStart(from, tokens.length());
 
-    if (!remaining.startsWith("--name")) {
+    if (!tokens.startsWith("--name", start)) {
       throw new IllegalArgumentException("Expected --name after 'use calendar'");
     }
 
-    String name = remaining.substring("--name".length()).trim();
+    String name = tokens.text(start + "--name".length(), tokens.length());
     return new UseCalendarCommand(name);
   }
 
@@ -150,30 +209,29 @@ public class CommandParserImpl implements CommandParser {
    * Parses edit calendar command.
    * Format: edit calendar --name CalendarName --property propertyName newValue
    */
-  private Command parseEditCalendar(String command) {
-    String remaining = command.substring("edit calendar".length()).trim();
+  private Command parseEditCalendar(CommandTokenizer tokens, int from) {
+    int start = tokens.trimStart(from, tokens.length());
 
-    if (!remaining.startsWith("--name")) {
+    if (!tokens.startsWith("--name", start)) {
       throw new IllegalArgumentException("Expected --name");
     }
 
-    remaining = remaining.substring("--name".length()).trim();
-    String[] parts = remaining.split("--property");
-
-    if (parts.length != 2) {
+    start = tokens.trimStart(start + "--name".length(), tokens.length());
+    if (tokens.split("--property", start, tokens.length()) != 2) {
       throw new IllegalArgumentException("Missing --property");
     }
 
-    String calendarName = parts[0].trim();
-    String propertyPart = parts[1].trim();
+    String calendarName = tokens.text(tokens.start(0), tokens.end(0));
+    int propertyStart = tokens.trimStart(tokens.start(1), tokens.end(1));
+    int propertyEnd = tokens.trimEnd(propertyStart, tokens.end(1));
 
-    String[] propertyTokens = propertyPart.split(" ", 2);
-    if (propertyTokens.length < 2) {
+    int space = tokens.indexOf(" ", propertyStart, propertyEnd);
+    if (space == -1) {
       throw new IllegalArgumentException("Missing property value");
     }
 
-    String property = propertyTokens[0].trim();
-    String value = propertyTokens[1].trim();
+    String property = tokens.text(propertyStart, space);
+    String value = tokens.text(space + 1, propertyEnd);
 
     Object newValue;
     if (property.equalsIgnoreCase("timezone")) {
@@ -193,34 +251,33 @@ public class CommandParserImpl implements CommandParser {
    * Parses copy event command.
    * Format: copy event EventName on YYYY-MM-DDTHH:MM --target TargetCal to YYYY-MM-DDTHH:MM
    */
-  private Command parseCopyEvent(String command) {
-    String remaining = command.substring("copy event".length()).trim();
+  private Command parseCopyEvent(CommandTokenizer tokens, int from) {
+    int start = tokens.trimStart(from, tokens.length());
 
-    String[] onParts = remaining.split(" on ");
-    if (onParts.length < 2) {
+    if (tokens.split(" on ", start, tokens.length()) < 2) {
       throw new IllegalArgumentException("Missing 'on' in copy event command");
     }
 
-    String eventName = onParts[0].trim();
+    String eventName = tokens.text(tokens.start(0), tokens.end(0));
 
     if (eventName.startsWith("\"") && eventName.endsWith("\"")) {
       eventName = eventName.substring(1, eventName.length() - 1);
     }
 
-    String[] targetParts = onParts[1].split(" --target ");
-    if (targetParts.length < 2) {
+    if (tokens.split(" --target ", tokens.start(1), tokens.end(1)) < 2) {
       throw new IllegalArgumentException("Missing '--target' in copy event command");
     }
 
-    LocalDateTime sourceDateTime = LocalDateTime.parse(targetParts[0].trim(), DATE_TIME_FORMATTER);
+    LocalDateTime sourceDateTime =
+        tokens.parseDateTime(tokens.start(0), tokens.end(0), DATE_TIME_FORMATTER);
 
-    String[] toParts = targetParts[1].split(" to ");
-    if (toParts.length < 2) {
+    if (tokens.split(" to ", tokens.start(1), tokens.end(1)) < 2) {
       throw new IllegalArgumentException("Missing 'to' in copy event command");
     }
 
-    String targetCalendar = toParts[0].trim();
-    LocalDateTime targetDateTime = LocalDateTime.parse(toParts[1].trim(), DATE_TIME_FORMATTER);
+    String targetCalendar = tokens.text(tokens.start(0), tokens.end(0));
+    LocalDateTime targetDateTime =
+        tokens.parseDateTime(tokens.start(1), tokens.end(1), DATE_TIME_FORMATTER);
 
     return new CopyEventCommand(eventName, sourceDateTime, targetCalendar, targetDateTime);
   }
@@ -229,23 +286,21 @@ public class CommandParserImpl implements CommandParser {
    * Parses copy events on date command.
    * Format: copy events on YYYY-MM-DD --target TargetCal to YYYY-MM-DD
    */
-  private Command parseCopyEventsOnDate(String command) {
-    String remaining = command.substring("copy events on".length()).trim();
+  private Command parseCopyEventsOnDate(CommandTokenizer tokens, int from) {
+    int start = tokens.trimStart(from, tokens.length());
 
-    String[] targetParts = remaining.split(" --target ");
-    if (targetParts.length < 2) {
+    if (tokens.split(" --target ", start, tokens.length()) < 2) {
       throw new IllegalArgumentException("Missing '--target'");
     }
 
-    LocalDate sourceDate = LocalDate.parse(targetParts[0].trim(), DATE_FORMATTER);
+    LocalDate sourceDate = tokens.parseDate(tokens.start(0), tokens.end(0), DATE_FORMATTER);
 
-    String[] toParts = targetParts[1].split(" to ");
-    if (toParts.length < 2) {
+    if (tokens.split(" to ", tokens.start(1), tokens.end(1)) < 2) {
       throw new IllegalArgumentException("Missing 'to'");
     }
 
-    String targetCalendar = toParts[0].trim();
-    LocalDate targetDate = LocalDate.parse(toParts[1].trim(), DATE_FORMATTER);
+    String targetCalendar = tokens.text(tokens.start(0), tokens.end(0));
+    LocalDate targetDate = tokens.parseDate(tokens.start(1), tokens.end(1), DATE_FORMATTER);
 
     return new CopyEventsOnDateCommand(sourceDate, targetCalendar, targetDate);
   }
@@ -254,30 +309,27 @@ public class CommandParserImpl implements CommandParser {
    * Parses copy events between dates command.
    * Format: copy events between YYYY-MM-DD and YYYY-MM-DD --target TargetCal to YYYY-MM-DD
    */
-  private Command parseCopyEventsBetween(String command) {
-    String remaining = command.substring("copy events between".length()).trim();
+  private Command parseCopyEventsBetween(CommandTokenizer tokens, int from) {
+    int start = tokens.trimStart(from, tokens.length());
 
-    String[] andParts = remaining.split(" and ");
-    if (andParts.length < 2) {
+    if (tokens.split(" and ", start, tokens.length()) < 2) {
       throw new IllegalArgumentException("Missing 'and'");
     }
 
-    LocalDate startDate = LocalDate.parse(andParts[0].trim(), DATE_FORMATTER);
+    LocalDate startDate = tokens.parseDate(tokens.start(0), tokens.end(0), DATE_FORMATTER);
 
-    String[] targetParts = andParts[1].split(" --target ");
-    if (targetParts.length < 2) {
+    if (tokens.split(" --target ", tokens.start(1), tokens.end(1)) < 2) {
       throw new IllegalArgumentException("Missing '--target'");
     }
 
-    LocalDate endDate = LocalDate.parse(targetParts[0].trim(), DATE_FORMATTER);
+    LocalDate endDate = tokens.parseDate(tokens.start(0), tokens.end(0), DATE_FORMATTER);
 
-    String[] toParts = targetParts[1].split(" to ");
-    if (toParts.length < 2) {
+    if (tokens.split(" to ", tokens.start(1), tokens.end(1)) < 2) {
       throw new IllegalArgumentException("Missing 'to'");
     }
 
-    String targetCalendar = toParts[0].trim();
-    LocalDate targetStartDate = LocalDate.parse(toParts[1].trim(), DATE_FORMATTER);
+    String targetCalendar = tokens.text(tokens.start(0), tokens.end(0));
+    LocalDate targetStartDate = tokens.parseDate(tokens.start(1), tokens.end(1), DATE_FORMATTER);
 
     return new CopyEventsBetweenCommand(startDate, endDate, targetCalendar, targetStartDate);
   }
@@ -285,34 +337,35 @@ public class CommandParserImpl implements CommandParser {
   /**
    * Parses create event commands.
    */
-  private Command parseCreateCommand(String command) {
-    String remaining = command.substring("create event ".length()).trim();
+  private Command parseCreateCommand(CommandTokenizer tokens, int from) {
+    requireArguments(tokens, from, "Invalid create command format");
+    int start = tokens.trimStart(from, tokens.length());
 
     String subject;
     int subjectEnd;
 
-    if (remaining.startsWith("\"")) {
-      int closingQuote = remaining.indexOf("\"", 1);
+    if (tokens.startsWith("\"", start)) {
+      int closingQuote = tokens.indexOf("\"", start + 1, tokens.length());
       if (closingQuote == -1) {
         throw new IllegalArgumentException("Unclosed quote in subject");
       }
-      subject = remaining.substring(1, closingQuote);
+      subject = tokens.substring(start + 1, closingQuote);
       subjectEnd = closingQuote + 1;
     } else {
-      int spaceIdx = remaining.indexOf(" ");
-      if (spaceIdx == -1) {
+      int space = tokens.indexOf(" ", start, tokens.length());
+      if (space == -1) {
         throw new IllegalArgumentException("Invalid create command format");
       }
-      subject = remaining.substring(0, spaceIdx);
-      subjectEnd = spaceIdx;
+      subject = tokens.substring(start, space);
+      subjectEnd = space;
     }
 
-    remaining = remaining.substring(subjectEnd).trim();
+    start = tokens.trimStart(subjectEnd, tokens.length());
 
-    if (remaining.startsWith("on ")) {
-      return parseAllDayCreate(subject, remaining.substring(3));
-    } else if (remaining.startsWith("from ")) {
-      return parseTimedCreate(subject, remaining.substring(5));
+    if (tokens.startsWith("on ", start)) {
+      return parseAllDayCreate(tokens, subject, start + 3);
+    } else if (tokens.startsWith("from ", start)) {
+      return parseTimedCreate(tokens, subject, start + 5);
     } else {
       throw new IllegalArgumentException("Expected 'on' or 'from' after subject");
     }
@@ -321,133 +374,132 @@ public class CommandParserImpl implements CommandParser {
   /**
    * Parses all-day event creation.
    */
-  private Command parseAllDayCreate(String subject, String remaining) {
-    String[] parts = remaining.split(" repeats ");
+  private Command parseAllDayCreate(CommandTokenizer tokens, String subject, int from) {
+    int parts = tokens.split(" repeats ", from, tokens.length());
 
-    LocalDate startDate = LocalDate.parse(parts[0].trim(), DATE_FORMATTER);
+    LocalDate startDate = tokens.parseDate(tokens.start(0), tokens.end(0), DATE_FORMATTER);
 
-    if (parts.length == 1) {
+    if (parts == 1) {
       return new CreateEventCommand(subject, startDate);
+    }
+
+    int repeatStart = tokens.trimStart(tokens.start(1), tokens.end(1));
+    int repeatEnd = tokens.trimEnd(repeatStart, tokens.end(1));
+    Set<DayOfWeek> weekdays = parseWeekdays(tokens, repeatStart, repeatEnd);
+
+    if (tokens.indexOf(" for ", repeatStart, repeatEnd) != -1) {
+      return new CreateEventCommand(subject, startDate, weekdays,
+          parseOccurrences(tokens, repeatStart, repeatEnd));
+    } else if (tokens.indexOf(" until ", repeatStart, repeatEnd) != -1) {
+      tokens.split(" until ", repeatStart, repeatEnd);
+      LocalDate endDate = tokens.parseDate(tokens.start(1), tokens.end(1), DATE_FORMATTER);
+      return new CreateEventCommand(subject, startDate, weekdays, endDate);
     } else {
-      String repeatPart = parts[1].trim();
-      Set<DayOfWeek> weekdays = parseWeekdays(repeatPart.split(" ")[0]);
-
-      if (repeatPart.contains(" for ")) {
-        String[] forParts = repeatPart.split(" for ");
-        int occurrences = Integer.parseInt(forParts[1].replace(" times", "").trim());
-        return new CreateEventCommand(subject, startDate, weekdays, occurrences);
-      } else if (repeatPart.contains(" until ")) {
-        String[] untilParts = repeatPart.split(" until ");
-        LocalDate endDate = LocalDate.parse(untilParts[1].trim(), DATE_FORMATTER);
-        return new CreateEventCommand(subject, startDate, weekdays, endDate);
-      } else {
-        throw new IllegalArgumentException("Invalid repeat format");
-      }
+      throw new IllegalArgumentException("Invalid repeat format");
     }
   }
 
   /**
    * Parses timed event creation.
    */
-  private Command parseTimedCreate(String subject, String remaining) {
-    String[] parts = remaining.split(" to ");
-    if (parts.length < 2) {
+  private Command parseTimedCreate(CommandTokenizer tokens, String subject, int from) {
+    if (tokens.split(" to ", from, tokens.length()) < 2) {
       throw new IllegalArgumentException("Missing 'to' in timed event");
     }
 
-    LocalDateTime startDateTime = LocalDateTime.parse(parts[0].trim(), DATE_TIME_FORMATTER);
+    LocalDateTime startDateTime =
+        tokens.parseDateTime(tokens.start(0), tokens.end(0), DATE_TIME_FORMATTER);
 
-    String secondPart = parts[1].trim();
-    String[] repeatSplit = secondPart.split(" repeats ");
+    int secondStart = tokens.trimStart(tokens.start(1), tokens.end(1));
+    int secondEnd = tokens.trimEnd(secondStart, tokens.end(1));
+    int parts = tokens.split(" repeats ", secondStart, secondEnd);
 
-    LocalDateTime endDateTime = LocalDateTime.parse(repeatSplit[0].trim(), DATE_TIME_FORMATTER);
+    LocalDateTime endDateTime =
+        tokens.parseDateTime(tokens.start(0), tokens.end(0), DATE_TIME_FORMATTER);
 
-    if (repeatSplit.length == 1) {
+    if (parts == 1) {
       return new CreateEventCommand(subject, startDateTime, endDateTime);
+    }
+
+    int repeatStart = tokens.trimStart(tokens.start(1), tokens.end(1));
+    int repeatEnd = tokens.trimEnd(repeatStart, tokens.end(1));
+    Set<DayOfWeek> weekdays = parseWeekdays(tokens, repeatStart, repeatEnd);
+
+    if (tokens.indexOf(" for ", repeatStart, repeatEnd) != -1) {
+      return new CreateEventCommand(subject, startDateTime, endDateTime, weekdays,
+          parseOccurrences(tokens, repeatStart, repeatEnd));
+    } else if (tokens.indexOf(" until ", repeatStart, repeatEnd) != -1) {
+      tokens.split(" until ", repeatStart, repeatEnd);
+      LocalDate endDate = tokens.parseDate(tokens.start(1), tokens.end(1), DATE_FORMATTER);
+      return new CreateEventCommand(subject, startDateTime, endDateTime, weekdays, endDate);
     } else {
-      String repeatPart = repeatSplit[1].trim();
-      Set<DayOfWeek> weekdays = parseWeekdays(repeatPart.split(" ")[0]);
-
-      if (repeatPart.contains(" for ")) {
-        String[] forParts = repeatPart.split(" for ");
-        int occurrences = Integer.parseInt(forParts[1].replace(" times", "").trim());
-        return new CreateEventCommand(subject, startDateTime, endDateTime, weekdays, occurrences);
-      } else if (repeatPart.contains(" until ")) {
-        String[] untilParts = repeatPart.split(" until ");
-        LocalDate endDate = LocalDate.parse(untilParts[1].trim(), DATE_FORMATTER);
-        return new CreateEventCommand(subject, startDateTime, endDateTime, weekdays, endDate);
-      } else {
-        throw new IllegalArgumentException("Invalid repeat format");
-      }
+      throw new IllegalArgumentException("Invalid repeat format");
     }
   }
 
   /**
-   * Parses edit event commands.
+   * Parses the occurrence count of a repeat, as in "MW for 5 times".
    */
-  private Command parseEditCommand(String command) {
-    EditSettings scope;
-    String remaining;
-
-    if (command.startsWith("edit event ")) {
-      scope = EditSettings.SINGLE;
-      remaining = command.substring("edit event ".length());
-    } else if (command.startsWith("edit events ")) {
-      scope = EditSettings.FORWARD;
-      remaining = command.substring("edit events ".length());
-    } else {
-      scope = EditSettings.ALL_EVENTS;
-      remaining = command.substring("edit series ".length());
-    }
+  private int parseOccurrences(CommandTokenizer tokens, int from, int to) {
+    tokens.split(" for ", from, to);
+    int start = tokens.trimStart(tokens.start(1), tokens.end(1));
+    int end = tokens.trimEnd(start, tokens.end(1));
+    if (end - start >= " times".length()
+        && tokens.startsWith(" times", end - " times".length())) {
+      end = tokens.trimEnd(start, end - " times".length());
+    }
+    return Integer.parseInt(tokens.text(start, end));
+  }
 
-    String[] parts = remaining.split(" with ");
-    if (parts.length != 2) {
+  /**
+   * Parses edit event commands.
+   */
+  private Command parseEditCommand(CommandTokenizer tokens, int from, EditSettings scope) {
+    if (tokens.split(" with ", from, tokens.length()) != 2) {
       throw new IllegalArgumentException("Missing 'with' in edit command");
     }
 
-    String beforeWith = parts[0].trim();
+    int valueStart = tokens.start(1);
+    int valueEnd = tokens.end(1);
+    int start = tokens.trimStart(tokens.start(0), tokens.end(0));
+    int end = tokens.trimEnd(start, tokens.end(0));
 
-    String[] tokens = beforeWith.split(" ", 2);
-    String rest = tokens[1];
+    int space = tokens.indexOf(" ", start, end);
+    if (space == -1) {
+      throw new IllegalArgumentException("Missing subject in edit command");
+    }
+    String property = tokens.text(start, space);
+    int rest = space + 1;
 
     String subject;
-    String afterSubject;
+    int afterSubject;
 
-    if (rest.startsWith("\"")) {
-      int closingQuote = rest.indexOf("\"", 1);
+    if (tokens.startsWith("\"", rest)) {
+      int closingQuote = tokens.indexOf("\"", rest + 1, end);
       if (closingQuote == -1) {
         throw new IllegalArgumentException("Unclosed quote in subject");
       }
-      subject = rest.substring(1, closingQuote);
-      afterSubject = rest.substring(closingQuote + 1).trim();
+      subject = tokens.substring(rest + 1, closingQuote);
+      afterSubject = tokens.trimStart(closingQuote + 1, end);
     } else {
-      int fromIdx = rest.indexOf(" from ");
+      int fromIdx = tokens.indexOf(" from ", rest, end);
       if (fromIdx == -1) {
         throw new IllegalArgumentException("Missing 'from' in edit command");
       }
-      subject = rest.substring(0, fromIdx).trim();
-      afterSubject = rest.substring(fromIdx).trim();
+      subject = tokens.text(rest, fromIdx);
+      afterSubject = tokens.trimStart(fromIdx, end);
     }
 
-    if (!afterSubject.startsWith("from ")) {
+    if (!tokens.startsWith("from ", afterSubject) || afterSubject + 5 > end) {
       throw new IllegalArgumentException("Missing 'from' in edit command");
     }
 
-    afterSubject = afterSubject.substring(5).trim();
+    afterSubject = tokens.trimStart(afterSubject + 5, end);
+    int toIdx = tokens.indexOf(" to ", afterSubject, end);
+    LocalDateTime startDateTime = tokens.parseDateTime(afterSubject,
+        toIdx == -1 ? end : toIdx, DATE_TIME_FORMATTER);
 
-    LocalDateTime startDateTime;
-
-    if (afterSubject.contains(" to ")) {
-      String[] dateParts = afterSubject.split(" to ");
-      startDateTime = LocalDateTime.parse(dateParts[0].trim(), DATE_TIME_FORMATTER);
-    } else {
-      startDateTime = LocalDateTime.parse(afterSubject.trim(), DATE_TIME_FORMATTER);
-    }
-
-    String newValueStr = parts[1].trim();
-    String property = tokens[0];
-
-    Object newValue = parsePropertyValue(property, newValueStr);
+    Object newValue = parsePropertyValue(property, tokens, valueStart, valueEnd);
 
     return new EditEventCommand(subject, startDateTime, property, newValue, scope);
   }
@@ -455,18 +507,18 @@ public class CommandParserImpl implements CommandParser {
   /**
    * Parses the new value for a property based on its type.
    */
-  private Object parsePropertyValue(String property, String valueStr) {
+  private Object parsePropertyValue(String property, CommandTokenizer tokens, int from, int to) {
     switch (property.toLowerCase()) {
       case "subject":
       case "description":
-        return valueStr;
+        return tokens.text(from, to);
       case "location":
-        return parseLocationType(valueStr);
+        return parseLocationType(tokens.text(from, to));
       case "start":
       case "end":
-        return LocalDateTime.parse(valueStr, DATE_TIME_FORMATTER);
+        return tokens.parseDateTime(from, to, DATE_TIME_FORMATTER);
       case "status":
-        return EventStatus.valueOf(valueStr.toUpperCase());
+        return EventStatus.valueOf(tokens.text(from, to).toUpperCase());
       default:
         throw new IllegalArgumentException("Unknown property: " + property);
     }
@@ -492,51 +544,176 @@ public class CommandParserImpl implements CommandParser {
   /**
    * Parses print events on date command.
    */
-  private Command parsePrintOnDateCommand(String command) {
-    String dateStr = command.substring("print events on ".length()).trim();
-    LocalDate date = LocalDate.parse(dateStr, DATE_FORMATTER);
+  private Command parsePrintOnDateCommand(CommandTokenizer tokens, int from) {
+    requireArguments(tokens, from, "Missing date in print command");
+    LocalDate date = tokens.parseDate(from, tokens.length(), DATE_FORMATTER);
     return new PrintEventsCommand(date);
   }
 
   /**
    * Parses print events in range command.
    */
-  private Command parsePrintRangeCommand(String command) {
-    String remaining = command.substring("print events from ".length()).trim();
-    String[] parts = remaining.split(" to ");
-    if (parts.length != 2) {
+  private Command parsePrintRangeCommand(CommandTokenizer tokens, int from) {
+    requireArguments(tokens, from, "Invalid range format");
+    int start = tokens.trimStart(from, tokens.length());
+    if (tokens.split(" to ", start, tokens.length()) != 2) {
       throw new IllegalArgumentException("Invalid range format");
     }
 
-    LocalDateTime start = LocalDateTime.parse(parts[0].trim(), DATE_TIME_FORMATTER);
-    LocalDateTime end = LocalDateTime.parse(parts[1].trim(), DATE_TIME_FORMATTER);
-    return new PrintEventsCommand(start, end);
+    LocalDateTime startTime =
+        tokens.parseDateTime(tokens.start(0), tokens.end(0), DATE_TIME_FORMATTER);
+    LocalDateTime end = tokens.parseDateTime(tokens.start(1), tokens.end(1), DATE_TIME_FORMATTER);
+    return new PrintEventsCommand(startTime, end);
   }
 
   /**
    * Parses export command.
+   * Format: export cal fileName [from yyyy-MM-dd to yyyy-MM-dd | --since token]
+   * [--level 0-9] [--buffer KB], the last two only for compressed files.
+   */
+  private Command parseExportCommand(CommandTokenizer tokens, int from) {
+    requireArguments(tokens, from, "Missing file name in export command");
+    int start = tokens.trimStart(from, tokens.length());
+    int end = tokens.length();
+
+    int level = -1;
+    int bufferKb = -1;
+    while (true) {
+      int levelIdx = tokens.lastIndexOf(" --level", start, end);
+      int bufferIdx = tokens.lastIndexOf(" --buffer", start, end);
+      if (levelIdx == -1 && bufferIdx == -1) {
+        break;
+      }
+      if (levelIdx > bufferIdx) {
+        level = parseOption(tokens.text(levelIdx + " --level".length(), end), 0, 9,
+            "Invalid compression level: ");
+        end = levelIdx;
+      } else {
+        bufferKb = parseOption(tokens.text(bufferIdx + " --buffer".length(), end), 1, 1 << 20,
+            "Invalid buffer size: ");
+        end = bufferIdx;
+      }
+    }
+
+    ExportCommand command = parseExportTarget(tokens, start, end);
+    if (level == -1 && bufferKb == -1) {
+      return command;
+    }
+    return command.withCompression(level == -1 ? GzipExporter.DEFAULT_LEVEL : level,
+        bufferKb == -1 ? GzipExporter.DEFAULT_BUFFER_SIZE : bufferKb << 10);
+  }
+
+  /**
+   * Parses an export option's whole-number value.
+   */
+  private int parseOption(String value, int min, int max, String message) {
+    try {
+      int number = Integer.parseInt(value);
+      if (number >= min && number <= max) {
+        return number;
+      }
+    } catch (NumberFormatException e) {
+      // Reported below
+    }
+    throw new IllegalArgumentException(message + value);
+  }
+
+  /**
+   * Parses the file name and what to export of an export command.
+   */
+  private ExportCommand parseExportTarget(CommandTokenizer tokens, int start, int end) {
+    int sinceIdx = tokens.lastIndexOf(" --since", start, end);
+    if (sinceIdx != -1) {
+      String token = tokens.text(sinceIdx + " --since".length(), end);
+      if (token.isEmpty()) {
+        throw new IllegalArgumentException("Missing change token after --since");
+      }
+      return new ExportCommand(exportFileName(tokens, start, sinceIdx), token);
+    }
+
+    int fromIdx = tokens.lastIndexOf(" from ", start, end);
+    if (fromIdx == -1) {
+      return new ExportCommand(exportFileName(tokens, start, end));
+    }
+
+    String fileName = exportFileName(tokens, start, fromIdx);
+    if (tokens.split(" to ", fromIdx + " from ".length(), end) != 2) {
+      throw new IllegalArgumentException("Invalid export range format");
+    }
+    LocalDate fromDate = tokens.parseDate(tokens.start(0), tokens.end(0), DATE_FORMATTER);
+    LocalDate toDate = tokens.parseDate(tokens.start(1), tokens.end(1), DATE_FORMATTER);
+    return new ExportCommand(fileName, fromDate, toDate);
+  }
+
+  /**
+   * Gets an export's file name, which must not carry an option the command does not know.
+   */
+  private String exportFileName(CommandTokenizer tokens, int start, int end) {
+    if (tokens.lastIndexOf(" --", start, end) != -1) {
+      throw new IllegalArgumentException("Unknown export option: " + tokens.text(start, end));
+    }
+    return file(tokens.text(start, end));
+  }
+
+  /**
+   * Resolves an imported or exported file's name against the data directory, if there is one.
+   */
+  private String file(String fileName) {
+    return files == null ? fileName : files.resolve(fileName);
+  }
+
+  /**
+   * Parses export all command.
+   * Format: export all directory [--format csv|ics]
    */
-  private Command parseExportCommand(String command) {
-    String fileName = command.substring("export cal ".length()).trim();
-    return new ExportCommand(fileName);
+  private Command parseExportAllCommand(CommandTokenizer tokens, int from) {
+    int start = tokens.trimStart(from, tokens.length());
+    int end = tokens.length();
+    String format = "csv";
+
+    int formatIdx = tokens.indexOf("--format", start, end);
+    if (formatIdx != -1) {
+      format = tokens.text(formatIdx + "--format".length(), end);
+      end = formatIdx;
+    }
+
+    String directory = tokens.text(start, end);
+    if (directory.isEmpty()) {
+      throw new IllegalArgumentException("Missing directory in export all command");
+    }
+    return new ExportAllCommand(file(directory), format);
+  }
+
+  /**
+   * Parses import command.
+   * Format: import cal fileName.ics
+   */
+  private Command parseImportCommand(CommandTokenizer tokens, int from) {
+    String fileName = tokens.text(from, tokens.length());
+    if (fileName.isEmpty()) {
+      throw new IllegalArgumentException("Missing file name in import command");
+    }
+    return new ImportCommand(file(fileName));
   }
 
   /**
    * Parses show status command.
    */
-  private Command parseShowStatusCommand(String command) {
-    String dateTimeStr = command.substring("show status on ".length()).trim();
-    LocalDateTime dateTime = LocalDateTime.parse(dateTimeStr, DATE_TIME_FORMATTER);
+  private Command parseShowStatusCommand(CommandTokenizer tokens, int from) {
+    requireArguments(tokens, from, "Missing date and time in show status command");
+    LocalDateTime dateTime = tokens.parseDateTime(from, tokens.length(), DATE_TIME_FORMATTER);
     return new ShowStatusCommand(dateTime);
   }
 
   /**
-   * Parses weekday abbreviations into a set of DayOfWeek.
+   * Parses the weekday abbreviations at the start of a span, up to the first space, into a
+   * set of DayOfWeek.
    * M=Monday, T=Tuesday, W=Wednesday, R=Thursday, F=Friday, S=Saturday, U=Sunday
    */
-  private Set<DayOfWeek> parseWeekdays(String weekdayStr) {
+  private Set<DayOfWeek> parseWeekdays(CommandTokenizer tokens, int from, int to) {
     Set<DayOfWeek> weekdays = new HashSet<>();
-    for (char c : weekdayStr.toCharArray()) {
+    for (int i = from; i < to && tokens.charAt(i) != ' '; i++) {
+      char c = tokens.charAt(i);
       switch (c) {
         case 'M':
           weekdays.add(DayOfWeek.MONDAY);
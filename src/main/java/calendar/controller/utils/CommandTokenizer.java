@@ -0,0 +1,321 @@
+package calendar.controller.utils;
+
+import java.nio.CharBuffer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Splits one command line into spans, given as start and end offsets into the line, so
+ * keywords can be found and dates parsed without copying parts of the line. The line may be
+ * any character sequence, such as a view of a mapped file, and only values kept by a command,
+ * such as names and subjects, are copied out as strings.
+ * Splitting around a keyword gives the same parts as {@link String#split(String)} with that
+ * keyword, but scans the line with plain string matching instead of a regular expression.
+ */
+final class CommandTokenizer {
+
+  private static final int DATE_LENGTH = "yyyy-MM-dd".length();
+  private static final int DATE_TIME_LENGTH = "yyyy-MM-ddTHH:mm".length();
+
+  private final CharSequence line;
+  /** The line itself when it is a string, whose searches are faster than a plain scan. */
+  private final String string;
+  private int[] starts = new int[4];
+  private int[] ends = new int[4];
+
+  /**
+   * Creates a tokenizer over a command line.
+   *
+   * @param line the command line
+   */
+  CommandTokenizer(CharSequence line) {
+    this.line = line;
+    this.string = line instanceof String ? (String) line : null;
+  }
+
+  /**
+   * Gets the number of characters in the line.
+   *
+   * @return the length of the line
+   */
+  int length() {
+    return line.length();
+  }
+
+  /**
+   * Gets the character at an offset.
+   *
+   * @param offset the offset of the character
+   * @return the character
+   */
+  char charAt(int offset) {
+    return line.charAt(offset);
+  }
+
+  /**
+   * Checks whether the line has a keyword at an offset.
+   *
+   * @param keyword the keyword
+   * @param offset  the offset the keyword should start at
+   * @return true if the keyword is found at the offset
+   */
+  boolean startsWith(String keyword, int offset) {
+    if (string != null) {
+      return string.startsWith(keyword, offset);
+    }
+    if (offset < 0 || offset > line.length() - keyword.length()) {
+      return false;
+    }
+    for (int i = 0; i < keyword.length(); i++) {
+      if (line.charAt(offset + i) != keyword.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Checks whether the whole line is a keyword.
+   *
+   * @param keyword the keyword
+   * @return true if the line is exactly the keyword
+   */
+  boolean is(String keyword) {
+    return line.length() == keyword.length() && startsWith(keyword, 0);
+  }
+
+  /**
+   * Finds the first occurrence of a keyword within a span.
+   *
+   * @param keyword the keyword to find
+   * @param from    the start of the span
+   * @param to      the end of the span
+   * @return the offset of the keyword, or -1 if it does not occur wholly within the span
+   */
+  int indexOf(String keyword, int from, int to) {
+    if (string != null) {
+      int index = string.indexOf(keyword, from);
+      return index != -1 && index + keyword.length() <= to ? index : -1;
+    }
+    for (int index = Math.max(from, 0); index <= to - keyword.length(); index++) {
+      if (startsWith(keyword, index)) {
+        return index;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Finds the last occurrence of a keyword within a span.
+   *
+   * @param keyword the keyword to find
+   * @param from    the start of the span
+   * @param to      the end of the span
+   * @return the offset of the keyword, or -1 if it does not occur wholly within the span
+   */
+  int lastIndexOf(String keyword, int from, int to) {
+    if (string != null) {
+      int index = string.lastIndexOf(keyword, to - keyword.length());
+      return index >= from ? index : -1;
+    }
+    for (int index = to - keyword.length(); index >= from; index--) {
+      if (startsWith(keyword, index)) {
+        return index;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Splits a span around every occurrence of a delimiter, dropping empty parts at the end as
+   * {@link String#split(String)} does. The parts are read with {@link #start(int)} and
+   * {@link #end(int)} until the next split.
+   *
+   * @param delimiter the delimiter to split around
+   * @param from      the start of the span
+   * @param to        the end of the span
+   * @return the number of parts
+   */
+  int split(String delimiter, int from, int to) {
+    int count = 0;
+    int partStart = from;
+    int index;
+    while ((index = indexOf(delimiter, partStart, to)) != -1) {
+      addPart(count++, partStart, index);
+      partStart = index + delimiter.length();
+    }
+    addPart(count++, partStart, to);
+    if (partStart == from) {
+      return count;
+    }
+    while (count > 0 && starts[count - 1] == ends[count - 1]) {
+      count--;
+    }
+    return count;
+  }
+
+  /**
+   * Gets where a part of the last split starts.
+   *
+   * @param part the index of the part
+   * @return the offset of the part's first character
+   */
+  int start(int part) {
+    return starts[part];
+  }
+
+  /**
+   * Gets where a part of the last split ends.
+   *
+   * @param part the index of the part
+   * @return the offset just past the part's last character
+   */
+  int end(int part) {
+    return ends[part];
+  }
+
+  /**
+   * Skips whitespace at the start of a span, as {@link String#trim()} does.
+   *
+   * @param from the start of the span
+   * @param to   the end of the span
+   * @return the offset of the first character that is not whitespace, or to
+   */
+  int trimStart(int from, int to) {
+    while (from < to && line.charAt(from) <= ' ') {
+      from++;
+    }
+    return from;
+  }
+
+  /**
+   * Skips whitespace at the end of a span, as {@link String#trim()} does.
+   *
+   * @param from the start of the span
+   * @param to   the end of the span
+   * @return the offset just past the last character that is not whitespace, or from
+   */
+  int trimEnd(int from, int to) {
+    while (to > from && line.charAt(to - 1) <= ' ') {
+      to--;
+    }
+    return to;
+  }
+
+  /**
+   * Copies a span out of the line with surrounding whitespace removed.
+   *
+   * @param from the start of the span
+   * @param to   the end of the span
+   * @return the trimmed text of the span
+   */
+  String text(int from, int to) {
+    int start = trimStart(from, to);
+    return substring(start, trimEnd(start, to));
+  }
+
+  /**
+   * Copies a span out of the line as it is.
+   *
+   * @param from the start of the span
+   * @param to   the end of the span
+   * @return the text of the span
+   */
+  String substring(int from, int to) {
+    return string != null ? string.substring(from, to) : line.subSequence(from, to).toString();
+  }
+
+  /**
+   * Parses a span, with surrounding whitespace removed, as a date. A plain yyyy-MM-dd date is
+   * read straight from the line; anything else is left to the formatter, which also reports
+   * errors.
+   *
+   * @param from      the start of the span
+   * @param to        the end of the span
+   * @param formatter the date format, used when the span is not a plain date
+   * @return the date
+   * @throws java.time.format.DateTimeParseException if the span is not a date
+   */
+  LocalDate parseDate(int from, int to, DateTimeFormatter formatter) {
+    int start = trimStart(from, to);
+    int end = trimEnd(start, to);
+    if (end - start == DATE_LENGTH && isDate(start)) {
+      return LocalDate.of(digits(start, 4), digits(start + 5, 2), digits(start + 8, 2));
+    }
+    return formatter.parse(CharBuffer.wrap(line, start, end), LocalDate::from);
+  }
+
+  /**
+   * Parses a span, with surrounding whitespace removed, as a date and time. A plain
+   * yyyy-MM-dd'T'HH:mm date and time is read straight from the line; anything else is left to
+   * the formatter, which also reports errors.
+   *
+   * @param from      the start of the span
+   * @param to        the end of the span
+   * @param formatter the date and time format, used when the span is not a plain date and time
+   * @return the date and time
+   * @throws java.time.format.DateTimeParseException if the span is not a date and time
+   */
+  LocalDateTime parseDateTime(int from, int to, DateTimeFormatter formatter) {
+    int start = trimStart(from, to);
+    int end = trimEnd(start, to);
+    if (end - start == DATE_TIME_LENGTH && isDate(start) && line.charAt(start + 10) == 'T'
+        && line.charAt(start + 13) == ':') {
+      int hour = digits(start + 11, 2);
+      int minute = digits(start + 14, 2);
+      if (hour >= 0 && hour < 24 && minute >= 0 && minute < 60) {
+        return LocalDateTime.of(digits(start, 4), digits(start + 5, 2), digits(start + 8, 2),
+            hour, minute);
+      }
+    }
+    return formatter.parse(CharBuffer.wrap(line, start, end), LocalDateTime::from);
+  }
+
+  /**
+   * Checks whether the line has a valid yyyy-MM-dd date at an offset. Dates the formatter
+   * would adjust, such as February 30th, are not valid here.
+   */
+  private boolean isDate(int at) {
+    if (line.charAt(at + 4) != '-' || line.charAt(at + 7) != '-') {
+      return false;
+    }
+    int year = digits(at, 4);
+    int month = digits(at + 5, 2);
+    int day = digits(at + 8, 2);
+    return year >= 1 && month >= 1 && month <= 12 && day >= 1
+        && (day <= 28 || day <= Month.of(month).length(Year.isLeap(year)));
+  }
+
+  /**
+   * Reads a number from a run of ASCII digits.
+   *
+   * @return the number, or -1 if one of the characters is not a digit
+   */
+  private int digits(int at, int count) {
+    int value = 0;
+    for (int i = at; i < at + count; i++) {
+      char c = line.charAt(i);
+      if (c < '0' || c > '9') {
+        return -1;
+      }
+      value = value * 10 + (c - '0');
+    }
+    return value;
+  }
+
+  private void addPart(int part, int start, int end) {
+    if (part == starts.length) {
+      int[] grownStarts = new int[part * 2];
+      int[] grownEnds = new int[part * 2];
+      System.arraycopy(starts, 0, grownStarts, 0, part);
+      System.arraycopy(ends, 0, grownEnds, 0, part);
+      starts = grownStarts;
+      ends = grownEnds;
+    }
+    starts[part] = start;
+    ends[part] = end;
+  }
+}
@@ -0,0 +1,289 @@
+package calendar.controller.utils;
+
+import calendar.controller.commands.Command;
+import calendar.controller.commands.CommandCodec;
+import calendar.model.CalendarManager;
+import calendar.view.View;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * A headless script whose commands were parsed ahead of time by {@link #compile} and written
+ * in binary form with {@link CommandCodec}, read back one command at a time to be replayed
+ * without parsing any text. Lines that did not parse are kept as their error, so replaying a
+ * compiled script shows the same output as running the script's text. Every record also keeps
+ * how many lines past the previous one its line is, so replayed output can name script lines.
+ */
+public final class CompiledScript implements Closeable {
+
+  private static final int MAGIC = 0x43414c43;
+  private static final int VERSION = 5;
+
+  private static final int EXIT = 0;
+  private static final int COMMAND = 1;
+  private static final int INVALID = 2;
+  private static final int FAILED = 3;
+
+  /** Longest error message kept for a line that did not parse, in UTF-8 bytes. */
+  private static final int MAX_MESSAGE_LENGTH = 1 << 20;
+
+  private final DataInputStream in;
+  private boolean exitReached;
+  private long lineNumber;
+
+  /**
+   * Opens a compiled script.
+   *
+   * @param file the compiled script
+   * @throws IOException if the file cannot be read or is not a compiled script
+   */
+  public CompiledScript(Path file) throws IOException {
+    this.in = new DataInputStream(new UnsynchronizedInput(Files.newInputStream(file)));
+    try {
+      if (in.readInt() != MAGIC) {
+        throw new IOException("Not a compiled script: " + file);
+      }
+      int version = in.readInt();
+      if (version != VERSION) {
+        throw new IOException("Unsupported compiled script version: " + version);
+      }
+    } catch (IOException e) {
+      in.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Parses a script's text and writes its commands to a compiled script. Compiling stops at
+   * the exit command, as running the script does. Lines that do not parse are shown on the
+   * view and kept in the compiled script as their error.
+   *
+   * @param lines  the script's lines
+   * @param output the file to write the compiled script to
+   * @param view   the view to show lines that do not parse on
+   * @return the number of commands compiled
+   * @throws IOException if the script cannot be read or the compiled script written
+   */
+  public static long compile(LineSource lines, Path output, View view) throws IOException {
+    CommandParserImpl parser = new CommandParserImpl();
+    long commandCount = 0;
+    long lineNumber = 0;
+    long recordLine = 0;
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(Files.newOutputStream(output), 1 << 16))) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+
+      CharSequence line;
+      while ((line = lines.nextLine()) != null) {
+        lineNumber++;
+        CharSequence commandLine = CommandLines.trim(line);
+        if (commandLine.length() == 0) {
+          continue;
+        }
+        if (CommandLines.isExit(commandLine)) {
+          out.writeByte(EXIT);
+          break;
+        }
+
+        Command command;
+        try {
+          command = parser.parse(commandLine);
+        } catch (RuntimeException e) {
+          view.displayError("Invalid command on line " + lineNumber + ": " + e.getMessage());
+          out.writeByte(e instanceof IllegalArgumentException ? INVALID : FAILED);
+          writeLineGap(lineNumber - recordLine, out);
+          writeMessage(String.valueOf(e.getMessage()), out);
+          recordLine = lineNumber;
+          continue;
+        }
+        out.writeByte(COMMAND);
+        writeLineGap(lineNumber - recordLine, out);
+        CommandCodec.write(command, out);
+        recordLine = lineNumber;
+        commandCount++;
+      }
+    }
+    return commandCount;
+  }
+
+  /**
+   * Reads the next command.
+   *
+   * @return the next command, or null once the exit command or the end of the file is reached
+   * @throws IOException if the file cannot be read or is not a valid compiled script
+   */
+  public Command next() throws IOException {
+    if (exitReached) {
+      return null;
+    }
+    int record = in.read();
+    switch (record) {
+      case -1:
+        return null;
+      case EXIT:
+        exitReached = true;
+        return null;
+      case COMMAND:
+        lineNumber += readLineGap();
+        return CommandCodec.read(in);
+      case INVALID:
+        lineNumber += readLineGap();
+        return new FailedCommand(new IllegalArgumentException(readMessage()));
+      case FAILED:
+        lineNumber += readLineGap();
+        return new FailedCommand(new IllegalStateException(readMessage()));
+      default:
+        throw new IOException("Corrupt compiled script: unknown record " + record);
+    }
+  }
+
+  /**
+   * Gets the line of the original script that the command last returned by {@link #next()}
+   * came from.
+   *
+   * @return the line's number, counting from 1, or 0 before the first command is read
+   */
+  public long getLineNumber() {
+    return lineNumber;
+  }
+
+  /**
+   * Checks whether the script's exit command has been read.
+   *
+   * @return true if the exit command was reached
+   */
+  public boolean reachedExit() {
+    return exitReached;
+  }
+
+  /**
+   * Checks whether a command read from a compiled script stands in for a line that did not
+   * parse, and so only fails with the parser's error when run.
+   *
+   * @param command a command returned by {@link #next()}
+   * @return true if the command is a line that did not parse
+   */
+  public static boolean isParseFailure(Command command) {
+    return command instanceof FailedCommand;
+  }
+
+  @Override
+  public void close() throws IOException {
+    in.close();
+  }
+
+  /**
+   * Writes the number of lines since the previous record seven bits to a byte, low bits first,
+   * so the usual gap of one line takes a single byte.
+   */
+  private static void writeLineGap(long gap, DataOutputStream out) throws IOException {
+    while (gap >= 0x80) {
+      out.writeByte((int) (gap & 0x7f) | 0x80);
+      gap >>>= 7;
+    }
+    out.writeByte((int) gap);
+  }
+
+  private long readLineGap() throws IOException {
+    long gap = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      int b = in.readUnsignedByte();
+      gap |= (long) (b & 0x7f) << shift;
+      if (b < 0x80) {
+        return gap;
+      }
+    }
+    throw new IOException("Corrupt compiled script: line number too long");
+  }
+
+  private static void writeMessage(String message, DataOutputStream out) throws IOException {
+    byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+    int length = Math.min(bytes.length, MAX_MESSAGE_LENGTH);
+    out.writeInt(length);
+    out.write(bytes, 0, length);
+  }
+
+  private String readMessage() throws IOException {
+    int length = in.readInt();
+    if (length < 0 || length > MAX_MESSAGE_LENGTH) {
+      throw new IOException("Corrupt compiled script: message of " + length + " bytes");
+    }
+    byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Buffers the compiled script without taking a lock for every byte, as
+   * {@link java.io.BufferedInputStream} does; commands are read a few bytes at a time, so the
+   * locking would cost more than decoding them.
+   */
+  private static class UnsynchronizedInput extends InputStream {
+    private final InputStream source;
+    private final byte[] buffer = new byte[1 << 16];
+    private int position;
+    private int limit;
+
+    UnsynchronizedInput(InputStream source) {
+      this.source = source;
+    }
+
+    @Override
+    public int read() throws IOException {
+      if (position == limit && !fill()) {
+        return -1;
+      }
+      return buffer[position++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+      if (length == 0) {
+        return 0;
+      }
+      if (position == limit && !fill()) {
+        return -1;
+      }
+      int count = Math.min(length, limit - position);
+      System.arraycopy(buffer, position, bytes, offset, count);
+      position += count;
+      return count;
+    }
+
+    private boolean fill() throws IOException {
+      int count = source.read(buffer, 0, buffer.length);
+      position = 0;
+      limit = Math.max(count, 0);
+      return count > 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+      source.close();
+    }
+  }
+
+  /**
+   * Stand-in for a line that did not parse, which fails with the parser's error when run.
+   */
+  private static class FailedCommand implements Command {
+    private final RuntimeException failure;
+
+    FailedCommand(RuntimeException failure) {
+      this.failure = failure;
+    }
+
+    @Override
+    public void execute(CalendarManager manager, View view) {
+      throw failure;
+    }
+  }
+}
@@ -2,88 +2,183 @@ package calendar.controller.utils;
 
 import calendar.model.Calendar;
 import calendar.model.Event;
-import calendar.model.LocationType;
-import java.io.BufferedWriter;
+import calendar.model.EventStatus;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Utility class for exporting calendar events to CSV format compatible with Google Calendar.
+ * Rows are formatted straight into a reusable {@link ExportBuffer}.
  */
-public class CsvExporter implements Exporter {
+public class CsvExporter implements TextExporter {
 
+  private static final String HEADER = "Subject,Start Date,Start Time,End Date,End Time,"
+      + "All Day Event,Description,Location,Private\n";
   private static final DateTimeFormatter DATE_FORMATTER =
       DateTimeFormatter.ofPattern("MM/dd/yyyy");
-  private static final DateTimeFormatter TIME_FORMATTER =
-      DateTimeFormatter.ofPattern("hh:mm a");
 
+  private final ForkJoinPool pool;
+  private final int chunkSize;
+
+  /**
+   * Creates a CsvExporter that formats exports in chunks on the common ForkJoinPool.
+   */
+  public CsvExporter() {
+    this(ForkJoinPool.commonPool(), ChunkedWriter.DEFAULT_CHUNK_SIZE);
+  }
+
+  /**
+   * Creates a CsvExporter that formats exports in chunks of events on a given pool.
+   *
+   * @param pool      the pool to format chunks on
+   * @param chunkSize the number of events per chunk
+   * @throws IllegalArgumentException if pool is null or chunkSize is not positive
+   */
+  public CsvExporter(ForkJoinPool pool, int chunkSize) {
+    ChunkedWriter.checkSettings(pool, chunkSize);
+    this.pool = pool;
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * Formats chunks of events in parallel and writes them to the file in order. The file
+   * holds exactly what {@link #write} would produce.
+   */
   @Override
-  public String export(List<Event> events, Path filePath, Calendar calendar)
+  public String export(Iterable<Event> events, Path filePath, Calendar calendar)
       throws IOException {
-    try (BufferedWriter writer = Files.newBufferedWriter(filePath)) {
-      writer.write("Subject,Start Date,Start Time,End Date,End Time,All Day Event,"
-          + "Description,Location,Private\n");
+    ChunkedWriter.writeFile(filePath, pool, out -> {
+      out.submit(buffer -> buffer.append(HEADER));
+      out.submitAll(events, chunkSize, this::writeEvent);
+    });
 
-      for (Event event : events) {
-        writer.write(formatEventAsCsv(event));
-        writer.write("\n");
-      }
+    return filePath.toAbsolutePath().toString();
+  }
+
+  @Override
+  public String exportChanges(Iterable<Event> changed, Iterable<Event> removed, Path filePath,
+                              Calendar calendar) throws IOException {
+    try (Writer writer = new OutputStreamWriter(Files.newOutputStream(filePath),
+        StandardCharsets.UTF_8)) {
+      writeChanges(changed, removed, writer, calendar);
     }
 
     return filePath.toAbsolutePath().toString();
   }
 
   /**
-   * Formats a single event as a CSV row.
+   * Writes the changed events as ordinary rows. CSV has no way to mark a row as removed, so
+   * removed events are left out.
    */
-  private String formatEventAsCsv(Event event) {
-    StringBuilder sb = new StringBuilder();
+  @Override
+  public void writeChanges(Iterable<Event> changed, Iterable<Event> removed, Writer writer,
+                           Calendar calendar) throws IOException {
+    write(changed, writer, calendar);
+  }
 
-    sb.append(escapeCsv(event.getSubject())).append(",");
+  @Override
+  public boolean supportsRemovals() {
+    return false;
+  }
 
-    sb.append(event.getStartDateTime().format(DATE_FORMATTER)).append(",");
+  @Override
+  public void write(Iterable<Event> events, Writer writer, Calendar calendar)
+      throws IOException {
+    ExportBuffer buffer = new ExportBuffer(writer);
+    buffer.append(HEADER);
 
-    if (event.isAllDayEvent()) {
-      sb.append(",");
-    } else {
-      sb.append(event.getStartDateTime().format(TIME_FORMATTER)).append(",");
+    for (Event event : events) {
+      writeEvent(buffer, event);
     }
+    buffer.flushBuffer();
+  }
 
-    sb.append(event.getEndDateTime().format(DATE_FORMATTER)).append(",");
-
-    if (event.isAllDayEvent()) {
-      sb.append(",");
-    } else {
-      sb.append(event.getEndDateTime().format(TIME_FORMATTER)).append(",");
+  /**
+   * Writes a single event as a CSV row.
+   */
+  private void writeEvent(ExportBuffer buffer, Event event) throws IOException {
+    boolean allDay = event.isAllDayEvent();
+
+    writeEscaped(buffer, event.getSubject());
+    buffer.append(',');
+    writeDate(buffer, event.getStartDateTime());
+    buffer.append(',');
+    if (!allDay) {
+      writeTime(buffer, event.getStartDateTime());
     }
+    buffer.append(',');
+    writeDate(buffer, event.getEndDateTime());
+    buffer.append(',');
+    if (!allDay) {
+      writeTime(buffer, event.getEndDateTime());
+    }
+    buffer.append(',');
+    buffer.append(allDay ? "True" : "False").append(',');
+    writeEscaped(buffer, event.getDescription().orElse(""));
+    buffer.append(',');
+    writeEscaped(buffer, event.getLocation().getDisplayValue());
+    buffer.append(',');
+    buffer.append(event.getStatus() == EventStatus.PRIVATE ? "True" : "False");
+    buffer.append('\n');
+  }
 
-    sb.append(event.isAllDayEvent() ? "True" : "False").append(",");
-
-    sb.append(escapeCsv(event.getDescription().orElse(""))).append(",");
-
-    sb.append(escapeCsv(event.getLocation().getDisplayValue())).append(",");
-
-    sb.append(event.getStatus().toString().equals("PRIVATE") ? "True" : "False");
+  /**
+   * Writes the date as MM/dd/yyyy.
+   */
+  private void writeDate(ExportBuffer buffer, LocalDateTime dateTime) throws IOException {
+    int year = dateTime.getYear();
+    if (year < 0 || year > 9999) {
+      buffer.append(dateTime.format(DATE_FORMATTER));
+      return;
+    }
+    buffer.appendPadded(dateTime.getMonthValue(), 2).append('/')
+        .appendPadded(dateTime.getDayOfMonth(), 2).append('/')
+        .appendPadded(year, 4);
+  }
 
-    return sb.toString();
+  /**
+   * Writes the time as hh:mm AM or hh:mm PM.
+   */
+  private void writeTime(ExportBuffer buffer, LocalDateTime dateTime) throws IOException {
+    int hour = dateTime.getHour();
+    int clockHour = hour % 12 == 0 ? 12 : hour % 12;
+    buffer.appendPadded(clockHour, 2).append(':')
+        .appendPadded(dateTime.getMinute(), 2)
+        .append(hour < 12 ? " AM" : " PM");
   }
 
   /**
-   * Escapes a string for CSV format by wrapping in quotes if necessary.
+   * Writes a value, wrapped in quotes with inner quotes doubled if it contains a comma,
+   * quote or newline.
    */
-  private String escapeCsv(String value) {
-    if (value.isEmpty()) {
-      return "";
+  private void writeEscaped(ExportBuffer buffer, String value) throws IOException {
+    int length = value.length();
+    boolean needsQuotes = false;
+    for (int i = 0; i < length && !needsQuotes; i++) {
+      char c = value.charAt(i);
+      needsQuotes = c == ',' || c == '"' || c == '\n';
     }
 
-    if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
-      value = value.replace("\"", "\"\"");
-      return "\"" + value + "\"";
+    if (!needsQuotes) {
+      buffer.append(value);
+      return;
     }
 
-    return value;
+    buffer.append('"');
+    for (int i = 0; i < length; i++) {
+      char c = value.charAt(i);
+      if (c == '"') {
+        buffer.append('"');
+      }
+      buffer.append(c);
+    }
+    buffer.append('"');
   }
-}
\ No newline at end of file
+}
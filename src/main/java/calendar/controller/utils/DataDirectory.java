@@ -0,0 +1,60 @@
+package calendar.controller.utils;
+
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * The directory a server reads and writes its clients' files in. File names sent by clients
+ * are resolved against it and must stay inside it: absolute paths and names with a ".." part
+ * are rejected, so a client cannot read or overwrite any other file the server can reach.
+ */
+public final class DataDirectory {
+
+  private final Path root;
+
+  /**
+   * Creates a DataDirectory.
+   *
+   * @param root the directory clients' file names are resolved against
+   */
+  public DataDirectory(Path root) {
+    this.root = root;
+  }
+
+  /**
+   * Gets the directory clients' file names are resolved against.
+   *
+   * @return the directory
+   */
+  public Path getRoot() {
+    return root;
+  }
+
+  /**
+   * Resolves a client's file name against the directory.
+   *
+   * @param fileName the file name, relative to the directory
+   * @return the file's path, inside the directory
+   * @throws IllegalArgumentException if the name is not a path, is absolute or has a ".." part
+   */
+  public String resolve(String fileName) {
+    Path path;
+    try {
+      path = Paths.get(fileName);
+    } catch (InvalidPathException e) {
+      throw new IllegalArgumentException("Invalid file name: " + fileName);
+    }
+    if (path.isAbsolute() || path.getRoot() != null) {
+      throw new IllegalArgumentException("File must be relative to the data directory: "
+          + fileName);
+    }
+    for (Path part : path) {
+      if (part.toString().equals("..")) {
+        throw new IllegalArgumentException("File must stay inside the data directory: "
+            + fileName);
+      }
+    }
+    return root.resolve(path).toString();
+  }
+}
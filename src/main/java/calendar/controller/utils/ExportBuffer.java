@@ -0,0 +1,193 @@
+package calendar.controller.utils;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.zone.ZoneRules;
+
+/**
+ * Reusable character buffer that exporters format into before handing text to a writer.
+ * Numbers are written digit by digit and strings are copied straight into the buffer, so
+ * formatting an event does not create intermediate strings.
+ */
+class ExportBuffer {
+
+  private static final int DEFAULT_CAPACITY = 1 << 13;
+  private static final DateTimeFormatter BASIC_UTC_FORMATTER =
+      DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+  private static final DateTimeFormatter EXTENDED_UTC_FORMATTER =
+      DateTimeFormatter.ofPattern("uuuu-MM-dd'T'HH:mm:ss'Z'");
+  private static final int SECONDS_PER_DAY = 86_400;
+  private static final long MIN_EPOCH_SECOND = -62_167_219_200L;
+  private static final long MAX_EPOCH_SECOND = 253_402_300_799L;
+
+  private final Writer out;
+  private final char[] buffer;
+  private int position;
+
+  /**
+   * Creates an ExportBuffer that writes to the given writer.
+   *
+   * @param out the writer to pass the formatted text to
+   */
+  ExportBuffer(Writer out) {
+    this.out = out;
+    this.buffer = new char[DEFAULT_CAPACITY];
+    this.position = 0;
+  }
+
+  /**
+   * Appends a single character.
+   *
+   * @param c the character to append
+   * @return this buffer
+   * @throws IOException if the buffer is full and writing it out fails
+   */
+  ExportBuffer append(char c) throws IOException {
+    if (position == buffer.length) {
+      flushBuffer();
+    }
+    buffer[position++] = c;
+    return this;
+  }
+
+  /**
+   * Appends a string as is.
+   *
+   * @param text the string to append
+   * @return this buffer
+   * @throws IOException if the buffer is full and writing it out fails
+   */
+  ExportBuffer append(String text) throws IOException {
+    return append(text, 0, text.length());
+  }
+
+  /**
+   * Appends part of a string as is.
+   *
+   * @param text  the string to append from
+   * @param start the index of the first character to append
+   * @param end   the index after the last character to append
+   * @return this buffer
+   * @throws IOException if the buffer is full and writing it out fails
+   */
+  ExportBuffer append(String text, int start, int end) throws IOException {
+    int offset = start;
+    while (offset < end) {
+      if (position == buffer.length) {
+        flushBuffer();
+      }
+      int count = Math.min(end - offset, buffer.length - position);
+      text.getChars(offset, offset + count, buffer, position);
+      position += count;
+      offset += count;
+    }
+    return this;
+  }
+
+  /**
+   * Appends a non-negative number, left-padded with zeros to the given width.
+   *
+   * @param value the number to append, which must not be negative
+   * @param width the minimum number of digits
+   * @return this buffer
+   * @throws IOException if the buffer is full and writing it out fails
+   */
+  ExportBuffer appendPadded(int value, int width) throws IOException {
+    int digits = 1;
+    for (int rest = value / 10; rest > 0; rest /= 10) {
+      digits++;
+    }
+    for (int i = digits; i < width; i++) {
+      append('0');
+    }
+    if (buffer.length - position < digits) {
+      flushBuffer();
+    }
+    int end = position + digits;
+    for (int i = end - 1; i >= position; i--) {
+      buffer[i] = (char) ('0' + value % 10);
+      value /= 10;
+    }
+    position = end;
+    return this;
+  }
+
+  /**
+   * Appends a number in decimal.
+   *
+   * @param value the number to append
+   * @return this buffer
+   * @throws IOException if the buffer is full and writing it out fails
+   */
+  ExportBuffer appendInt(int value) throws IOException {
+    if (value < 0) {
+      if (value == Integer.MIN_VALUE) {
+        return append(Integer.toString(value));
+      }
+      append('-');
+      value = -value;
+    }
+    return appendPadded(value, 1);
+  }
+
+  /**
+   * Appends a calendar-local date-time as a UTC instant, either in the basic form
+   * yyyyMMdd'T'HHmmss'Z' used by iCal or the extended ISO-8601 form yyyy-MM-dd'T'HH:mm:ss'Z'.
+   * The offset picked by ZoneRules gives the same instant as atZone for gaps and overlaps.
+   *
+   * @param dateTime the local date-time to append
+   * @param rules    the rules of the calendar's time zone
+   * @param extended true for the extended form with separators
+   * @return this buffer
+   * @throws IOException if the buffer is full and writing it out fails
+   */
+  ExportBuffer appendUtc(LocalDateTime dateTime, ZoneRules rules, boolean extended)
+      throws IOException {
+    long epochSecond = dateTime.toEpochSecond(rules.getOffset(dateTime));
+    if (epochSecond < MIN_EPOCH_SECOND || epochSecond > MAX_EPOCH_SECOND) {
+      return append(dateTime.atZone(rules.getOffset(dateTime))
+          .withZoneSameInstant(ZoneOffset.UTC)
+          .format(extended ? EXTENDED_UTC_FORMATTER : BASIC_UTC_FORMATTER));
+    }
+
+    long epochDay = Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+    int secondOfDay = Math.floorMod(epochSecond, SECONDS_PER_DAY);
+
+    // Civil date from days since 1970-01-01, using 400-year eras that start on March 1st.
+    long days = epochDay + 719_468;
+    long era = Math.floorDiv(days, 146_097);
+    int dayOfEra = (int) (days - era * 146_097);
+    int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+    int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+    int shiftedMonth = (5 * dayOfYear + 2) / 153;
+    int day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+    int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+    int year = (int) (yearOfEra + era * 400) + (month <= 2 ? 1 : 0);
+
+    appendPadded(year, 4);
+    if (extended) {
+      append('-').appendPadded(month, 2).append('-').appendPadded(day, 2).append('T')
+          .appendPadded(secondOfDay / 3600, 2).append(':')
+          .appendPadded(secondOfDay / 60 % 60, 2).append(':');
+    } else {
+      appendPadded(month, 2).appendPadded(day, 2).append('T')
+          .appendPadded(secondOfDay / 3600, 2).appendPadded(secondOfDay / 60 % 60, 2);
+    }
+    return appendPadded(secondOfDay % 60, 2).append('Z');
+  }
+
+  /**
+   * Writes any buffered text to the writer. The writer itself is not flushed or closed.
+   *
+   * @throws IOException if writing fails
+   */
+  void flushBuffer() throws IOException {
+    if (position > 0) {
+      out.write(buffer, 0, position);
+      position = 0;
+    }
+  }
+}
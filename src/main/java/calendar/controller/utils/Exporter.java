@@ -4,21 +4,46 @@ import calendar.model.Calendar;
 import calendar.model.Event;
 import java.io.IOException;
 import java.nio.file.Path;
-import java.util.List;
 
 /**
  * Interface for exporting calendar events to different file formats.
+ * Formats whose output is text also implement {@link TextExporter}, which writes to an open
+ * writer.
  */
 public interface Exporter {
 
   /**
-   * Exports the given list of events to the specified file path.
+   * Exports the given events to the specified file path.
+   * Events are written in the order the source yields them, and the source is read only once,
+   * so it may be a lazy view over the calendar.
    *
-   * @param events   the list of events to export
+   * @param events   the events to export
    * @param filePath the path of the file to export to
    * @param calendar the calendar from which events are exported
    * @return the absolute path of the exported file as a string
    * @throws IOException if an I/O error occurs during export
    */
-  String export(List<Event> events, Path filePath, Calendar calendar) throws IOException;
-}
\ No newline at end of file
+  String export(Iterable<Event> events, Path filePath, Calendar calendar) throws IOException;
+
+  /**
+   * Exports only the events that changed, for a receiver that already has the rest.
+   * Formats that cannot mark an event as removed leave the removed events out.
+   *
+   * @param changed  the events added or changed, as they are now
+   * @param removed  the events removed, as they were
+   * @param filePath the path of the file to export to
+   * @param calendar the calendar from which events are exported
+   * @return the absolute path of the exported file as a string
+   * @throws IOException if an I/O error occurs during export
+   */
+  String exportChanges(Iterable<Event> changed, Iterable<Event> removed, Path filePath,
+                       Calendar calendar) throws IOException;
+
+  /**
+   * Tells whether {@link #exportChanges} can mark events as removed. Formats that cannot
+   * leave removed events out, so a receiver applying the changes would keep them.
+   *
+   * @return true if removed events are written, false if they are left out
+   */
+  boolean supportsRemovals();
+}
@@ -6,32 +6,63 @@ import java.util.function.Supplier;
 
 /**
  * Factory for creating appropriate Exporter instances based on file extension.
- * Implements the Factory Method design pattern.
+ * Implements the Factory Method design pattern. Compressed formats wrap the exporter for the
+ * uncompressed format in a {@link GzipExporter}.
  */
 public class ExporterFactory {
 
   private static final Map<String, Supplier<Exporter>> EXPORTER_MAP = new HashMap<>();
+  private static final Map<String, Supplier<TextExporter>> COMPRESSED_MAP = new HashMap<>();
 
   static {
     EXPORTER_MAP.put(".ical", IcalExporter::new);
     EXPORTER_MAP.put(".ics", IcalExporter::new);
     EXPORTER_MAP.put(".csv", CsvExporter::new);
+    EXPORTER_MAP.put(".ndjson", NdjsonExporter::new);
+    EXPORTER_MAP.put(".evcol", ColumnarExporter::new);
+    COMPRESSED_MAP.put(".ical.gz", IcalExporter::new);
+    COMPRESSED_MAP.put(".ics.gz", IcalExporter::new);
+    COMPRESSED_MAP.put(".csv.gz", CsvExporter::new);
+    COMPRESSED_MAP.put(".ndjson.gz", NdjsonExporter::new);
   }
 
   /**
-   * Creates an appropriate exporter based on the file extension.
+   * Creates an appropriate exporter based on the file extension, compressing with the
+   * default level and buffer size for compressed formats.
    *
    * @param fileName the name of the file to export to
    * @return an Exporter instance for the given file type
    * @throws IllegalArgumentException if the file extension is not supported
    */
   public static Exporter createExporter(String fileName) {
+    return createExporter(fileName, GzipExporter.DEFAULT_LEVEL,
+        GzipExporter.DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * Creates an appropriate exporter based on the file extension. The level and buffer size
+   * are used for compressed formats and ignored for the others.
+   *
+   * @param fileName   the name of the file to export to
+   * @param level      the deflate level, from 0 (none) to 9 (smallest)
+   * @param bufferSize the size in bytes of the compression buffers
+   * @return an Exporter instance for the given file type
+   * @throws IllegalArgumentException if the file extension is not supported, or the level or
+   *                                  buffer size is out of range for a compressed format
+   */
+  public static Exporter createExporter(String fileName, int level, int bufferSize) {
     if (fileName == null || fileName.trim().isEmpty()) {
       throw new IllegalArgumentException("File name cannot be null or empty");
     }
 
     String lowerCaseFileName = fileName.toLowerCase();
 
+    for (Map.Entry<String, Supplier<TextExporter>> entry : COMPRESSED_MAP.entrySet()) {
+      if (lowerCaseFileName.endsWith(entry.getKey())) {
+        return new GzipExporter(entry.getValue().get(), level, bufferSize);
+      }
+    }
+
     for (Map.Entry<String, Supplier<Exporter>> entry : EXPORTER_MAP.entrySet()) {
       if (lowerCaseFileName.endsWith(entry.getKey())) {
         return entry.getValue().get();
@@ -41,6 +72,26 @@ public class ExporterFactory {
     return new CsvExporter();
   }
 
+  /**
+   * Checks if a file extension is one of the compressed formats.
+   *
+   * @param fileName the file name to check
+   * @return true if the file is written compressed, false otherwise
+   */
+  public static boolean isCompressedFormat(String fileName) {
+    if (fileName == null) {
+      return false;
+    }
+
+    String lowerCase = fileName.toLowerCase();
+    for (String extension : COMPRESSED_MAP.keySet()) {
+      if (lowerCase.endsWith(extension)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   /**
    * Checks if a file extension is supported.
    *
@@ -53,6 +104,11 @@ public class ExporterFactory {
     }
 
     String lowerCase = fileName.toLowerCase();
-    return lowerCase.endsWith(".ical") || lowerCase.endsWith(".ics") || lowerCase.endsWith(".csv");
+    for (String extension : EXPORTER_MAP.keySet()) {
+      if (lowerCase.endsWith(extension)) {
+        return true;
+      }
+    }
+    return isCompressedFormat(fileName);
   }
 }
\ No newline at end of file
@@ -0,0 +1,110 @@
+package calendar.controller.utils;
+
+import calendar.model.Calendar;
+import calendar.model.Event;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exporter that gzip-compresses the output of a text exporter as it is written.
+ * Implements the Decorator design pattern over {@link TextExporter}. The compressed output is
+ * binary, so this is not a text exporter itself.
+ */
+public class GzipExporter implements Exporter {
+
+  /**
+   * Compression level used when none is given, favouring speed over size.
+   */
+  public static final int DEFAULT_LEVEL = Deflater.BEST_SPEED;
+
+  /**
+   * Buffer size in bytes used when none is given.
+   */
+  public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+  private final TextExporter delegate;
+  private final int level;
+  private final int bufferSize;
+
+  /**
+   * Creates a GzipExporter with the default compression level and buffer size.
+   *
+   * @param delegate the exporter that formats the events
+   */
+  public GzipExporter(TextExporter delegate) {
+    this(delegate, DEFAULT_LEVEL, DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * Creates a GzipExporter with the given compression level and buffer size.
+   *
+   * @param delegate   the exporter that formats the events
+   * @param level      the deflate level, from 0 (none) to 9 (smallest)
+   * @param bufferSize the size in bytes of the text and compression buffers
+   * @throws IllegalArgumentException if the delegate is null, the level is out of range or
+   *                                  the buffer size is not positive
+   */
+  public GzipExporter(TextExporter delegate, int level, int bufferSize) {
+    if (delegate == null) {
+      throw new IllegalArgumentException("Delegate exporter cannot be null");
+    }
+    if (level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+      throw new IllegalArgumentException("Compression level must be between 0 and 9");
+    }
+    if (bufferSize <= 0) {
+      throw new IllegalArgumentException("Buffer size must be positive");
+    }
+    this.delegate = delegate;
+    this.level = level;
+    this.bufferSize = bufferSize;
+  }
+
+  @Override
+  public String export(Iterable<Event> events, Path filePath, Calendar calendar)
+      throws IOException {
+    try (Writer writer = openCompressed(filePath)) {
+      delegate.write(events, writer, calendar);
+    }
+
+    return filePath.toAbsolutePath().toString();
+  }
+
+  @Override
+  public String exportChanges(Iterable<Event> changed, Iterable<Event> removed, Path filePath,
+                              Calendar calendar) throws IOException {
+    try (Writer writer = openCompressed(filePath)) {
+      delegate.writeChanges(changed, removed, writer, calendar);
+    }
+
+    return filePath.toAbsolutePath().toString();
+  }
+
+  @Override
+  public boolean supportsRemovals() {
+    return delegate.supportsRemovals();
+  }
+
+  private Writer openCompressed(Path filePath) throws IOException {
+    return new BufferedWriter(new OutputStreamWriter(
+        new LeveledGzipOutputStream(Files.newOutputStream(filePath), bufferSize, level),
+        StandardCharsets.UTF_8), bufferSize);
+  }
+
+  /**
+   * GZIPOutputStream that lets the deflate level be chosen.
+   */
+  private static class LeveledGzipOutputStream extends GZIPOutputStream {
+    LeveledGzipOutputStream(OutputStream out, int bufferSize, int level) throws IOException {
+      super(out, bufferSize);
+      def.setLevel(level);
+    }
+  }
+}
@@ -0,0 +1,49 @@
+package calendar.controller.utils;
+
+import calendar.model.Calendar;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Importer that decompresses gzip input and hands the text to another importer.
+ * Implements the Decorator design pattern over {@link Importer}.
+ */
+public class GzipImporter implements Importer {
+
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private final Importer delegate;
+
+  /**
+   * Creates a GzipImporter.
+   *
+   * @param delegate the importer that parses the decompressed text
+   * @throws IllegalArgumentException if the delegate is null
+   */
+  public GzipImporter(Importer delegate) {
+    if (delegate == null) {
+      throw new IllegalArgumentException("Delegate importer cannot be null");
+    }
+    this.delegate = delegate;
+  }
+
+  @Override
+  public ImportResult importEvents(Path filePath, Calendar calendar) throws IOException {
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+        new GZIPInputStream(Files.newInputStream(filePath), BUFFER_SIZE),
+        StandardCharsets.UTF_8), BUFFER_SIZE)) {
+      return delegate.importEvents(reader, calendar);
+    }
+  }
+
+  @Override
+  public ImportResult importEvents(BufferedReader reader, Calendar calendar)
+      throws IOException {
+    return delegate.importEvents(reader, calendar);
+  }
+}
@@ -4,109 +4,671 @@ import calendar.model.Calendar;
 import calendar.model.Event;
 import calendar.model.EventStatus;
 import calendar.model.LocationType;
-import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.time.ZoneId;
-import java.time.ZonedDateTime;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Utility class for exporting calendar events to iCal format.
+ * Events are formatted straight into a reusable {@link ExportBuffer}. Events that are not
+ * part of a series are written in the order given. The occurrences of a series are held
+ * until the events read have moved five weeks past its last occurrence, so that a series
+ * missing up to four weeks of occurrences in a row still has them all together, and the
+ * series is then written, as a recurring VEVENT where possible. So only the series still in
+ * progress are held, and each series is written close to where it ends. Occurrences of a
+ * series that arrive after it was written, and the occurrences of the series in progress
+ * longest once too many are held, are written as plain VEVENTs.
  */
-public class IcalExporter implements Exporter {
+public class IcalExporter implements TextExporter {
+
+  /**
+   * Most occurrences of series in progress held at once when none is given.
+   */
+  public static final int DEFAULT_MAX_HELD_EVENTS = 1 << 16;
 
   private static final DateTimeFormatter ICAL_FORMATTER =
       DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+  private static final int SERIES_GAP_DAYS = 35;
+
+  private final ForkJoinPool pool;
+  private final int chunkSize;
+  private final int maxHeldEvents;
+
+  /**
+   * Creates an IcalExporter that formats exports in chunks on the common ForkJoinPool.
+   */
+  public IcalExporter() {
+    this(ForkJoinPool.commonPool(), ChunkedWriter.DEFAULT_CHUNK_SIZE);
+  }
+
+  /**
+   * Creates an IcalExporter that formats exports in chunks of events on a given pool.
+   *
+   * @param pool      the pool to format chunks on
+   * @param chunkSize the number of events per chunk
+   * @throws IllegalArgumentException if pool is null or chunkSize is not positive
+   */
+  public IcalExporter(ForkJoinPool pool, int chunkSize) {
+    this(pool, chunkSize, DEFAULT_MAX_HELD_EVENTS);
+  }
 
+  /**
+   * Creates an IcalExporter that formats exports in chunks of events on a given pool and
+   * holds at most a given number of series occurrences while their series are in progress.
+   *
+   * @param pool          the pool to format chunks on
+   * @param chunkSize     the number of events per chunk
+   * @param maxHeldEvents the most occurrences of series in progress to hold at once
+   * @throws IllegalArgumentException if pool is null, or chunkSize or maxHeldEvents is not
+   *                                  positive
+   */
+  public IcalExporter(ForkJoinPool pool, int chunkSize, int maxHeldEvents) {
+    ChunkedWriter.checkSettings(pool, chunkSize);
+    if (maxHeldEvents <= 0) {
+      throw new IllegalArgumentException("Held event limit must be positive");
+    }
+    this.pool = pool;
+    this.chunkSize = chunkSize;
+    this.maxHeldEvents = maxHeldEvents;
+  }
 
+  /**
+   * Formats chunks of events in parallel and writes them to the file in order. The file
+   * holds exactly what {@link #write} would produce: single events and completed series are
+   * gathered into chunks as they come, with the VTIMEZONE placed before the first series
+   * written as a recurrence.
+   */
   @Override
-  public String export(List<Event> events, Path filePath, Calendar calendar)
+  public String export(Iterable<Event> events, Path filePath, Calendar calendar)
       throws IOException {
-    String calendarName = calendar.getCalendarName();
-    ZoneId timeZone = calendar.getTimeZone();
-
-    try (BufferedWriter writer = Files.newBufferedWriter(filePath)) {
-      writer.write("BEGIN:VCALENDAR\n");
-      writer.write("VERSION:2.0\n");
-      writer.write("PRODID:-//Calendar Application//EN\n");
-      writer.write("CALSCALE:GREGORIAN\n");
-      writer.write("METHOD:PUBLISH\n");
-      writer.write("X-WR-CALNAME:" + escapeText(calendarName) + "\n");
-      writer.write("X-WR-TIMEZONE:" + timeZone.getId() + "\n");
+    ZoneRules rules = calendar.getTimeZone().getRules();
+    String timestamp = LocalDateTime.now(ZoneOffset.UTC).format(ICAL_FORMATTER);
 
+    ChunkedWriter.writeFile(filePath, pool, out -> {
+      out.submit(buffer -> writeHeader(buffer, calendar));
+
+      ChunkSink sink = new ChunkSink(out, rules, timestamp, calendar.getTimeZone());
+      SeriesGrouper grouper = new SeriesGrouper(sink, maxHeldEvents);
       for (Event event : events) {
-        writeEvent(writer, event, timeZone);
+        grouper.add(event);
       }
+      grouper.finish();
+      sink.flush();
+
+      out.submit(buffer -> buffer.append("END:VCALENDAR\n"));
+    });
 
-      writer.write("END:VCALENDAR\n");
+    return filePath.toAbsolutePath().toString();
+  }
+
+  @Override
+  public void write(Iterable<Event> events, Writer writer, Calendar calendar)
+      throws IOException {
+    ZoneRules rules = calendar.getTimeZone().getRules();
+    ExportBuffer buffer = new ExportBuffer(writer);
+    writeHeader(buffer, calendar);
+
+    String timestamp = LocalDateTime.now(ZoneOffset.UTC).format(ICAL_FORMATTER);
+    SeriesState state = new SeriesState(calendar.getTimeZone());
+    SeriesGrouper grouper = new SeriesGrouper(new SeriesSink() {
+      @Override
+      public void single(Event event) throws IOException {
+        writeEvent(buffer, event, rules, timestamp);
+      }
+
+      @Override
+      public void series(String seriesId, List<Event> occurrences) throws IOException {
+        writeSeries(buffer, seriesId, occurrences, rules, timestamp, state);
+      }
+    }, maxHeldEvents);
+    for (Event event : events) {
+      grouper.add(event);
+    }
+    grouper.finish();
+
+    buffer.append("END:VCALENDAR\n");
+    buffer.flushBuffer();
+  }
+
+  @Override
+  public String exportChanges(Iterable<Event> changed, Iterable<Event> removed, Path filePath,
+                              Calendar calendar) throws IOException {
+    try (Writer writer = new OutputStreamWriter(Files.newOutputStream(filePath),
+        StandardCharsets.UTF_8)) {
+      writeChanges(changed, removed, writer, calendar);
     }
 
     return filePath.toAbsolutePath().toString();
   }
 
+  /**
+   * Writes changed events and cancellations. Series occurrences are written as
+   * RECURRENCE-ID instances of their series so they update the recurring VEVENT of an earlier
+   * full export, and removed events are written with STATUS:CANCELLED.
+   */
+  @Override
+  public void writeChanges(Iterable<Event> changed, Iterable<Event> removed, Writer writer,
+                           Calendar calendar) throws IOException {
+    ZoneRules rules = calendar.getTimeZone().getRules();
+    ExportBuffer buffer = new ExportBuffer(writer);
+    writeHeader(buffer, calendar);
+
+    String timestamp = LocalDateTime.now(ZoneOffset.UTC).format(ICAL_FORMATTER);
+    for (Event event : changed) {
+      writeChange(buffer, event, rules, timestamp, false);
+    }
+    for (Event event : removed) {
+      writeChange(buffer, event, rules, timestamp, true);
+    }
+
+    buffer.append("END:VCALENDAR\n");
+    buffer.flushBuffer();
+  }
+
+  @Override
+  public boolean supportsRemovals() {
+    return true;
+  }
+
+  private void writeHeader(ExportBuffer buffer, Calendar calendar) throws IOException {
+    buffer.append("BEGIN:VCALENDAR\n");
+    buffer.append("VERSION:2.0\n");
+    buffer.append("PRODID:-//Calendar Application//EN\n");
+    buffer.append("CALSCALE:GREGORIAN\n");
+    buffer.append("METHOD:PUBLISH\n");
+    buffer.append("X-WR-CALNAME:");
+    writeEscaped(buffer, calendar.getCalendarName());
+    buffer.append('\n');
+    buffer.append("X-WR-TIMEZONE:").append(calendar.getTimeZone().getId()).append('\n');
+  }
+
+  /**
+   * Writes one changed or removed event for a change export.
+   */
+  private void writeChange(ExportBuffer buffer, Event event, ZoneRules rules, String timestamp,
+                           boolean cancelled) throws IOException {
+    buffer.append("BEGIN:VEVENT\n");
+    if (event.getSeriesId().isPresent()) {
+      buffer.append("UID:").append(event.getSeriesId().get()).append("@calendar-app\n");
+      buffer.append("RECURRENCE-ID:");
+      buffer.appendUtc(event.getStartDateTime(), rules, false);
+      buffer.append('\n');
+    } else {
+      buffer.append("UID:").appendInt(Math.abs(event.hashCode())).append("@calendar-app\n");
+    }
+    buffer.append("DTSTAMP:").append(timestamp).append('\n');
+    buffer.append("DTSTART:");
+    buffer.appendUtc(event.getStartDateTime(), rules, false);
+    buffer.append("\nDTEND:");
+    buffer.appendUtc(event.getEndDateTime(), rules, false);
+    buffer.append('\n');
+    writeProperties(buffer, event);
+    if (cancelled) {
+      buffer.append("STATUS:CANCELLED\n");
+    }
+    buffer.append("END:VEVENT\n");
+  }
+
   /**
    * Writes a single event to the iCal file.
    */
-  private void writeEvent(BufferedWriter writer, Event event, ZoneId timeZone) throws IOException {
-    writer.write("BEGIN:VEVENT\n");
+  private void writeEvent(ExportBuffer buffer, Event event, ZoneRules rules, String timestamp)
+      throws IOException {
+    buffer.append("BEGIN:VEVENT\n");
 
-    writer.write("UID:" + generateUid(event) + "\n");
+    buffer.append("UID:").appendInt(Math.abs(event.hashCode())).append("@calendar-app\n");
 
-    writer.write("DTSTAMP:" + formatDateTime(LocalDateTime.now(), timeZone) + "\n");
+    buffer.append("DTSTAMP:").append(timestamp).append('\n');
 
-    writer.write("DTSTART:" + formatDateTime(event.getStartDateTime(), timeZone) + "\n");
-    writer.write("DTEND:" + formatDateTime(event.getEndDateTime(), timeZone) + "\n");
+    buffer.append("DTSTART:");
+    buffer.appendUtc(event.getStartDateTime(), rules, false);
+    buffer.append("\nDTEND:");
+    buffer.appendUtc(event.getEndDateTime(), rules, false);
+    buffer.append('\n');
 
-    writer.write("SUMMARY:" + escapeText(event.getSubject()) + "\n");
+    writeProperties(buffer, event);
+    buffer.append("END:VEVENT\n");
+  }
+
+  /**
+   * Writes the occurrences of one series. Occurrences that share a start time, length and
+   * all-day flag become a single VEVENT with a weekly RRULE. Dates the rule would produce but
+   * that have no such occurrence are listed as EXDATEs, and occurrences whose other
+   * properties were edited are written as RECURRENCE-ID overrides. Any remaining occurrences
+   * are written as separate VEVENTs, as is the whole series when a rule would not be shorter
+   * or the calendar's time zone cannot be described.
+   */
+  private void writeSeries(ExportBuffer buffer, String seriesId, List<Event> occurrences,
+                           ZoneRules rules, String timestamp, SeriesState state)
+      throws IOException {
+    occurrences.sort(Comparator.comparing(Event::getStartDateTime));
+    Event shape = mostCommonShape(occurrences);
+
+    List<Event> uniform = new ArrayList<>();
+    List<Event> divergent = new ArrayList<>();
+    Set<LocalDate> coveredDates = new HashSet<>();
+    Set<DayOfWeek> weekdays = EnumSet.noneOf(DayOfWeek.class);
+    for (Event event : occurrences) {
+      LocalDate date = event.getStartDateTime().toLocalDate();
+      if (hasSameShape(event, shape) && coveredDates.add(date)) {
+        uniform.add(event);
+        weekdays.add(date.getDayOfWeek());
+      } else {
+        divergent.add(event);
+      }
+    }
+
+    Event first = uniform.get(0);
+    Event last = uniform.get(uniform.size() - 1);
+    IcalTimeZone zone = state.zone();
+    if (uniform.size() < 2 || zone == null || !zone.covers(first.getStartDateTime())
+        || last.getEndDateTime().getYear() > 9999) {
+      for (Event event : occurrences) {
+        writeEvent(buffer, event, rules, timestamp);
+      }
+      return;
+    }
+
+    int slotCount = 0;
+    List<LocalDate> excludedDates = new ArrayList<>();
+    LocalDate lastDate = last.getStartDateTime().toLocalDate();
+    for (LocalDate date = first.getStartDateTime().toLocalDate(); !date.isAfter(lastDate);
+         date = date.plusDays(1)) {
+      if (weekdays.contains(date.getDayOfWeek())) {
+        slotCount++;
+        if (!coveredDates.contains(date)) {
+          excludedDates.add(date);
+        }
+      }
+    }
+    if (excludedDates.size() >= uniform.size()) {
+      for (Event event : occurrences) {
+        writeEvent(buffer, event, rules, timestamp);
+      }
+      return;
+    }
+
+    state.beforeRecurrence(buffer);
+
+    String tzid = state.timeZone.getId();
+    buffer.append("BEGIN:VEVENT\n");
+    buffer.append("UID:").append(seriesId).append("@calendar-app\n");
+    buffer.append("DTSTAMP:").append(timestamp).append('\n');
+    writeZonedProperty(buffer, "DTSTART", tzid, first.getStartDateTime());
+    writeZonedProperty(buffer, "DTEND", tzid, first.getEndDateTime());
+    if (weekdays.size() == DayOfWeek.values().length) {
+      buffer.append("RRULE:FREQ=DAILY;COUNT=");
+    } else {
+      buffer.append("RRULE:FREQ=WEEKLY;BYDAY=");
+      String separator = "";
+      for (DayOfWeek day : weekdays) {
+        buffer.append(separator).append(IcalTimeZone.dayCode(day));
+        separator = ",";
+      }
+      buffer.append(";COUNT=");
+    }
+    buffer.appendInt(slotCount).append('\n');
+    LocalTime startTime = first.getStartDateTime().toLocalTime();
+    for (LocalDate date : excludedDates) {
+      writeZonedProperty(buffer, "EXDATE", tzid, LocalDateTime.of(date, startTime));
+    }
+    writeProperties(buffer, first);
+    buffer.append("END:VEVENT\n");
+
+    for (Event event : uniform) {
+      if (!hasSameProperties(event, first)) {
+        buffer.append("BEGIN:VEVENT\n");
+        buffer.append("UID:").append(seriesId).append("@calendar-app\n");
+        buffer.append("DTSTAMP:").append(timestamp).append('\n');
+        writeZonedProperty(buffer, "RECURRENCE-ID", tzid, event.getStartDateTime());
+        writeZonedProperty(buffer, "DTSTART", tzid, event.getStartDateTime());
+        writeZonedProperty(buffer, "DTEND", tzid, event.getEndDateTime());
+        writeProperties(buffer, event);
+        buffer.append("END:VEVENT\n");
+      }
+    }
+
+    for (Event event : divergent) {
+      writeEvent(buffer, event, rules, timestamp);
+    }
+  }
+
+  /**
+   * Finds the first occurrence with the most common combination of start time, length and
+   * all-day flag.
+   */
+  private Event mostCommonShape(List<Event> occurrences) {
+    Map<List<Object>, Integer> counts = new HashMap<>();
+    Event best = occurrences.get(0);
+    int bestCount = 0;
+    for (Event event : occurrences) {
+      int count = counts.merge(shapeOf(event), 1, Integer::sum);
+      if (count > bestCount) {
+        bestCount = count;
+        best = event;
+      }
+    }
+    for (Event event : occurrences) {
+      if (hasSameShape(event, best)) {
+        return event;
+      }
+    }
+    return best;
+  }
+
+  private List<Object> shapeOf(Event event) {
+    return List.of(event.getStartDateTime().toLocalTime(),
+        Duration.between(event.getStartDateTime(), event.getEndDateTime()),
+        event.isAllDayEvent());
+  }
+
+  private boolean hasSameShape(Event event, Event other) {
+    return shapeOf(event).equals(shapeOf(other));
+  }
+
+  private boolean hasSameProperties(Event event, Event other) {
+    return event.getSubject().equals(other.getSubject())
+        && event.getDescription().equals(other.getDescription())
+        && event.getLocation() == other.getLocation()
+        && event.getStatus() == other.getStatus();
+  }
+
+  /**
+   * Writes a property whose value is a local date-time in the calendar's time zone.
+   */
+  private void writeZonedProperty(ExportBuffer buffer, String name, String tzid,
+                                  LocalDateTime dateTime) throws IOException {
+    buffer.append(name).append(";TZID=").append(tzid).append(':')
+        .appendPadded(dateTime.getYear(), 4).appendPadded(dateTime.getMonthValue(), 2)
+        .appendPadded(dateTime.getDayOfMonth(), 2).append('T')
+        .appendPadded(dateTime.getHour(), 2).appendPadded(dateTime.getMinute(), 2)
+        .appendPadded(dateTime.getSecond(), 2).append('\n');
+  }
+
+  /**
+   * Writes the descriptive properties shared by plain events, series and overrides.
+   */
+  private void writeProperties(ExportBuffer buffer, Event event) throws IOException {
+    buffer.append("SUMMARY:");
+    writeEscaped(buffer, event.getSubject());
+    buffer.append('\n');
 
     if (event.getDescription().isPresent()) {
-      writer.write("DESCRIPTION:" + escapeText(event.getDescription().get()) + "\n");
+      buffer.append("DESCRIPTION:");
+      writeEscaped(buffer, event.getDescription().get());
+      buffer.append('\n');
     }
 
     if (event.getLocation() != LocationType.NONE) {
-      writer.write("LOCATION:" + escapeText(event.getLocation().getDisplayValue()) + "\n");
+      buffer.append("LOCATION:");
+      writeEscaped(buffer, event.getLocation().getDisplayValue());
+      buffer.append('\n');
     }
 
-    writer.write("CLASS:" + (event.getStatus() == EventStatus.PRIVATE ? "PRIVATE" : "PUBLIC")
-        + "\n");
+    buffer.append(event.getStatus() == EventStatus.PRIVATE
+        ? "CLASS:PRIVATE\n" : "CLASS:PUBLIC\n");
 
     if (event.isAllDayEvent()) {
-      writer.write("X-MICROSOFT-CDO-ALLDAYEVENT:TRUE\n");
+      buffer.append("X-MICROSOFT-CDO-ALLDAYEVENT:TRUE\n");
     }
+  }
 
-    writer.write("END:VEVENT\n");
+  /**
+   * Writes text with backslashes, commas, semicolons and newlines escaped, in a single pass.
+   */
+  private void writeEscaped(ExportBuffer buffer, String text) throws IOException {
+    int length = text.length();
+    int start = 0;
+    for (int i = 0; i < length; i++) {
+      char c = text.charAt(i);
+      if (c == '\\' || c == ',' || c == ';' || c == '\n') {
+        buffer.append(text, start, i);
+        buffer.append('\\').append(c == '\n' ? 'n' : c);
+        start = i + 1;
+      }
+    }
+    buffer.append(text, start, length);
   }
 
   /**
-   * Formats a LocalDateTime to iCal format in UTC.
+   * Receives single events and completed series in the order they are to be written.
    */
-  private String formatDateTime(LocalDateTime dateTime, ZoneId timeZone) {
-    ZonedDateTime zonedDateTime = dateTime.atZone(timeZone);
-    ZonedDateTime utcDateTime = zonedDateTime.withZoneSameInstant(ZoneId.of("UTC"));
-    return utcDateTime.format(ICAL_FORMATTER);
+  private interface SeriesSink {
+    void single(Event event) throws IOException;
+
+    void series(String seriesId, List<Event> occurrences) throws IOException;
   }
 
   /**
-   * Generates a unique UID for an event.
+   * Sorts a start-ordered stream of events into single events, passed on as they come, and
+   * series, held until they can no longer grow.
    */
-  private String generateUid(Event event) {
-    return Math.abs(event.hashCode()) + "@calendar-app";
+  private static class SeriesGrouper {
+    private final SeriesSink sink;
+    private final int maxHeldEvents;
+    private final Map<String, OpenSeries> open;
+    private final Set<String> written;
+    private LocalDate date;
+    private int held;
+
+    SeriesGrouper(SeriesSink sink, int maxHeldEvents) {
+      this.sink = sink;
+      this.maxHeldEvents = maxHeldEvents;
+      this.open = new LinkedHashMap<>();
+      this.written = new HashSet<>();
+    }
+
+    /**
+     * Takes the next event, first writing the series the stream has moved far enough past.
+     */
+    void add(Event event) throws IOException {
+      LocalDate eventDate = event.getStartDateTime().toLocalDate();
+      if (!eventDate.equals(date)) {
+        date = eventDate;
+        closeBefore(eventDate.minusDays(SERIES_GAP_DAYS));
+      }
+
+      String seriesId = event.getSeriesId().orElse(null);
+      if (seriesId == null || written.contains(seriesId)) {
+        sink.single(event);
+        return;
+      }
+      OpenSeries series = open.computeIfAbsent(seriesId, id -> new OpenSeries());
+      series.occurrences.add(event);
+      series.lastDate = eventDate;
+      held++;
+      if (held > maxHeldEvents) {
+        close(open.keySet().iterator().next());
+      }
+    }
+
+    /**
+     * Writes every series still in progress, once the stream has ended.
+     */
+    void finish() throws IOException {
+      closeBefore(LocalDate.MAX);
+    }
+
+    private void closeBefore(LocalDate cutoff) throws IOException {
+      List<String> ended = new ArrayList<>();
+      for (Map.Entry<String, OpenSeries> series : open.entrySet()) {
+        if (series.getValue().lastDate.isBefore(cutoff)) {
+          ended.add(series.getKey());
+        }
+      }
+      for (String seriesId : ended) {
+        close(seriesId);
+      }
+    }
+
+    private void close(String seriesId) throws IOException {
+      OpenSeries series = open.remove(seriesId);
+      written.add(seriesId);
+      held -= series.occurrences.size();
+      sink.series(seriesId, series.occurrences);
+    }
+  }
+
+  /**
+   * The occurrences read so far of a series in progress.
+   */
+  private static class OpenSeries {
+    private final List<Event> occurrences = new ArrayList<>();
+    private LocalDate lastDate;
+  }
+
+  /**
+   * Gathers single events and series into chunks of about the chunk size and submits them
+   * for parallel formatting.
+   */
+  private class ChunkSink implements SeriesSink {
+    private final ChunkedWriter out;
+    private final ZoneRules rules;
+    private final String timestamp;
+    private final ZoneId timeZone;
+    private IcalTimeZone zone;
+    private boolean described;
+    private List<Object> chunk;
+    private int chunkEvents;
+
+    ChunkSink(ChunkedWriter out, ZoneRules rules, String timestamp, ZoneId timeZone) {
+      this.out = out;
+      this.rules = rules;
+      this.timestamp = timestamp;
+      this.timeZone = timeZone;
+      this.chunk = new ArrayList<>();
+    }
+
+    @Override
+    public void single(Event event) throws IOException {
+      chunk.add(event);
+      chunkEvents++;
+      submitIfFull();
+    }
+
+    /**
+     * Adds a series to the chunk, describing the time zone the first time, so that the
+     * VTIMEZONE is ready to insert before the chunk that first marks it.
+     */
+    @Override
+    public void series(String seriesId, List<Event> occurrences) throws IOException {
+      if (!described) {
+        zone = IcalTimeZone.of(timeZone);
+        described = true;
+        if (zone != null) {
+          ChunkedWriter.ChunkBuffer zoneText = new ChunkedWriter.ChunkBuffer();
+          zone.write(zoneText);
+          zoneText.finish();
+          out.insertAtFirstMark(zoneText);
+        }
+      }
+      chunk.add(Map.entry(seriesId, occurrences));
+      chunkEvents += occurrences.size();
+      submitIfFull();
+    }
+
+    /**
+     * Submits the events gathered so far.
+     */
+    void flush() throws IOException {
+      if (chunk.isEmpty()) {
+        return;
+      }
+      List<Object> entries = chunk;
+      IcalTimeZone chunkZone = zone;
+      out.submit(buffer -> {
+        SeriesState state = new SeriesState(timeZone, chunkZone, buffer);
+        for (Object entry : entries) {
+          if (entry instanceof Event) {
+            writeEvent(buffer, (Event) entry, rules, timestamp);
+          } else {
+            @SuppressWarnings("unchecked")
+            Map.Entry<String, List<Event>> series = (Map.Entry<String, List<Event>>) entry;
+            writeSeries(buffer, series.getKey(), series.getValue(), rules, timestamp, state);
+          }
+        }
+      });
+      chunk = new ArrayList<>();
+      chunkEvents = 0;
+    }
+
+    private void submitIfFull() throws IOException {
+      if (chunkEvents >= chunkSize) {
+        flush();
+      }
+    }
   }
 
   /**
-   * Escapes special characters for iCal format.
+   * Time zone details shared by all series in one export.
    */
-  private String escapeText(String text) {
-    if (text.isEmpty()) {
-      return "";
+  private static class SeriesState {
+    private final ZoneId timeZone;
+    private final ChunkedWriter.ChunkBuffer marker;
+    private IcalTimeZone description;
+    private boolean described;
+    private boolean zoneWritten;
+
+    SeriesState(ZoneId timeZone) {
+      this.timeZone = timeZone;
+      this.marker = null;
+    }
+
+    /**
+     * Creates the state for one chunk of a parallel export. The zone is described up front,
+     * and instead of writing the VTIMEZONE the chunk marks where it belongs.
+     */
+    SeriesState(ZoneId timeZone, IcalTimeZone description, ChunkedWriter.ChunkBuffer marker) {
+      this.timeZone = timeZone;
+      this.marker = marker;
+      this.description = description;
+      this.described = true;
+    }
+
+    /**
+     * Describes the time zone the first time a series needs it.
+     */
+    IcalTimeZone zone() {
+      if (!described) {
+        description = IcalTimeZone.of(timeZone);
+        described = true;
+      }
+      return description;
+    }
+
+    /**
+     * Called before a series is written as a recurrence, which needs the VTIMEZONE to come
+     * first.
+     */
+    void beforeRecurrence(ExportBuffer buffer) throws IOException {
+      if (marker != null) {
+        marker.mark();
+      } else if (!zoneWritten) {
+        zone().write(buffer);
+        zoneWritten = true;
+      }
     }
-    return text.replace("\\", "\\\\")
-        .replace(",", "\\,")
-        .replace(";", "\\;")
-        .replace("\n", "\\n");
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,655 @@
+package calendar.controller.utils;
+
+import calendar.model.Calendar;
+import calendar.model.EditSettings;
+import calendar.model.Event;
+import calendar.model.EventStatus;
+import calendar.model.LocationType;
+import calendar.model.exceptions.DuplicateEventException;
+import calendar.model.exceptions.EventNotFoundException;
+import calendar.model.exceptions.UnclearEventException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Utility class for importing calendar events from iCal format.
+ * The file is read one content line at a time, so memory use is bounded by the size of a
+ * single VEVENT rather than the size of the file. Recurring events are mapped onto the
+ * calendar's own series instead of being expanded into individual occurrences, with EXDATE
+ * exclusions and RECURRENCE-ID overrides applied to the occurrences they name. Overrides are
+ * matched to the most recently mapped series only, so the state kept between events stays
+ * bounded however many recurring events the file holds. TZID values that are not known region
+ * ids are taken as the calendar's zone and reported in the result.
+ */
+public class IcalImporter implements Importer {
+
+  private static final int BUFFER_SIZE = 1 << 16;
+  private static final int MAX_OPEN_SERIES = 1024;
+  private static final DateTimeFormatter DATE_TIME_FORMATTER =
+      DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+  private static final DateTimeFormatter DATE_FORMATTER =
+      DateTimeFormatter.ofPattern("yyyyMMdd");
+
+  @Override
+  public ImportResult importEvents(Path filePath, Calendar calendar) throws IOException {
+    try (BufferedReader reader = new BufferedReader(
+        new InputStreamReader(Files.newInputStream(filePath), StandardCharsets.UTF_8),
+        BUFFER_SIZE)) {
+      return importEvents(reader, calendar);
+    }
+  }
+
+  @Override
+  public ImportResult importEvents(BufferedReader reader, Calendar calendar)
+      throws IOException {
+    long startNanos = System.nanoTime();
+    ImportContext context = new ImportContext(calendar);
+    StringBuilder contentLine = new StringBuilder();
+    String physicalLine;
+
+    while ((physicalLine = reader.readLine()) != null) {
+      if (!physicalLine.isEmpty()
+          && (physicalLine.charAt(0) == ' ' || physicalLine.charAt(0) == '\t')) {
+        contentLine.append(physicalLine, 1, physicalLine.length());
+        continue;
+      }
+
+      if (contentLine.length() > 0) {
+        handleContentLine(contentLine.toString(), context);
+        contentLine.setLength(0);
+      }
+      contentLine.append(physicalLine);
+    }
+
+    if (contentLine.length() > 0) {
+      handleContentLine(contentLine.toString(), context);
+    }
+
+    return new ImportResult(context.imported, context.skipped, System.nanoTime() - startNanos,
+        context.unknownZones);
+  }
+
+  /**
+   * Applies a single unfolded content line to the import state.
+   */
+  private void handleContentLine(String line, ImportContext context) {
+    int colon = findValueSeparator(line);
+    if (colon < 0) {
+      return;
+    }
+
+    String nameAndParams = line.substring(0, colon);
+    String value = line.substring(colon + 1);
+    int semicolon = nameAndParams.indexOf(';');
+    String name = (semicolon < 0 ? nameAndParams : nameAndParams.substring(0, semicolon))
+        .toUpperCase(Locale.ROOT);
+    String params = semicolon < 0 ? "" : nameAndParams.substring(semicolon + 1);
+
+    if (name.equals("BEGIN")) {
+      if (context.current == null && value.equalsIgnoreCase("VEVENT")) {
+        context.current = new VeventData();
+      } else if (context.current != null) {
+        context.nestedDepth++;
+      }
+      return;
+    }
+
+    if (name.equals("END")) {
+      if (context.current != null && context.nestedDepth > 0) {
+        context.nestedDepth--;
+      } else if (context.current != null && value.equalsIgnoreCase("VEVENT")) {
+        addEvent(context.current, context);
+        context.current = null;
+      }
+      return;
+    }
+
+    if (context.current == null || context.nestedDepth > 0) {
+      return;
+    }
+
+    VeventData event = context.current;
+    try {
+      switch (name) {
+        case "SUMMARY":
+          event.subject = unescapeText(value);
+          break;
+        case "DESCRIPTION":
+          event.description = unescapeText(value);
+          break;
+        case "LOCATION":
+          event.location = parseLocation(unescapeText(value));
+          break;
+        case "CLASS":
+          event.status = value.equalsIgnoreCase("PRIVATE") || value.equalsIgnoreCase("CONFIDENTIAL")
+              ? EventStatus.PRIVATE : EventStatus.PUBLIC;
+          break;
+        case "DTSTART":
+          event.allDay |= isDateValue(value, params);
+          event.start = toCalendarTime(value, getParam(params, "TZID"), context);
+          break;
+        case "DTEND":
+          event.end = toCalendarTime(value, getParam(params, "TZID"), context);
+          break;
+        case "DURATION":
+          event.duration = Duration.parse(value);
+          break;
+        case "RRULE":
+          event.rrule = value;
+          break;
+        case "EXDATE":
+          for (String date : value.split(",")) {
+            event.excludedDates.add(
+                toCalendarTime(date, getParam(params, "TZID"), context).toLocalDate());
+          }
+          break;
+        case "RECURRENCE-ID":
+          event.recurrenceId = toCalendarTime(value, getParam(params, "TZID"), context);
+          break;
+        case "UID":
+          event.uid = value;
+          break;
+        case "X-MICROSOFT-CDO-ALLDAYEVENT":
+          event.allDay |= value.equalsIgnoreCase("TRUE");
+          break;
+        default:
+          break;
+      }
+    } catch (DateTimeException e) {
+      event.malformed = true;
+    }
+  }
+
+  /**
+   * Adds a completed VEVENT to the calendar, as a series when its RRULE can be mapped.
+   */
+  private void addEvent(VeventData event, ImportContext context) {
+    if (event.malformed || event.subject == null || event.start == null) {
+      context.skipped++;
+      return;
+    }
+
+    if (event.end == null && event.duration != null) {
+      event.end = event.start.plus(event.duration);
+    }
+
+    String seriesSubject = event.uid == null ? null : context.seriesSubjects.get(event.uid);
+    if (event.recurrenceId != null && seriesSubject != null) {
+      applyOverride(event, seriesSubject, context);
+      return;
+    }
+
+    try {
+      if (event.rrule == null || !addSeries(event, context)) {
+        LocalDateTime start = event.allDay ? event.start.toLocalDate().atTime(8, 0) : event.start;
+        LocalDateTime end = event.allDay ? start.withHour(17) : event.end;
+        context.calendar.createAndAddEvent(event.subject, start, end, event.allDay,
+            event.description, event.location, event.status);
+      }
+      context.imported++;
+    } catch (DuplicateEventException | IllegalArgumentException e) {
+      context.skipped++;
+    }
+  }
+
+  /**
+   * Creates a calendar series for the event's RRULE. Dates excluded by EXDATE split the
+   * occurrences into runs, and each run becomes its own series, since a calendar series
+   * cannot skip dates.
+   *
+   * @return true if the rule was mapped onto a series, false if the rule uses parts the
+   *         calendar's series cannot represent and the event should be added on its own
+   */
+  private boolean addSeries(VeventData event, ImportContext context)
+      throws DuplicateEventException {
+    Calendar calendar = context.calendar;
+    Map<String, String> rule = parseRule(event.rrule);
+    if (rule == null || !rule.getOrDefault("INTERVAL", "1").equals("1")) {
+      return false;
+    }
+
+    Set<DayOfWeek> weekdays;
+    String byDay = rule.get("BYDAY");
+    if ("DAILY".equals(rule.get("FREQ"))) {
+      weekdays = byDay != null ? parseByDay(byDay) : EnumSet.allOf(DayOfWeek.class);
+    } else if ("WEEKLY".equals(rule.get("FREQ"))) {
+      weekdays = byDay != null ? parseByDay(byDay) : EnumSet.of(event.start.getDayOfWeek());
+    } else {
+      return false;
+    }
+
+    String count = rule.get("COUNT");
+    String until = rule.get("UNTIL");
+    if (weekdays == null || (count == null) == (until == null)) {
+      return false;
+    }
+
+    LocalDate startDate = event.start.toLocalDate();
+    if (!event.allDay && (event.end == null || !event.end.toLocalDate().equals(startDate))) {
+      return false;
+    }
+
+    int maxCount = count != null ? Integer.parseInt(count) : Integer.MAX_VALUE;
+    LocalDate untilDate = until != null ? parseUntil(until, calendar.getTimeZone()) : null;
+
+    List<LocalDate> dates = new ArrayList<>();
+    for (LocalDate date = startDate; dates.size() < maxCount
+        && (untilDate == null || !date.isAfter(untilDate)); date = date.plusDays(1)) {
+      if (weekdays.contains(date.getDayOfWeek())) {
+        dates.add(date);
+      }
+    }
+    checkNoDuplicates(event, calendar, dates);
+
+    LocalDate runStart = null;
+    int runLength = 0;
+    for (LocalDate date : dates) {
+      if (event.excludedDates.contains(date)) {
+        addSeriesRun(event, calendar, weekdays, runStart, runLength);
+        runStart = null;
+        runLength = 0;
+      } else {
+        runStart = runStart == null ? date : runStart;
+        runLength++;
+      }
+    }
+    addSeriesRun(event, calendar, weekdays, runStart, runLength);
+
+    if (event.uid != null) {
+      context.seriesSubjects.put(event.uid, event.subject);
+    }
+    return true;
+  }
+
+  /**
+   * Checks that none of a recurring event's occurrences is already in the calendar, before
+   * any of its series are created. The calendar adds a series one occurrence at a time, so a
+   * duplicate found while creating the runs would leave the earlier occurrences behind.
+   */
+  private void checkNoDuplicates(VeventData event, Calendar calendar, List<LocalDate> dates)
+      throws DuplicateEventException {
+    for (LocalDate date : dates) {
+      if (event.excludedDates.contains(date)) {
+        continue;
+      }
+      LocalDateTime start = event.allDay ? date.atTime(8, 0)
+          : LocalDateTime.of(date, event.start.toLocalTime());
+      LocalDateTime end = event.allDay ? date.atTime(17, 0)
+          : LocalDateTime.of(date, event.end.toLocalTime());
+      if (exists(calendar, event.subject, start, end)) {
+        throw new DuplicateEventException("Event already exists in set");
+      }
+    }
+  }
+
+  /**
+   * Tells whether the calendar holds an event with the given subject and times.
+   */
+  private boolean exists(Calendar calendar, String subject, LocalDateTime start,
+                         LocalDateTime end) {
+    try {
+      return calendar.findEvent(subject, start).getEndDateTime().equals(end);
+    } catch (EventNotFoundException e) {
+      return false;
+    } catch (UnclearEventException e) {
+      for (Event existing : calendar.getEventsInRange(start, end)) {
+        if (existing.getSubject().equals(subject) && existing.getStartDateTime().equals(start)
+            && existing.getEndDateTime().equals(end)) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  /**
+   * Creates one series for a run of consecutive occurrences and copies the event's optional
+   * properties onto it.
+   */
+  private void addSeriesRun(VeventData event, Calendar calendar, Set<DayOfWeek> weekdays,
+                            LocalDate runStart, int runLength) throws DuplicateEventException {
+    if (runLength == 0) {
+      return;
+    }
+    if (event.allDay) {
+      calendar.createAllDayEventSeries(event.subject, runStart, weekdays, runLength);
+    } else {
+      calendar.createEventSeries(event.subject, runStart, event.start.toLocalTime(),
+          event.end.toLocalTime(), weekdays, runLength);
+    }
+    applySeriesProperties(event, calendar, runStart);
+  }
+
+  /**
+   * Applies a RECURRENCE-ID override to the occurrence of an imported series it replaces.
+   * The event's status is set last because the other edits do not carry it over.
+   */
+  private void applyOverride(VeventData event, String seriesSubject, ImportContext context) {
+    Calendar calendar = context.calendar;
+    LocalDateTime key = event.allDay ? event.recurrenceId.toLocalDate().atTime(8, 0)
+        : event.recurrenceId;
+    String subject = seriesSubject;
+
+    try {
+      Event occurrence = calendar.findEvent(subject, key);
+      if (!event.allDay && event.start != null && !event.start.equals(key)
+          && event.start.toLocalDate().equals(key.toLocalDate())) {
+        calendar.editEvent(subject, key, "start", event.start, EditSettings.SINGLE);
+        key = event.start;
+      }
+      if (!event.allDay && event.end != null && !event.end.equals(occurrence.getEndDateTime())
+          && event.end.toLocalDate().equals(occurrence.getEndDateTime().toLocalDate())) {
+        calendar.editEvent(subject, key, "end", event.end, EditSettings.SINGLE);
+      }
+      if (event.description != null
+          && !event.description.equals(occurrence.getDescription().orElse(null))) {
+        calendar.editEvent(subject, key, "description", event.description,
+            EditSettings.SINGLE);
+      }
+      if (event.location != occurrence.getLocation()) {
+        calendar.editEvent(subject, key, "location", event.location, EditSettings.SINGLE);
+      }
+      if (!event.subject.equals(subject)) {
+        calendar.editEvent(subject, key, "subject", event.subject, EditSettings.SINGLE);
+        subject = event.subject;
+      }
+      if (calendar.findEvent(subject, key).getStatus() != event.status) {
+        calendar.editEvent(subject, key, "status", event.status, EditSettings.SINGLE);
+      }
+    } catch (EventNotFoundException | UnclearEventException | DuplicateEventException
+             | IllegalArgumentException e) {
+      context.skipped++;
+    }
+  }
+
+  /**
+   * Copies the optional properties of a VEVENT onto every event of the series created for it.
+   */
+  private void applySeriesProperties(VeventData event, Calendar calendar, LocalDate firstDate)
+      throws DuplicateEventException {
+    LocalDateTime firstStart = event.allDay ? firstDate.atTime(8, 0)
+        : LocalDateTime.of(firstDate, event.start.toLocalTime());
+
+    try {
+      if (event.description != null) {
+        calendar.editEvent(event.subject, firstStart, "description", event.description,
+            EditSettings.ALL_EVENTS);
+      }
+      if (event.location != LocationType.NONE) {
+        calendar.editEvent(event.subject, firstStart, "location", event.location,
+            EditSettings.ALL_EVENTS);
+      }
+      if (event.status != EventStatus.PUBLIC) {
+        calendar.editEvent(event.subject, firstStart, "status", event.status,
+            EditSettings.ALL_EVENTS);
+      }
+    } catch (EventNotFoundException | UnclearEventException e) {
+      // The rule produced no occurrences, so there is nothing to update.
+    }
+  }
+
+  /**
+   * Parses an RRULE value into its parts.
+   *
+   * @return the rule parts, or null if the rule uses parts other than FREQ, INTERVAL, BYDAY,
+   *         COUNT, UNTIL and WKST
+   */
+  private Map<String, String> parseRule(String rrule) {
+    Map<String, String> parts = new HashMap<>();
+    for (String part : rrule.split(";")) {
+      int equals = part.indexOf('=');
+      if (equals < 0) {
+        return null;
+      }
+      String key = part.substring(0, equals).toUpperCase(Locale.ROOT);
+      switch (key) {
+        case "FREQ":
+        case "INTERVAL":
+        case "BYDAY":
+        case "COUNT":
+        case "UNTIL":
+        case "WKST":
+          parts.put(key, part.substring(equals + 1).toUpperCase(Locale.ROOT));
+          break;
+        default:
+          return null;
+      }
+    }
+    return parts;
+  }
+
+  /**
+   * Parses a BYDAY list such as MO,WE,FR.
+   *
+   * @return the weekdays, or null if the list uses ordinal days such as 1MO
+   */
+  private Set<DayOfWeek> parseByDay(String byDay) {
+    Set<DayOfWeek> weekdays = EnumSet.noneOf(DayOfWeek.class);
+    for (String day : byDay.split(",")) {
+      switch (day) {
+        case "MO":
+          weekdays.add(DayOfWeek.MONDAY);
+          break;
+        case "TU":
+          weekdays.add(DayOfWeek.TUESDAY);
+          break;
+        case "WE":
+          weekdays.add(DayOfWeek.WEDNESDAY);
+          break;
+        case "TH":
+          weekdays.add(DayOfWeek.THURSDAY);
+          break;
+        case "FR":
+          weekdays.add(DayOfWeek.FRIDAY);
+          break;
+        case "SA":
+          weekdays.add(DayOfWeek.SATURDAY);
+          break;
+        case "SU":
+          weekdays.add(DayOfWeek.SUNDAY);
+          break;
+        default:
+          return null;
+      }
+    }
+    return weekdays.isEmpty() ? null : weekdays;
+  }
+
+  /**
+   * Converts an RRULE UNTIL value to a date in the calendar's time zone.
+   */
+  private LocalDate parseUntil(String until, ZoneId calendarZone) {
+    if (until.length() == 8) {
+      return LocalDate.parse(until, DATE_FORMATTER);
+    }
+    LocalDateTime dateTime = LocalDateTime.parse(stripUtcSuffix(until), DATE_TIME_FORMATTER);
+    if (until.endsWith("Z")) {
+      dateTime = dateTime.atZone(ZoneOffset.UTC).withZoneSameInstant(calendarZone)
+          .toLocalDateTime();
+    }
+    return dateTime.toLocalDate();
+  }
+
+  /**
+   * Converts a DATE or DATE-TIME value to a local date-time in the calendar's time zone.
+   * UTC values and values with a TZID are converted; floating values are taken as-is.
+   */
+  private LocalDateTime toCalendarTime(String value, String tzid, ImportContext context) {
+    if (value.length() == 8) {
+      return LocalDate.parse(value, DATE_FORMATTER).atStartOfDay();
+    }
+
+    boolean isUtc = value.endsWith("Z");
+    LocalDateTime local = LocalDateTime.parse(stripUtcSuffix(value), DATE_TIME_FORMATTER);
+    ZoneId sourceZone = isUtc ? ZoneOffset.UTC : tzid != null ? context.resolveZone(tzid) : null;
+
+    if (sourceZone == null || sourceZone.equals(context.zone)) {
+      return local;
+    }
+    return local.atZone(sourceZone).withZoneSameInstant(context.zone).toLocalDateTime();
+  }
+
+  private String stripUtcSuffix(String value) {
+    return value.endsWith("Z") ? value.substring(0, value.length() - 1) : value;
+  }
+
+  private boolean isDateValue(String value, String params) {
+    return value.length() == 8 || "DATE".equalsIgnoreCase(getParam(params, "VALUE"));
+  }
+
+  /**
+   * Maps an iCal LOCATION onto the calendar's location types. Free-text locations that are
+   * not one of the known display values are treated as physical locations.
+   */
+  private LocationType parseLocation(String value) {
+    LocationType type = LocationType.fromDisplayValue(value);
+    if (type == LocationType.NONE && !value.trim().isEmpty()) {
+      return LocationType.PHYSICAL;
+    }
+    return type;
+  }
+
+  /**
+   * Finds the colon separating a property's name and parameters from its value, skipping
+   * colons inside quoted parameter values.
+   */
+  private int findValueSeparator(String line) {
+    boolean inQuotes = false;
+    for (int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (c == '"') {
+        inQuotes = !inQuotes;
+      } else if (c == ':' && !inQuotes) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Gets the value of a property parameter, or null if the parameter is absent.
+   */
+  private String getParam(String params, String name) {
+    if (params.isEmpty()) {
+      return null;
+    }
+    for (String param : params.split(";")) {
+      int equals = param.indexOf('=');
+      if (equals > 0 && param.substring(0, equals).equalsIgnoreCase(name)) {
+        String value = param.substring(equals + 1);
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+          value = value.substring(1, value.length() - 1);
+        }
+        return value;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Reverses the escaping applied to iCal text values.
+   */
+  private String unescapeText(String text) {
+    int backslash = text.indexOf('\\');
+    if (backslash < 0) {
+      return text;
+    }
+
+    StringBuilder sb = new StringBuilder(text.length());
+    sb.append(text, 0, backslash);
+    for (int i = backslash; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (c == '\\' && i + 1 < text.length()) {
+        char next = text.charAt(++i);
+        sb.append(next == 'n' || next == 'N' ? '\n' : next);
+      } else {
+        sb.append(c);
+      }
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Mutable state of a single import.
+   */
+  private static class ImportContext {
+    private final Calendar calendar;
+    private final ZoneId zone;
+    private final Map<String, ZoneId> zoneCache;
+    private final Map<String, String> seriesSubjects;
+    private final Set<String> unknownZones;
+    private VeventData current;
+    private int nestedDepth;
+    private int imported;
+    private int skipped;
+
+    ImportContext(Calendar calendar) {
+      this.calendar = calendar;
+      this.zone = calendar.getTimeZone();
+      this.zoneCache = new HashMap<>();
+      this.seriesSubjects = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+          return size() > MAX_OPEN_SERIES;
+        }
+      };
+      this.unknownZones = new TreeSet<>();
+    }
+
+    /**
+     * Resolves a TZID, falling back to the calendar's zone for identifiers that are not
+     * known region ids and noting them to be reported.
+     */
+    ZoneId resolveZone(String tzid) {
+      return zoneCache.computeIfAbsent(tzid, id -> {
+        try {
+          return ZoneId.of(id);
+        } catch (DateTimeException e) {
+          unknownZones.add(id);
+          return zone;
+        }
+      });
+    }
+  }
+
+  /**
+   * Properties of the VEVENT currently being read.
+   */
+  private static class VeventData {
+    private String subject;
+    private String description;
+    private LocationType location = LocationType.NONE;
+    private EventStatus status = EventStatus.PUBLIC;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private Duration duration;
+    private String rrule;
+    private String uid;
+    private LocalDateTime recurrenceId;
+    private final Set<LocalDate> excludedDates = new HashSet<>();
+    private boolean allDay;
+    private boolean malformed;
+  }
+}
@@ -0,0 +1,165 @@
+package calendar.controller.utils;
+
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneOffsetTransitionRule;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Describes a time zone as an iCal VTIMEZONE component built from its current transition
+ * rules. Recurring events are written in zone-local time so that their occurrences keep the
+ * same wall-clock time across daylight saving changes, and readers need the VTIMEZONE to
+ * interpret those times.
+ */
+class IcalTimeZone {
+
+  private static final String[] DAY_CODES = {"MO", "TU", "WE", "TH", "FR", "SA", "SU"};
+
+  private final ZoneId zone;
+  private final int firstRuleYear;
+  private final List<String> observances;
+
+  private IcalTimeZone(ZoneId zone, int firstRuleYear, List<String> observances) {
+    this.zone = zone;
+    this.firstRuleYear = firstRuleYear;
+    this.observances = observances;
+  }
+
+  /**
+   * Builds the description of a zone, if its rules can be expressed as yearly recurrences.
+   *
+   * @param zone the zone to describe
+   * @return the description, or null if the zone has rules that cannot be written as RRULEs
+   */
+  static IcalTimeZone of(ZoneId zone) {
+    ZoneRules rules = zone.getRules();
+    List<String> observances = new ArrayList<>();
+
+    if (rules.isFixedOffset()) {
+      ZoneOffset offset = rules.getOffset(LocalDateTime.of(1970, 1, 1, 0, 0));
+      observances.add("BEGIN:STANDARD\nDTSTART:19700101T000000\nTZOFFSETFROM:"
+          + formatOffset(offset) + "\nTZOFFSETTO:" + formatOffset(offset)
+          + "\nEND:STANDARD\n");
+      return new IcalTimeZone(zone, Integer.MIN_VALUE, observances);
+    }
+
+    List<ZoneOffsetTransitionRule> transitionRules = rules.getTransitionRules();
+    List<ZoneOffsetTransition> transitions = rules.getTransitions();
+    int firstRuleYear = transitions.isEmpty() ? 1970
+        : transitions.get(transitions.size() - 1).getDateTimeAfter().getYear() + 1;
+
+    if (transitionRules.isEmpty()) {
+      ZoneOffset offset = transitions.get(transitions.size() - 1).getOffsetAfter();
+      observances.add("BEGIN:STANDARD\nDTSTART:" + firstRuleYear + "0101T000000\nTZOFFSETFROM:"
+          + formatOffset(offset) + "\nTZOFFSETTO:" + formatOffset(offset)
+          + "\nEND:STANDARD\n");
+      return new IcalTimeZone(zone, firstRuleYear, observances);
+    }
+
+    for (ZoneOffsetTransitionRule rule : transitionRules) {
+      String recurrence = yearlyRule(rule);
+      if (recurrence == null) {
+        return null;
+      }
+      boolean daylight = !rule.getOffsetAfter().equals(rule.getStandardOffset());
+      String kind = daylight ? "DAYLIGHT" : "STANDARD";
+      LocalDateTime onset = rule.createTransition(firstRuleYear).getDateTimeBefore();
+      observances.add("BEGIN:" + kind + "\nDTSTART:" + formatLocal(onset)
+          + "\nTZOFFSETFROM:" + formatOffset(rule.getOffsetBefore())
+          + "\nTZOFFSETTO:" + formatOffset(rule.getOffsetAfter())
+          + "\nRRULE:" + recurrence + "\nEND:" + kind + "\n");
+    }
+    return new IcalTimeZone(zone, firstRuleYear, observances);
+  }
+
+  /**
+   * Checks whether the description is valid for a date-time. Dates before the zone's current
+   * rules took effect may have used other offsets.
+   *
+   * @param dateTime the local date-time to check
+   * @return true if the zone's current rules apply at that time
+   */
+  boolean covers(LocalDateTime dateTime) {
+    return dateTime.getYear() >= firstRuleYear;
+  }
+
+  /**
+   * Writes the VTIMEZONE component.
+   *
+   * @param buffer the buffer to write to
+   * @throws IOException if writing fails
+   */
+  void write(ExportBuffer buffer) throws IOException {
+    buffer.append("BEGIN:VTIMEZONE\nTZID:").append(zone.getId()).append('\n');
+    for (String observance : observances) {
+      buffer.append(observance);
+    }
+    buffer.append("END:VTIMEZONE\n");
+  }
+
+  /**
+   * Gets the two-letter iCal code for a day of the week.
+   *
+   * @param day the day of the week
+   * @return the iCal day code, such as MO
+   */
+  static String dayCode(DayOfWeek day) {
+    return DAY_CODES[day.ordinal()];
+  }
+
+  /**
+   * Converts a transition rule to an RRULE value, or null if it has no RRULE equivalent.
+   * Java rules pick the given weekday on or after (or on or before) a day of the month.
+   */
+  private static String yearlyRule(ZoneOffsetTransitionRule rule) {
+    if (rule.isMidnightEndOfDay()) {
+      return null;
+    }
+    String base = "FREQ=YEARLY;BYMONTH=" + rule.getMonth().getValue();
+    int indicator = rule.getDayOfMonthIndicator();
+    DayOfWeek day = rule.getDayOfWeek();
+
+    if (day == null) {
+      return base + ";BYMONTHDAY=" + indicator;
+    }
+    int minLength = rule.getMonth().minLength();
+    boolean lastWeek = indicator + 6 == minLength && minLength == rule.getMonth().maxLength();
+    if (indicator == -1 || lastWeek) {
+      return base + ";BYDAY=-1" + dayCode(day);
+    }
+    if (indicator > 0 && indicator <= 22 && (indicator - 1) % 7 == 0) {
+      return base + ";BYDAY=" + ((indicator - 1) / 7 + 1) + dayCode(day);
+    }
+
+    int first = indicator > 0 ? indicator : indicator - 6;
+    int last = indicator > 0 ? indicator + 6 : indicator;
+    if ((indicator > 0 && last > minLength) || (indicator < 0 && -first > minLength)) {
+      return null;
+    }
+    StringBuilder days = new StringBuilder();
+    for (int d = first; d <= last; d++) {
+      days.append(days.length() == 0 ? "" : ",").append(d);
+    }
+    return base + ";BYMONTHDAY=" + days + ";BYDAY=" + dayCode(day);
+  }
+
+  private static String formatLocal(LocalDateTime dateTime) {
+    return String.format("%04d%02d%02dT%02d%02d%02d", dateTime.getYear(),
+        dateTime.getMonthValue(), dateTime.getDayOfMonth(), dateTime.getHour(),
+        dateTime.getMinute(), dateTime.getSecond());
+  }
+
+  private static String formatOffset(ZoneOffset offset) {
+    int total = offset.getTotalSeconds();
+    int absolute = Math.abs(total);
+    String formatted = String.format("%s%02d%02d", total < 0 ? "-" : "+", absolute / 3600,
+        absolute / 60 % 60);
+    return absolute % 60 == 0 ? formatted : formatted + String.format("%02d", absolute % 60);
+  }
+}
@@ -0,0 +1,81 @@
+package calendar.controller.utils;
+
+import java.util.Set;
+
+/**
+ * Summary of a completed import: how many events were added, how many were skipped, how long
+ * the import took and which time zones in the file were not recognised.
+ */
+public class ImportResult {
+
+  private final int importedCount;
+  private final int skippedCount;
+  private final long elapsedNanos;
+  private final Set<String> unknownTimeZones;
+
+  /**
+   * Creates an ImportResult.
+   *
+   * @param importedCount    the number of events added to the calendar
+   * @param skippedCount     the number of events that were malformed or duplicates
+   * @param elapsedNanos     the wall time of the import in nanoseconds
+   * @param unknownTimeZones the time zone ids in the file that were taken as the calendar's
+   *                         own zone because they are not known
+   */
+  public ImportResult(int importedCount, int skippedCount, long elapsedNanos,
+                      Set<String> unknownTimeZones) {
+    this.importedCount = importedCount;
+    this.skippedCount = skippedCount;
+    this.elapsedNanos = elapsedNanos;
+    this.unknownTimeZones = Set.copyOf(unknownTimeZones);
+  }
+
+  /**
+   * Gets the number of events added to the calendar.
+   *
+   * @return the imported event count
+   */
+  public int getImportedCount() {
+    return importedCount;
+  }
+
+  /**
+   * Gets the number of events that could not be added.
+   *
+   * @return the skipped event count
+   */
+  public int getSkippedCount() {
+    return skippedCount;
+  }
+
+  /**
+   * Gets the wall time of the import in milliseconds.
+   *
+   * @return the elapsed time in milliseconds
+   */
+  public long getElapsedMillis() {
+    return elapsedNanos / 1_000_000;
+  }
+
+  /**
+   * Gets the import throughput, counting both imported and skipped events.
+   *
+   * @return the number of events processed per second
+   */
+  public long getEventsPerSecond() {
+    if (elapsedNanos <= 0) {
+      return 0;
+    }
+    return Math.round((importedCount + skippedCount) * 1_000_000_000.0 / elapsedNanos);
+  }
+
+  /**
+   * Gets the time zone ids in the file that are not known, whose times were read as the
+   * calendar's own.
+   *
+   * @return the unknown time zone ids, empty if every zone was known
+   */
+  public Set<String> getUnknownTimeZones() {
+    return unknownTimeZones;
+  }
+}
@@ -0,0 +1,33 @@
+package calendar.controller.utils;
+
+import calendar.model.Calendar;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Interface for importing calendar events from different file formats.
+ */
+public interface Importer {
+
+  /**
+   * Imports all events in the specified file into the given calendar.
+   *
+   * @param filePath the path of the file to import from
+   * @param calendar the calendar to add the imported events to
+   * @return a summary of how many events were imported and how long it took
+   * @throws IOException if an I/O error occurs during import
+   */
+  ImportResult importEvents(Path filePath, Calendar calendar) throws IOException;
+
+  /**
+   * Imports all events read from an already open reader into the given calendar, leaving the
+   * reader open. This lets the input be unwrapped first, for example from a compressed stream.
+   *
+   * @param reader   the reader positioned at the start of the input
+   * @param calendar the calendar to add the imported events to
+   * @return a summary of how many events were imported and how long it took
+   * @throws IOException if an I/O error occurs while reading
+   */
+  ImportResult importEvents(BufferedReader reader, Calendar calendar) throws IOException;
+}
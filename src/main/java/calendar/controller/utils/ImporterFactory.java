@@ -0,0 +1,44 @@
+package calendar.controller.utils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Factory for creating appropriate Importer instances based on file extension.
+ * Mirrors {@link ExporterFactory} for the formats that can be read back.
+ */
+public class ImporterFactory {
+
+  private static final Map<String, Supplier<Importer>> IMPORTER_MAP = new HashMap<>();
+
+  static {
+    IMPORTER_MAP.put(".ical", IcalImporter::new);
+    IMPORTER_MAP.put(".ics", IcalImporter::new);
+    IMPORTER_MAP.put(".ical.gz", () -> new GzipImporter(new IcalImporter()));
+    IMPORTER_MAP.put(".ics.gz", () -> new GzipImporter(new IcalImporter()));
+  }
+
+  /**
+   * Creates an appropriate importer based on the file extension.
+   *
+   * @param fileName the name of the file to import from
+   * @return an Importer instance for the given file type
+   * @throws IllegalArgumentException if the file extension is not supported
+   */
+  public static Importer createImporter(String fileName) {
+    if (fileName == null || fileName.trim().isEmpty()) {
+      throw new IllegalArgumentException("File name cannot be null or empty");
+    }
+
+    String lowerCaseFileName = fileName.toLowerCase();
+
+    for (Map.Entry<String, Supplier<Importer>> entry : IMPORTER_MAP.entrySet()) {
+      if (lowerCaseFileName.endsWith(entry.getKey())) {
+        return entry.getValue().get();
+      }
+    }
+
+    throw new IllegalArgumentException("Unsupported import format: " + fileName);
+  }
+}
@@ -0,0 +1,20 @@
+package calendar.controller.utils;
+
+import java.io.IOException;
+
+/**
+ * Interface for a source of command lines, read one at a time.
+ * Sources that hold a file or stream open also implement {@link java.io.Closeable}.
+ */
+public interface LineSource {
+
+  /**
+   * Reads the next line, without its line terminator. The returned sequence may be a view of
+   * the source's own buffer, so it is only valid until the next call; callers that keep a line
+   * must copy it with {@code toString()}.
+   *
+   * @return the next line, or null at the end of the input
+   * @throws IOException if reading fails
+   */
+  CharSequence nextLine() throws IOException;
+}
@@ -0,0 +1,158 @@
+package calendar.controller.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Line source that memory-maps a UTF-8 file and returns each line as a slice of the mapping,
+ * so ASCII lines are never copied. Lines holding other characters are decoded into a string.
+ * Files larger than one mapping are mapped a window at a time. Lines end at a line feed, and
+ * a carriage return before it is dropped.
+ */
+public class MappedLineSource implements LineSource, Closeable {
+
+  /** Largest part of the file mapped at once, in bytes. */
+  static final int DEFAULT_WINDOW_SIZE = 1 << 30;
+
+  private final FileChannel channel;
+  private final long size;
+  private final int windowSize;
+  private long windowStart;
+  private ByteBuffer window;
+  private int position;
+
+  /**
+   * Creates a MappedLineSource over a file.
+   *
+   * @param filePath the file to read lines from
+   * @throws IOException if the file cannot be opened or mapped
+   */
+  public MappedLineSource(Path filePath) throws IOException {
+    this(filePath, DEFAULT_WINDOW_SIZE);
+  }
+
+  /**
+   * Creates a MappedLineSource that maps at most a given number of bytes at once.
+   *
+   * @param filePath   the file to read lines from
+   * @param windowSize the largest part of the file to map at once, in bytes, which must be
+   *                   longer than any line
+   * @throws IOException              if the file cannot be opened or mapped
+   * @throws IllegalArgumentException if windowSize is not positive
+   */
+  public MappedLineSource(Path filePath, int windowSize) throws IOException {
+    if (windowSize <= 0) {
+      throw new IllegalArgumentException("Window size must be positive");
+    }
+    this.channel = FileChannel.open(filePath, StandardOpenOption.READ);
+    this.size = channel.size();
+    this.windowSize = windowSize;
+    try {
+      map(0);
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  @Override
+  public CharSequence nextLine() throws IOException {
+    if (windowStart + position >= size) {
+      return null;
+    }
+
+    int start = position;
+    int limit = window.limit();
+    int end = start;
+    int high = 0;
+    while (end < limit && window.get(end) != '\n') {
+      high |= window.get(end);
+      end++;
+    }
+    if (end == limit && windowStart + limit < size) {
+      if (start == 0) {
+        throw new IOException("Line longer than " + windowSize + " bytes at offset "
+            + windowStart);
+      }
+      map(windowStart + start);
+      return nextLine();
+    }
+
+    position = end < limit ? end + 1 : end;
+    int length = end - start;
+    if (length > 0 && window.get(end - 1) == '\r') {
+      length--;
+    }
+    if ((high & 0x80) != 0) {
+      byte[] bytes = new byte[length];
+      window.get(start, bytes);
+      return new String(bytes, StandardCharsets.UTF_8);
+    }
+    return new AsciiSlice(window, start, length);
+  }
+
+  @Override
+  public void close() throws IOException {
+    window = null;
+    channel.close();
+  }
+
+  private void map(long start) throws IOException {
+    long length = Math.min(windowSize, size - start);
+    MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+    window = mapped;
+    windowStart = start;
+    position = 0;
+  }
+
+  /**
+   * ASCII text viewed straight from a byte buffer.
+   */
+  private static final class AsciiSlice implements CharSequence {
+    private final ByteBuffer bytes;
+    private final int offset;
+    private final int length;
+
+    AsciiSlice(ByteBuffer bytes, int offset, int length) {
+      this.bytes = bytes;
+      this.offset = offset;
+      this.length = length;
+    }
+
+    @Override
+    public int length() {
+      return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+      if (index < 0 || index >= length) {
+        throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length "
+            + length);
+      }
+      return (char) bytes.get(offset + index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+      if (start < 0 || end > length || start > end) {
+        throw new IndexOutOfBoundsException("Range [" + start + ", " + end
+            + ") out of bounds for length " + length);
+      }
+      return new AsciiSlice(bytes, offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+      byte[] copy = new byte[length];
+      bytes.get(offset, copy);
+      return new String(copy, StandardCharsets.ISO_8859_1);
+    }
+  }
+}
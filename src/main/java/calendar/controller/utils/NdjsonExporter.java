@@ -0,0 +1,187 @@
+package calendar.controller.utils;
+
+import calendar.model.Calendar;
+import calendar.model.Event;
+import calendar.model.LocationType;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.zone.ZoneRules;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Utility class for exporting calendar events as newline-delimited JSON, one object per line.
+ * Start and end are written as ISO-8601 UTC instants. Objects are formatted straight into a
+ * reusable {@link ExportBuffer}, and each line depends only on its event and the calendar's
+ * time zone, so any run of events can be formatted independently of the others.
+ */
+public class NdjsonExporter implements TextExporter {
+
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+  private final ForkJoinPool pool;
+  private final int chunkSize;
+
+  /**
+   * Creates an NdjsonExporter that formats exports in chunks on the common ForkJoinPool.
+   */
+  public NdjsonExporter() {
+    this(ForkJoinPool.commonPool(), ChunkedWriter.DEFAULT_CHUNK_SIZE);
+  }
+
+  /**
+   * Creates an NdjsonExporter that formats exports in chunks of events on a given pool.
+   *
+   * @param pool      the pool to format chunks on
+   * @param chunkSize the number of events per chunk
+   * @throws IllegalArgumentException if pool is null or chunkSize is not positive
+   */
+  public NdjsonExporter(ForkJoinPool pool, int chunkSize) {
+    ChunkedWriter.checkSettings(pool, chunkSize);
+    this.pool = pool;
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * Formats chunks of events in parallel and writes them to the file in order. The file
+   * holds exactly what {@link #write} would produce.
+   */
+  @Override
+  public String export(Iterable<Event> events, Path filePath, Calendar calendar)
+      throws IOException {
+    ZoneRules rules = calendar.getTimeZone().getRules();
+    ChunkedWriter.writeFile(filePath, pool, out -> out.submitAll(events, chunkSize,
+        (buffer, event) -> {
+          writeEvent(buffer, event, rules);
+          buffer.append("}\n");
+        }));
+
+    return filePath.toAbsolutePath().toString();
+  }
+
+  @Override
+  public void write(Iterable<Event> events, Writer writer, Calendar calendar)
+      throws IOException {
+    ZoneRules rules = calendar.getTimeZone().getRules();
+    ExportBuffer buffer = new ExportBuffer(writer);
+
+    for (Event event : events) {
+      writeEvent(buffer, event, rules);
+      buffer.append("}\n");
+    }
+    buffer.flushBuffer();
+  }
+
+  @Override
+  public String exportChanges(Iterable<Event> changed, Iterable<Event> removed, Path filePath,
+                              Calendar calendar) throws IOException {
+    try (Writer writer = new OutputStreamWriter(Files.newOutputStream(filePath),
+        StandardCharsets.UTF_8)) {
+      writeChanges(changed, removed, writer, calendar);
+    }
+
+    return filePath.toAbsolutePath().toString();
+  }
+
+  /**
+   * Writes changed and removed events, each with a "removed" flag.
+   */
+  @Override
+  public void writeChanges(Iterable<Event> changed, Iterable<Event> removed, Writer writer,
+                           Calendar calendar) throws IOException {
+    ZoneRules rules = calendar.getTimeZone().getRules();
+    ExportBuffer buffer = new ExportBuffer(writer);
+
+    for (Event event : changed) {
+      writeEvent(buffer, event, rules);
+      buffer.append(",\"removed\":false}\n");
+    }
+    for (Event event : removed) {
+      writeEvent(buffer, event, rules);
+      buffer.append(",\"removed\":true}\n");
+    }
+    buffer.flushBuffer();
+  }
+
+  @Override
+  public boolean supportsRemovals() {
+    return true;
+  }
+
+  /**
+   * Writes the fields of an event, leaving the object open for the caller to close.
+   */
+  private void writeEvent(ExportBuffer buffer, Event event, ZoneRules rules)
+      throws IOException {
+    buffer.append("{\"subject\":");
+    writeString(buffer, event.getSubject());
+    buffer.append(",\"start\":\"").appendUtc(event.getStartDateTime(), rules, true);
+    buffer.append("\",\"end\":\"").appendUtc(event.getEndDateTime(), rules, true);
+    buffer.append("\",\"allDay\":").append(event.isAllDayEvent() ? "true" : "false");
+
+    buffer.append(",\"description\":");
+    if (event.getDescription().isPresent()) {
+      writeString(buffer, event.getDescription().get());
+    } else {
+      buffer.append("null");
+    }
+
+    buffer.append(",\"location\":");
+    if (event.getLocation() != LocationType.NONE) {
+      buffer.append('"').append(event.getLocation().name()).append('"');
+    } else {
+      buffer.append("null");
+    }
+
+    buffer.append(",\"status\":\"").append(event.getStatus().name()).append('"');
+
+    buffer.append(",\"seriesId\":");
+    if (event.getSeriesId().isPresent()) {
+      writeString(buffer, event.getSeriesId().get());
+    } else {
+      buffer.append("null");
+    }
+  }
+
+  /**
+   * Writes text as a JSON string, escaping quotes, backslashes and control characters in a
+   * single pass.
+   */
+  private void writeString(ExportBuffer buffer, String text) throws IOException {
+    buffer.append('"');
+    int length = text.length();
+    int start = 0;
+    for (int i = 0; i < length; i++) {
+      char c = text.charAt(i);
+      if (c != '"' && c != '\\' && c >= 0x20) {
+        continue;
+      }
+      buffer.append(text, start, i);
+      buffer.append('\\');
+      switch (c) {
+        case '"':
+        case '\\':
+          buffer.append(c);
+          break;
+        case '\n':
+          buffer.append('n');
+          break;
+        case '\r':
+          buffer.append('r');
+          break;
+        case '\t':
+          buffer.append('t');
+          break;
+        default:
+          buffer.append("u00").append(HEX_DIGITS[c >> 4]).append(HEX_DIGITS[c & 0xF]);
+          break;
+      }
+      start = i + 1;
+    }
+    buffer.append(text, start, length);
+    buffer.append('"');
+  }
+}
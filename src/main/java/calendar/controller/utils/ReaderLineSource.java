@@ -0,0 +1,54 @@
+package calendar.controller.utils;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Line source that reads through a {@link BufferedReader} with a large buffer.
+ * Lines end at a line feed, a carriage return, or both.
+ */
+public class ReaderLineSource implements LineSource, Closeable {
+
+  /** Buffer size, in chars. */
+  static final int BUFFER_SIZE = 1 << 20;
+
+  private final BufferedReader reader;
+
+  /**
+   * Creates a ReaderLineSource over a reader.
+   *
+   * @param reader the reader to read lines from
+   * @throws IllegalArgumentException if reader is null
+   */
+  public ReaderLineSource(Reader reader) {
+    if (reader == null) {
+      throw new IllegalArgumentException("Reader cannot be null");
+    }
+    this.reader = new BufferedReader(reader, BUFFER_SIZE);
+  }
+
+  /**
+   * Creates a ReaderLineSource over a UTF-8 file.
+   *
+   * @param filePath the file to read lines from
+   * @throws IOException if the file cannot be opened
+   */
+  public ReaderLineSource(Path filePath) throws IOException {
+    this(Files.newBufferedReader(filePath, StandardCharsets.UTF_8));
+  }
+
+  @Override
+  public CharSequence nextLine() throws IOException {
+    return reader.readLine();
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+}
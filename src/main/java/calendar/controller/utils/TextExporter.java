@@ -0,0 +1,35 @@
+package calendar.controller.utils;
+
+import calendar.model.Calendar;
+import calendar.model.Event;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Exporter whose output is text, which can also be written to an already open writer so that
+ * it can be wrapped, for example in a compressing stream.
+ */
+public interface TextExporter extends Exporter {
+
+  /**
+   * Writes the given events to an already open writer, leaving it open.
+   *
+   * @param events   the events to export
+   * @param writer   the writer to write the formatted events to
+   * @param calendar the calendar from which events are exported
+   * @throws IOException if an I/O error occurs while writing
+   */
+  void write(Iterable<Event> events, Writer writer, Calendar calendar) throws IOException;
+
+  /**
+   * Writes only the events that changed to an already open writer, leaving it open.
+   *
+   * @param changed  the events added or changed, as they are now
+   * @param removed  the events removed, as they were
+   * @param writer   the writer to write the formatted events to
+   * @param calendar the calendar from which events are exported
+   * @throws IOException if an I/O error occurs while writing
+   */
+  void writeChanges(Iterable<Event> changed, Iterable<Event> removed, Writer writer,
+                    Calendar calendar) throws IOException;
+}
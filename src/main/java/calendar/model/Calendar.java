@@ -176,6 +176,47 @@ public interface Calendar {
    */
   List<Event> getAllEvents();
 
+  /**
+   * Provides all events in the calendar ordered by start time.
+   * The events are not copied, so the result is only valid until the calendar is next
+   * modified.
+   *
+   * @return an unmodifiable, start-time ordered view of all events
+   */
+  Iterable<Event> getOrderedEvents();
+
+  /**
+   * Provides the events that overlap a given date-time range, ordered by start time.
+   * Events are found lazily while iterating and are not copied, so the result is only valid
+   * until the calendar is next modified.
+   *
+   * @param start the start of the date-time range
+   * @param end   the end of the date-time range
+   * @return an unmodifiable, start-time ordered view of the events in the range
+   */
+  Iterable<Event> getOrderedEventsInRange(LocalDateTime start, LocalDateTime end);
+
+  /**
+   * Gets a token marking the calendar's current state, to pass to
+   * {@link #getChangesSince(String)} later. Adding or editing events and changing the time
+   * zone all move the calendar to a new state.
+   *
+   * @return the current change token
+   */
+  String getChangeToken();
+
+  /**
+   * Retrieves the events added, changed or removed since a change token was taken.
+   * The work done is proportional to the number of changes, not the number of events.
+   * If the token comes from another calendar or session, or predates the changes the calendar
+   * still remembers or a time zone change, the result is a full snapshot of every event.
+   *
+   * @param token a token from {@link #getChangeToken()} or an earlier change set
+   * @return the changes since the token, with the token for the current state
+   * @throws IllegalArgumentException if the token is not a change token
+   */
+  ChangeSet getChangesSince(String token);
+
   /**
    * Gets the name of the calendar.
    *
@@ -230,5 +271,20 @@ public interface Calendar {
   void createAndAddEvent(String subject, LocalDateTime startDateTime, LocalDateTime endDateTime,
                          boolean isAllDay) throws DuplicateEventException;
 
+  /**
+   * Creates and adds a single event with all of its optional properties set.
+   *
+   * @param subject       the event subject
+   * @param startDateTime the start date-time
+   * @param endDateTime   the end date-time
+   * @param isAllDay      whether this is an all-day event
+   * @param description   the description, or null for none
+   * @param location      the location type
+   * @param status        the event status
+   * @throws DuplicateEventException if event already exists
+   */
+  void createAndAddEvent(String subject, LocalDateTime startDateTime, LocalDateTime endDateTime,
+                         boolean isAllDay, String description, LocationType location,
+                         EventStatus status) throws DuplicateEventException;
 
 }
\ No newline at end of file
@@ -4,16 +4,25 @@ import calendar.model.exceptions.DuplicateEventException;
 import calendar.model.exceptions.EventNotFoundException;
 import calendar.model.exceptions.UnclearEventException;
 import java.time.DayOfWeek;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.AbstractSet;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashSet;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Random;
 import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 /**
@@ -21,10 +30,37 @@ import java.util.stream.Collectors;
  */
 public class CalendarImpl implements Calendar {
 
-  private final Set<Event> eventSet;
+  /**
+   * Orders events by start, then end, then subject. Two events compare equal exactly when
+   * they are equal, so the ordering can back the calendar's event set.
+   */
+  private static final Comparator<Event> EVENT_ORDER =
+      Comparator.comparing(Event::getStartDateTime).thenComparing(Event::getEndDateTime)
+          .thenComparing(Event::getSubject);
+
+  /**
+   * Number of changes remembered before the oldest half is forgotten. Tokens older than the
+   * remembered changes get a full snapshot.
+   */
+  private static final int MAX_CHANGE_LOG_SIZE = 1 << 17;
+
+  /**
+   * Staged events are added one at a time while there are fewer than one for every this many
+   * events already in the calendar; more than that, and the event set is rebuilt from a merge
+   * of both, which costs one comparison per event instead of a tree search per staged event.
+   */
+  private static final int REBUILD_RATIO = 16;
+
+  private final NavigableSet<Event> eventSet;
   private String name;
   private ZoneId timeZone;
   private int seriesCounter;
+  private Duration longestEvent;
+  private final String changeLogId;
+  private final List<Change> changeLog;
+  private long modificationSequence;
+  private long oldestTrackedSequence;
+  private List<Change> journal;
 
 
   /**
@@ -44,8 +80,13 @@ public class CalendarImpl implements Calendar {
     }
     this.name = name;
     this.timeZone = timeZone;
-    this.eventSet = new HashSet<>();
+    this.eventSet = new TreeSet<>(EVENT_ORDER);
     this.seriesCounter = 0;
+    this.longestEvent = Duration.ZERO;
+    this.changeLogId = Long.toString(new Random().nextLong() & Long.MAX_VALUE, 36);
+    this.changeLog = new ArrayList<>();
+    this.modificationSequence = 0;
+    this.oldestTrackedSequence = 0;
   }
 
   @Override
@@ -140,7 +181,16 @@ public class CalendarImpl implements Calendar {
     addEventHelper(event);
   }
 
-
+  @Override
+  public void createAndAddEvent(String subject, LocalDateTime startDateTime,
+                                LocalDateTime endDateTime, boolean isAllDay, String description,
+                                LocationType location, EventStatus status)
+      throws DuplicateEventException {
+    Event event = new EventImpl.EventBuilder().setSubject(subject).setStartDateTime(startDateTime)
+        .setEndDateTime(endDateTime).setIsAllDay(isAllDay).setDescription(description)
+        .setLocation(location).setStatus(status).build();
+    addEventHelper(event);
+  }
 
   @Override
   public void createAllDayEventSeries(String subject, LocalDate startDate, Set<DayOfWeek> weekDays,
@@ -220,8 +270,8 @@ public class CalendarImpl implements Calendar {
 
   private Event findUniqueEventHelper(String subject, LocalDateTime startDateTime)
       throws EventNotFoundException, UnclearEventException {
-    List<Event> existingEvents = eventSet.stream()
-        .filter(e -> e.getSubject().equals(subject) && e.getStartDateTime().equals(startDateTime))
+    List<Event> existingEvents = eventsStartingBetween(startDateTime, startDateTime.plusNanos(1))
+        .stream().filter(e -> e.getSubject().equals(subject))
         .collect(Collectors.toList());
 
     if (existingEvents.isEmpty()) {
@@ -244,7 +294,7 @@ public class CalendarImpl implements Calendar {
     }
 
 
-    eventSet.remove(e);
+    removeEventHelper(e);
     addEventHelper(res);
   }
 
@@ -276,7 +326,7 @@ public class CalendarImpl implements Calendar {
       res = replaceEventSeriesId(res, newSeriesId);
 
 
-      eventSet.remove(event);
+      removeEventHelper(event);
       addEventHelper(res);
     }
   }
@@ -286,7 +336,7 @@ public class CalendarImpl implements Calendar {
     for (Event event : eventsToMutate) {
       Event res = createModifiedEvent(event, property, newValue);
 
-      eventSet.remove(event);
+      removeEventHelper(event);
       addEventHelper(res);
     }
   }
@@ -301,7 +351,7 @@ public class CalendarImpl implements Calendar {
         Event res = createModifiedEvent(event, property, newValue);
 
 
-        eventSet.remove(event);
+        removeEventHelper(event);
         addEventHelper(res);
       }
     } else {
@@ -313,23 +363,21 @@ public class CalendarImpl implements Calendar {
   public List<Event> getEventOnDate(LocalDate date) {
     List<Event> res;
 
-    res = eventSet.stream().filter(e -> doesOverlap(e, date))
-        .sorted(Comparator.comparing(Event::getStartDateTime)).collect(
-            Collectors.toList());
+    res = candidatesOverlapping(date.atStartOfDay(), date.plusDays(1).atStartOfDay()).stream()
+        .filter(e -> doesOverlap(e, date)).collect(Collectors.toList());
     return Collections.unmodifiableList(res);
   }
 
   @Override
   public List<Event> getEventsInRange(LocalDateTime start, LocalDateTime end) {
-    return eventSet.stream()
+    return candidatesOverlapping(start, end).stream()
         .filter(e -> isInRange(e.getStartDateTime(), e.getEndDateTime(), start, end))
-        .sorted(Comparator.comparing(Event::getStartDateTime))
         .collect(Collectors.toUnmodifiableList());
   }
 
   @Override
   public boolean isBusy(LocalDateTime dateTime) {
-    return eventSet.stream().anyMatch(e ->
+    return candidatesOverlapping(dateTime, dateTime.plusNanos(1)).stream().anyMatch(e ->
         (dateTime.isAfter(e.getStartDateTime()) || dateTime.equals(e.getStartDateTime()))
             && dateTime.isBefore(e.getEndDateTime()));
   }
@@ -339,6 +387,18 @@ public class CalendarImpl implements Calendar {
     return List.copyOf(eventSet);
   }
 
+  @Override
+  public Iterable<Event> getOrderedEvents() {
+    return Collections.unmodifiableSortedSet(eventSet);
+  }
+
+  @Override
+  public Iterable<Event> getOrderedEventsInRange(LocalDateTime start, LocalDateTime end) {
+    return () -> candidatesOverlapping(start, end).stream()
+        .filter(e -> isInRange(e.getStartDateTime(), e.getEndDateTime(), start, end))
+        .iterator();
+  }
+
   @Override
   public String getCalendarName() {
     return this.name;
@@ -372,8 +432,71 @@ public class CalendarImpl implements Calendar {
             .collect(Collectors.toSet());
 
     this.eventSet.clear();
-    this.eventSet.addAll(updatedEvents);
+    this.longestEvent = Duration.ZERO;
+    for (Event event : updatedEvents) {
+      this.eventSet.add(event);
+      trackDuration(event);
+    }
     this.timeZone = z;
+
+    // Every event moved, so any earlier token gets a full snapshot.
+    changeLog.clear();
+    oldestTrackedSequence = ++modificationSequence;
+  }
+
+  @Override
+  public String getChangeToken() {
+    return changeLogId + "-" + modificationSequence;
+  }
+
+  @Override
+  public ChangeSet getChangesSince(String token) {
+    int separator = token == null ? -1 : token.lastIndexOf('-');
+    if (separator <= 0) {
+      throw new IllegalArgumentException("Invalid change token: " + token);
+    }
+    long since;
+    try {
+      since = Long.parseLong(token.substring(separator + 1));
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid change token: " + token);
+    }
+
+    if (!token.substring(0, separator).equals(changeLogId) || since < oldestTrackedSequence
+        || since > modificationSequence) {
+      return new ChangeSet(List.copyOf(eventSet), List.of(), true, getChangeToken());
+    }
+
+    int low = 0;
+    int high = changeLog.size();
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (changeLog.get(mid).sequence <= since) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+
+    Map<Event, Boolean> existedAtToken = new HashMap<>();
+    Map<Event, Change> latestChange = new HashMap<>();
+    for (Change change : changeLog.subList(low, changeLog.size())) {
+      existedAtToken.putIfAbsent(change.event, change.removed);
+      latestChange.put(change.event, change);
+    }
+
+    List<Event> changed = new ArrayList<>();
+    List<Event> removed = new ArrayList<>();
+    for (Change change : latestChange.values()) {
+      if (!change.removed) {
+        changed.add(change.event);
+      } else if (existedAtToken.get(change.event)) {
+        removed.add(change.event);
+      }
+    }
+    changed.sort(EVENT_ORDER);
+    removed.sort(EVENT_ORDER);
+    return new ChangeSet(changed, removed, false, getChangeToken());
   }
 
   @Override
@@ -538,6 +661,39 @@ public class CalendarImpl implements Calendar {
     return (start1.isBefore(end2) && start2.isBefore(end1));
   }
 
+  /**
+   * Gets the events whose start falls in [from, to), in order, without copying.
+   *
+   * @param from the earliest start to include
+   * @param to   the start to stop before
+   * @return a view of the matching events
+   */
+  private NavigableSet<Event> eventsStartingBetween(LocalDateTime from, LocalDateTime to) {
+    if (!from.isBefore(to)) {
+      return Collections.emptyNavigableSet();
+    }
+    return eventSet.subSet(probe(from), true, probe(to), false);
+  }
+
+  /**
+   * Gets the events that may overlap [start, end). No event lasts longer than the longest
+   * event ever added, so anything starting more than that before the range cannot overlap it.
+   *
+   * @param start the start of the range
+   * @param end   the end of the range
+   * @return a view of the candidate events, which callers still need to filter
+   */
+  private NavigableSet<Event> candidatesOverlapping(LocalDateTime start, LocalDateTime end) {
+    return eventsStartingBetween(start.minus(longestEvent), end);
+  }
+
+  /**
+   * Creates a search key that sorts before every event starting at the given time.
+   */
+  private Event probe(LocalDateTime start) {
+    return new EventImpl("", start, LocalDateTime.MIN, null, null, null, null, false);
+  }
+
   /**
    * Generates a unique series ID for event series.
    *
@@ -547,13 +703,280 @@ public class CalendarImpl implements Calendar {
     return "SID_" + (++seriesCounter);
   }
 
+  /**
+   * Keeps generated series IDs from reusing one already taken by a restored event.
+   *
+   * @param seriesId the series ID of a restored event, or null
+   */
+  void reserveSeriesId(String seriesId) {
+    if (seriesId == null || !seriesId.startsWith("SID_")) {
+      return;
+    }
+    try {
+      seriesCounter = Math.max(seriesCounter, Integer.parseInt(seriesId.substring(4)));
+    } catch (NumberFormatException e) {
+      // Not a generated ID, so it can never clash with one
+    }
+  }
+
+  /**
+   * Gets the number of events in the calendar.
+   *
+   * @return the number of events
+   */
+  int getEventCount() {
+    return eventSet.size();
+  }
+
+  /**
+   * Creates an empty calendar to stage events in before adding them here with
+   * {@link #addStaged(CalendarImpl)}. Series IDs generated in it only tell its series apart;
+   * they are replaced with IDs from this calendar's counter when the events are added.
+   *
+   * @return the staging area
+   */
+  CalendarImpl newStagingArea() {
+    return new CalendarImpl(name, timeZone);
+  }
+
+  /**
+   * Adds every event of a staging area at once. All of them are checked for duplicates before
+   * any is added; a large batch is merged with the existing events and the event set rebuilt
+   * from the merge in one pass.
+   *
+   * @param area the staging area holding the events to add
+   * @throws DuplicateEventException if any staged event already exists, in which case none is
+   *                                 added
+   */
+  void addStaged(CalendarImpl area) throws DuplicateEventException {
+    List<Event> staged = renumberSeries(area);
+    if (staged.size() < eventSet.size() / REBUILD_RATIO) {
+      for (Event event : staged) {
+        if (eventSet.contains(event)) {
+          throw new DuplicateEventException("Event already exists in set");
+        }
+      }
+      for (Event event : staged) {
+        eventSet.add(event);
+        trackDuration(event);
+        recordChange(event, false);
+      }
+    } else {
+      List<Event> merged = mergeWith(staged);
+      eventSet.clear();
+      eventSet.addAll(new SortedRun(merged));
+      for (Event event : staged) {
+        trackDuration(event);
+        recordChange(event, false);
+      }
+    }
+  }
+
+  /**
+   * Gets a staging area's events in event order, giving the series generated there IDs from
+   * this calendar's counter. Taking them now rather than when the area was started keeps them
+   * apart from the IDs that edits made here in between generated.
+   */
+  private List<Event> renumberSeries(CalendarImpl area) {
+    int offset = seriesCounter;
+    seriesCounter += area.seriesCounter;
+    List<Event> events = new ArrayList<>(area.eventSet.size());
+    for (Event event : area.eventSet) {
+      int number = area.generatedSeriesNumber(event.getSeriesId().orElse(null));
+      events.add(number == 0 ? event : event.copyWithSeriesId("SID_" + (offset + number)));
+    }
+    return events;
+  }
+
+  /**
+   * Gets the number in a series ID this calendar generated.
+   *
+   * @return the number, or 0 if the ID was not generated here
+   */
+  private int generatedSeriesNumber(String seriesId) {
+    if (seriesId == null || !seriesId.startsWith("SID_")) {
+      return 0;
+    }
+    try {
+      int number = Integer.parseInt(seriesId.substring(4));
+      return number >= 1 && number <= seriesCounter ? number : 0;
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+
+  /**
+   * Makes a list of staged changes, undoing every change already made if one of them fails.
+   *
+   * @param steps the changes to make, in order
+   * @throws DuplicateEventException if a change would create a duplicate event
+   * @throws EventNotFoundException  if an edited event does not exist
+   * @throws UnclearEventException   if an edited event cannot be told apart from another
+   */
+  void applyAtomically(List<StagedCalendar.Step> steps)
+      throws DuplicateEventException, EventNotFoundException, UnclearEventException {
+    journal = new ArrayList<>();
+    try {
+      for (StagedCalendar.Step step : steps) {
+        step.applyTo(this);
+      }
+    } catch (DuplicateEventException | EventNotFoundException | UnclearEventException
+             | RuntimeException e) {
+      List<Change> undone = journal;
+      journal = null;
+      for (int i = undone.size() - 1; i >= 0; i--) {
+        Change change = undone.get(i);
+        if (change.removed) {
+          eventSet.add(change.event);
+          recordChange(change.event, false);
+        } else {
+          eventSet.remove(change.event);
+          recordChange(change.event, true);
+        }
+      }
+      throw e;
+    } finally {
+      journal = null;
+    }
+  }
+
+  /**
+   * Merges the staged events into the calendar's, both in event order.
+   *
+   * @throws DuplicateEventException if a staged event already exists
+   */
+  private List<Event> mergeWith(List<Event> staged) throws DuplicateEventException {
+    List<Event> merged = new ArrayList<>(eventSet.size() + staged.size());
+    Iterator<Event> existing = eventSet.iterator();
+    Iterator<Event> added = staged.iterator();
+    Event next = existing.hasNext() ? existing.next() : null;
+    while (added.hasNext()) {
+      Event event = added.next();
+      int order;
+      while (next != null && (order = EVENT_ORDER.compare(next, event)) <= 0) {
+        if (order == 0) {
+          throw new DuplicateEventException("Event already exists in set");
+        }
+        merged.add(next);
+        next = existing.hasNext() ? existing.next() : null;
+      }
+      merged.add(event);
+    }
+    if (next != null) {
+      merged.add(next);
+    }
+    while (existing.hasNext()) {
+      merged.add(existing.next());
+    }
+    return merged;
+  }
+
   private void addEventHelper(Event event) throws DuplicateEventException {
     if (eventSet.contains(event)) {
       throw new DuplicateEventException("Event already exists in set");
     }
 
     eventSet.add(event);
+    trackDuration(event);
+    recordChange(event, false);
+  }
 
+  private void removeEventHelper(Event event) {
+    if (eventSet.remove(event)) {
+      recordChange(event, true);
+    }
+  }
+
+  /**
+   * Appends a change to the log, forgetting the oldest half once the log is full.
+   */
+  private void recordChange(Event event, boolean removed) {
+    Change change = new Change(++modificationSequence, event, removed);
+    changeLog.add(change);
+    if (journal != null) {
+      journal.add(change);
+    }
+    if (changeLog.size() > MAX_CHANGE_LOG_SIZE) {
+      List<Change> forgotten = changeLog.subList(0, changeLog.size() / 2);
+      oldestTrackedSequence = forgotten.get(forgotten.size() - 1).sequence;
+      forgotten.clear();
+    }
+  }
+
+  /**
+   * Records the event's length so range queries know how far back to look for overlaps.
+   */
+  private void trackDuration(Event event) {
+    Duration duration = Duration.between(event.getStartDateTime(), event.getEndDateTime());
+    if (duration.compareTo(longestEvent) > 0) {
+      longestEvent = duration;
+    }
   }
 
+  /**
+   * Events already in event order, handed to {@link TreeSet#addAll} so it builds the tree in
+   * one pass instead of searching it for every event. Only what that needs is supported.
+   */
+  private static class SortedRun extends AbstractSet<Event> implements SortedSet<Event> {
+    private final List<Event> events;
+
+    SortedRun(List<Event> events) {
+      this.events = events;
+    }
+
+    @Override
+    public Comparator<? super Event> comparator() {
+      return EVENT_ORDER;
+    }
+
+    @Override
+    public Iterator<Event> iterator() {
+      return events.iterator();
+    }
+
+    @Override
+    public int size() {
+      return events.size();
+    }
+
+    @Override
+    public Event first() {
+      return events.get(0);
+    }
+
+    @Override
+    public Event last() {
+      return events.get(events.size() - 1);
+    }
+
+    @Override
+    public SortedSet<Event> subSet(Event fromElement, Event toElement) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public SortedSet<Event> headSet(Event toElement) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public SortedSet<Event> tailSet(Event fromElement) {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  /**
+   * One entry in the change log: an event that was added or removed.
+   */
+  private static class Change {
+    private final long sequence;
+    private final Event event;
+    private final boolean removed;
+
+    Change(long sequence, Event event, boolean removed) {
+      this.sequence = sequence;
+      this.event = event;
+      this.removed = removed;
+    }
+  }
 }
@@ -1,9 +1,12 @@
 package calendar.model;
 
 import calendar.model.exceptions.DuplicateEventException;
+import calendar.model.exceptions.EventNotFoundException;
+import calendar.model.exceptions.UnclearEventException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.List;
 
 /**
  * Interface for managing calendar operations.
@@ -32,6 +35,13 @@ public interface CalendarManager {
    */
   Calendar getActiveCalendar();
 
+  /**
+   * Retrieves every calendar managed by this manager.
+   *
+   * @return an unmodifiable list of all calendars, in no particular order
+   */
+  List<Calendar> getAllCalendars();
+
   /**
    * Edits a property of the specified calendar.
    *
@@ -83,4 +93,49 @@ public interface CalendarManager {
    */
   void copyEventsBetween(LocalDate startDate, LocalDate endDate, String targetCalendarName,
                          LocalDate targetStartDate) throws DuplicateEventException;
+
+  /**
+   * Opens a batch on the active calendar. Until the batch is committed or rolled back, changes
+   * to that calendar are staged rather than made, and queries see it as it was when the batch
+   * began.
+   *
+   * @throws IllegalStateException if no calendar is active or a batch is already open
+   */
+  void beginBatch();
+
+  /**
+   * Makes every change staged in the open batch, or none of them if any fails, and closes the
+   * batch either way.
+   *
+   * @return the number of changes made
+   * @throws IllegalStateException   if no batch is open
+   * @throws DuplicateEventException if a staged event is a duplicate or an edit would create
+   *                                 one
+   * @throws EventNotFoundException  if an edited event does not exist
+   * @throws UnclearEventException   if an edited event cannot be told apart from another
+   */
+  int commitBatch() throws DuplicateEventException, EventNotFoundException,
+      UnclearEventException;
+
+  /**
+   * Discards every change staged in the open batch and closes it.
+   *
+   * @throws IllegalStateException if no batch is open
+   */
+  void rollbackBatch();
+
+  /**
+   * Checks whether a batch is open, so its staged changes are not yet part of any calendar.
+   *
+   * @return true if a batch is open
+   */
+  boolean isBatchOpen();
+
+  /**
+   * Notes which line of a script the commands that follow come from, so a change staged in a
+   * batch can name its line if the batch fails on commit. Managers without batches ignore it.
+   *
+   * @param lineNumber the line's number, counting from 1
+   */
+  void lineStarted(long lineNumber);
 }
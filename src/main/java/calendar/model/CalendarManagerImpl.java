@@ -22,6 +22,7 @@ public class CalendarManagerImpl implements CalendarManager {
 
   private final Map<String, Calendar> calendarMap;
   private Calendar activeCalendar;
+  private StagedCalendar batch;
   private int seriesCount;
 
   /**
@@ -45,6 +46,13 @@ public class CalendarManagerImpl implements CalendarManager {
   @Override
   public void useCalendar(String name) {
     checkCalendarExists(name);
+    if (batch != null) {
+      if (calendarMap.get(name) != batch.getBase()) {
+        throw new IllegalStateException("Commit or roll back the open batch before switching"
+            + " calendars");
+      }
+      return;
+    }
     this.activeCalendar = calendarMap.get(name);
   }
 
@@ -53,9 +61,18 @@ public class CalendarManagerImpl implements CalendarManager {
     return this.activeCalendar;
   }
 
+  @Override
+  public List<Calendar> getAllCalendars() {
+    return List.copyOf(calendarMap.values());
+  }
+
   @Override
   public void editCalendar(String name, String property, Object newValue) {
     Calendar calendar = getCalendarByName(name);
+    if (calendar == batch) {
+      throw new IllegalStateException("Commit or roll back the open batch before editing its"
+          + " calendar");
+    }
 
     if (property.equalsIgnoreCase("name")) {
       String newName = (String) newValue;
@@ -183,6 +200,54 @@ public class CalendarManagerImpl implements CalendarManager {
     }
   }
 
+  @Override
+  public void beginBatch() {
+    checkActiveCalendar();
+    if (batch != null) {
+      throw new IllegalStateException("A batch is already open");
+    }
+    if (!(activeCalendar instanceof CalendarImpl)) {
+      throw new IllegalStateException("Calendar " + activeCalendar.getCalendarName()
+          + " does not support batches");
+    }
+    batch = new StagedCalendar((CalendarImpl) activeCalendar);
+    activeCalendar = batch;
+  }
+
+  @Override
+  public int commitBatch() throws DuplicateEventException, EventNotFoundException,
+      UnclearEventException {
+    return closeBatch().commit();
+  }
+
+  @Override
+  public void rollbackBatch() {
+    closeBatch();
+  }
+
+  @Override
+  public boolean isBatchOpen() {
+    return batch != null;
+  }
+
+  @Override
+  public void lineStarted(long lineNumber) {
+    if (batch != null) {
+      batch.lineStarted(lineNumber);
+    }
+  }
+
+  /**
+   * Adds an existing calendar, such as one restored from a snapshot.
+   *
+   * @param calendar the calendar to add
+   * @throws IllegalArgumentException if a calendar with the same name already exists
+   */
+  void addCalendar(Calendar calendar) {
+    checkCalendarDuplicate(calendar.getCalendarName());
+    calendarMap.put(calendar.getCalendarName(), calendar);
+  }
+
   private void checkCalendarDuplicate(String name) throws IllegalArgumentException {
     if (calendarMap.containsKey(name)) {
       throw new IllegalArgumentException("Calendar with name " + name + " already exists.");
@@ -197,7 +262,21 @@ public class CalendarManagerImpl implements CalendarManager {
 
   private Calendar getCalendarByName(String name) {
     checkCalendarExists(name);
-    return calendarMap.get(name);
+    Calendar calendar = calendarMap.get(name);
+    return batch != null && calendar == batch.getBase() ? batch : calendar;
+  }
+
+  /**
+   * Closes the open batch, making its calendar active again.
+   */
+  private StagedCalendar closeBatch() {
+    if (batch == null) {
+      throw new IllegalStateException("No batch is open");
+    }
+    StagedCalendar closed = batch;
+    batch = null;
+    activeCalendar = closed.getBase();
+    return closed;
   }
 
   private void checkActiveCalendar() {
@@ -0,0 +1,70 @@
+package calendar.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The events of a calendar that were added, changed or removed since a change token.
+ * When the calendar can no longer tell what changed since the token, the change set is a
+ * full snapshot holding every event, and the receiver should replace its copy entirely.
+ */
+public class ChangeSet {
+
+  private final List<Event> changedEvents;
+  private final List<Event> removedEvents;
+  private final boolean fullSnapshot;
+  private final String token;
+
+  /**
+   * Creates a ChangeSet.
+   *
+   * @param changedEvents the events added or changed since the token, as they are now
+   * @param removedEvents the events removed since the token, as they were
+   * @param fullSnapshot  true if changedEvents holds every event instead of only the changes
+   * @param token         the token to pass to the next request for changes
+   */
+  public ChangeSet(List<Event> changedEvents, List<Event> removedEvents, boolean fullSnapshot,
+                   String token) {
+    this.changedEvents = Collections.unmodifiableList(changedEvents);
+    this.removedEvents = Collections.unmodifiableList(removedEvents);
+    this.fullSnapshot = fullSnapshot;
+    this.token = token;
+  }
+
+  /**
+   * Gets the events added or changed since the token, ordered by start time.
+   *
+   * @return an unmodifiable list of changed events
+   */
+  public List<Event> getChangedEvents() {
+    return changedEvents;
+  }
+
+  /**
+   * Gets the events removed since the token, ordered by start time. An edit that changes an
+   * event's subject or times removes the old event and adds a new one.
+   *
+   * @return an unmodifiable list of removed events
+   */
+  public List<Event> getRemovedEvents() {
+    return removedEvents;
+  }
+
+  /**
+   * Checks whether this change set holds every event rather than only the changes.
+   *
+   * @return true if the token was unknown or too old and this is a full snapshot
+   */
+  public boolean isFullSnapshot() {
+    return fullSnapshot;
+  }
+
+  /**
+   * Gets the token marking the calendar's state when this change set was taken.
+   *
+   * @return the token to pass to the next request for changes
+   */
+  public String getToken() {
+    return token;
+  }
+}
@@ -0,0 +1,91 @@
+package calendar.model;
+
+import calendar.model.exceptions.DuplicateEventException;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Writes the state of a calendar manager to a binary form and rebuilds a manager from it:
+ * every calendar with its name, time zone and events, and which calendar is in use.
+ * Change tokens handed out before the snapshot are not carried over, so exports since one of
+ * them fall back to a full snapshot.
+ */
+public final class ManagerSnapshot {
+
+  private static final int MAGIC = 0x43414c53;
+  private static final int VERSION = 1;
+
+  private ManagerSnapshot() {
+  }
+
+  /**
+   * Writes the state of a manager.
+   *
+   * @param manager the manager to write
+   * @param out     the output to write to
+   * @throws IOException if writing fails
+   */
+  public static void write(CalendarManager manager, DataOutput out) throws IOException {
+    List<Calendar> calendars = manager.getAllCalendars();
+    out.writeInt(MAGIC);
+    out.writeInt(VERSION);
+    out.writeInt(calendars.size());
+    for (Calendar calendar : calendars) {
+      out.writeUTF(calendar.getCalendarName());
+      out.writeUTF(calendar.getTimeZone().getId());
+      List<Event> events = calendar.getAllEvents();
+      out.writeInt(events.size());
+      for (Event event : events) {
+        EventCodec.write(event, out);
+      }
+    }
+
+    Calendar active = manager.getActiveCalendar();
+    out.writeBoolean(active != null);
+    if (active != null) {
+      out.writeUTF(active.getCalendarName());
+    }
+  }
+
+  /**
+   * Reads a manager written by {@link #write(CalendarManager, DataOutput)}.
+   *
+   * @param in the input to read from
+   * @return a new manager holding the written calendars
+   * @throws IOException if reading fails or the input is not a manager snapshot
+   */
+  public static CalendarManager read(DataInput in) throws IOException {
+    if (in.readInt() != MAGIC) {
+      throw new IOException("Not a calendar snapshot");
+    }
+    int version = in.readInt();
+    if (version != VERSION) {
+      throw new IOException("Unsupported snapshot version: " + version);
+    }
+
+    CalendarManagerImpl manager = new CalendarManagerImpl();
+    int calendarCount = in.readInt();
+    try {
+      for (int i = 0; i < calendarCount; i++) {
+        CalendarImpl calendar = new CalendarImpl(in.readUTF(), ZoneId.of(in.readUTF()));
+        int eventCount = in.readInt();
+        for (int j = 0; j < eventCount; j++) {
+          Event event = EventCodec.read(in);
+          calendar.addEvent(event);
+          calendar.reserveSeriesId(event.getSeriesId().orElse(null));
+        }
+        manager.addCalendar(calendar);
+      }
+      if (in.readBoolean()) {
+        manager.useCalendar(in.readUTF());
+      }
+    } catch (DateTimeException | DuplicateEventException | IllegalArgumentException e) {
+      throw new IOException("Corrupt calendar snapshot: " + e.getMessage(), e);
+    }
+    return manager;
+  }
+}
@@ -0,0 +1,374 @@
+package calendar.model;
+
+import calendar.model.exceptions.DuplicateEventException;
+import calendar.model.exceptions.EventNotFoundException;
+import calendar.model.exceptions.UnclearEventException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Stands in for a calendar while a batch is open, staging every change instead of making it.
+ * Events created one after another are collected in a staging area, where they are checked
+ * against each other as they are created; edits are kept in order between them, and the event
+ * each edit targets is looked up as it is staged. On commit the changes are made to the real
+ * calendar in the order they were staged, each run of created events at once, and if any of
+ * them fails, every change made by the commit is undone and the error names the script line
+ * the failed change came from. Queries see the calendar as it was when the batch began.
+ */
+final class StagedCalendar implements Calendar {
+
+  private final CalendarImpl base;
+  private final List<Step> steps;
+  private final List<CalendarImpl> areas;
+  private CalendarImpl area;
+  private Step rejected;
+  private int changeCount;
+  private long line;
+  private long areaFirstLine;
+  private long areaLastLine;
+  private boolean keysEdited;
+
+  /**
+   * Creates a StagedCalendar with nothing staged.
+   *
+   * @param base the calendar changes are made to on commit
+   */
+  StagedCalendar(CalendarImpl base) {
+    this.base = base;
+    this.steps = new ArrayList<>();
+    this.areas = new ArrayList<>();
+  }
+
+  /**
+   * Notes the script line the changes that follow come from.
+   *
+   * @param lineNumber the line's number, counting from 1
+   */
+  void lineStarted(long lineNumber) {
+    line = lineNumber;
+  }
+
+  /**
+   * Gets the calendar the changes will be made to.
+   *
+   * @return the real calendar
+   */
+  CalendarImpl getBase() {
+    return base;
+  }
+
+  /**
+   * Makes every staged change to the real calendar, or none of them. The error of a change
+   * that fails names the script lines it came from, when they are known.
+   *
+   * @return the number of changes made: events created plus edits
+   * @throws DuplicateEventException if an event was created twice in the batch or already
+   *                                 exists, or an edit would create a duplicate
+   * @throws EventNotFoundException  if an edited event does not exist
+   * @throws UnclearEventException   if an edited event cannot be told apart from another
+   */
+  int commit() throws DuplicateEventException, EventNotFoundException, UnclearEventException {
+    if (rejected != null) {
+      // Throws the error the change failed with when it was staged, before anything is made
+      rejected.applyTo(base);
+    }
+    closeArea();
+    base.applyAtomically(steps);
+    return changeCount;
+  }
+
+  @Override
+  public void addEvent(Event event) throws DuplicateEventException {
+    stage(() -> openArea().addEvent(event));
+  }
+
+  @Override
+  public void createEventSeries(String subject, LocalDate startDate, LocalTime startTime,
+                                LocalTime endTime, Set<DayOfWeek> weekdays, int occurrences)
+      throws DuplicateEventException {
+    stage(() -> openArea().createEventSeries(subject, startDate, startTime, endTime, weekdays,
+        occurrences));
+  }
+
+  @Override
+  public void createEventSeriesTill(String subject, LocalDate startDate, LocalTime startTime,
+                                    LocalTime endTime, Set<DayOfWeek> weekDays,
+                                    LocalDate endDate) throws DuplicateEventException {
+    stage(() -> openArea().createEventSeriesTill(subject, startDate, startTime, endTime,
+        weekDays, endDate));
+  }
+
+  @Override
+  public void createAllDayEventSeries(String subject, LocalDate startDate,
+                                      Set<DayOfWeek> weekDays, int occurrences)
+      throws DuplicateEventException {
+    stage(() -> openArea().createAllDayEventSeries(subject, startDate, weekDays, occurrences));
+  }
+
+  @Override
+  public void createAllDayEventSeriesTill(String subject, LocalDate startDate,
+                                          Set<DayOfWeek> weekDays, LocalDate endDate)
+      throws DuplicateEventException {
+    stage(() -> openArea().createAllDayEventSeriesTill(subject, startDate, weekDays, endDate));
+  }
+
+  @Override
+  public void createAndAddEvent(String subject, LocalDateTime startDateTime,
+                                LocalDateTime endDateTime, boolean isAllDay)
+      throws DuplicateEventException {
+    stage(() -> openArea().createAndAddEvent(subject, startDateTime, endDateTime, isAllDay));
+  }
+
+  @Override
+  public void createAndAddEvent(String subject, LocalDateTime startDateTime,
+                                LocalDateTime endDateTime, boolean isAllDay, String description,
+                                LocationType location, EventStatus status)
+      throws DuplicateEventException {
+    stage(() -> openArea().createAndAddEvent(subject, startDateTime, endDateTime, isAllDay,
+        description, location, status));
+  }
+
+  /**
+   * Stages an edit after checking that its target is among the events created in the batch or
+   * already in the calendar, and can be told apart from the others. Once an edit that changes
+   * events' subjects or start times is staged, the targets of later edits can only be found on
+   * commit, where they are checked instead.
+   *
+   * @throws EventNotFoundException if no event matches the subject and start
+   * @throws UnclearEventException  if more than one event matches the subject and start
+   */
+  @Override
+  public void editEvent(String subject, LocalDateTime startDateTime, String property,
+                        Object newValue, EditSettings scope)
+      throws EventNotFoundException, UnclearEventException {
+    if (!keysEdited) {
+      try {
+        checkTarget(subject, startDateTime);
+      } catch (EventNotFoundException e) {
+        reject(calendar -> {
+          throw e;
+        });
+        throw e;
+      } catch (UnclearEventException e) {
+        reject(calendar -> {
+          throw e;
+        });
+        throw e;
+      }
+    }
+    closeArea();
+    steps.add(new Step(line, line,
+        calendar -> calendar.editEvent(subject, startDateTime, property, newValue, scope)));
+    changeCount++;
+    if (property.equalsIgnoreCase("subject") || property.equalsIgnoreCase("start")) {
+      keysEdited = true;
+    }
+  }
+
+  @Override
+  public List<Event> getEventOnDate(LocalDate date) {
+    return base.getEventOnDate(date);
+  }
+
+  @Override
+  public List<Event> getEventsInRange(LocalDateTime start, LocalDateTime end) {
+    return base.getEventsInRange(start, end);
+  }
+
+  @Override
+  public boolean isBusy(LocalDateTime dateTime) {
+    return base.isBusy(dateTime);
+  }
+
+  @Override
+  public List<Event> getAllEvents() {
+    return base.getAllEvents();
+  }
+
+  @Override
+  public Iterable<Event> getOrderedEvents() {
+    return base.getOrderedEvents();
+  }
+
+  @Override
+  public Iterable<Event> getOrderedEventsInRange(LocalDateTime start, LocalDateTime end) {
+    return base.getOrderedEventsInRange(start, end);
+  }
+
+  @Override
+  public String getChangeToken() {
+    return base.getChangeToken();
+  }
+
+  @Override
+  public ChangeSet getChangesSince(String token) {
+    return base.getChangesSince(token);
+  }
+
+  @Override
+  public String getCalendarName() {
+    return base.getCalendarName();
+  }
+
+  @Override
+  public void setCalendarName(String name) {
+    throw new IllegalStateException("Cannot rename a calendar while a batch is open");
+  }
+
+  @Override
+  public ZoneId getTimeZone() {
+    return base.getTimeZone();
+  }
+
+  @Override
+  public void setTimeZone(ZoneId zoneId) {
+    throw new IllegalStateException("Cannot change a calendar's time zone while a batch is open");
+  }
+
+  @Override
+  public Event findEvent(String subject, LocalDateTime startDateTime)
+      throws EventNotFoundException, UnclearEventException {
+    return base.findEvent(subject, startDateTime);
+  }
+
+  /**
+   * Checks that exactly one event, among those staged so far and the calendar's own, matches
+   * a subject and start.
+   */
+  private void checkTarget(String subject, LocalDateTime startDateTime)
+      throws EventNotFoundException, UnclearEventException {
+    boolean found = false;
+    EventNotFoundException missing = null;
+    for (int i = 0; i <= areas.size(); i++) {
+      CalendarImpl calendar = i < areas.size() ? areas.get(i) : base;
+      try {
+        calendar.findEvent(subject, startDateTime);
+      } catch (EventNotFoundException e) {
+        missing = e;
+        continue;
+      }
+      if (found) {
+        throw new UnclearEventException("Event repeating, unable to edit");
+      }
+      found = true;
+    }
+    if (!found) {
+      throw missing;
+    }
+  }
+
+  /**
+   * Creates events in the staging area, counting them, and remembers a duplicate so the
+   * commit fails.
+   */
+  private void stage(Creation creation) throws DuplicateEventException {
+    int before = area == null ? 0 : area.getEventCount();
+    areaLastLine = line;
+    try {
+      creation.run();
+    } catch (DuplicateEventException e) {
+      reject(calendar -> {
+        throw e;
+      });
+      throw e;
+    } finally {
+      changeCount += area.getEventCount() - before;
+    }
+  }
+
+  /**
+   * Remembers the first change that failed as it was staged, as a step that fails the same
+   * way, so the commit fails and names its line.
+   */
+  private void reject(Change failure) {
+    if (rejected == null) {
+      rejected = new Step(line, line, failure);
+    }
+  }
+
+  /**
+   * Gets the staging area for the run of created events, starting a new one after an edit.
+   */
+  private CalendarImpl openArea() {
+    if (area == null) {
+      area = base.newStagingArea();
+      areas.add(area);
+      areaFirstLine = line;
+    }
+    return area;
+  }
+
+  /**
+   * Ends the current run of created events, staging them to be added together.
+   */
+  private void closeArea() {
+    if (area == null) {
+      return;
+    }
+    CalendarImpl staged = area;
+    steps.add(new Step(areaFirstLine, areaLastLine, calendar -> calendar.addStaged(staged)));
+    area = null;
+  }
+
+  /**
+   * A change staged to be made to the real calendar on commit, with the script lines it was
+   * staged from, or 0 if they are not known.
+   */
+  static final class Step {
+    private final long firstLine;
+    private final long lastLine;
+    private final Change change;
+
+    Step(long firstLine, long lastLine, Change change) {
+      this.firstLine = firstLine;
+      this.lastLine = lastLine;
+      this.change = change;
+    }
+
+    /**
+     * Makes the change, naming its lines in the error if it fails.
+     */
+    void applyTo(CalendarImpl calendar)
+        throws DuplicateEventException, EventNotFoundException, UnclearEventException {
+      try {
+        change.applyTo(calendar);
+      } catch (DuplicateEventException e) {
+        throw new DuplicateEventException(located(e.getMessage()));
+      } catch (EventNotFoundException e) {
+        throw new EventNotFoundException(located(e.getMessage()));
+      } catch (UnclearEventException e) {
+        throw new UnclearEventException(located(e.getMessage()));
+      }
+    }
+
+    private String located(String message) {
+      if (firstLine == 0) {
+        return message;
+      }
+      String lines = firstLine == lastLine ? "line " + firstLine
+          : "lines " + firstLine + "-" + lastLine;
+      return message + " (" + lines + ")";
+    }
+  }
+
+  /**
+   * Makes one staged change to the real calendar.
+   */
+  private interface Change {
+    void applyTo(CalendarImpl calendar)
+        throws DuplicateEventException, EventNotFoundException, UnclearEventException;
+  }
+
+  /**
+   * Creates events in the staging area.
+   */
+  private interface Creation {
+    void run() throws DuplicateEventException;
+  }
+}
@@ -0,0 +1,258 @@
+package calendar.view;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Writer that collects text in one large buffer and writes it to a channel, such as the file
+ * channel behind standard output, as UTF-8 once the buffer is full or the writer is flushed.
+ * In background mode a writer thread writes full buffers to the channel while the caller
+ * keeps filling the next one; at most two buffers are waiting at any time, so a slow channel
+ * holds the caller back rather than letting output pile up in memory.
+ */
+public class ChannelWriter extends Writer {
+
+  private static final int BACKGROUND_BUFFERS = 2;
+
+  private final WritableByteChannel channel;
+  private final char[] chars;
+  private final CharsetEncoder encoder;
+  private final BlockingQueue<ByteBuffer> freeBuffers;
+  private final BlockingQueue<ByteBuffer> fullBuffers;
+  private final Thread writerThread;
+  private int charCount;
+  private int pendingBuffers;
+  private IOException failure;
+  private boolean closed;
+
+  /**
+   * Creates a ChannelWriter.
+   *
+   * @param channel    the channel to write to
+   * @param bufferSize the number of characters collected before they are written
+   * @param background whether full buffers are written by a background thread
+   * @throws IllegalArgumentException if channel is null or bufferSize is less than two, the
+   *                                  least that can hold a surrogate pair
+   */
+  public ChannelWriter(WritableByteChannel channel, int bufferSize, boolean background) {
+    if (channel == null) {
+      throw new IllegalArgumentException("Channel cannot be null");
+    }
+    if (bufferSize < 2) {
+      throw new IllegalArgumentException("Buffer size must be at least 2");
+    }
+    this.channel = channel;
+    this.chars = new char[bufferSize];
+    this.encoder = StandardCharsets.UTF_8.newEncoder();
+    int byteCount = (int) Math.min(Integer.MAX_VALUE,
+        (long) Math.ceil(bufferSize * (double) encoder.maxBytesPerChar()));
+    this.freeBuffers = new ArrayBlockingQueue<>(BACKGROUND_BUFFERS);
+    this.fullBuffers = new ArrayBlockingQueue<>(BACKGROUND_BUFFERS);
+    for (int i = 0; i < (background ? BACKGROUND_BUFFERS : 1); i++) {
+      freeBuffers.add(ByteBuffer.allocate(byteCount));
+    }
+
+    if (background) {
+      writerThread = new Thread(this::writeInBackground, "console-writer");
+      writerThread.setDaemon(true);
+      writerThread.start();
+    } else {
+      writerThread = null;
+    }
+  }
+
+  @Override
+  public void write(char[] source, int offset, int length) throws IOException {
+    ensureOpen();
+    while (length > 0) {
+      int count = Math.min(length, chars.length - charCount);
+      System.arraycopy(source, offset, chars, charCount, count);
+      charCount += count;
+      offset += count;
+      length -= count;
+      if (charCount == chars.length) {
+        drain();
+      }
+    }
+  }
+
+  @Override
+  public void write(String source, int offset, int length) throws IOException {
+    ensureOpen();
+    while (length > 0) {
+      int count = Math.min(length, chars.length - charCount);
+      source.getChars(offset, offset + count, chars, charCount);
+      charCount += count;
+      offset += count;
+      length -= count;
+      if (charCount == chars.length) {
+        drain();
+      }
+    }
+  }
+
+  @Override
+  public void write(int c) throws IOException {
+    ensureOpen();
+    chars[charCount++] = (char) c;
+    if (charCount == chars.length) {
+      drain();
+    }
+  }
+
+  @Override
+  public Writer append(CharSequence text) throws IOException {
+    ensureOpen();
+    int length = text.length();
+    for (int i = 0; i < length; i++) {
+      chars[charCount++] = text.charAt(i);
+      if (charCount == chars.length) {
+        drain();
+      }
+    }
+    return this;
+  }
+
+  /**
+   * Writes everything collected so far to the channel, waiting for the background thread to
+   * finish writing it in background mode.
+   *
+   * @throws IOException if writing to the channel failed
+   */
+  @Override
+  public void flush() throws IOException {
+    ensureOpen();
+    drain();
+    if (writerThread != null) {
+      synchronized (this) {
+        while (pendingBuffers > 0) {
+          try {
+            wait();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while flushing output");
+          }
+        }
+      }
+    }
+    throwFailure();
+  }
+
+  /**
+   * Flushes the writer, stops the background thread and closes the channel.
+   *
+   * @throws IOException if writing to or closing the channel failed
+   */
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    try {
+      flush();
+    } finally {
+      closed = true;
+      if (writerThread != null) {
+        writerThread.interrupt();
+      }
+      channel.close();
+    }
+  }
+
+  /**
+   * Encodes the collected characters and writes them, or hands them to the background thread.
+   * A surrogate pair split at the end of the buffer is kept for the next drain.
+   */
+  private void drain() throws IOException {
+    if (charCount == 0) {
+      return;
+    }
+    ByteBuffer bytes;
+    try {
+      bytes = freeBuffers.take();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while writing output");
+    }
+
+    CharBuffer text = CharBuffer.wrap(chars, 0, charCount);
+    bytes.clear();
+    CoderResult result = encoder.encode(text, bytes, false);
+    if (result.isError()) {
+      freeBuffers.add(bytes);
+      result.throwException();
+    }
+    bytes.flip();
+    int left = text.remaining();
+    System.arraycopy(chars, text.position(), chars, 0, left);
+    charCount = left;
+
+    if (writerThread == null) {
+      try {
+        writeFully(bytes);
+      } finally {
+        freeBuffers.add(bytes);
+      }
+      return;
+    }
+    synchronized (this) {
+      pendingBuffers++;
+    }
+    fullBuffers.add(bytes);
+    throwFailure();
+  }
+
+  private void writeInBackground() {
+    while (true) {
+      ByteBuffer bytes;
+      try {
+        bytes = fullBuffers.take();
+      } catch (InterruptedException e) {
+        return;
+      }
+      try {
+        writeFully(bytes);
+      } catch (IOException e) {
+        synchronized (this) {
+          if (failure == null) {
+            failure = e;
+          }
+        }
+      }
+      freeBuffers.add(bytes);
+      synchronized (this) {
+        pendingBuffers--;
+        notifyAll();
+      }
+    }
+  }
+
+  private void writeFully(ByteBuffer bytes) throws IOException {
+    while (bytes.hasRemaining()) {
+      channel.write(bytes);
+    }
+  }
+
+  private synchronized void throwFailure() throws IOException {
+    if (failure != null) {
+      IOException thrown = failure;
+      failure = null;
+      throw thrown;
+    }
+  }
+
+  private void ensureOpen() throws IOException {
+    if (closed) {
+      throw new IOException("Writer is closed");
+    }
+  }
+}
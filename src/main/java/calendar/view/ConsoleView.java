@@ -2,17 +2,25 @@ package calendar.view;
 
 import calendar.model.Event;
 import calendar.model.LocationType;
+import java.io.IOException;
 import java.io.PrintStream;
+import java.io.Writer;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 /**
  * Console-based implementation of the View interface.
  * Displays calendar information to the console using standard output.
+ * A view over a PrintStream prints each line as it is displayed; a view over a Writer leaves
+ * buffering to the writer and only writes lines out when it fills up or the view is flushed.
  */
 public class ConsoleView implements View {
 
   private final PrintStream out;
+  private final Writer writer;
+  private final String lineSeparator = System.lineSeparator();
+  private final StringBuilder line = new StringBuilder(128);
+  private boolean writeFailed;
   private static final DateTimeFormatter DATE_FORMATTER =
       DateTimeFormatter.ofPattern("yyyy-MM-dd");
   private static final DateTimeFormatter TIME_FORMATTER =
@@ -25,6 +33,19 @@ public class ConsoleView implements View {
    */
   public ConsoleView(PrintStream out) {
     this.out = out;
+    this.writer = null;
+  }
+
+  /**
+   * Creates a ConsoleView that writes to the given Writer, such as a {@link ChannelWriter},
+   * without flushing it after every line. Output is only certain to be written once
+   * {@link #flush()} is called.
+   *
+   * @param writer the writer to write to
+   */
+  public ConsoleView(Writer writer) {
+    this.out = null;
+    this.writer = writer;
   }
 
   /**
@@ -36,120 +57,193 @@ public class ConsoleView implements View {
 
   @Override
   public void displayMessage(String message) {
-    out.println(message);
+    println(message);
   }
 
   @Override
   public void displayError(String error) {
-    out.println("Error: " + error);
+    println("Error: " + error);
   }
 
   @Override
   public void displayEvents(List<Event> events) {
     if (events.isEmpty()) {
-      out.println("No events found.");
+      println("No events found.");
       return;
     }
 
     for (Event event : events) {
-      out.println("- " + formatEvent(event));
+      println(formatEvent(event));
     }
   }
 
   @Override
   public void displayEventsOnDate(List<Event> events, String date) {
     if (events.isEmpty()) {
-      out.println("No events on " + date);
+      println("No events on " + date);
       return;
     }
 
-    out.println("Events on " + date + ":");
+    println("Events on " + date + ":");
     for (Event event : events) {
-      out.println("- " + formatEventForDate(event));
+      println(formatEventForDate(event));
     }
   }
 
   @Override
   public void displayEventsInRange(List<Event> events) {
     if (events.isEmpty()) {
-      out.println("No events in the specified range.");
+      println("No events in the specified range.");
       return;
     }
 
-    out.println("Events in range:");
+    println("Events in range:");
     for (Event event : events) {
-      out.println("- " + formatEventWithFullDetails(event));
+      println(formatEventWithFullDetails(event));
     }
   }
 
   @Override
   public void displayBusyStatus(boolean isBusy) {
-    out.println(isBusy ? "busy" : "available");
+    println(isBusy ? "busy" : "available");
   }
 
   @Override
   public void displayEventCreated(String eventSubject) {
-    out.println("Event created: " + eventSubject);
+    println("Event created: " + eventSubject);
   }
 
   @Override
   public void displayEventEdited(String eventSubject) {
-    out.println("Event edited: " + eventSubject);
+    println("Event edited: " + eventSubject);
   }
 
   @Override
   public void displayExportSuccess(String absolutePath) {
-    out.println("Calendar exported successfully to: " + absolutePath);
+    println("Calendar exported successfully to: " + absolutePath);
+  }
+
+  @Override
+  public void lineStarted(long lineNumber) {
+    // Only output is shown on the console
+  }
+
+  @Override
+  public void commandStarted(String command) {
+    // Only output is shown on the console
+  }
+
+  @Override
+  public void commandFailed(Exception error) {
+    // The error itself is displayed by the caller
+  }
+
+  /**
+   * Writes everything displayed so far. A view over a Writer keeps the first error the writer
+   * reports, as a PrintStream does, and reports it through {@link #checkError()}.
+   */
+  @Override
+  public void flush() {
+    if (writer == null) {
+      out.flush();
+      return;
+    }
+    try {
+      writer.flush();
+    } catch (IOException e) {
+      writeFailed = true;
+    }
+  }
+
+  /**
+   * Flushes the view and checks whether writing any of its output failed.
+   *
+   * @return true if output could not be written
+   */
+  public boolean checkError() {
+    flush();
+    return writer == null ? out.checkError() : writeFailed;
   }
 
   /**
    * Formats an event for display on a specific date.
-   * Format: Subject from startTime to endTime [at location]
+   * Format: - Subject from startTime to endTime [at location]
    */
-  private String formatEventForDate(Event event) {
-    StringBuilder sb = new StringBuilder();
+  private StringBuilder formatEventForDate(Event event) {
+    StringBuilder sb = startLine();
+    sb.append("- ");
     sb.append(event.getSubject());
     sb.append(" from ");
-    sb.append(event.getStartDateTime().format(TIME_FORMATTER));
+    TIME_FORMATTER.formatTo(event.getStartDateTime(), sb);
     sb.append(" to ");
-    sb.append(event.getEndDateTime().format(TIME_FORMATTER));
-
-    if (event.getLocation() != LocationType.NONE) {
-      sb.append(" at ");
-      sb.append(event.getLocation().getDisplayValue());
-    }
-
-    return sb.toString();
+    TIME_FORMATTER.formatTo(event.getEndDateTime(), sb);
+    appendLocation(event, sb);
+    return sb;
   }
 
   /**
    * Formats an event with full date and time details.
-   * Format: Subject starting on date at time, ending on date at time [at location]
+   * Format: - Subject starting on date at time, ending on date at time [at location]
    */
-  private String formatEventWithFullDetails(Event event) {
-    StringBuilder sb = new StringBuilder();
+  private StringBuilder formatEventWithFullDetails(Event event) {
+    StringBuilder sb = startLine();
+    sb.append("- ");
     sb.append(event.getSubject());
     sb.append(" starting on ");
-    sb.append(event.getStartDateTime().format(DATE_FORMATTER));
+    DATE_FORMATTER.formatTo(event.getStartDateTime(), sb);
     sb.append(" at ");
-    sb.append(event.getStartDateTime().format(TIME_FORMATTER));
+    TIME_FORMATTER.formatTo(event.getStartDateTime(), sb);
     sb.append(", ending on ");
-    sb.append(event.getEndDateTime().format(DATE_FORMATTER));
+    DATE_FORMATTER.formatTo(event.getEndDateTime(), sb);
     sb.append(" at ");
-    sb.append(event.getEndDateTime().format(TIME_FORMATTER));
+    TIME_FORMATTER.formatTo(event.getEndDateTime(), sb);
+    appendLocation(event, sb);
+    return sb;
+  }
 
+  /**
+   * Simple event formatting.
+   * Format: - Subject (date)
+   */
+  private StringBuilder formatEvent(Event event) {
+    StringBuilder sb = startLine();
+    sb.append("- ");
+    sb.append(event.getSubject());
+    sb.append(" (");
+    DATE_FORMATTER.formatTo(event.getStartDateTime(), sb);
+    sb.append(')');
+    return sb;
+  }
+
+  private static void appendLocation(Event event, StringBuilder sb) {
     if (event.getLocation() != LocationType.NONE) {
       sb.append(" at ");
       sb.append(event.getLocation().getDisplayValue());
     }
+  }
 
-    return sb.toString();
+  /**
+   * Gets the builder every event line is formatted in, emptied, so listing many events does
+   * not allocate a builder and a string for each. The line is only valid until the next one
+   * is started.
+   */
+  private StringBuilder startLine() {
+    line.setLength(0);
+    return line;
   }
 
   /**
-   * Simple event formatting.
+   * Displays one line, on the stream or the writer.
    */
-  private String formatEvent(Event event) {
-    return event.getSubject() + " (" + event.getStartDateTime().format(DATE_FORMATTER) + ")";
+  private void println(CharSequence text) {
+    if (writer == null) {
+      out.println(text);
+      return;
+    }
+    try {
+      writer.append(text).append(lineSeparator);
+    } catch (IOException e) {
+      writeFailed = true;
+    }
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,384 @@
+package calendar.view;
+
+import calendar.model.Event;
+import calendar.model.LocationType;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * View that writes one JSON object per line for every result displayed, for programs that
+ * read the output instead of people. Each record has a {@code type}: {@code message},
+ * {@code error}, {@code events}, {@code status}, {@code created}, {@code edited} or
+ * {@code exported}, along with the script line and the kind of command it came from when
+ * they are known. Errors from a failed command also name the kind of error.
+ * Records are encoded as UTF-8 straight into a byte buffer, which is written to the stream
+ * after every record, or only when it fills up and when the view is flushed.
+ */
+public class JsonLinesView implements View {
+
+  private static final int BUFFER_SIZE = 1 << 16;
+  private static final byte[] HEX_DIGITS = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9',
+      'a', 'b', 'c', 'd', 'e', 'f'};
+
+  private final OutputStream out;
+  private final boolean flushEachRecord;
+  private final byte[] buffer;
+  private int count;
+  private long lineNumber;
+  private String command;
+  private String failure;
+  private boolean writeFailed;
+
+  /**
+   * Creates a JsonLinesView that writes to the given stream.
+   *
+   * @param out             the stream to write records to
+   * @param flushEachRecord true to write every record out as soon as it is displayed, false
+   *                        to only write when the buffer fills up or the view is flushed
+   * @throws IllegalArgumentException if out is null
+   */
+  public JsonLinesView(OutputStream out, boolean flushEachRecord) {
+    if (out == null) {
+      throw new IllegalArgumentException("Output stream cannot be null");
+    }
+    this.out = out;
+    this.flushEachRecord = flushEachRecord;
+    this.buffer = new byte[BUFFER_SIZE];
+  }
+
+  @Override
+  public void displayMessage(String message) {
+    startRecord("message");
+    appendAscii(",\"message\":");
+    appendString(message);
+    endRecord();
+  }
+
+  /**
+   * Writes an error record, naming the kind of error if it follows a failed command.
+   */
+  @Override
+  public void displayError(String error) {
+    startRecord("error");
+    if (failure != null) {
+      appendAscii(",\"error\":\"");
+      appendAscii(failure);
+      appendByte('"');
+      failure = null;
+    }
+    appendAscii(",\"message\":");
+    appendString(error);
+    endRecord();
+  }
+
+  @Override
+  public void displayEvents(List<Event> events) {
+    startRecord("events");
+    appendEvents(events);
+    endRecord();
+  }
+
+  @Override
+  public void displayEventsOnDate(List<Event> events, String date) {
+    startRecord("events");
+    appendAscii(",\"date\":");
+    appendString(date);
+    appendEvents(events);
+    endRecord();
+  }
+
+  @Override
+  public void displayEventsInRange(List<Event> events) {
+    startRecord("events");
+    appendEvents(events);
+    endRecord();
+  }
+
+  @Override
+  public void displayBusyStatus(boolean isBusy) {
+    startRecord("status");
+    appendAscii(isBusy ? ",\"busy\":true" : ",\"busy\":false");
+    endRecord();
+  }
+
+  @Override
+  public void displayEventCreated(String eventSubject) {
+    startRecord("created");
+    appendAscii(",\"subject\":");
+    appendString(eventSubject);
+    endRecord();
+  }
+
+  @Override
+  public void displayEventEdited(String eventSubject) {
+    startRecord("edited");
+    appendAscii(",\"subject\":");
+    appendString(eventSubject);
+    endRecord();
+  }
+
+  @Override
+  public void displayExportSuccess(String absolutePath) {
+    startRecord("exported");
+    appendAscii(",\"path\":");
+    appendString(absolutePath);
+    endRecord();
+  }
+
+  /**
+   * Remembers the line so the records that follow carry it, until the next line starts.
+   */
+  @Override
+  public void lineStarted(long lineNumber) {
+    this.lineNumber = lineNumber;
+    command = null;
+    failure = null;
+  }
+
+  @Override
+  public void commandStarted(String command) {
+    this.command = command;
+    failure = null;
+  }
+
+  @Override
+  public void commandFailed(Exception error) {
+    failure = error.getClass().getSimpleName();
+  }
+
+  /**
+   * Writes every record in the buffer to the stream and flushes it. Errors writing to the
+   * stream are kept and reported through {@link #checkError()}.
+   */
+  @Override
+  public void flush() {
+    writeBuffer();
+    try {
+      out.flush();
+    } catch (IOException e) {
+      writeFailed = true;
+    }
+  }
+
+  /**
+   * Flushes the view and checks whether writing any of its output failed.
+   *
+   * @return true if output could not be written
+   */
+  public boolean checkError() {
+    flush();
+    return writeFailed;
+  }
+
+  private void startRecord(String type) {
+    if (lineNumber > 0) {
+      appendAscii("{\"line\":");
+      appendAscii(Long.toString(lineNumber));
+      appendByte(',');
+    } else {
+      appendByte('{');
+    }
+    if (command != null) {
+      appendAscii("\"command\":\"");
+      appendAscii(command);
+      appendAscii("\",");
+    }
+    appendAscii("\"type\":\"");
+    appendAscii(type);
+    appendByte('"');
+  }
+
+  private void endRecord() {
+    appendByte('}');
+    appendByte('\n');
+    if (flushEachRecord) {
+      flush();
+    }
+  }
+
+  private void appendEvents(List<Event> events) {
+    appendAscii(",\"events\":[");
+    for (int i = 0; i < events.size(); i++) {
+      if (i > 0) {
+        appendByte(',');
+      }
+      appendEvent(events.get(i));
+    }
+    appendByte(']');
+  }
+
+  /**
+   * Writes an event with the same fields as an NDJSON export, but with start and end in the
+   * calendar's own time zone.
+   */
+  private void appendEvent(Event event) {
+    appendAscii("{\"subject\":");
+    appendString(event.getSubject());
+    appendAscii(",\"start\":\"");
+    appendDateTime(event.getStartDateTime());
+    appendAscii("\",\"end\":\"");
+    appendDateTime(event.getEndDateTime());
+    appendAscii(event.isAllDayEvent() ? "\",\"allDay\":true" : "\",\"allDay\":false");
+    appendAscii(",\"description\":");
+    appendOptional(event.getDescription());
+    appendAscii(",\"location\":");
+    if (event.getLocation() != LocationType.NONE) {
+      appendByte('"');
+      appendAscii(event.getLocation().name());
+      appendByte('"');
+    } else {
+      appendAscii("null");
+    }
+    appendAscii(",\"status\":\"");
+    appendAscii(event.getStatus().name());
+    appendAscii("\",\"seriesId\":");
+    appendOptional(event.getSeriesId());
+    appendByte('}');
+  }
+
+  private void appendOptional(Optional<String> text) {
+    if (text.isPresent()) {
+      appendString(text.get());
+    } else {
+      appendAscii("null");
+    }
+  }
+
+  /**
+   * Writes a date and time as yyyy-MM-ddTHH:mm, digit by digit for years a calendar
+   * normally holds.
+   */
+  private void appendDateTime(LocalDateTime dateTime) {
+    int year = dateTime.getYear();
+    if (year < 1000 || year > 9999) {
+      appendAscii(dateTime.withSecond(0).withNano(0).toString());
+      return;
+    }
+    appendDigits(year, 4);
+    appendByte('-');
+    appendDigits(dateTime.getMonthValue(), 2);
+    appendByte('-');
+    appendDigits(dateTime.getDayOfMonth(), 2);
+    appendByte('T');
+    appendDigits(dateTime.getHour(), 2);
+    appendByte(':');
+    appendDigits(dateTime.getMinute(), 2);
+  }
+
+  private void appendDigits(int value, int width) {
+    ensureRoom(width);
+    for (int i = count + width - 1; i >= count; i--) {
+      buffer[i] = (byte) ('0' + value % 10);
+      value /= 10;
+    }
+    count += width;
+  }
+
+  /**
+   * Writes text as a JSON string encoded as UTF-8, escaping quotes, backslashes, control
+   * characters and unpaired surrogates.
+   */
+  private void appendString(String text) {
+    appendByte('"');
+    int length = text.length();
+    for (int i = 0; i < length; i++) {
+      char c = text.charAt(i);
+      if (c < 0x80) {
+        if (c == '"' || c == '\\') {
+          appendByte('\\');
+          appendByte(c);
+        } else if (c >= 0x20) {
+          appendByte(c);
+        } else if (c == '\n') {
+          appendAscii("\\n");
+        } else if (c == '\r') {
+          appendAscii("\\r");
+        } else if (c == '\t') {
+          appendAscii("\\t");
+        } else {
+          appendEscape(c);
+        }
+      } else if (c < 0x800) {
+        ensureRoom(2);
+        buffer[count++] = (byte) (0xc0 | c >> 6);
+        buffer[count++] = (byte) (0x80 | c & 0x3f);
+      } else if (!Character.isSurrogate(c)) {
+        ensureRoom(3);
+        buffer[count++] = (byte) (0xe0 | c >> 12);
+        buffer[count++] = (byte) (0x80 | c >> 6 & 0x3f);
+        buffer[count++] = (byte) (0x80 | c & 0x3f);
+      } else if (Character.isHighSurrogate(c) && i + 1 < length
+          && Character.isLowSurrogate(text.charAt(i + 1))) {
+        int codePoint = Character.toCodePoint(c, text.charAt(++i));
+        ensureRoom(4);
+        buffer[count++] = (byte) (0xf0 | codePoint >> 18);
+        buffer[count++] = (byte) (0x80 | codePoint >> 12 & 0x3f);
+        buffer[count++] = (byte) (0x80 | codePoint >> 6 & 0x3f);
+        buffer[count++] = (byte) (0x80 | codePoint & 0x3f);
+      } else {
+        appendEscape(c);
+      }
+    }
+    appendByte('"');
+  }
+
+  private void appendEscape(char c) {
+    ensureRoom(6);
+    buffer[count++] = '\\';
+    buffer[count++] = 'u';
+    buffer[count++] = HEX_DIGITS[c >> 12];
+    buffer[count++] = HEX_DIGITS[c >> 8 & 0xf];
+    buffer[count++] = HEX_DIGITS[c >> 4 & 0xf];
+    buffer[count++] = HEX_DIGITS[c & 0xf];
+  }
+
+  /**
+   * Writes text known to be ASCII, such as names of types and enum constants, byte for char.
+   */
+  private void appendAscii(String text) {
+    int length = text.length();
+    int start = 0;
+    while (start < length) {
+      if (count == buffer.length) {
+        writeBuffer();
+      }
+      int end = Math.min(length, start + buffer.length - count);
+      for (int i = start; i < end; i++) {
+        buffer[count++] = (byte) text.charAt(i);
+      }
+      start = end;
+    }
+  }
+
+  private void appendByte(int b) {
+    if (count == buffer.length) {
+      writeBuffer();
+    }
+    buffer[count++] = (byte) b;
+  }
+
+  private void ensureRoom(int length) {
+    if (count + length > buffer.length) {
+      writeBuffer();
+    }
+  }
+
+  /**
+   * Writes the buffer to the stream and empties it. If writing fails the buffered records are
+   * dropped and the failure is kept for {@link #checkError()}.
+   */
+  private void writeBuffer() {
+    if (count == 0) {
+      return;
+    }
+    try {
+      out.write(buffer, 0, count);
+    } catch (IOException e) {
+      writeFailed = true;
+    }
+    count = 0;
+  }
+}
@@ -0,0 +1,96 @@
+package calendar.view;
+
+import calendar.model.Event;
+import java.util.List;
+
+/**
+ * View decorator that drops the output of every command, so bulk scripts spend no time
+ * formatting or writing it. Errors can still be passed on to the wrapped view.
+ */
+public class QuietView implements View {
+
+  private final View delegate;
+  private final boolean showErrors;
+
+  /**
+   * Creates a QuietView.
+   *
+   * @param delegate   the view errors are shown on, and that is flushed
+   * @param showErrors whether errors are passed on, or dropped like everything else
+   * @throws IllegalArgumentException if delegate is null
+   */
+  public QuietView(View delegate, boolean showErrors) {
+    if (delegate == null) {
+      throw new IllegalArgumentException("View cannot be null");
+    }
+    this.delegate = delegate;
+    this.showErrors = showErrors;
+  }
+
+  @Override
+  public void displayMessage(String message) {
+    // Dropped
+  }
+
+  @Override
+  public void displayError(String error) {
+    if (showErrors) {
+      delegate.displayError(error);
+    }
+  }
+
+  @Override
+  public void displayEvents(List<Event> events) {
+    // Dropped
+  }
+
+  @Override
+  public void displayEventsOnDate(List<Event> events, String date) {
+    // Dropped
+  }
+
+  @Override
+  public void displayEventsInRange(List<Event> events) {
+    // Dropped
+  }
+
+  @Override
+  public void displayBusyStatus(boolean isBusy) {
+    // Dropped
+  }
+
+  @Override
+  public void displayEventCreated(String eventSubject) {
+    // Dropped
+  }
+
+  @Override
+  public void displayEventEdited(String eventSubject) {
+    // Dropped
+  }
+
+  @Override
+  public void displayExportSuccess(String absolutePath) {
+    // Dropped
+  }
+
+  @Override
+  public void lineStarted(long lineNumber) {
+    // Dropped
+  }
+
+  @Override
+  public void commandStarted(String command) {
+    // Dropped
+  }
+
+  @Override
+  public void commandFailed(Exception error) {
+    // Dropped
+  }
+
+  @Override
+  public void flush() {
+    delegate.flush();
+  }
+}
@@ -0,0 +1,98 @@
+package calendar.view;
+
+import calendar.model.Event;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * View that records what it is asked to display, so output produced on another thread or
+ * out of order can be shown later, in the right order, on a real view.
+ */
+public class RecordingView implements View {
+
+  private final List<Consumer<View>> calls;
+
+  /**
+   * Creates an empty RecordingView.
+   */
+  public RecordingView() {
+    this.calls = new ArrayList<>(2);
+  }
+
+  /**
+   * Repeats every recorded call on another view, in the order they were made.
+   *
+   * @param target the view to display the recorded output on
+   */
+  public void replay(View target) {
+    for (Consumer<View> call : calls) {
+      call.accept(target);
+    }
+  }
+
+  @Override
+  public void displayMessage(String message) {
+    calls.add(view -> view.displayMessage(message));
+  }
+
+  @Override
+  public void displayError(String error) {
+    calls.add(view -> view.displayError(error));
+  }
+
+  @Override
+  public void displayEvents(List<Event> events) {
+    calls.add(view -> view.displayEvents(events));
+  }
+
+  @Override
+  public void displayEventsOnDate(List<Event> events, String date) {
+    calls.add(view -> view.displayEventsOnDate(events, date));
+  }
+
+  @Override
+  public void displayEventsInRange(List<Event> events) {
+    calls.add(view -> view.displayEventsInRange(events));
+  }
+
+  @Override
+  public void displayBusyStatus(boolean isBusy) {
+    calls.add(view -> view.displayBusyStatus(isBusy));
+  }
+
+  @Override
+  public void displayEventCreated(String eventSubject) {
+    calls.add(view -> view.displayEventCreated(eventSubject));
+  }
+
+  @Override
+  public void displayEventEdited(String eventSubject) {
+    calls.add(view -> view.displayEventEdited(eventSubject));
+  }
+
+  @Override
+  public void displayExportSuccess(String absolutePath) {
+    calls.add(view -> view.displayExportSuccess(absolutePath));
+  }
+
+  @Override
+  public void lineStarted(long lineNumber) {
+    calls.add(view -> view.lineStarted(lineNumber));
+  }
+
+  @Override
+  public void commandStarted(String command) {
+    calls.add(view -> view.commandStarted(command));
+  }
+
+  @Override
+  public void commandFailed(Exception error) {
+    calls.add(view -> view.commandFailed(error));
+  }
+
+  @Override
+  public void flush() {
+    // Nothing is displayed until the recorded calls are replayed
+  }
+}
@@ -0,0 +1,147 @@
+package calendar.view;
+
+import calendar.model.Event;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * View decorator that drops the output of every command and only counts what happened: how
+ * many commands of each kind ran and how many failed, by the kind of error. The counts and the
+ * time taken are shown on the wrapped view by {@link #displaySummary()}. Errors that are not
+ * a failed command, such as a script missing its exit command, are still shown as they
+ * happen.
+ */
+public class SummaryView implements View {
+
+  private final View delegate;
+  private final long startNanos;
+  private final Map<String, long[]> commandCounts = new HashMap<>();
+  private final Map<String, long[]> errorCounts = new HashMap<>();
+  private boolean failureShown;
+
+  /**
+   * Creates a SummaryView and starts timing the run.
+   *
+   * @param delegate the view the summary is shown on
+   * @throws IllegalArgumentException if delegate is null
+   */
+  public SummaryView(View delegate) {
+    if (delegate == null) {
+      throw new IllegalArgumentException("View cannot be null");
+    }
+    this.delegate = delegate;
+    this.startNanos = System.nanoTime();
+  }
+
+  /**
+   * Shows the number of commands run and failed, by kind, and the time since the view was
+   * created, then flushes the wrapped view.
+   */
+  public void displaySummary() {
+    long elapsedNanos = System.nanoTime() - startNanos;
+    long commandTotal = total(commandCounts);
+    long errorTotal = total(errorCounts);
+    double seconds = Math.max(elapsedNanos, 1) / 1_000_000_000.0;
+
+    delegate.displayMessage("Ran " + commandTotal + " commands in " + elapsedNanos / 1_000_000
+        + " ms, " + Math.round(commandTotal / seconds) + " commands/sec");
+    for (Map.Entry<String, long[]> count : new TreeMap<>(commandCounts).entrySet()) {
+      delegate.displayMessage("  " + count.getKey() + ": " + count.getValue()[0]);
+    }
+    delegate.displayMessage(errorTotal + " errors");
+    for (Map.Entry<String, long[]> count : new TreeMap<>(errorCounts).entrySet()) {
+      delegate.displayMessage("  " + count.getKey() + ": " + count.getValue()[0]);
+    }
+    delegate.flush();
+  }
+
+  @Override
+  public void lineStarted(long lineNumber) {
+    // Only commands are counted
+  }
+
+  @Override
+  public void commandStarted(String command) {
+    count(commandCounts, command);
+    failureShown = false;
+  }
+
+  @Override
+  public void commandFailed(Exception error) {
+    count(errorCounts, error.getClass().getSimpleName());
+    failureShown = true;
+  }
+
+  @Override
+  public void displayError(String error) {
+    if (failureShown) {
+      failureShown = false;
+      return;
+    }
+    delegate.displayError(error);
+  }
+
+  @Override
+  public void displayMessage(String message) {
+    // Counted by command instead
+  }
+
+  @Override
+  public void displayEvents(List<Event> events) {
+    // Counted by command instead
+  }
+
+  @Override
+  public void displayEventsOnDate(List<Event> events, String date) {
+    // Counted by command instead
+  }
+
+  @Override
+  public void displayEventsInRange(List<Event> events) {
+    // Counted by command instead
+  }
+
+  @Override
+  public void displayBusyStatus(boolean isBusy) {
+    // Counted by command instead
+  }
+
+  @Override
+  public void displayEventCreated(String eventSubject) {
+    // Counted by command instead
+  }
+
+  @Override
+  public void displayEventEdited(String eventSubject) {
+    // Counted by command instead
+  }
+
+  @Override
+  public void displayExportSuccess(String absolutePath) {
+    // Counted by command instead
+  }
+
+  @Override
+  public void flush() {
+    delegate.flush();
+  }
+
+  private static void count(Map<String, long[]> counts, String key) {
+    long[] count = counts.get(key);
+    if (count == null) {
+      count = new long[1];
+      counts.put(key, count);
+    }
+    count[0]++;
+  }
+
+  private static long total(Map<String, long[]> counts) {
+    long total = 0;
+    for (long[] count : counts.values()) {
+      total += count[0];
+    }
+    return total;
+  }
+}
@@ -72,4 +72,33 @@ public interface View {
    * @param absolutePath the absolute path of the exported file
    */
   void displayExportSuccess(String absolutePath);
+
+  /**
+   * Notes which line of a script the output that follows comes from, before the line is
+   * parsed. Views that only display output ignore it.
+   *
+   * @param lineNumber the line's number, counting from 1
+   */
+  void lineStarted(long lineNumber);
+
+  /**
+   * Notes that a command is about to run. Views that only display output ignore it.
+   *
+   * @param command the kind of command, such as CreateEventCommand
+   */
+  void commandStarted(String command);
+
+  /**
+   * Notes that a command failed, or a line could not be parsed, just before its error is
+   * displayed. Views that only display output ignore it.
+   *
+   * @param error the reason the command failed
+   */
+  void commandFailed(Exception error);
+
+  /**
+   * Makes sure everything displayed so far has been written out. Views that display output
+   * as soon as they are asked to have nothing to do.
+   */
+  void flush();
 }
\ No newline at end of file
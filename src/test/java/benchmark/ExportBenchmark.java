@@ -0,0 +1,139 @@
+package benchmark;
+
+import calendar.controller.utils.CsvExporter;
+import calendar.controller.utils.Exporter;
+import calendar.controller.utils.IcalExporter;
+import calendar.controller.utils.NdjsonExporter;
+import calendar.controller.utils.TextExporter;
+import calendar.model.Calendar;
+import calendar.model.CalendarImpl;
+import calendar.model.EventStatus;
+import calendar.model.LocationType;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Measures how fast the exporters format events, in MB of output per second.
+ * The first three lines go to a writer that only counts characters, so disk speed is left
+ * out; the "file" lines export to a temporary file with chunks formatted on the common pool.
+ * Run with: java -cp build/classes/java/main:build/classes/java/test benchmark.ExportBenchmark
+ */
+public class ExportBenchmark {
+
+  private static final int EVENT_COUNT = 100_000;
+  private static final int WARMUP_ROUNDS = 5;
+  private static final int MEASURED_ROUNDS = 10;
+
+  /**
+   * Runs the benchmark for each exporter and prints the throughput.
+   *
+   * @param args the event count, optionally
+   * @throws Exception if the calendar cannot be built or an export fails
+   */
+  public static void main(String[] args) throws Exception {
+    int eventCount = args.length > 0 ? Integer.parseInt(args[0]) : EVENT_COUNT;
+    Calendar calendar = buildCalendar(eventCount);
+
+    run("csv", new CsvExporter(), calendar);
+    run("ical", new IcalExporter(), calendar);
+    run("ndjson", new NdjsonExporter(), calendar);
+
+    Path file = Files.createTempFile("export-benchmark", ".tmp");
+    try {
+      runToFile("csv file", new CsvExporter(), calendar, file);
+      runToFile("ical file", new IcalExporter(), calendar, file);
+      runToFile("ndjson file", new NdjsonExporter(), calendar, file);
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  private static void run(String name, TextExporter exporter, Calendar calendar)
+      throws Exception {
+    for (int i = 0; i < WARMUP_ROUNDS; i++) {
+      exportOnce(exporter, calendar);
+    }
+
+    long chars = 0;
+    long startNanos = System.nanoTime();
+    for (int i = 0; i < MEASURED_ROUNDS; i++) {
+      chars += exportOnce(exporter, calendar);
+    }
+    report(name, chars, startNanos);
+  }
+
+  private static void runToFile(String name, Exporter exporter, Calendar calendar, Path file)
+      throws Exception {
+    for (int i = 0; i < WARMUP_ROUNDS; i++) {
+      exporter.export(calendar.getOrderedEvents(), file, calendar);
+    }
+
+    long bytes = 0;
+    long startNanos = System.nanoTime();
+    for (int i = 0; i < MEASURED_ROUNDS; i++) {
+      exporter.export(calendar.getOrderedEvents(), file, calendar);
+      bytes += Files.size(file);
+    }
+    report(name, bytes, startNanos);
+  }
+
+  private static void report(String name, long size, long startNanos) {
+    double seconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+    System.out.printf("%-11s %8.1f MB/s  (%d MB in %.2f s)%n", name,
+        size / seconds / (1 << 20), size / (1 << 20), seconds);
+  }
+
+  private static long exportOnce(TextExporter exporter, Calendar calendar)
+      throws Exception {
+    CountingWriter writer = new CountingWriter();
+    exporter.write(calendar.getOrderedEvents(), writer, calendar);
+    return writer.count;
+  }
+
+  private static Calendar buildCalendar(int eventCount) throws Exception {
+    Calendar calendar = new CalendarImpl("Benchmark", ZoneId.of("America/New_York"));
+    LocalDateTime start = LocalDateTime.of(2025, 1, 1, 8, 0);
+    for (int i = 0; i < eventCount; i++) {
+      LocalDateTime eventStart = start.plusMinutes(37L * i);
+      String subject = i % 4 == 0 ? "Review, round " + i : "Meeting " + i;
+      String description = i % 3 == 0 ? "Agenda; notes, and \"quotes\"\nsecond line" : null;
+      calendar.createAndAddEvent(subject, eventStart, eventStart.plusMinutes(30), i % 10 == 0,
+          description, i % 2 == 0 ? LocationType.ONLINE : LocationType.NONE,
+          i % 5 == 0 ? EventStatus.PRIVATE : EventStatus.PUBLIC);
+    }
+    return calendar;
+  }
+
+  /**
+   * Writer that discards its input and counts the characters written.
+   */
+  private static class CountingWriter extends Writer {
+    private long count;
+
+    @Override
+    public void write(char[] cbuf, int off, int len) {
+      count += len;
+    }
+
+    @Override
+    public void write(String str, int off, int len) {
+      count += len;
+    }
+
+    @Override
+    public void write(int c) {
+      count++;
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+}
@@ -0,0 +1,136 @@
+package benchmark;
+
+import calendar.controller.utils.LineSource;
+import calendar.controller.utils.MappedLineSource;
+import calendar.controller.utils.ReaderLineSource;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Scanner;
+
+/**
+ * Measures how fast headless scripts are read, in lines per second, comparing Scanner with
+ * the buffered and memory-mapped line sources. Only reading is timed: each line is trimmed
+ * and checked for being empty, as the controller does, but not parsed or run. The "skip"
+ * lines only count lines without copying them, as resuming from a checkpoint does.
+ * Run with: java -cp build/classes/java/main:build/classes/java/test benchmark.LineSourceBenchmark
+ */
+public class LineSourceBenchmark {
+
+  private static final int LINE_COUNT = 10_000_000;
+  private static final int WARMUP_ROUNDS = 1;
+  private static final int MEASURED_ROUNDS = 3;
+
+  /**
+   * Writes a script to a temporary file, then reads it with each source.
+   *
+   * @param args the line count, optionally
+   * @throws Exception if the script cannot be written or read
+   */
+  public static void main(String[] args) throws Exception {
+    int lineCount = args.length > 0 ? Integer.parseInt(args[0]) : LINE_COUNT;
+    Path script = Files.createTempFile("line-benchmark", ".txt");
+    try {
+      writeScript(script, lineCount);
+      System.out.printf("%d lines, %d MB%n", lineCount, Files.size(script) >> 20);
+
+      run("scanner", script, () -> {
+        try (Scanner scanner = new Scanner(new File(script.toString()),
+            StandardCharsets.UTF_8)) {
+          long count = 0;
+          while (scanner.hasNextLine()) {
+            if (!scanner.nextLine().trim().isEmpty()) {
+              count++;
+            }
+          }
+          return count;
+        }
+      });
+      run("buffered", script, () -> {
+        try (ReaderLineSource source = new ReaderLineSource(script)) {
+          return readAll(source);
+        }
+      });
+      run("mapped", script, () -> {
+        try (MappedLineSource source = new MappedLineSource(script)) {
+          return readAll(source);
+        }
+      });
+      run("buffered skip", script, () -> {
+        try (ReaderLineSource source = new ReaderLineSource(script)) {
+          return skipAll(source);
+        }
+      });
+      run("mapped skip", script, () -> {
+        try (MappedLineSource source = new MappedLineSource(script)) {
+          return skipAll(source);
+        }
+      });
+    } finally {
+      Files.deleteIfExists(script);
+    }
+  }
+
+  private static void run(String name, Path script, Reading reading) throws Exception {
+    for (int i = 0; i < WARMUP_ROUNDS; i++) {
+      reading.readAll();
+    }
+
+    long lines = 0;
+    long startNanos = System.nanoTime();
+    for (int i = 0; i < MEASURED_ROUNDS; i++) {
+      lines += reading.readAll();
+    }
+    double seconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+    double bytes = (double) Files.size(script) * MEASURED_ROUNDS;
+    System.out.printf("%-13s %6.2f M lines/s  %7.1f MB/s%n", name, lines / seconds / 1e6,
+        bytes / seconds / (1 << 20));
+  }
+
+  /**
+   * Reads lines the way the controller does before parsing: the trimmed string of every line
+   * that is not blank.
+   */
+  private static long readAll(LineSource source) throws Exception {
+    long count = 0;
+    CharSequence line;
+    while ((line = source.nextLine()) != null) {
+      if (!line.toString().trim().isEmpty()) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private static long skipAll(LineSource source) throws Exception {
+    long count = 0;
+    while (source.nextLine() != null) {
+      count++;
+    }
+    return count;
+  }
+
+  private static void writeScript(Path script, int lineCount) throws Exception {
+    LocalDateTime start = LocalDateTime.of(2025, 1, 1, 8, 0);
+    try (BufferedWriter writer = Files.newBufferedWriter(script, StandardCharsets.UTF_8)) {
+      writer.write("create calendar --name Bench --timezone America/New_York\n");
+      writer.write("use calendar --name Bench\n");
+      for (int i = 2; i < lineCount - 1; i++) {
+        LocalDateTime eventStart = start.plusMinutes(37L * i);
+        writer.write("create event \"Meeting " + i + "\" from " + eventStart + " to "
+            + eventStart.plusMinutes(30) + "\n");
+      }
+      writer.write("exit\n");
+    }
+  }
+
+  /**
+   * One full read of the script, returning the number of non-blank lines.
+   */
+  private interface Reading {
+    long readAll() throws Exception;
+  }
+}
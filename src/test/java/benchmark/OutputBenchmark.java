@@ -0,0 +1,96 @@
+package benchmark;
+
+import calendar.model.Calendar;
+import calendar.model.CalendarImpl;
+import calendar.model.Event;
+import calendar.view.ChannelWriter;
+import calendar.view.ConsoleView;
+import calendar.view.View;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Measures how fast the console view writes output, in lines per second, printing each line
+ * to an autoflushing PrintStream as standard output does, and collecting lines in a large
+ * buffer written to the file's channel, directly or by a background thread. Each round
+ * displays a listing of events and a few messages many times to a temporary file.
+ * Run with: java -cp build/classes/java/main:build/classes/java/test benchmark.OutputBenchmark
+ */
+public class OutputBenchmark {
+
+  private static final int LISTING_COUNT = 100_000;
+  private static final int EVENTS_PER_LISTING = 8;
+  private static final int BUFFER_SIZE = 1 << 20;
+  private static final int WARMUP_ROUNDS = 1;
+  private static final int MEASURED_ROUNDS = 3;
+
+  /**
+   * Creates the events to list and times each way of writing them.
+   *
+   * @param args the number of listings, optionally
+   * @throws Exception if the temporary file cannot be written
+   */
+  public static void main(String[] args) throws Exception {
+    int listingCount = args.length > 0 ? Integer.parseInt(args[0]) : LISTING_COUNT;
+    Calendar calendar = new CalendarImpl("Bench", ZoneId.of("UTC"));
+    LocalDateTime start = LocalDateTime.of(2025, 5, 5, 8, 0);
+    for (int i = 0; i < EVENTS_PER_LISTING; i++) {
+      calendar.createAndAddEvent("Event" + i, start.plusHours(i), start.plusHours(i + 1),
+          false);
+    }
+    List<Event> events = calendar.getAllEvents();
+    Path file = Files.createTempFile("output-benchmark", ".txt");
+    System.out.printf("%d listings of %d events%n", listingCount, events.size());
+
+    try {
+      for (String mode : new String[] {"println", "buffered", "async"}) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+          writeAll(mode, file, events, listingCount);
+        }
+        long written = 0;
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+          written += writeAll(mode, file, events, listingCount);
+        }
+        double seconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+        System.out.printf("%-8s %6.2f M lines/s  %6.0f ns/line%n", mode,
+            written / seconds / 1e6, seconds * 1e9 / written);
+      }
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  /**
+   * Displays every listing on a fresh view over the file, returning the number of lines
+   * written.
+   */
+  private static long writeAll(String mode, Path file, List<Event> events, int listingCount)
+      throws Exception {
+    try (FileOutputStream out = new FileOutputStream(file.toFile())) {
+      if (mode.equals("println")) {
+        displayAll(new ConsoleView(new PrintStream(out, true)), events, listingCount);
+      } else {
+        try (ChannelWriter writer = new ChannelWriter(out.getChannel(), BUFFER_SIZE,
+            mode.equals("async"))) {
+          displayAll(new ConsoleView(writer), events, listingCount);
+        }
+      }
+    }
+    return (long) listingCount * (2 * (events.size() + 1) + 1);
+  }
+
+  private static void displayAll(View view, List<Event> events, int listingCount) {
+    for (int i = 0; i < listingCount; i++) {
+      view.displayEventsOnDate(events, "2025-05-05");
+      view.displayEventsInRange(events);
+      view.displayEventCreated("Event" + i);
+    }
+    view.flush();
+  }
+}
@@ -0,0 +1,78 @@
+package benchmark;
+
+import calendar.controller.commands.Command;
+import calendar.controller.utils.CommandParserImpl;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures how fast commands are parsed, in lines per second. The commands of a sample script
+ * (src/res/commands.txt unless another is given) are repeated until there are millions of
+ * lines, which are then parsed one after another with a single parser. Only parsing is
+ * timed: the lines are read into memory beforehand and the commands are not run.
+ * Run with: java -cp build/classes/java/main:build/classes/java/test benchmark.ParserBenchmark
+ */
+public class ParserBenchmark {
+
+  private static final int LINE_COUNT = 2_000_000;
+  private static final int WARMUP_ROUNDS = 1;
+  private static final int MEASURED_ROUNDS = 3;
+
+  /**
+   * Reads the sample script, scales it up, and parses it.
+   *
+   * @param args the line count and the sample script, optionally
+   * @throws Exception if the sample script cannot be read
+   */
+  public static void main(String[] args) throws Exception {
+    int lineCount = args.length > 0 ? Integer.parseInt(args[0]) : LINE_COUNT;
+    Path sample = Paths.get(args.length > 1 ? args[1] : "src/res/commands.txt");
+
+    List<String> commands = new ArrayList<>();
+    for (String line : Files.readAllLines(sample, StandardCharsets.UTF_8)) {
+      String command = line.trim();
+      if (!command.isEmpty() && !command.equals("exit")) {
+        commands.add(command);
+      }
+    }
+    String[] lines = new String[lineCount];
+    for (int i = 0; i < lineCount; i++) {
+      lines[i] = commands.get(i % commands.size());
+    }
+    System.out.printf("%d lines from %d sample commands in %s%n", lineCount, commands.size(),
+        sample);
+
+    CommandParserImpl parser = new CommandParserImpl();
+    for (int i = 0; i < WARMUP_ROUNDS; i++) {
+      parseAll(parser, lines);
+    }
+
+    long parsed = 0;
+    long startNanos = System.nanoTime();
+    for (int i = 0; i < MEASURED_ROUNDS; i++) {
+      parsed += parseAll(parser, lines);
+    }
+    double seconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+    System.out.printf("parse %6.2f M lines/s  %6.0f ns/line%n", parsed / seconds / 1e6,
+        seconds * 1e9 / parsed);
+  }
+
+  /**
+   * Parses every line, returning how many produced a command so the work is not optimized
+   * away.
+   */
+  private static long parseAll(CommandParserImpl parser, String[] lines) {
+    long count = 0;
+    for (String line : lines) {
+      Command command = parser.parse(line);
+      if (command != null) {
+        count++;
+      }
+    }
+    return count;
+  }
+}
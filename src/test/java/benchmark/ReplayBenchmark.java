@@ -0,0 +1,133 @@
+package benchmark;
+
+import calendar.controller.CalendarController;
+import calendar.controller.CompiledScriptController;
+import calendar.controller.utils.CommandParserImpl;
+import calendar.controller.utils.CompiledScript;
+import calendar.controller.utils.ReaderLineSource;
+import calendar.model.CalendarManagerImpl;
+import calendar.view.ConsoleView;
+import calendar.view.View;
+import java.io.BufferedWriter;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+/**
+ * Measures how fast a headless script runs from its text and from its compiled form, in
+ * lines per second. The script creates a calendar and fills it with events, editing and
+ * checking some of them along the way. Output goes to a view that discards it, so the time
+ * measured is reading, parsing and running commands. The "parse" and "decode" lines only
+ * turn the script into commands, from its text and from its compiled form, without running
+ * them.
+ * Run with: java -cp build/classes/java/main:build/classes/java/test benchmark.ReplayBenchmark
+ */
+public class ReplayBenchmark {
+
+  private static final int LINE_COUNT = 1_000_000;
+  private static final int WARMUP_ROUNDS = 1;
+  private static final int MEASURED_ROUNDS = 3;
+
+  /**
+   * Writes and compiles a script, then runs it both ways.
+   *
+   * @param args the line count, optionally
+   * @throws Exception if the script cannot be written, compiled or read
+   */
+  public static void main(String[] args) throws Exception {
+    int lineCount = args.length > 0 ? Integer.parseInt(args[0]) : LINE_COUNT;
+    Path script = Files.createTempFile("replay-benchmark", ".txt");
+    Path compiled = Files.createTempFile("replay-benchmark", ".bin");
+    View view = new ConsoleView(new PrintStream(OutputStream.nullOutputStream()));
+    try {
+      writeScript(script, lineCount);
+      long startNanos = System.nanoTime();
+      try (ReaderLineSource lines = new ReaderLineSource(script)) {
+        CompiledScript.compile(lines, compiled, view);
+      }
+      System.out.printf("%d lines, %d MB text, %d MB compiled in %d ms%n", lineCount,
+          Files.size(script) >> 20, Files.size(compiled) >> 20,
+          (System.nanoTime() - startNanos) / 1_000_000);
+
+      run("parse", lineCount, () -> {
+        CommandParserImpl parser = new CommandParserImpl();
+        try (ReaderLineSource lines = new ReaderLineSource(script)) {
+          CharSequence line;
+          while ((line = lines.nextLine()) != null && !line.toString().equals("exit")) {
+            parser.parse(line.toString());
+          }
+        }
+      });
+      run("decode", lineCount, () -> {
+        try (CompiledScript compiledScript = new CompiledScript(compiled)) {
+          while (compiledScript.next() != null) {
+            continue;
+          }
+        }
+      });
+      run("text", lineCount, () -> {
+        try (ReaderLineSource lines = new ReaderLineSource(script)) {
+          new CalendarController(new CalendarManagerImpl(), view, lines, false).run();
+        }
+      });
+      run("compiled", lineCount, () -> {
+        try (CompiledScript compiledScript = new CompiledScript(compiled)) {
+          new CompiledScriptController(new CalendarManagerImpl(), view, compiledScript).run();
+        }
+      });
+    } finally {
+      Files.deleteIfExists(script);
+      Files.deleteIfExists(compiled);
+    }
+  }
+
+  private static void run(String name, int lineCount, Replay replay) throws Exception {
+    for (int i = 0; i < WARMUP_ROUNDS; i++) {
+      replay.run();
+    }
+
+    long startNanos = System.nanoTime();
+    for (int i = 0; i < MEASURED_ROUNDS; i++) {
+      replay.run();
+    }
+    double seconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+    System.out.printf("%-9s %6.2f M lines/s%n", name,
+        (double) lineCount * MEASURED_ROUNDS / seconds / 1e6);
+  }
+
+  private static void writeScript(Path script, int lineCount) throws Exception {
+    LocalDateTime start = LocalDateTime.of(2025, 1, 1, 8, 0);
+    try (BufferedWriter writer = Files.newBufferedWriter(script, StandardCharsets.UTF_8)) {
+      writer.write("create calendar --name Bench --timezone America/New_York\n");
+      writer.write("use calendar --name Bench\n");
+      for (int i = 2; i < lineCount - 1; i++) {
+        LocalDateTime eventStart = start.plusMinutes(37L * (i / 4));
+        switch (i % 4) {
+          case 0:
+          case 1:
+            writer.write("create event \"Meeting " + i + "\" from " + eventStart + " to "
+                + eventStart.plusMinutes(30) + "\n");
+            break;
+          case 2:
+            writer.write("edit event location \"Meeting " + (i - 2) + "\" from " + eventStart
+                + " with online\n");
+            break;
+          default:
+            writer.write("show status on " + eventStart.plusMinutes(10) + "\n");
+            break;
+        }
+      }
+      writer.write("exit\n");
+    }
+  }
+
+  /**
+   * One full run of the script.
+   */
+  private interface Replay {
+    void run() throws Exception;
+  }
+}
@@ -0,0 +1,134 @@
+package benchmark;
+
+import calendar.controller.HttpServerController;
+import calendar.model.CalendarManagerImpl;
+import calendar.view.ConsoleView;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Measures the HTTP server's throughput and latency under load, with many clients each using
+ * its own session and calendar. Every client creates events and lists its calendar's day in
+ * turn, three creates to each listing, and the latency of every request is recorded to report
+ * the median, the 99th percentile and the slowest request.
+ * Run with: java -cp build/classes/java/main:build/classes/java/test benchmark.ServerBenchmark
+ */
+public class ServerBenchmark {
+
+  private static final int CLIENT_COUNT = 64;
+  private static final int REQUESTS_PER_CLIENT = 500;
+  private static final int WARMUP_REQUESTS = 200;
+  private static final LocalDateTime DAY = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+  /**
+   * Starts a server on a free port and sends it requests from many clients at once.
+   *
+   * @param args the number of clients and of requests per client, optionally
+   * @throws Exception if the server cannot start or a request fails
+   */
+  public static void main(String[] args) throws Exception {
+    int clientCount = args.length > 0 ? Integer.parseInt(args[0]) : CLIENT_COUNT;
+    int requestsPerClient = args.length > 1 ? Integer.parseInt(args[1]) : REQUESTS_PER_CLIENT;
+    HttpServerController server = new HttpServerController(new CalendarManagerImpl(),
+        new ConsoleView(), 0, clientCount * 4);
+    server.start();
+    ExecutorService responses = Executors.newFixedThreadPool(4);
+    HttpClient client = HttpClient.newBuilder().executor(responses).build();
+    String base = "http://localhost:" + server.getPort();
+    System.out.printf("%d clients, %d requests each%n", clientCount, requestsPerClient);
+
+    ExecutorService clients = Executors.newFixedThreadPool(clientCount);
+    try {
+      runClients(clients, client, base, "warmup", clientCount, WARMUP_REQUESTS);
+
+      long startNanos = System.nanoTime();
+      long[] latencies = runClients(clients, client, base, "client", clientCount,
+          requestsPerClient);
+      double seconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+
+      Arrays.sort(latencies);
+      System.out.printf("%,.0f requests/s, p50 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+          latencies.length / seconds, percentile(latencies, 0.50) / 1e6,
+          percentile(latencies, 0.99) / 1e6, latencies[latencies.length - 1] / 1e6);
+    } finally {
+      clients.shutdownNow();
+      responses.shutdownNow();
+      server.stop();
+    }
+  }
+
+  /**
+   * Runs the clients to completion and gathers the latency of every request they sent.
+   */
+  private static long[] runClients(ExecutorService clients, HttpClient client, String base,
+                                   String prefix, int clientCount, int requestsPerClient)
+      throws Exception {
+    List<Future<long[]>> results = new ArrayList<>();
+    for (int c = 0; c < clientCount; c++) {
+      String session = prefix + c;
+      results.add(clients.submit(() -> runClient(client, base, session, requestsPerClient)));
+    }
+    long[] latencies = new long[clientCount * requestsPerClient];
+    int count = 0;
+    for (Future<long[]> result : results) {
+      long[] clientLatencies = result.get();
+      System.arraycopy(clientLatencies, 0, latencies, count, clientLatencies.length);
+      count += clientLatencies.length;
+    }
+    return latencies;
+  }
+
+  /**
+   * Sets up one client's calendar, then creates events and lists them, timing each request.
+   */
+  private static long[] runClient(HttpClient client, String base, String session,
+                                  int requestCount) throws Exception {
+    send(client, base, session, "/calendars",
+        "{\"name\":\"" + session + "\",\"timezone\":\"UTC\"}");
+    send(client, base, session, "/calendars/use", "{\"name\":\"" + session + "\"}");
+
+    long[] latencies = new long[requestCount];
+    for (int i = 0; i < requestCount; i++) {
+      long startNanos = System.nanoTime();
+      if (i % 4 == 3) {
+        send(client, base, session, "/events?date=2025-01-01", null);
+      } else {
+        LocalDateTime start = DAY.plusMinutes(i % (24 * 60 - 1));
+        send(client, base, session, "/events", "{\"subject\":\"E" + i + "\",\"start\":\""
+            + start + "\",\"end\":\"" + start.plusMinutes(1) + "\"}");
+      }
+      latencies[i] = System.nanoTime() - startNanos;
+    }
+    return latencies;
+  }
+
+  private static void send(HttpClient client, String base, String session, String path,
+                           String json) throws Exception {
+    HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(base + path))
+        .header(HttpServerController.SESSION_HEADER, session);
+    if (json == null) {
+      request.GET();
+    } else {
+      request.POST(HttpRequest.BodyPublishers.ofString(json));
+    }
+    HttpResponse<String> response = client.send(request.build(),
+        HttpResponse.BodyHandlers.ofString());
+    if (response.statusCode() != 200 && response.statusCode() != 409) {
+      throw new IllegalStateException("Request failed with " + response.statusCode() + ": "
+          + response.body());
+    }
+  }
+
+  private static long percentile(long[] sorted, double fraction) {
+    return sorted[Math.min(sorted.length - 1, (int) (sorted.length * fraction))];
+  }
+}
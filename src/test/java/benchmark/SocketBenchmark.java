@@ -0,0 +1,117 @@
+package benchmark;
+
+import calendar.controller.SocketServerController;
+import calendar.model.CalendarManagerImpl;
+import calendar.view.ConsoleView;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Measures how many commands per second the socket server runs for many clients, each using
+ * its own calendar, when clients wait for each reply before sending the next command and when
+ * they stream all their commands and read the replies as they come.
+ * Run with: java -cp build/classes/java/main:build/classes/java/test benchmark.SocketBenchmark
+ */
+public class SocketBenchmark {
+
+  private static final int CLIENT_COUNT = 32;
+  private static final int COMMANDS_PER_CLIENT = 5_000;
+  private static final LocalDateTime DAY = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+  /**
+   * Starts a server on a free port and times each way of sending it commands.
+   *
+   * @param args the number of clients and of commands per client, optionally
+   * @throws Exception if the server cannot start or a connection fails
+   */
+  public static void main(String[] args) throws Exception {
+    int clientCount = args.length > 0 ? Integer.parseInt(args[0]) : CLIENT_COUNT;
+    int commandsPerClient = args.length > 1 ? Integer.parseInt(args[1]) : COMMANDS_PER_CLIENT;
+    SocketServerController server = new SocketServerController(new CalendarManagerImpl(),
+        new ConsoleView(), 0, clientCount);
+    server.start();
+    System.out.printf("%d clients, %d commands each%n", clientCount, commandsPerClient);
+
+    ExecutorService clients = Executors.newFixedThreadPool(clientCount);
+    try {
+      int round = 0;
+      for (boolean pipelined : new boolean[] {false, true, false, true}) {
+        String prefix = "round" + round++ + "-";
+        long startNanos = System.nanoTime();
+        List<Future<?>> results = new ArrayList<>();
+        for (int c = 0; c < clientCount; c++) {
+          String calendar = prefix + c;
+          results.add(clients.submit(() -> {
+            runClient(server.getPort(), calendar, commandsPerClient, pipelined);
+            return null;
+          }));
+        }
+        for (Future<?> result : results) {
+          result.get();
+        }
+        double seconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+        System.out.printf("%-10s %,12.0f commands/s%n", pipelined ? "pipelined" : "lockstep",
+            clientCount * (commandsPerClient + 2L) / seconds);
+      }
+    } finally {
+      clients.shutdownNow();
+      server.stop();
+    }
+  }
+
+  /**
+   * Creates a calendar and events in it, sending commands one at a time or all at once.
+   */
+  private static void runClient(int port, String calendar, int commandCount, boolean pipelined)
+      throws IOException, InterruptedException {
+    try (Socket socket = new Socket("localhost", port)) {
+      socket.setTcpNoDelay(true);
+      OutputStream out = socket.getOutputStream();
+      BufferedReader replies = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+          StandardCharsets.UTF_8));
+      List<String> commands = new ArrayList<>();
+      commands.add("create calendar --name " + calendar + " --timezone UTC");
+      commands.add("use calendar --name " + calendar);
+      for (int i = 0; i < commandCount; i++) {
+        LocalDateTime start = DAY.plusMinutes(i);
+        commands.add("create event E" + i + " from " + start + " to " + start.plusMinutes(1));
+      }
+
+      if (!pipelined) {
+        for (String command : commands) {
+          out.write((command + "\n").getBytes(StandardCharsets.UTF_8));
+          out.flush();
+          replies.readLine();
+        }
+        return;
+      }
+      Thread writer = new Thread(() -> {
+        try {
+          StringBuilder script = new StringBuilder();
+          for (String command : commands) {
+            script.append(command).append('\n');
+          }
+          out.write(script.toString().getBytes(StandardCharsets.UTF_8));
+          out.flush();
+        } catch (IOException e) {
+          throw new IllegalStateException(e);
+        }
+      });
+      writer.start();
+      for (int i = 0; i < commands.size(); i++) {
+        replies.readLine();
+      }
+      writer.join();
+    }
+  }
+}
@@ -0,0 +1,154 @@
+package controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import calendar.controller.commands.CopyEventCommand;
+import calendar.controller.commands.CopyEventsBetweenCommand;
+import calendar.controller.commands.CopyEventsOnDateCommand;
+import calendar.controller.commands.CreateCalendarCommand;
+import calendar.controller.commands.CreateEventCommand;
+import calendar.controller.commands.EditCalendarCommand;
+import calendar.controller.commands.EditEventCommand;
+import calendar.controller.commands.ExportCommand;
+import calendar.controller.commands.PrintEventsCommand;
+import calendar.controller.commands.ShowStatusCommand;
+import calendar.controller.commands.UseCalendarCommand;
+import calendar.controller.utils.ApiCommandParser;
+import calendar.controller.utils.ApiRequest;
+import calendar.controller.utils.DataDirectory;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import org.junit.Test;
+
+/**
+ * Test class for ApiCommandParser and ApiRequest.
+ */
+public class ApiCommandParserTest {
+
+  private final ApiCommandParser parser = new ApiCommandParser();
+
+  @Test
+  public void testEveryEndpointCreatesItsCommand() {
+    assertTrue(post("/calendars", "{\"name\":\"Work\",\"timezone\":\"Europe/Paris\"}")
+        instanceof CreateCalendarCommand);
+    assertTrue(post("/calendars/use", "{\"name\":\"Work\"}") instanceof UseCalendarCommand);
+    assertTrue(post("/calendars/edit",
+        "{\"name\":\"Work\",\"property\":\"timezone\",\"value\":\"Asia/Tokyo\"}")
+        instanceof EditCalendarCommand);
+    assertTrue(post("/events", "{\"subject\":\"Gym\",\"date\":\"2025-05-05\","
+        + "\"repeats\":\"MWF\",\"until\":\"2025-06-01\"}") instanceof CreateEventCommand);
+    assertTrue(post("/events/edit", "{\"subject\":\"Gym\",\"start\":\"2025-05-05T08:00\","
+        + "\"property\":\"status\",\"value\":\"private\",\"scope\":\"series\"}")
+        instanceof EditEventCommand);
+    assertTrue(post("/events/copy", "{\"subject\":\"Gym\",\"start\":\"2025-05-05T08:00\","
+        + "\"target\":\"Home\",\"to\":\"2025-06-05T08:00\"}") instanceof CopyEventCommand);
+    assertTrue(post("/events/copy", "{\"on\":\"2025-05-05\",\"target\":\"Home\","
+        + "\"to\":\"2025-06-05\"}") instanceof CopyEventsOnDateCommand);
+    assertTrue(post("/events/copy", "{\"between\":\"2025-05-05\",\"and\":\"2025-05-09\","
+        + "\"target\":\"Home\",\"to\":\"2025-06-05\"}") instanceof CopyEventsBetweenCommand);
+    assertTrue(post("/export", "{\"file\":\"work.csv\",\"from\":\"2025-05-01\","
+        + "\"to\":\"2025-05-31\"}") instanceof ExportCommand);
+    assertTrue(get("/events", "date=2025-05-05") instanceof PrintEventsCommand);
+    assertTrue(get("/status", "at=2025-05-05T10%3A00") instanceof ShowStatusCommand);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testExportRejectsAbsolutePath() {
+    post("/export", "{\"file\":\"" + Paths.get("work.csv").toAbsolutePath() + "\"}");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testExportRejectsParentDirectory() {
+    post("/export", "{\"file\":\"exports/../../work.csv\"}");
+  }
+
+  @Test
+  public void testDataDirectoryKeepsFilesInside() {
+    DataDirectory files = new DataDirectory(Paths.get("data"));
+    assertEquals(Paths.get("data", "exports", "work.csv").toString(),
+        files.resolve("exports/work.csv"));
+    assertEquals(Paths.get("data", "a..b.csv").toString(), files.resolve("a..b.csv"));
+  }
+
+  @Test
+  public void testUnknownEndpointsGiveNull() {
+    assertNull(parser.parse("GET", "/calendars", ApiRequest.fromQuery(null)));
+    assertNull(parser.parse("DELETE", "/events", ApiRequest.fromQuery(null)));
+    assertNull(parser.parse("POST", "/status", ApiRequest.fromJson("")));
+  }
+
+  @Test
+  public void testJsonFieldsAreRead() {
+    ApiRequest request = ApiRequest.fromJson(" { \"subject\" : \"Caf\\u00e9 \\\"chat\\\"\\n\","
+        + " \"times\": 12, \"allDay\": true, \"description\": null } ");
+
+    assertEquals("Caf\u00e9 \"chat\"\n", request.getText("subject"));
+    assertEquals(12, request.getInt("times"));
+    assertEquals("true", request.getText("allDay"));
+    assertFalse(request.has("description"));
+  }
+
+  @Test
+  public void testQueryFieldsAreDecoded() {
+    ApiRequest request = ApiRequest.fromQuery("from=2025-05-05T10%3A00&name=Team+Work");
+
+    assertEquals(LocalDateTime.of(2025, 5, 5, 10, 0), request.getDateTime("from"));
+    assertEquals("Team Work", request.getText("name"));
+  }
+
+  @Test
+  public void testInvalidRequestsAreRejected() {
+    String[] invalid = {
+        "{\"name\":\"Work\"", "{\"name\":{}}", "{\"name\":[1]}", "{\"name\":nope}",
+        "{\"name\":\"Work\"} extra", "[]", "{\"name\":\"bad \\x escape\"}"
+    };
+    for (String json : invalid) {
+      try {
+        ApiRequest.fromJson(json);
+        throw new AssertionError("Expected " + json + " to be rejected");
+      } catch (IllegalArgumentException e) {
+        // Expected
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMissingFieldIsRejected() {
+    post("/calendars", "{\"name\":\"Work\"}");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidDateIsRejected() {
+    ApiRequest.fromJson("{\"date\":\"2025-13-01\"}").getDate("date");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidWeekdayIsRejected() {
+    post("/events", "{\"subject\":\"Gym\",\"date\":\"2025-05-05\",\"repeats\":\"MX\","
+        + "\"times\":3}");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidScopeIsRejected() {
+    post("/events/edit", "{\"subject\":\"Gym\",\"start\":\"2025-05-05T08:00\","
+        + "\"property\":\"subject\",\"value\":\"Run\",\"scope\":\"all\"}");
+  }
+
+  @Test
+  public void testDatesAreParsed() {
+    assertEquals(LocalDate.of(2025, 5, 5), ApiRequest.fromJson("{\"d\":\"2025-05-05\"}")
+        .getDate("d"));
+  }
+
+  private Object post(String path, String json) {
+    return parser.parse("POST", path, ApiRequest.fromJson(json));
+  }
+
+  private Object get(String path, String query) {
+    return parser.parse("GET", path, ApiRequest.fromQuery(query));
+  }
+}
@@ -0,0 +1,115 @@
+package controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import calendar.controller.BatchController;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for BatchController.
+ */
+public class BatchControllerTest {
+
+  private Path directory;
+  private MockView mockView;
+
+  /**
+   * Creates a directory with three scripts.
+   *
+   * @throws IOException if the scripts cannot be written
+   */
+  @Before
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("batch-test");
+    mockView = new MockView();
+    for (String tenant : new String[] {"alpha", "beta", "gamma"}) {
+      Files.writeString(directory.resolve(tenant + ".txt"),
+          "create calendar --name " + tenant + " --timezone UTC\n"
+              + "use calendar --name " + tenant + "\n"
+              + "create event Kickoff from 2025-05-05T09:00 to 2025-05-05T10:00\n"
+              + "print events on 2025-05-05\n"
+              + "exit\n");
+    }
+    Files.writeString(directory.resolve("notes.md"), "not a script\n");
+  }
+
+  /**
+   * Deletes the directory and everything in it.
+   *
+   * @throws IOException if a file cannot be deleted
+   */
+  @After
+  public void cleanup() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      for (Path file : (Iterable<Path>) files::iterator) {
+        Files.deleteIfExists(file);
+      }
+    }
+    Files.deleteIfExists(directory);
+  }
+
+  @Test
+  public void testFindScriptsInDirectorySkipsOutputFiles() throws IOException {
+    Files.writeString(directory.resolve("alpha.txt.out"), "old output\n");
+
+    List<Path> scripts = BatchController.findScripts(directory.toString());
+
+    assertEquals(4, scripts.size());
+    assertEquals(directory.resolve("alpha.txt"), scripts.get(0));
+  }
+
+  @Test
+  public void testFindScriptsWithGlob() throws IOException {
+    List<Path> scripts = BatchController.findScripts(directory + "/*.txt");
+
+    assertEquals(List.of(directory.resolve("alpha.txt"), directory.resolve("beta.txt"),
+        directory.resolve("gamma.txt")), scripts);
+  }
+
+  @Test(expected = IOException.class)
+  public void testFindScriptsRejectsMissingDirectory() throws IOException {
+    BatchController.findScripts(directory.resolve("missing").toString());
+  }
+
+  @Test
+  public void testRunsEveryScriptIntoItsOwnOutputFile() throws IOException {
+    List<Path> scripts = BatchController.findScripts(directory + "/*.txt");
+
+    new BatchController(scripts, mockView, Executors.newFixedThreadPool(2)).run();
+
+    for (String tenant : new String[] {"alpha", "beta", "gamma"}) {
+      String output = Files.readString(directory.resolve(tenant + ".txt.out"),
+          StandardCharsets.UTF_8);
+      assertTrue(output.contains("Kickoff"));
+      assertTrue(output, !output.contains("Error"));
+    }
+    assertEquals(4, mockView.displayMessageCallCount);
+    assertTrue(mockView.messages.get(0).contains("alpha.txt (5 lines)"));
+    assertTrue(mockView.messages.get(3).startsWith("Ran 3 of 3 scripts (15 lines)"));
+  }
+
+  @Test
+  public void testReportsScriptThatCannotBeRead() {
+    List<Path> scripts = List.of(directory.resolve("alpha.txt"), directory.resolve("gone.txt"));
+
+    new BatchController(scripts, mockView).run();
+
+    assertEquals(1, mockView.displayErrorCallCount);
+    assertTrue(mockView.messages.get(1).startsWith("Ran 1 of 2 scripts"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRejectsEmptyScriptList() {
+    new BatchController(List.of(), mockView);
+  }
+}
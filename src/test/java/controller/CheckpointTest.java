@@ -0,0 +1,176 @@
+package controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import calendar.controller.CalendarController;
+import calendar.controller.utils.Checkpoint;
+import calendar.controller.utils.ReaderLineSource;
+import calendar.model.CalendarManager;
+import calendar.model.CalendarManagerImpl;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneId;
+import java.util.stream.Stream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for Checkpoint and checkpointing in CalendarController.
+ */
+public class CheckpointTest {
+
+  private static final String SCRIPT = "create calendar --name Work --timezone UTC\n"
+      + "use calendar --name Work\n"
+      + "create event A from 2025-05-05T09:00 to 2025-05-05T10:00\n"
+      + "create event B from 2025-05-06T09:00 to 2025-05-06T10:00\n"
+      + "create event C from 2025-05-07T09:00 to 2025-05-07T10:00\n"
+      + "exit\n";
+
+  private Path directory;
+  private Path checkpointFile;
+  private MockView mockView;
+
+  /**
+   * Creates a directory for the checkpoint file.
+   *
+   * @throws IOException if the directory cannot be created
+   */
+  @Before
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("checkpoint-test");
+    checkpointFile = Checkpoint.forScript(directory.resolve("script.txt"));
+    mockView = new MockView();
+  }
+
+  /**
+   * Deletes the checkpoint file and its directory.
+   *
+   * @throws IOException if they cannot be deleted
+   */
+  @After
+  public void cleanup() throws IOException {
+    Files.deleteIfExists(checkpointFile);
+    Files.deleteIfExists(directory);
+  }
+
+  private ReaderLineSource lines(String script) {
+    return new ReaderLineSource(new StringReader(script));
+  }
+
+  private int eventCount(CalendarManager manager) {
+    return manager.getActiveCalendar().getAllEvents().size();
+  }
+
+  /**
+   * Runs the first lines of the script, as if the process died right after them.
+   */
+  private void runUntilLine(int lines, int checkpointEvery) {
+    StringBuilder prefix = new StringBuilder();
+    String[] scriptLines = SCRIPT.split("\n");
+    for (int i = 0; i < lines; i++) {
+      prefix.append(scriptLines[i]).append('\n');
+    }
+    new CalendarController(new CalendarManagerImpl(), mockView, lines(prefix.toString()),
+        checkpointFile, checkpointEvery, 0).run();
+  }
+
+  @Test
+  public void testForScriptPutsCheckpointNextToScript() {
+    assertEquals(directory.resolve("script.txt.checkpoint"), checkpointFile);
+  }
+
+  @Test
+  public void testSaveAndLoadRoundTrip() throws Exception {
+    CalendarManager manager = new CalendarManagerImpl();
+    manager.createCalendar("Work", ZoneId.of("UTC"));
+    manager.useCalendar("Work");
+
+    Checkpoint.save(checkpointFile, manager, 42);
+    Checkpoint checkpoint = Checkpoint.load(checkpointFile);
+
+    assertEquals(42, checkpoint.getLineNumber());
+    assertEquals("Work", checkpoint.getManager().getActiveCalendar().getCalendarName());
+    try (Stream<Path> files = Files.list(directory)) {
+      assertEquals(1, files.count());
+    }
+  }
+
+  @Test
+  public void testCheckpointHoldsStateAsOfItsLine() throws Exception {
+    runUntilLine(5, 2);
+
+    Checkpoint checkpoint = Checkpoint.load(checkpointFile);
+    assertEquals(4, checkpoint.getLineNumber());
+    assertEquals(2, eventCount(checkpoint.getManager()));
+  }
+
+  @Test
+  public void testResumeSkipsLinesAlreadyRun() throws Exception {
+    runUntilLine(5, 2);
+    Checkpoint checkpoint = Checkpoint.load(checkpointFile);
+    CalendarManager manager = checkpoint.getManager();
+
+    MockView resumedView = new MockView();
+    new CalendarController(manager, resumedView, lines(SCRIPT), checkpointFile, 2,
+        checkpoint.getLineNumber()).run();
+
+    assertEquals(3, eventCount(manager));
+    assertEquals(0, resumedView.displayErrorCallCount);
+    assertTrue(resumedView.messages.contains("Resuming after line 4"));
+  }
+
+  @Test
+  public void testResumeAcrossBatchKeepsItsStagedChanges() throws Exception {
+    String script = "create calendar --name Work --timezone UTC\n"
+        + "use calendar --name Work\n"
+        + "begin batch\n"
+        + "create event A from 2025-05-05T09:00 to 2025-05-05T10:00\n"
+        + "create event B from 2025-05-06T09:00 to 2025-05-06T10:00\n"
+        + "commit\n"
+        + "create event C from 2025-05-07T09:00 to 2025-05-07T10:00\n"
+        + "exit\n";
+    String beforeCrash = script.substring(0, script.indexOf("create event C"));
+    new CalendarController(new CalendarManagerImpl(), mockView, lines(beforeCrash),
+        checkpointFile, 4, 0).run();
+
+    Checkpoint checkpoint = Checkpoint.load(checkpointFile);
+    assertEquals(6, checkpoint.getLineNumber());
+    assertEquals(2, eventCount(checkpoint.getManager()));
+
+    CalendarManager manager = checkpoint.getManager();
+    MockView resumedView = new MockView();
+    new CalendarController(manager, resumedView, lines(script), checkpointFile, 4,
+        checkpoint.getLineNumber()).run();
+
+    assertEquals(3, eventCount(manager));
+    assertEquals(0, resumedView.displayErrorCallCount);
+  }
+
+  @Test
+  public void testCheckpointDeletedWhenScriptFinishes() {
+    new CalendarController(new CalendarManagerImpl(), mockView, lines(SCRIPT),
+        checkpointFile, 1, 0).run();
+
+    assertFalse(Files.exists(checkpointFile));
+  }
+
+  @Test
+  public void testResumeFailsWhenScriptIsShorterThanCheckpoint() {
+    CalendarManager manager = new CalendarManagerImpl();
+    new CalendarController(manager, mockView, lines("exit\n"), checkpointFile, 0, 10).run();
+
+    assertEquals(1, mockView.displayErrorCallCount);
+    assertTrue(manager.getAllCalendars().isEmpty());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRejectsNegativeCheckpointInterval() {
+    new CalendarController(new CalendarManagerImpl(), mockView, lines(SCRIPT),
+        checkpointFile, -1, 0);
+  }
+}
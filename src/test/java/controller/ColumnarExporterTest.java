@@ -0,0 +1,164 @@
+package controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import calendar.controller.utils.ColumnarExporter;
+import calendar.controller.utils.ColumnarReader;
+import calendar.controller.utils.ColumnarReader.Column;
+import calendar.model.Calendar;
+import calendar.model.CalendarImpl;
+import calendar.model.EventStatus;
+import calendar.model.LocationType;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.EnumSet;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for ColumnarExporter and ColumnarReader.
+ */
+public class ColumnarExporterTest {
+
+  private List<Path> filesToCleanup;
+  private Calendar testCalendar;
+
+  /**
+   * Sets up the test environment before each test.
+   */
+  @Before
+  public void setUp() {
+    filesToCleanup = new java.util.ArrayList<>();
+    testCalendar = new CalendarImpl("TestCalendar", ZoneId.of("America/New_York"));
+  }
+
+  /**
+   * Cleans up any files created during the tests.
+   */
+  @After
+  public void cleanup() {
+    for (Path path : filesToCleanup) {
+      try {
+        Files.deleteIfExists(path);
+      } catch (IOException e) {
+        // do nothing
+      }
+    }
+  }
+
+  private Path export(int blockSize) throws IOException {
+    Path filePath = Paths.get("test-columns.evcol");
+    filesToCleanup.add(filePath);
+    new ColumnarExporter(blockSize).export(testCalendar.getOrderedEvents(), filePath,
+        testCalendar);
+    return filePath;
+  }
+
+  @Test
+  public void testRoundTripAllColumns() throws Exception {
+    testCalendar.createAndAddEvent("Review", LocalDateTime.of(2025, 5, 5, 10, 0),
+        LocalDateTime.of(2025, 5, 5, 11, 30), false, "Quarterly", LocationType.ONLINE,
+        EventStatus.PRIVATE);
+    testCalendar.createAllDayEventSeries("Gym", LocalDate.of(2025, 5, 6),
+        EnumSet.of(DayOfWeek.TUESDAY), 2);
+
+    try (ColumnarReader reader = ColumnarReader.open(export(2))) {
+      assertEquals("TestCalendar", reader.getCalendarName());
+      assertEquals(ZoneId.of("America/New_York"), reader.getTimeZone());
+      assertEquals(3, reader.getRowCount());
+      assertEquals(2, reader.getBlockCount());
+
+      ColumnarReader.Rows rows = reader.readAll(EnumSet.allOf(Column.class));
+      assertEquals(3, rows.size());
+      assertEquals(Instant.parse("2025-05-05T14:00:00Z"), rows.getStart(0));
+      assertEquals(Instant.parse("2025-05-05T15:30:00Z"), rows.getEnd(0));
+      assertEquals("Review", rows.getSubject(0));
+      assertNull(rows.getSeriesId(0));
+      assertEquals(LocationType.ONLINE, rows.getLocation(0));
+      assertEquals(EventStatus.PRIVATE, rows.getStatus(0));
+      assertFalse(rows.isAllDay(0));
+
+      assertEquals("Gym", rows.getSubject(2));
+      assertTrue(rows.isAllDay(2));
+      assertEquals(rows.getSeriesId(1), rows.getSeriesId(2));
+      assertEquals(testCalendar.getEventOnDate(LocalDate.of(2025, 5, 13)).get(0).getSeriesId()
+          .get(), rows.getSeriesId(2));
+    }
+  }
+
+  @Test
+  public void testRangeQuerySkipsBlocks() throws Exception {
+    testCalendar.createEventSeries("Standup", LocalDate.of(2025, 1, 6), LocalTime.of(9, 0),
+        LocalTime.of(9, 15), EnumSet.of(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY), 100);
+
+    try (ColumnarReader reader = ColumnarReader.open(export(10))) {
+      assertEquals(10, reader.getBlockCount());
+
+      ColumnarReader.Rows rows = reader.read(Instant.parse("2025-03-01T00:00:00Z"),
+          Instant.parse("2025-03-08T00:00:00Z"), EnumSet.of(Column.SUBJECT));
+      assertEquals(2, rows.size());
+      assertEquals(1, rows.getBlocksRead());
+      assertEquals("Standup", rows.getSubject(0));
+    }
+  }
+
+  @Test
+  public void testRangeQueryFindsLongEventInEarlierBlock() throws Exception {
+    testCalendar.createAndAddEvent("Sabbatical", LocalDateTime.of(2025, 1, 1, 9, 0),
+        LocalDateTime.of(2025, 12, 31, 17, 0), false);
+    testCalendar.createEventSeries("Standup", LocalDate.of(2025, 1, 6), LocalTime.of(9, 0),
+        LocalTime.of(9, 15), EnumSet.of(DayOfWeek.MONDAY), 20);
+
+    try (ColumnarReader reader = ColumnarReader.open(export(4))) {
+      ColumnarReader.Rows rows = reader.read(Instant.parse("2025-06-01T00:00:00Z"),
+          Instant.parse("2025-06-02T00:00:00Z"), EnumSet.of(Column.SUBJECT));
+      assertEquals(1, rows.size());
+      assertEquals("Sabbatical", rows.getSubject(0));
+      assertEquals(1, rows.getBlocksRead());
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testUnrequestedColumnIsNotAvailable() throws Exception {
+    testCalendar.createAndAddEvent("Call", LocalDateTime.of(2025, 5, 5, 10, 0),
+        LocalDateTime.of(2025, 5, 5, 11, 0), false);
+
+    try (ColumnarReader reader = ColumnarReader.open(export(8))) {
+      reader.readAll(EnumSet.of(Column.START)).getSubject(0);
+    }
+  }
+
+  @Test
+  public void testEmptyCalendar() throws Exception {
+    try (ColumnarReader reader = ColumnarReader.open(export(8))) {
+      assertEquals(0, reader.getBlockCount());
+      assertEquals(0, reader.readAll(EnumSet.allOf(Column.class)).size());
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void testRejectsOtherFiles() throws Exception {
+    Path filePath = Paths.get("test-not-columns.evcol");
+    filesToCleanup.add(filePath);
+    Files.writeString(filePath, "Subject,Start Date,Start Time,End Date,End Time\n");
+    ColumnarReader.open(filePath).close();
+  }
+
+  @Test
+  public void testCannotMarkRemovals() {
+    assertFalse(new ColumnarExporter().supportsRemovals());
+  }
+}
@@ -5,7 +5,9 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import calendar.controller.CalendarController;
+import calendar.controller.commands.BeginBatchCommand;
 import calendar.controller.commands.Command;
+import calendar.controller.commands.CommitBatchCommand;
 import calendar.controller.commands.CopyEventCommand;
 import calendar.controller.commands.CopyEventsBetweenCommand;
 import calendar.controller.commands.CopyEventsOnDateCommand;
@@ -13,14 +15,21 @@ import calendar.controller.commands.CreateCalendarCommand;
 import calendar.controller.commands.CreateEventCommand;
 import calendar.controller.commands.EditCalendarCommand;
 import calendar.controller.commands.EditEventCommand;
+import calendar.controller.commands.ExportAllCommand;
 import calendar.controller.commands.ExportCommand;
+import calendar.controller.commands.ImportCommand;
 import calendar.controller.commands.PrintEventsCommand;
+import calendar.controller.commands.RollbackBatchCommand;
 import calendar.controller.commands.ShowStatusCommand;
 import calendar.controller.commands.UseCalendarCommand;
 import calendar.controller.utils.CommandParserImpl;
+import calendar.controller.utils.DataDirectory;
+import calendar.model.EditSettings;
 import calendar.model.EventStatus;
 import calendar.model.LocationType;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.Scanner;
 import org.junit.Assert;
 import org.junit.Before;
@@ -41,6 +50,33 @@ public class CommandParserTest {
     parser = new CommandParserImpl();
   }
 
+  @Test
+  public void testParseBatchCommands() {
+    assertTrue(parser.parse("begin batch") instanceof BeginBatchCommand);
+    assertTrue(parser.parse("commit") instanceof CommitBatchCommand);
+    assertTrue(parser.parse("rollback") instanceof RollbackBatchCommand);
+  }
+
+  @Test
+  public void testParseCharSequenceThatIsNotString() {
+    assertTrue(parser.parse(new StringBuilder("  commit \t")) instanceof CommitBatchCommand);
+    assertNull(parser.parse(new StringBuilder(" exit")));
+    assertTrue(parser.parse(new StringBuilder("create event Standup from 2025-05-05T09:00 to "
+        + "2025-05-05T09:30 repeats MWF for 10 times")) instanceof CreateEventCommand);
+    assertTrue(parser.parse(new StringBuilder("export cal delta.ics.gz --since abc-42 --level 6"))
+        instanceof ExportCommand);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testParseBlankCharSequenceFails() {
+    parser.parse(new StringBuilder(" \t "));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testParseBeginWithoutBatchFails() {
+    parser.parse("begin transaction");
+  }
+
   @Test
   public void testParseCreateSingleTimedEvent() {
     Command cmd = parser.parse(
@@ -336,6 +372,118 @@ public class CommandParserTest {
     assertTrue(cmd instanceof ExportCommand);
   }
 
+  @Test
+  public void testParseExportRange() {
+    Command cmd = parser.parse("export cal may.csv from 2025-05-01 to 2025-05-31");
+    assertNotNull(cmd);
+    assertTrue(cmd instanceof ExportCommand);
+  }
+
+  @Test
+  public void testParseExportSince() {
+    Command cmd = parser.parse("export cal delta.ics --since abc-42");
+    assertTrue(cmd instanceof ExportCommand);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testParseExportSinceMissingToken() {
+    parser.parse("export cal delta.ics --since");
+  }
+
+  @Test
+  public void testParseExportSinceToFormatsThatMarkRemovals() {
+    assertTrue(parser.parse("export cal delta.ndjson --since abc-42") instanceof ExportCommand);
+    assertTrue(parser.parse("export cal delta.ics.gz --since abc-42") instanceof ExportCommand);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testParseExportSinceRejectsCsv() {
+    parser.parse("export cal delta.csv --since abc-42");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testParseExportSinceRejectsColumnar() {
+    parser.parse("export cal history.evcol --since abc-42");
+  }
+
+  @Test
+  public void testParseFilesInsideDataDirectory() {
+    CommandParserImpl confined = new CommandParserImpl(new DataDirectory(Paths.get("data")));
+    assertTrue(confined.parse("export cal work.csv") instanceof ExportCommand);
+    assertTrue(confined.parse("export all backups --format ics") instanceof ExportAllCommand);
+    assertTrue(confined.parse("import cal work.ics") instanceof ImportCommand);
+  }
+
+  @Test
+  public void testParseFilesOutsideDataDirectoryFails() {
+    CommandParserImpl confined = new CommandParserImpl(new DataDirectory(Paths.get("data")));
+    String absolute = Paths.get("work.ics").toAbsolutePath().toString();
+    for (String line : new String[] {"export cal ../work.csv", "export cal " + absolute,
+        "export cal backups/../../work.csv from 2025-05-01 to 2025-05-31",
+        "export all ..", "import cal " + absolute, "import cal ../work.ics"}) {
+      try {
+        confined.parse(line);
+        Assert.fail("Expected " + line + " to be rejected");
+      } catch (IllegalArgumentException e) {
+        assertTrue(e.getMessage(), e.getMessage().contains("data directory"));
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testParseExportRejectsUnknownOption() {
+    parser.parse("export cal big.csv --memory 256");
+  }
+
+  @Test
+  public void testParseExportWithCompressionOptions() {
+    assertTrue(parser.parse("export cal big.csv.gz --level 9") instanceof ExportCommand);
+    assertTrue(parser.parse("export cal big.ics.gz --buffer 256 --level 0")
+        instanceof ExportCommand);
+    assertTrue(parser.parse("export cal delta.ics.gz --since abc-42 --level 6")
+        instanceof ExportCommand);
+    assertTrue(parser.parse("export cal may.csv.gz from 2025-05-01 to 2025-05-31 --buffer 8")
+        instanceof ExportCommand);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testParseExportWithInvalidLevel() {
+    parser.parse("export cal big.csv.gz --level 10");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testParseExportWithInvalidBufferSize() {
+    parser.parse("export cal big.csv.gz --buffer 0");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testParseExportCompressionOptionsNeedCompressedFile() {
+    parser.parse("export cal big.csv --level 9");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testParseExportRangeMissingEnd() {
+    parser.parse("export cal may.csv from 2025-05-01");
+  }
+
+  @Test
+  public void testParseExportAll() {
+    assertTrue(parser.parse("export all backups") instanceof ExportAllCommand);
+    assertTrue(parser.parse("export all backups --format ics") instanceof ExportAllCommand);
+  }
+
+  @Test
+  public void testParseImport() {
+    Command cmd = parser.parse("import cal vendor-feed.ics");
+    assertNotNull(cmd);
+    assertTrue(cmd instanceof ImportCommand);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testParseImportMissingFile() {
+    parser.parse("import cal");
+  }
+
   @Test
   public void testParseExit() {
     Command cmd = parser.parse("exit");
@@ -1081,4 +1229,96 @@ public class CommandParserTest {
         mockManager.getMockCalendar().lastEditedNewValue);
   }
 
-}
\ No newline at end of file
+  @Test
+  public void testEditScopeChosenByLeadingWords() throws Exception {
+    MockCalendarManager mockManager = new MockCalendarManager();
+    MockView mockView = new MockView();
+
+    parser.parse("edit events location Meeting from 2025-05-05T10:00 with online")
+        .execute(mockManager, mockView);
+    Assert.assertEquals(EditSettings.FORWARD, mockManager.getMockCalendar().lastEditScope);
+
+    parser.parse("edit series location Meeting from 2025-05-05T10:00 with online")
+        .execute(mockManager, mockView);
+    Assert.assertEquals(EditSettings.ALL_EVENTS, mockManager.getMockCalendar().lastEditScope);
+
+    parser.parse("edit event location Meeting from 2025-05-05T10:00 with online")
+        .execute(mockManager, mockView);
+    Assert.assertEquals(EditSettings.SINGLE, mockManager.getMockCalendar().lastEditScope);
+  }
+
+  @Test
+  public void testCopyEventsChosenBeforeCopyEvent() {
+    assertTrue(parser.parse("copy events on 2025-05-05 --target Work to 2025-06-01")
+        instanceof CopyEventsOnDateCommand);
+    assertTrue(parser.parse(
+        "copy events between 2025-05-05 and 2025-05-09 --target Work to 2025-06-01")
+        instanceof CopyEventsBetweenCommand);
+    assertTrue(parser.parse(
+        "copy event events on 2025-05-05T10:00 --target Work to 2025-06-01T10:00")
+        instanceof CopyEventCommand);
+  }
+
+  @Test
+  public void testEditQuotedSubjectContainingKeywords() throws Exception {
+    MockCalendarManager mockManager = new MockCalendarManager();
+    MockView mockView = new MockView();
+
+    parser.parse("edit event description \"Lunch from home to office\" from 2025-05-05T12:00"
+        + " to 2025-05-05T13:00 with  Bring   food ").execute(mockManager, mockView);
+
+    MockCalendar calendar = mockManager.getMockCalendar();
+    Assert.assertEquals("Lunch from home to office", calendar.lastEditedSubject);
+    Assert.assertEquals(LocalDateTime.of(2025, 5, 5, 12, 0), calendar.lastEditedStartDateTime);
+    Assert.assertEquals("description", calendar.lastEditedProperty);
+    Assert.assertEquals("Bring   food", calendar.lastEditedNewValue);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testEditWithoutSubjectIsInvalid() {
+    parser.parse("edit event location with online");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testPrintEventsOnWithoutDateIsInvalid() {
+    parser.parse("print events on");
+  }
+
+  @Test
+  public void testParseLeapDayAndLastMinute() throws Exception {
+    MockCalendarManager mockManager = new MockCalendarManager();
+    parser.parse("edit event end Meeting from 2024-02-29T00:00 with 2024-12-31T23:59")
+        .execute(mockManager, new MockView());
+
+    MockCalendar calendar = mockManager.getMockCalendar();
+    Assert.assertEquals(LocalDateTime.of(2024, 2, 29, 0, 0), calendar.lastEditedStartDateTime);
+    Assert.assertEquals(LocalDateTime.of(2024, 12, 31, 23, 59), calendar.lastEditedNewValue);
+  }
+
+  @Test
+  public void testParseDayPastEndOfMonthIsAdjustedAsBefore() throws Exception {
+    MockCalendarManager mockManager = new MockCalendarManager();
+    parser.parse("edit event start Meeting from 2025-02-30T10:00 with 2025-04-31T09:00")
+        .execute(mockManager, new MockView());
+
+    MockCalendar calendar = mockManager.getMockCalendar();
+    Assert.assertEquals(LocalDateTime.of(2025, 2, 28, 10, 0), calendar.lastEditedStartDateTime);
+    Assert.assertEquals(LocalDateTime.of(2025, 4, 30, 9, 0), calendar.lastEditedNewValue);
+  }
+
+  @Test(expected = DateTimeParseException.class)
+  public void testParseInvalidMonthRejected() {
+    parser.parse("print events on 2025-13-01");
+  }
+
+  @Test(expected = DateTimeParseException.class)
+  public void testParseInvalidMinuteRejected() {
+    parser.parse("show status on 2025-05-05T10:60");
+  }
+
+  @Test(expected = DateTimeParseException.class)
+  public void testParseNonDigitInDateRejected() {
+    parser.parse("print events from 2025-05-0xT10:00 to 2025-05-06T10:00");
+  }
+
+}
@@ -7,15 +7,23 @@ import static org.junit.Assert.assertTrue;
 
 import calendar.controller.commands.CreateEventCommand;
 import calendar.controller.commands.EditEventCommand;
+import calendar.controller.commands.ExportAllCommand;
 import calendar.controller.commands.ExportCommand;
 import calendar.controller.commands.PrintEventsCommand;
 import calendar.controller.commands.ShowStatusCommand;
+import calendar.model.CalendarManagerImpl;
 import calendar.model.EditSettings;
 import calendar.model.EventStatus;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Set;
+import java.util.stream.Stream;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -360,7 +368,7 @@ public class CommandsTest {
     cmd.execute(mockManager, mockView);
 
     Assert.assertEquals(1, mockExporter.exportCallCount);
-    Assert.assertEquals(1, mockManager.getMockCalendar().getAllEventsCallCount);
+    Assert.assertEquals(1, mockManager.getMockCalendar().getOrderedEventsCallCount);
     Assert.assertEquals(1, mockView.displayExportSuccessCallCount);
   }
 
@@ -545,13 +553,13 @@ public class CommandsTest {
   }
 
   @Test
-  public void testExportCallsGetAllEvents() throws Exception {
+  public void testExportCallsGetOrderedEvents() throws Exception {
     MockCsvExporter mockExporter = new MockCsvExporter();
     ExportCommand cmd = new ExportCommand("test.csv", mockExporter);
 
     cmd.execute(mockManager, mockView);
 
-    Assert.assertEquals(1, mockManager.getMockCalendar().getAllEventsCallCount);
+    Assert.assertEquals(1, mockManager.getMockCalendar().getOrderedEventsCallCount);
   }
 
   @Test
@@ -759,7 +767,7 @@ public class CommandsTest {
     cmd.execute(mockManager, mockView);
 
     assertEquals(1, mockIcalExporter.exportCallCount);
-    assertEquals(1, mockManager.getMockCalendar().getAllEventsCallCount);
+    assertEquals(1, mockManager.getMockCalendar().getOrderedEventsCallCount);
     assertEquals(1, mockView.displayExportSuccessCallCount);
   }
 
@@ -771,7 +779,7 @@ public class CommandsTest {
     cmd.execute(mockManager, mockView);
 
     assertEquals(1, mockCsvExporter.exportCallCount);
-    assertEquals(1, mockManager.getMockCalendar().getAllEventsCallCount);
+    assertEquals(1, mockManager.getMockCalendar().getOrderedEventsCallCount);
     assertEquals(1, mockView.displayExportSuccessCallCount);
   }
 
@@ -1036,12 +1044,82 @@ public class CommandsTest {
     assertFalse(path.endsWith(".ical.csv"));
   }
 
+  @Test
+  public void testExportRangeUsesWholeDays() throws Exception {
+    MockCsvExporter mockExporter = new MockCsvExporter();
+    ExportCommand cmd = new ExportCommand("may.csv", mockExporter,
+        LocalDate.of(2025, 5, 1), LocalDate.of(2025, 5, 31));
+    cmd.execute(mockManager, mockView);
+
+    MockCalendar mockCal = mockManager.getMockCalendar();
+    assertEquals(1, mockCal.getOrderedEventsInRangeCallCount);
+    assertEquals(0, mockCal.getOrderedEventsCallCount);
+    assertEquals(LocalDateTime.of(2025, 5, 1, 0, 0), mockCal.lastRangeStart);
+    assertEquals(LocalDateTime.of(2025, 6, 1, 0, 0), mockCal.lastRangeEnd);
+    assertEquals(1, mockExporter.exportCallCount);
+  }
+
+  @Test
+  public void testExportPrintsChangeToken() throws Exception {
+    MockCsvExporter mockExporter = new MockCsvExporter();
+    new ExportCommand("test.csv", mockExporter).execute(mockManager, mockView);
+
+    assertTrue(mockView.messages.contains("Export token: mock-1"));
+  }
+
+  @Test
+  public void testExportSinceWritesOnlyChanges() throws Exception {
+    MockCsvExporter mockExporter = new MockCsvExporter();
+    MockCalendar mockCal = mockManager.getMockCalendar();
+    ExportCommand cmd = new ExportCommand("delta.ics", mockExporter, "mock-1");
+    cmd.execute(mockManager, mockView);
+
+    assertEquals(1, mockCal.getChangesSinceCallCount);
+    assertEquals("mock-1", mockCal.lastChangeToken);
+    assertEquals(0, mockCal.getOrderedEventsCallCount);
+    assertEquals(1, mockExporter.exportChangesCallCount);
+    assertEquals(0, mockExporter.exportCallCount);
+    assertTrue(mockView.messages.contains("Exported 0 changed and 0 removed events"));
+    assertTrue(mockView.messages.contains("Export token: mock-2"));
+  }
+
+  @Test
+  public void testExportSinceNotesRemovalsMissingFromCsv() throws Exception {
+    MockCalendar mockCal = mockManager.getMockCalendar();
+    mockCal.createAndAddEvent("Old", LocalDateTime.of(2025, 5, 5, 10, 0),
+        LocalDateTime.of(2025, 5, 5, 11, 0), false);
+    mockCal.removedEventsToReturn = new ArrayList<>(mockCal.eventsToReturn);
+    mockCal.eventsToReturn = new ArrayList<>();
+
+    new ExportCommand("delta.csv", new MockCsvExporter(), "mock-1").execute(mockManager,
+        mockView);
+
+    assertTrue(mockView.messages.contains("Exported 0 changed and 1 removed events"
+        + " (removed events cannot be marked in this format and were left out)"));
+  }
+
+  @Test
+  public void testExportSinceFallsBackToFullExport() throws Exception {
+    MockCsvExporter mockExporter = new MockCsvExporter();
+    mockManager.getMockCalendar().changesAreFullSnapshot = true;
+    new ExportCommand("delta.csv", mockExporter, "stale-1").execute(mockManager, mockView);
+
+    assertEquals(1, mockExporter.exportCallCount);
+    assertEquals(0, mockExporter.exportChangesCallCount);
+    assertEquals(1, mockView.displayExportSuccessCallCount);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testExportRangeRejectsReversedDates() {
+    new ExportCommand("may.csv", LocalDate.of(2025, 5, 31), LocalDate.of(2025, 5, 1));
+  }
+
   @Test
   public void testExportWithoutCustomExporter() throws Exception {
     ExportCommand cmd = new ExportCommand("test.csv");
     cmd.execute(mockManager, mockView);
 
-    assertEquals(1, mockManager.getMockCalendar().getAllEventsCallCount);
+    assertEquals(1, mockManager.getMockCalendar().getOrderedEventsCallCount);
     assertEquals(1, mockView.displayExportSuccessCallCount);
   }
 
@@ -1055,4 +1133,33 @@ public class CommandsTest {
     assertTrue(path.endsWith("cal.2025.ics"));
     assertFalse(path.endsWith(".ics.csv"));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testExportAllWritesOneFilePerCalendar() throws Exception {
+    CalendarManagerImpl manager = new CalendarManagerImpl();
+    manager.createCalendar("Personal", ZoneId.of("America/New_York"));
+    manager.createCalendar("Team Work", ZoneId.of("Europe/Paris"));
+    manager.useCalendar("Personal");
+    manager.getActiveCalendar().createAndAddEvent("Lunch", LocalDateTime.of(2025, 5, 5, 12, 0),
+        LocalDateTime.of(2025, 5, 5, 13, 0), false);
+
+    Path directory = Files.createTempDirectory("export-all");
+    try {
+      new ExportAllCommand(directory.toString(), "ics").execute(manager, mockView);
+
+      assertTrue(Files.exists(directory.resolve("Personal.ics")));
+      assertTrue(Files.exists(directory.resolve("Team_Work.ics")));
+      assertEquals(3, mockView.displayMessageCallCount);
+      assertTrue(mockView.messages.get(2).startsWith("Exported 2 of 2 calendars (1 events"));
+    } finally {
+      try (Stream<Path> paths = Files.walk(directory)) {
+        paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testExportAllRejectsUnknownFormat() {
+    new ExportAllCommand("backups", "pdf");
+  }
+}
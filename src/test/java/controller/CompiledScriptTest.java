@@ -0,0 +1,245 @@
+package controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import calendar.controller.CalendarController;
+import calendar.controller.CompiledScriptController;
+import calendar.controller.commands.CommandCodec;
+import calendar.controller.commands.EditEventCommand;
+import calendar.controller.commands.ExportCommand;
+import calendar.controller.utils.CommandParserImpl;
+import calendar.controller.utils.CompiledScript;
+import calendar.controller.utils.CsvExporter;
+import calendar.controller.utils.ReaderLineSource;
+import calendar.model.CalendarManagerImpl;
+import calendar.view.ConsoleView;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Stream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for compiled scripts and CompiledScriptController.
+ */
+public class CompiledScriptTest {
+
+  private Path directory;
+  private Path compiled;
+  private MockView mockView;
+
+  /**
+   * Creates a directory for exported and compiled files.
+   *
+   * @throws IOException if the directory cannot be created
+   */
+  @Before
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("compiled-test");
+    compiled = directory.resolve("script.bin");
+    mockView = new MockView();
+  }
+
+  /**
+   * Deletes the directory and everything in it.
+   *
+   * @throws IOException if a file cannot be deleted
+   */
+  @After
+  public void cleanup() throws IOException {
+    try (Stream<Path> files = Files.walk(directory)) {
+      for (Path file : (Iterable<Path>) files.sorted((a, b) -> b.compareTo(a))::iterator) {
+        Files.deleteIfExists(file);
+      }
+    }
+  }
+
+  @Test
+  public void testReplayMatchesTextRunForEveryCommand() throws IOException {
+    String script = "create calendar --name Work --timezone America/New_York\n"
+        + "create calendar --name Home --timezone Europe/Paris\n"
+        + "edit calendar --name Home --property timezone Asia/Tokyo\n"
+        + "use calendar --name Work\n"
+        + "create event \"Stand up\" from 2025-05-05T09:00 to 2025-05-05T09:15"
+        + " repeats MTWRF for 5 times\n"
+        + "create event Review from 2025-05-05T14:00 to 2025-05-05T15:00"
+        + " repeats MW until 2025-05-21\n"
+        + "create event Holiday on 2025-05-09\n"
+        + "create event Gym on 2025-05-06 repeats TR for 4 times\n"
+        + "create event Retro on 2025-05-09 repeats F until 2025-05-30\n"
+        + "create event Lunch from 2025-05-07T12:00 to 2025-05-07T13:00\n"
+        + "begin batch\n"
+        + "create event Demo from 2025-05-08T10:00 to 2025-05-08T11:00\n"
+        + "edit event location Demo from 2025-05-08T10:00 with online\n"
+        + "commit\n"
+        + "begin batch\n"
+        + "create event Scrapped on 2025-05-20\n"
+        + "rollback\n"
+        + "edit event location \"Stand up\" from 2025-05-05T09:00 with online\n"
+        + "edit events status Review from 2025-05-07T14:00 with private\n"
+        + "edit series description Gym from 2025-05-06T08:00 with \"Leg day\"\n"
+        + "edit event start Lunch from 2025-05-07T12:00 with 2025-05-07T12:30\n"
+        + "edit event subject Nothing from 2025-05-07T12:00 with Missing\n"
+        + "copy event Lunch on 2025-05-07T12:30 --target Home to 2025-05-08T12:00\n"
+        + "copy events on 2025-05-05 --target Home to 2025-06-02\n"
+        + "copy events between 2025-05-05 and 2025-05-09 --target Home to 2025-06-09\n"
+        + "print events on 2025-05-05\n"
+        + "print events from 2025-05-05T00:00 to 2025-05-10T00:00\n"
+        + "show status on 2025-05-05T09:05\n"
+        + "export cal " + directory.resolve("range.csv") + " from 2025-05-05 to 2025-05-06\n"
+        + "export cal " + directory.resolve("work.ics") + "\n"
+        + "export cal " + directory.resolve("work.csv.gz") + " --level 9 --buffer 8\n"
+        + "export all " + directory.resolve("all") + " --format ics\n"
+        + "use calendar --name Home\n"
+        + "print events on 2025-06-02\n"
+        + "import cal " + directory.resolve("work.ics") + "\n"
+        + "print events on 2025-05-07\n"
+        + "edit calendar --name Home --property name House\n"
+        + "create event Broken from 2025-05-05T10:00\n"
+        + "print events on 2025-13-01\n"
+        + "dance\n"
+        + "exit\n"
+        + "print events on 2025-05-05\n";
+
+    String textOutput = runText(script);
+    long commandCount = CompiledScript.compile(
+        new ReaderLineSource(new StringReader(script)), compiled, mockView);
+    String replayOutput = runCompiled();
+
+    assertEquals(37, commandCount);
+    assertEquals(3, mockView.errors.size());
+    assertTrue(mockView.errors.get(0).startsWith("Invalid command on line 38: "));
+    assertTrue(textOutput.contains("Imported 7 events"));
+    assertTrue(textOutput.contains("Batch committed: 2 changes"));
+    assertTrue(textOutput.contains("Batch rolled back"));
+    assertEquals(withoutTimings(textOutput), withoutTimings(replayOutput));
+  }
+
+  @Test
+  public void testReplayReportsScriptLines() throws IOException {
+    String script = "create calendar --name Work --timezone UTC\n"
+        + "\n"
+        + "use calendar --name Work\n"
+        + "dance\n"
+        + "\n".repeat(200)
+        + "create event Lunch on 2025-05-05\n"
+        + "exit\n";
+    CompiledScript.compile(new ReaderLineSource(new StringReader(script)), compiled, mockView);
+
+    try (CompiledScript replay = new CompiledScript(compiled)) {
+      new CompiledScriptController(new CalendarManagerImpl(), mockView, replay).run();
+    }
+
+    assertEquals(Arrays.asList(1L, 3L, 4L, 205L), mockView.linesStarted);
+  }
+
+  @Test
+  public void testReplayWithoutExitReportsMissingExit() throws IOException {
+    String script = "create calendar --name Work --timezone UTC\n";
+    CompiledScript.compile(new ReaderLineSource(new StringReader(script)), compiled, mockView);
+
+    try (CompiledScript compiledScript = new CompiledScript(compiled)) {
+      new CompiledScriptController(new CalendarManagerImpl(), mockView, compiledScript).run();
+      assertFalse(compiledScript.reachedExit());
+    }
+    assertEquals("Headless mode file must end with 'exit' command",
+        mockView.errors.get(mockView.errors.size() - 1));
+  }
+
+  @Test(expected = IOException.class)
+  public void testOpeningTextFileFails() throws IOException {
+    Files.writeString(compiled, "create calendar --name Work --timezone UTC\nexit\n");
+    new CompiledScript(compiled).close();
+  }
+
+  @Test
+  public void testTruncatedScriptReportsReadError() throws IOException {
+    String script = "create calendar --name Work --timezone UTC\nexit\n";
+    CompiledScript.compile(new ReaderLineSource(new StringReader(script)), compiled, mockView);
+    byte[] bytes = Files.readAllBytes(compiled);
+    Files.write(compiled, Arrays.copyOf(bytes, bytes.length - 4));
+
+    try (CompiledScript compiledScript = new CompiledScript(compiled)) {
+      new CompiledScriptController(new CalendarManagerImpl(), mockView, compiledScript).run();
+    }
+    assertTrue(mockView.errors.get(0).startsWith("Error reading compiled script"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testCommandWithCustomExporterCannotBeCompiled() throws IOException {
+    CommandCodec.write(new ExportCommand("out.csv", new CsvExporter()),
+        new DataOutputStream(new ByteArrayOutputStream()));
+  }
+
+  @Test
+  public void testEnumValuesAreWrittenByName() throws IOException {
+    byte[] bytes = compileCommand("edit series status M from 2025-05-05T10:00 with PRIVATE");
+    String text = new String(bytes, StandardCharsets.ISO_8859_1);
+    assertTrue(text.contains("PRIVATE"));
+    assertTrue(text.contains("ALL_EVENTS"));
+    assertTrue(readCommand(bytes) instanceof EditEventCommand);
+  }
+
+  @Test(expected = IOException.class)
+  public void testUnknownEnumNameFails() throws IOException {
+    byte[] bytes = compileCommand("edit event location M from 2025-05-05T10:00 with online");
+    String text = new String(bytes, StandardCharsets.ISO_8859_1).replace("ONLINE", "ONLINX");
+    readCommand(text.getBytes(StandardCharsets.ISO_8859_1));
+  }
+
+  @Test(expected = IOException.class)
+  public void testOversizedStringLengthFails() throws IOException {
+    byte[] bytes = compileCommand("use calendar --name Work");
+    byte[] corrupt = {bytes[0], (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0x7f};
+    readCommand(corrupt);
+  }
+
+  /**
+   * Removes what differs between two runs of the same script: timings, and change tokens,
+   * which are unique to each calendar manager.
+   */
+  private String withoutTimings(String output) {
+    return output.replaceAll("\\d+ ms.*", "ms").replaceAll("Export token: \\S+", "token");
+  }
+
+  private String runText(String script) {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    try (PrintStream out = new PrintStream(output, true, StandardCharsets.UTF_8)) {
+      new CalendarController(new CalendarManagerImpl(), new ConsoleView(out),
+          new ReaderLineSource(new StringReader(script)), false).run();
+    }
+    return output.toString(StandardCharsets.UTF_8);
+  }
+
+  private String runCompiled() throws IOException {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    try (PrintStream out = new PrintStream(output, true, StandardCharsets.UTF_8);
+         CompiledScript compiledScript = new CompiledScript(compiled)) {
+      new CompiledScriptController(new CalendarManagerImpl(), new ConsoleView(out),
+          compiledScript).run();
+    }
+    return output.toString(StandardCharsets.UTF_8);
+  }
+
+  private static byte[] compileCommand(String line) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    CommandCodec.write(new CommandParserImpl().parse(line), new DataOutputStream(bytes));
+    return bytes.toByteArray();
+  }
+
+  private static Object readCommand(byte[] bytes) throws IOException {
+    return CommandCodec.read(new DataInputStream(new ByteArrayInputStream(bytes)));
+  }
+}
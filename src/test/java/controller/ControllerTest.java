@@ -8,6 +8,7 @@ import calendar.controller.CalendarController;
 import calendar.controller.Controller;
 import calendar.model.EditSettings;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Scanner;
 import org.junit.Assert;
 import org.junit.Before;
@@ -48,6 +49,57 @@ public class ControllerTest {
     Assert.assertEquals("Test", mockView.lastEventCreated);
   }
 
+  @Test
+  public void testControllerFlushesViewOnceAtEndOfScript() {
+    String commands = "create event Test from 2025-05-05T10:00 to 2025-05-05T11:00\n"
+        + "print events on 2025-05-05\n"
+        + "exit\n";
+
+    new CalendarController(mockManager, mockView, new Scanner(commands), false).run();
+
+    Assert.assertEquals(1, mockView.flushCallCount);
+  }
+
+  @Test
+  public void testInteractiveControllerFlushesViewAfterEachCommand() {
+    String commands = "create event Test from 2025-05-05T10:00 to 2025-05-05T11:00\n"
+        + "print events on 2025-05-05\n"
+        + "exit\n";
+
+    new CalendarController(mockManager, mockView, new Scanner(commands), true).run();
+
+    Assert.assertEquals(3, mockView.flushCallCount);
+  }
+
+  @Test
+  public void testControllerReportsCommandsAndFailures() {
+    String commands = "create event Test from 2025-05-05T10:00 to 2025-05-05T11:00\n"
+        + "create event\n"
+        + "print events on 2025-05-05\n"
+        + "exit\n";
+
+    new CalendarController(mockManager, mockView, new Scanner(commands), false).run();
+
+    Assert.assertEquals(List.of("CreateEventCommand", "PrintEventsCommand"),
+        mockView.commandsStarted);
+    Assert.assertEquals(1, mockView.commandFailures.size());
+    assertTrue(mockView.commandFailures.get(0) instanceof IllegalArgumentException);
+    Assert.assertEquals(1, mockView.errors.size());
+  }
+
+  @Test
+  public void testControllerReportsScriptLines() {
+    String commands = "create event Test from 2025-05-05T10:00 to 2025-05-05T11:00\n"
+        + "\n"
+        + "create event\n"
+        + "print events on 2025-05-05\n"
+        + "exit\n";
+
+    new CalendarController(mockManager, mockView, new Scanner(commands), false).run();
+
+    Assert.assertEquals(List.of(1L, 3L, 4L), mockView.linesStarted);
+  }
+
   @Test
   public void testControllerCallsCreateEventSeries() {
     String commands = "create event Daily from 2025-05-05T09:00 to 2025-05-05T09:30 "
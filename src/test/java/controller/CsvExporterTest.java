@@ -12,13 +12,22 @@ import calendar.model.EditSettings;
 import calendar.model.Event;
 import calendar.model.EventStatus;
 import calendar.model.LocationType;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.time.ZoneId;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -325,6 +334,20 @@ public class CsvExporterTest {
     assertTrue(eventLine.contains("10:05 AM"));
   }
 
+  @Test
+  public void testMidnightAndNoonFormatting() throws Exception {
+    testCalendar.createAndAddEvent("Late", LocalDateTime.of(2025, 12, 31, 0, 0),
+        LocalDateTime.of(2025, 12, 31, 12, 0), false);
+
+    Path filePath = Paths.get("test-midnight.csv");
+    filesToCleanup.add(filePath);
+
+    exporter.export(testCalendar.getOrderedEvents(), filePath, testCalendar);
+
+    String eventLine = Files.readAllLines(filePath).get(1);
+    assertEquals("Late,12/31/2025,12:00 AM,12/31/2025,12:00 PM,False,,,False", eventLine);
+  }
+
   @Test
   public void testPmTimeFormatting() throws Exception {
     testCalendar.createAndAddEvent("Afternoon", LocalDateTime.of(2025, 5, 5, 14, 30),
@@ -524,4 +547,45 @@ public class CsvExporterTest {
     assertTrue(lines.get(1).contains(",,"));
   }
 
-}
\ No newline at end of file
+
+  private void addParallelExportEvents() throws Exception {
+    for (int i = 0; i < 40; i++) {
+      LocalDateTime start = LocalDateTime.of(2025, 3, 1, 8, 0).plusHours(7L * i);
+      String subject = "\u00c9v\u00e9nement " + i + (i % 3 == 0 ? ", \"quoted\"" : "");
+      String description = i % 2 == 0 ? "\u65e5\u672c\u8a9e\nline" : null;
+      testCalendar.createAndAddEvent(subject, start, start.plusMinutes(45), i % 7 == 0,
+          description,
+          i % 4 == 0 ? LocationType.ONLINE : LocationType.NONE,
+          i % 5 == 0 ? EventStatus.PRIVATE : EventStatus.PUBLIC);
+    }
+    testCalendar.createEventSeries("Once", LocalDate.of(2025, 3, 3), LocalTime.of(7, 0),
+        LocalTime.of(7, 30), EnumSet.of(DayOfWeek.MONDAY), 1);
+    testCalendar.createEventSeries("Standup", LocalDate.of(2025, 3, 3), LocalTime.of(9, 0),
+        LocalTime.of(9, 15), EnumSet.of(DayOfWeek.MONDAY, DayOfWeek.THURSDAY), 12);
+    testCalendar.createEventSeries("Retro", LocalDate.of(2025, 3, 7), LocalTime.of(16, 0),
+        LocalTime.of(17, 0), EnumSet.of(DayOfWeek.FRIDAY), 6);
+    testCalendar.editEvent("Retro", LocalDateTime.of(2025, 3, 21, 16, 0), "description",
+        "Moved room", EditSettings.SINGLE);
+  }
+
+  private String serialWrite() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (Writer writer = new OutputStreamWriter(bytes, StandardCharsets.UTF_8)) {
+      exporter.write(testCalendar.getOrderedEvents(), writer, testCalendar);
+    }
+    return bytes.toString(StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void testParallelExportMatchesSerialWrite() throws Exception {
+    addParallelExportEvents();
+    exporter = new CsvExporter(new ForkJoinPool(4), 3);
+    Path filePath = Paths.get("test-parallel.csv");
+    filesToCleanup.add(filePath);
+
+    exporter.export(testCalendar.getOrderedEvents(), filePath, testCalendar);
+
+    String parallel = Files.readString(filePath, StandardCharsets.UTF_8);
+    assertEquals(serialWrite(), parallel);
+  }
+}
@@ -6,10 +6,13 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertTrue;
 
+import calendar.controller.utils.ColumnarExporter;
 import calendar.controller.utils.CsvExporter;
 import calendar.controller.utils.Exporter;
 import calendar.controller.utils.ExporterFactory;
+import calendar.controller.utils.GzipExporter;
 import calendar.controller.utils.IcalExporter;
+import calendar.controller.utils.NdjsonExporter;
 import org.junit.Test;
 
 /**
@@ -353,4 +356,36 @@ public class ExporterFactoryTest {
       }
     }
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testCreateGzipExporters() {
+    assertTrue(ExporterFactory.createExporter("backup.csv.gz") instanceof GzipExporter);
+    assertTrue(ExporterFactory.createExporter("backup.ICS.GZ") instanceof GzipExporter);
+    assertTrue(ExporterFactory.createExporter("backup.ical.gz") instanceof GzipExporter);
+    assertTrue(ExporterFactory.isSupportedFormat("backup.csv.gz"));
+    assertFalse(ExporterFactory.isSupportedFormat("backup.gz"));
+  }
+
+  @Test
+  public void testCreateNdjsonExporters() {
+    assertTrue(ExporterFactory.createExporter("events.ndjson") instanceof NdjsonExporter);
+    assertTrue(ExporterFactory.createExporter("events.ndjson.gz") instanceof GzipExporter);
+    assertTrue(ExporterFactory.isSupportedFormat("events.NDJSON"));
+  }
+
+  @Test
+  public void testCreateColumnarExporter() {
+    assertTrue(ExporterFactory.createExporter("history.evcol") instanceof ColumnarExporter);
+    assertTrue(ExporterFactory.isSupportedFormat("history.evcol"));
+  }
+
+  @Test
+  public void testOnlyIcalAndNdjsonMarkRemovals() {
+    assertTrue(ExporterFactory.createExporter("delta.ics").supportsRemovals());
+    assertTrue(ExporterFactory.createExporter("delta.ndjson").supportsRemovals());
+    assertTrue(ExporterFactory.createExporter("delta.ics.gz").supportsRemovals());
+    assertFalse(ExporterFactory.createExporter("delta.csv").supportsRemovals());
+    assertFalse(ExporterFactory.createExporter("delta.csv.gz").supportsRemovals());
+    assertFalse(ExporterFactory.createExporter("delta.evcol").supportsRemovals());
+  }
+}
@@ -0,0 +1,145 @@
+package controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import calendar.controller.utils.CsvExporter;
+import calendar.controller.utils.ExporterFactory;
+import calendar.controller.utils.GzipExporter;
+import calendar.controller.utils.IcalExporter;
+import calendar.controller.utils.ImportResult;
+import calendar.controller.utils.ImporterFactory;
+import calendar.model.Calendar;
+import calendar.model.CalendarImpl;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for GzipExporter and the gzip import path.
+ */
+public class GzipExporterTest {
+
+  private List<Path> filesToCleanup;
+  private Calendar testCalendar;
+
+  /**
+   * Sets up a calendar with a few events before each test.
+   */
+  @Before
+  public void setUp() throws Exception {
+    filesToCleanup = new ArrayList<>();
+    testCalendar = new CalendarImpl("TestCalendar", ZoneId.of("America/New_York"));
+    testCalendar.createAndAddEvent("Meeting", LocalDateTime.of(2025, 5, 5, 10, 0),
+        LocalDateTime.of(2025, 5, 5, 11, 0), false);
+    testCalendar.createEventSeries("Standup", LocalDate.of(2025, 5, 5),
+        LocalTime.of(9, 0), LocalTime.of(9, 15),
+        EnumSet.of(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY), 20);
+  }
+
+  /**
+   * Cleans up any files created during the tests.
+   */
+  @After
+  public void cleanup() {
+    for (Path path : filesToCleanup) {
+      try {
+        Files.deleteIfExists(path);
+      } catch (IOException e) {
+        // do nothing
+      }
+    }
+  }
+
+  private String readGzip(Path path) throws IOException {
+    try (InputStream in = new GZIPInputStream(Files.newInputStream(path))) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      in.transferTo(out);
+      return out.toString(StandardCharsets.UTF_8);
+    }
+  }
+
+  @Test
+  public void testCompressedCsvMatchesPlainCsv() throws IOException {
+    Path plain = Paths.get("test-gzip-plain.csv");
+    Path compressed = Paths.get("test-gzip.csv.gz");
+    filesToCleanup.add(plain);
+    filesToCleanup.add(compressed);
+
+    new CsvExporter().export(testCalendar.getOrderedEvents(), plain, testCalendar);
+    String result = new GzipExporter(new CsvExporter())
+        .export(testCalendar.getOrderedEvents(), compressed, testCalendar);
+
+    assertTrue(result.endsWith("test-gzip.csv.gz"));
+    assertEquals(Files.readString(plain), readGzip(compressed));
+    assertTrue(Files.size(compressed) < Files.size(plain));
+  }
+
+  @Test
+  public void testCustomLevelAndBufferSize() throws IOException {
+    Path compressed = Paths.get("test-gzip-level.csv.gz");
+    filesToCleanup.add(compressed);
+
+    new GzipExporter(new CsvExporter(), 9, 512)
+        .export(testCalendar.getOrderedEvents(), compressed, testCalendar);
+
+    assertTrue(readGzip(compressed).startsWith("Subject,Start Date"));
+  }
+
+  @Test
+  public void testFactoryPassesLevelThrough() throws IOException {
+    Path stored = Paths.get("test-gzip-stored.csv.gz");
+    Path smallest = Paths.get("test-gzip-smallest.csv.gz");
+    filesToCleanup.add(stored);
+    filesToCleanup.add(smallest);
+
+    ExporterFactory.createExporter(stored.toString(), 0, 512)
+        .export(testCalendar.getOrderedEvents(), stored, testCalendar);
+    ExporterFactory.createExporter(smallest.toString(), 9, 512)
+        .export(testCalendar.getOrderedEvents(), smallest, testCalendar);
+
+    assertEquals(readGzip(stored), readGzip(smallest));
+    assertTrue(Files.size(smallest) < Files.size(stored));
+  }
+
+  @Test
+  public void testCompressedIcalImportsBack() throws Exception {
+    Path compressed = Paths.get("test-gzip-roundtrip.ics.gz");
+    filesToCleanup.add(compressed);
+    new GzipExporter(new IcalExporter())
+        .export(testCalendar.getOrderedEvents(), compressed, testCalendar);
+
+    Calendar target = new CalendarImpl("Target", ZoneId.of("America/New_York"));
+    ImportResult result = ImporterFactory.createImporter(compressed.toString())
+        .importEvents(compressed, target);
+
+    assertEquals(2, result.getImportedCount());
+    assertEquals(21, target.getAllEvents().size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRejectsInvalidLevel() {
+    new GzipExporter(new CsvExporter(), 10, 512);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRejectsInvalidBufferSize() {
+    new GzipExporter(new CsvExporter(), 6, 0);
+  }
+}
@@ -0,0 +1,331 @@
+package controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import calendar.controller.HttpServerController;
+import calendar.controller.utils.DataDirectory;
+import calendar.model.CalendarManagerImpl;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for HttpServerController.
+ * Tests the JSON API, sessions, error statuses and load shedding over real connections.
+ */
+public class HttpServerControllerTest {
+
+  private HttpServerController server;
+  private HttpClient client;
+
+  /**
+   * Starts a server on a free port.
+   *
+   * @throws IOException if the server cannot start
+   */
+  @Before
+  public void setUp() throws IOException {
+    server = new HttpServerController(new CalendarManagerImpl(), new MockView(), 0, 64);
+    server.start();
+    client = HttpClient.newHttpClient();
+  }
+
+  /**
+   * Stops the server.
+   */
+  @After
+  public void tearDown() {
+    server.stop();
+  }
+
+  @Test
+  public void testSessionCreatesAndQueriesEvents() throws Exception {
+    assertEquals("{\"command\":\"CreateCalendarCommand\",\"type\":\"message\","
+        + "\"message\":\"Calendar created: Work\"}\n",
+        post("a", "/calendars", "{\"name\":\"Work\",\"timezone\":\"UTC\"}").body());
+    post("a", "/calendars/use", "{\"name\":\"Work\"}");
+    HttpResponse<String> created = post("a", "/events",
+        "{\"subject\":\"Stand up\",\"start\":\"2025-05-05T09:00\",\"end\":\"2025-05-05T09:15\","
+            + "\"repeats\":\"MTWRF\",\"times\":5}");
+    assertEquals(200, created.statusCode());
+    assertEquals("a", created.headers().firstValue("X-Session").orElse(null));
+    post("a", "/events/edit", "{\"subject\":\"Stand up\",\"start\":\"2025-05-06T09:00\","
+        + "\"property\":\"location\",\"value\":\"online\",\"scope\":\"events\"}");
+
+    HttpResponse<String> events = get("a", "/events?date=2025-05-06");
+    assertEquals(200, events.statusCode());
+    assertTrue(events.body().startsWith("{\"command\":\"PrintEventsCommand\","
+        + "\"type\":\"events\",\"date\":\"2025-05-06\",\"events\":[{\"subject\":\"Stand up\","
+        + "\"start\":\"2025-05-06T09:00\",\"end\":\"2025-05-06T09:15\",\"allDay\":false,"
+        + "\"description\":null,\"location\":\"ONLINE\""));
+    assertEquals("application/x-ndjson; charset=utf-8",
+        events.headers().firstValue("Content-Type").orElse(null));
+
+    assertTrue(get("a", "/status?at=2025-05-07T09:05").body().endsWith("\"busy\":true}\n"));
+    assertTrue(get("a", "/events?from=2025-05-05T00:00&to=2025-05-10T00:00").body()
+        .contains("\"start\":\"2025-05-09T09:00\""));
+  }
+
+  @Test
+  public void testSessionsHaveTheirOwnActiveCalendar() throws Exception {
+    post("a", "/calendars", "{\"name\":\"Work\",\"timezone\":\"UTC\"}");
+    post("a", "/calendars", "{\"name\":\"Home\",\"timezone\":\"UTC\"}");
+    post("a", "/calendars/use", "{\"name\":\"Work\"}");
+    post("b", "/calendars/use", "{\"name\":\"Home\"}");
+    post("a", "/events", "{\"subject\":\"Review\",\"date\":\"2025-05-05\"}");
+    post("b", "/events", "{\"subject\":\"Chores\",\"date\":\"2025-05-05\"}");
+
+    assertTrue(get("a", "/events?date=2025-05-05").body().contains("Review"));
+    assertTrue(!get("a", "/events?date=2025-05-05").body().contains("Chores"));
+    assertTrue(get("b", "/events?date=2025-05-05").body().contains("Chores"));
+
+    HttpResponse<String> unset = get("c", "/events?date=2025-05-05");
+    assertEquals(409, unset.statusCode());
+  }
+
+  @Test
+  public void testCopyUsesTheSessionCalendar() throws Exception {
+    post("a", "/calendars", "{\"name\":\"Work\",\"timezone\":\"UTC\"}");
+    post("a", "/calendars", "{\"name\":\"Home\",\"timezone\":\"UTC\"}");
+    post("a", "/calendars/use", "{\"name\":\"Work\"}");
+    post("b", "/calendars/use", "{\"name\":\"Home\"}");
+    post("a", "/events", "{\"subject\":\"Review\",\"date\":\"2025-05-05\"}");
+
+    HttpResponse<String> copied = post("a", "/events/copy",
+        "{\"on\":\"2025-05-05\",\"target\":\"Home\",\"to\":\"2025-06-02\"}");
+
+    assertEquals(200, copied.statusCode());
+    assertTrue(get("b", "/events?date=2025-06-02").body().contains("Review"));
+  }
+
+  @Test
+  public void testErrorsHaveStatusAndRecord() throws Exception {
+    HttpResponse<String> missing = post("a", "/calendars", "{\"name\":\"Work\"}");
+    assertEquals(400, missing.statusCode());
+    assertEquals("{\"type\":\"error\",\"message\":\"Invalid request: Missing field: timezone\"}\n",
+        missing.body());
+
+    assertEquals(400, post("a", "/calendars", "{\"name\":").statusCode());
+    assertEquals(404, post("a", "/nothing", "{}").statusCode());
+    assertEquals(404, get("a", "/calendars").statusCode());
+
+    post("a", "/calendars", "{\"name\":\"Work\",\"timezone\":\"UTC\"}");
+    HttpResponse<String> duplicate = post("a", "/calendars",
+        "{\"name\":\"Work\",\"timezone\":\"UTC\"}");
+    assertEquals(400, duplicate.statusCode());
+    assertTrue(duplicate.body().contains("\"error\":\"IllegalArgumentException\""));
+
+    post("a", "/calendars/use", "{\"name\":\"Work\"}");
+    post("a", "/events", "{\"subject\":\"Review\",\"date\":\"2025-05-05\"}");
+    HttpResponse<String> again = post("a", "/events",
+        "{\"subject\":\"Review\",\"date\":\"2025-05-05\"}");
+    assertEquals(409, again.statusCode());
+    assertTrue(again.body().contains("\"error\":\"DuplicateEventException\""));
+  }
+
+  @Test
+  public void testConcurrentSessionsOnSeparateCalendars() throws Exception {
+    int clients = 8;
+    int eventsEach = 25;
+    ExecutorService pool = Executors.newFixedThreadPool(clients);
+    try {
+      List<Future<Integer>> results = new ArrayList<>();
+      for (int c = 0; c < clients; c++) {
+        String session = "client" + c;
+        results.add(pool.submit(() -> {
+          post(session, "/calendars", "{\"name\":\"" + session + "\",\"timezone\":\"UTC\"}");
+          post(session, "/calendars/use", "{\"name\":\"" + session + "\"}");
+          int ok = 0;
+          for (int i = 0; i < eventsEach; i++) {
+            String hour = String.format("%02d", i % 24);
+            HttpResponse<String> response = post(session, "/events",
+                "{\"subject\":\"E" + i + "\",\"start\":\"2025-05-0" + (1 + i / 24) + "T" + hour
+                    + ":00\",\"end\":\"2025-05-0" + (1 + i / 24) + "T" + hour + ":30\"}");
+            if (response.statusCode() == 200) {
+              ok++;
+            }
+          }
+          return ok;
+        }));
+      }
+      for (Future<Integer> result : results) {
+        assertEquals(eventsEach, (int) result.get(30, TimeUnit.SECONDS));
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+    String body = get("client3", "/events?from=2025-05-01T00:00&to=2025-05-03T00:00").body();
+    assertEquals(eventsEach, body.split("\"subject\"").length - 1);
+  }
+
+  @Test
+  public void testRequestsBeyondLimitAreShed() throws Exception {
+    server.stop();
+    CountDownLatch entered = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    CalendarManagerImpl slowManager = new CalendarManagerImpl() {
+      @Override
+      public void createCalendar(String name, ZoneId timeZone) {
+        entered.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        super.createCalendar(name, timeZone);
+      }
+    };
+    server = new HttpServerController(slowManager, new MockView(), 0, 1);
+    server.start();
+
+    ExecutorService pool = Executors.newSingleThreadExecutor();
+    try {
+      Future<HttpResponse<String>> slow = pool.submit(
+          () -> post("a", "/calendars", "{\"name\":\"Work\",\"timezone\":\"UTC\"}"));
+      assertTrue(entered.await(10, TimeUnit.SECONDS));
+
+      HttpResponse<String> shed = get("b", "/events?date=2025-05-05");
+      assertEquals(503, shed.statusCode());
+      assertEquals("1", shed.headers().firstValue("Retry-After").orElse(null));
+
+      release.countDown();
+      assertEquals(200, slow.get(10, TimeUnit.SECONDS).statusCode());
+    } finally {
+      release.countDown();
+      pool.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testFloodBeyondDefaultLimitIsShed() throws Exception {
+    server.stop();
+    CountDownLatch release = new CountDownLatch(1);
+    CalendarManagerImpl slowManager = new CalendarManagerImpl() {
+      @Override
+      public void createCalendar(String name, ZoneId timeZone) {
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        super.createCalendar(name, timeZone);
+      }
+    };
+    int limit = HttpServerController.DEFAULT_MAX_PENDING;
+    int extra = 100;
+    server = new HttpServerController(slowManager, new MockView(), 0, limit);
+    server.start();
+
+    AtomicInteger shed = new AtomicInteger();
+    List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+    try {
+      for (int i = 0; i < limit + extra; i++) {
+        responses.add(client.sendAsync(HttpRequest.newBuilder(uri("/calendars"))
+                .header("X-Session", "s" + i)
+                .POST(HttpRequest.BodyPublishers.ofString(
+                    "{\"name\":\"C" + i + "\",\"timezone\":\"UTC\"}"))
+                .build(), HttpResponse.BodyHandlers.ofString())
+            .whenComplete((response, error) -> {
+              if (response != null && response.statusCode() == 503) {
+                shed.incrementAndGet();
+              }
+            }));
+      }
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+      while (shed.get() < extra && System.nanoTime() < deadline) {
+        Thread.sleep(20);
+      }
+      assertEquals(extra, shed.get());
+    } finally {
+      release.countDown();
+    }
+
+    int ok = 0;
+    for (CompletableFuture<HttpResponse<String>> response : responses) {
+      if (response.get(60, TimeUnit.SECONDS).statusCode() == 200) {
+        ok++;
+      }
+    }
+    assertEquals(limit, ok);
+  }
+
+  @Test
+  public void testListensOnLoopbackByDefault() {
+    assertTrue(server.getAddress().isLoopbackAddress());
+  }
+
+  @Test
+  public void testExportIsConfinedToDataDirectory() throws Exception {
+    server.stop();
+    Path directory = Files.createTempDirectory("http-export");
+    try {
+      server = new HttpServerController(new CalendarManagerImpl(), new MockView(),
+          InetAddress.getLoopbackAddress(), 0, 64, new DataDirectory(directory));
+      server.start();
+      post("a", "/calendars", "{\"name\":\"Work\",\"timezone\":\"UTC\"}");
+      post("a", "/calendars/use", "{\"name\":\"Work\"}");
+      post("a", "/events", "{\"subject\":\"Review\",\"date\":\"2025-05-05\"}");
+
+      assertEquals(200, post("a", "/export", "{\"file\":\"work.csv\"}").statusCode());
+      assertTrue(Files.exists(directory.resolve("work.csv")));
+      HttpResponse<String> escaped = post("a", "/export", "{\"file\":\"../work.csv\"}");
+      assertEquals(400, escaped.statusCode());
+      assertTrue(escaped.body(), escaped.body().contains("inside the data directory"));
+      assertEquals(400, post("a", "/export", "{\"file\":\""
+          + directory.resolve("abs.csv").toString().replace("\\", "\\\\") + "\"}")
+          .statusCode());
+      assertFalse(Files.exists(directory.resolve("abs.csv")));
+    } finally {
+      try (Stream<Path> files = Files.list(directory)) {
+        for (Path file : (Iterable<Path>) files::iterator) {
+          Files.delete(file);
+        }
+      }
+      Files.delete(directory);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRejectsInvalidPort() {
+    new HttpServerController(new CalendarManagerImpl(), new MockView(), 70000, 1);
+  }
+
+  private HttpResponse<String> post(String session, String path, String json)
+      throws IOException, InterruptedException {
+    return client.send(HttpRequest.newBuilder(uri(path))
+        .header("X-Session", session)
+        .POST(HttpRequest.BodyPublishers.ofString(json))
+        .build(), HttpResponse.BodyHandlers.ofString());
+  }
+
+  private HttpResponse<String> get(String session, String path)
+      throws IOException, InterruptedException {
+    return client.send(HttpRequest.newBuilder(uri(path)).header("X-Session", session).GET()
+        .build(), HttpResponse.BodyHandlers.ofString());
+  }
+
+  private URI uri(String path) {
+    return URI.create("http://localhost:" + server.getPort() + path);
+  }
+}
@@ -1,22 +1,39 @@
 package controller;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import calendar.controller.utils.IcalExporter;
+import calendar.controller.utils.IcalImporter;
 import calendar.model.Calendar;
 import calendar.model.CalendarImpl;
 import calendar.model.EditSettings;
 import calendar.model.Event;
 import calendar.model.EventStatus;
 import calendar.model.LocationType;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -464,4 +481,275 @@ public class IcalExporterTest {
     String content = Files.readString(filePath);
     assertTrue(content.contains("SUMMARY:Test\\\\\\,\\;\\nEvent"));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testUtcTimesMatchZonedConversionAroundDaylightSaving() throws Exception {
+    LocalDateTime[] starts = {
+        LocalDateTime.of(2025, 3, 9, 2, 30),
+        LocalDateTime.of(2025, 11, 2, 1, 30),
+        LocalDateTime.of(2024, 12, 31, 22, 15),
+        LocalDateTime.of(2024, 2, 28, 23, 59)
+    };
+    for (LocalDateTime start : starts) {
+      testCalendar.createAndAddEvent("Edge " + start, start, start.plusMinutes(20), false);
+    }
+
+    Path filePath = Paths.get("test-dst.ical");
+    filesToCleanup.add(filePath);
+    exporter.export(testCalendar.getOrderedEvents(), filePath, testCalendar);
+
+    String content = Files.readString(filePath);
+    DateTimeFormatter expectedFormat = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+    for (Event event : testCalendar.getOrderedEvents()) {
+      String expected = event.getStartDateTime().atZone(testCalendar.getTimeZone())
+          .withZoneSameInstant(ZoneOffset.UTC).format(expectedFormat);
+      assertTrue("Missing DTSTART for " + event.getSubject(),
+          content.contains("DTSTART:" + expected + "\n"));
+    }
+  }
+
+  @Test
+  public void testDtstampIsSharedByAllEvents() throws Exception {
+    for (int i = 0; i < 3; i++) {
+      testCalendar.createAndAddEvent("Event " + i, LocalDateTime.of(2025, 5, 5 + i, 9, 0),
+          LocalDateTime.of(2025, 5, 5 + i, 10, 0), false);
+    }
+
+    Path filePath = Paths.get("test-dtstamp.ical");
+    filesToCleanup.add(filePath);
+    exporter.export(testCalendar.getOrderedEvents(), filePath, testCalendar);
+
+    long distinctStamps = Files.readAllLines(filePath).stream()
+        .filter(line -> line.startsWith("DTSTAMP:")).distinct().count();
+    assertEquals(1, distinctStamps);
+  }
+
+  @Test
+  public void testUniformSeriesBecomesOneRecurringEvent() throws Exception {
+    testCalendar.createEventSeriesTill("Standup", LocalDate.of(2025, 1, 6), LocalTime.of(9, 0),
+        LocalTime.of(9, 15), EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY),
+        LocalDate.of(2029, 12, 31));
+    int occurrences = testCalendar.getAllEvents().size();
+
+    Path filePath = Paths.get("test-rrule.ical");
+    filesToCleanup.add(filePath);
+    exporter.export(testCalendar.getOrderedEvents(), filePath, testCalendar);
+
+    String content = Files.readString(filePath);
+    assertEquals(1, content.split("BEGIN:VEVENT").length - 1);
+    assertTrue(content.contains("BEGIN:VTIMEZONE\nTZID:America/New_York\n"));
+    assertTrue(content.contains("RRULE:FREQ=YEARLY;BYMONTH=3;BYDAY=2SU"));
+    assertTrue(content.contains("DTSTART;TZID=America/New_York:20250106T090000\n"));
+    assertTrue(content.contains("RRULE:FREQ=WEEKLY;BYDAY=MO,TU,WE,TH,FR;COUNT="
+        + occurrences + "\n"));
+  }
+
+  @Test
+  public void testEditedOccurrencesBecomeOverridesAndExdates() throws Exception {
+    testCalendar.createEventSeries("Review", LocalDate.of(2025, 5, 5), LocalTime.of(14, 0),
+        LocalTime.of(15, 0), EnumSet.of(DayOfWeek.MONDAY), 4);
+    testCalendar.editEvent("Review", LocalDateTime.of(2025, 5, 12, 14, 0), "description",
+        "Quarterly", EditSettings.SINGLE);
+    testCalendar.editEvent("Review", LocalDateTime.of(2025, 5, 19, 14, 0), "start",
+        LocalDateTime.of(2025, 5, 19, 14, 30), EditSettings.SINGLE);
+
+    Path filePath = Paths.get("test-override.ical");
+    filesToCleanup.add(filePath);
+    exporter.export(testCalendar.getOrderedEvents(), filePath, testCalendar);
+
+    String content = Files.readString(filePath);
+    assertTrue(content.contains("EXDATE;TZID=America/New_York:20250519T140000\n"));
+    assertTrue(content.contains("RECURRENCE-ID;TZID=America/New_York:20250512T140000\n"));
+    assertTrue(content.contains("DESCRIPTION:Quarterly\n"));
+    assertTrue(content.contains("COUNT=4\n"));
+    assertEquals(3, content.split("BEGIN:VEVENT").length - 1);
+  }
+
+  @Test
+  public void testFixedOffsetZoneHasSingleObservance() throws Exception {
+    Calendar utcCalendar = new CalendarImpl("Utc", ZoneId.of("UTC"));
+    utcCalendar.createAllDayEventSeries("Gym", LocalDate.of(2025, 5, 5),
+        EnumSet.of(DayOfWeek.MONDAY, DayOfWeek.THURSDAY), 6);
+
+    Path filePath = Paths.get("test-fixed-zone.ical");
+    filesToCleanup.add(filePath);
+    exporter.export(utcCalendar.getOrderedEvents(), filePath, utcCalendar);
+
+    String content = Files.readString(filePath);
+    assertTrue(content.contains("BEGIN:STANDARD\nDTSTART:19700101T000000\n"
+        + "TZOFFSETFROM:+0000\nTZOFFSETTO:+0000\nEND:STANDARD\n"));
+    assertTrue(content.contains("RRULE:FREQ=WEEKLY;BYDAY=MO,TH;COUNT=6\n"));
+    assertTrue(content.contains("X-MICROSOFT-CDO-ALLDAYEVENT:TRUE"));
+  }
+
+  @Test
+  public void testSingleOccurrenceSeriesStaysExplicit() throws Exception {
+    testCalendar.createEventSeries("Once", LocalDate.of(2025, 5, 5), LocalTime.of(9, 0),
+        LocalTime.of(10, 0), EnumSet.of(DayOfWeek.MONDAY), 1);
+
+    Path filePath = Paths.get("test-single-series.ical");
+    filesToCleanup.add(filePath);
+    exporter.export(testCalendar.getOrderedEvents(), filePath, testCalendar);
+
+    String content = Files.readString(filePath);
+    assertFalse(content.contains("RRULE"));
+    assertFalse(content.contains("VTIMEZONE"));
+    assertTrue(content.contains("DTSTART:20250505T130000Z"));
+  }
+
+  @Test
+  public void testExportChangesCancelsRemovedSeriesOccurrence() throws Exception {
+    testCalendar.createEventSeries("Standup", LocalDate.of(2025, 5, 5), LocalTime.of(9, 0),
+        LocalTime.of(9, 15), EnumSet.of(DayOfWeek.MONDAY), 3);
+    String token = testCalendar.getChangeToken();
+    testCalendar.editEvent("Standup", LocalDateTime.of(2025, 5, 12, 9, 0), "location",
+        LocationType.ONLINE, EditSettings.SINGLE);
+    testCalendar.editEvent("Standup", LocalDateTime.of(2025, 5, 19, 9, 0), "start",
+        LocalDateTime.of(2025, 5, 19, 9, 5), EditSettings.SINGLE);
+    calendar.model.ChangeSet changes = testCalendar.getChangesSince(token);
+
+    Path filePath = Paths.get("test-changes.ics");
+    filesToCleanup.add(filePath);
+    exporter.exportChanges(changes.getChangedEvents(), changes.getRemovedEvents(), filePath,
+        testCalendar);
+    String content = Files.readString(filePath);
+
+    assertFalse(content.contains("RRULE"));
+    assertEquals(3, content.split("BEGIN:VEVENT", -1).length - 1);
+    assertEquals(1, content.split("STATUS:CANCELLED", -1).length - 1);
+    assertTrue(content.contains("RECURRENCE-ID:20250512T130000Z"));
+    assertTrue(content.contains("LOCATION:Online"));
+    int cancelled = content.indexOf("STATUS:CANCELLED");
+    int cancelledEvent = content.lastIndexOf("BEGIN:VEVENT", cancelled);
+    assertTrue(content.substring(cancelledEvent, cancelled)
+        .contains("RECURRENCE-ID:20250519T130000Z"));
+  }
+
+  private void addParallelExportEvents() throws Exception {
+    for (int i = 0; i < 40; i++) {
+      LocalDateTime start = LocalDateTime.of(2025, 3, 1, 8, 0).plusHours(7L * i);
+      String subject = "\u00c9v\u00e9nement " + i + (i % 3 == 0 ? ", \"quoted\"" : "");
+      String description = i % 2 == 0 ? "\u65e5\u672c\u8a9e\nline" : null;
+      testCalendar.createAndAddEvent(subject, start, start.plusMinutes(45), i % 7 == 0,
+          description,
+          i % 4 == 0 ? LocationType.ONLINE : LocationType.NONE,
+          i % 5 == 0 ? EventStatus.PRIVATE : EventStatus.PUBLIC);
+    }
+    testCalendar.createEventSeries("Once", LocalDate.of(2025, 3, 3), LocalTime.of(7, 0),
+        LocalTime.of(7, 30), EnumSet.of(DayOfWeek.MONDAY), 1);
+    testCalendar.createEventSeries("Standup", LocalDate.of(2025, 3, 3), LocalTime.of(9, 0),
+        LocalTime.of(9, 15), EnumSet.of(DayOfWeek.MONDAY, DayOfWeek.THURSDAY), 12);
+    testCalendar.createEventSeries("Retro", LocalDate.of(2025, 3, 7), LocalTime.of(16, 0),
+        LocalTime.of(17, 0), EnumSet.of(DayOfWeek.FRIDAY), 6);
+    testCalendar.editEvent("Retro", LocalDateTime.of(2025, 3, 21, 16, 0), "description",
+        "Moved room", EditSettings.SINGLE);
+  }
+
+  private String serialWrite() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (Writer writer = new OutputStreamWriter(bytes, StandardCharsets.UTF_8)) {
+      exporter.write(testCalendar.getOrderedEvents(), writer, testCalendar);
+    }
+    return bytes.toString(StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void testParallelExportMatchesSerialWrite() throws Exception {
+    addParallelExportEvents();
+    exporter = new IcalExporter(new ForkJoinPool(4), 3);
+    Path filePath = Paths.get("test-parallel.ics");
+    filesToCleanup.add(filePath);
+
+    exporter.export(testCalendar.getOrderedEvents(), filePath, testCalendar);
+
+    String parallel = Files.readString(filePath, StandardCharsets.UTF_8);
+    assertEquals(serialWrite().replaceAll("DTSTAMP:\\d{8}T\\d{6}Z", "DTSTAMP"),
+        parallel.replaceAll("DTSTAMP:\\d{8}T\\d{6}Z", "DTSTAMP"));
+  }
+
+  @Test
+  public void testParallelExportWritesTimeZoneOnce() throws Exception {
+    addParallelExportEvents();
+    exporter = new IcalExporter(new ForkJoinPool(2), 1);
+    Path filePath = Paths.get("test-parallel-zone.ics");
+    filesToCleanup.add(filePath);
+
+    exporter.export(testCalendar.getOrderedEvents(), filePath, testCalendar);
+
+    String content = Files.readString(filePath, StandardCharsets.UTF_8);
+    assertEquals(1, content.split("BEGIN:VTIMEZONE", -1).length - 1);
+    assertTrue(content.indexOf("BEGIN:VTIMEZONE") < content.indexOf("RRULE:"));
+    assertTrue(content.indexOf("BEGIN:VTIMEZONE") > content.indexOf("SUMMARY:Once"));
+  }
+
+  @Test
+  public void testSeriesAreWrittenSoonAfterTheyEnd() throws Exception {
+    Calendar busy = new CalendarImpl("Busy", ZoneId.of("UTC"));
+    LocalDate first = LocalDate.of(2025, 1, 6);
+    for (int day = 0; day < 1000; day++) {
+      LocalDateTime start = first.plusDays(day).atTime(12, 0);
+      busy.createAndAddEvent("Lunch " + day, start, start.plusMinutes(30), false);
+    }
+    for (int i = 0; i < 300; i++) {
+      busy.createEventSeries("Series " + i, first.plusDays(3L * i), LocalTime.of(9, 0),
+          LocalTime.of(9, 30), EnumSet.of(DayOfWeek.MONDAY, DayOfWeek.THURSDAY), 10);
+    }
+    Map<String, LocalDate> lastDates = new HashMap<>();
+    for (Event event : busy.getOrderedEvents()) {
+      event.getSeriesId().ifPresent(id -> lastDates.put(id, event.getStartDateTime()
+          .toLocalDate()));
+    }
+
+    Path filePath = Paths.get("test-streamed-series.ics");
+    filesToCleanup.add(filePath);
+    new IcalExporter(ForkJoinPool.commonPool(), 64)
+        .export(busy.getOrderedEvents(), filePath, busy);
+
+    String[] vevents = Files.readString(filePath).split("BEGIN:VEVENT");
+    Pattern uid = Pattern.compile("UID:(\\S+)@calendar-app");
+    Pattern start = Pattern.compile("\nDTSTART[^:]*:(\\d{8})");
+    LocalDate latestSingle = LocalDate.MIN;
+    int masters = 0;
+    for (int i = 1; i < vevents.length; i++) {
+      Matcher id = uid.matcher(vevents[i]);
+      Matcher date = start.matcher(vevents[i]);
+      assertTrue(id.find());
+      assertTrue(date.find());
+      LocalDate startDate = LocalDate.parse(date.group(1), DateTimeFormatter.BASIC_ISO_DATE);
+      if (lastDates.containsKey(id.group(1))) {
+        masters++;
+        assertFalse(latestSingle.isAfter(lastDates.get(id.group(1)).plusDays(36)));
+      } else {
+        assertFalse(startDate.isBefore(latestSingle));
+        latestSingle = startDate;
+      }
+    }
+    assertEquals(300, masters);
+    assertEquals(1300, vevents.length - 1);
+  }
+
+  @Test
+  public void testSeriesBeyondHeldLimitFallBackToPlainEvents() throws Exception {
+    testCalendar.createEventSeries("Daily", LocalDate.of(2025, 1, 1), LocalTime.of(9, 0),
+        LocalTime.of(9, 30), EnumSet.allOf(DayOfWeek.class), 200);
+    exporter = new IcalExporter(ForkJoinPool.commonPool(), 16, 50);
+    Path filePath = Paths.get("test-held-limit.ics");
+    filesToCleanup.add(filePath);
+
+    exporter.export(testCalendar.getOrderedEvents(), filePath, testCalendar);
+    String content = Files.readString(filePath);
+    Calendar imported = new CalendarImpl("Imported", ZoneId.of("America/New_York"));
+    new IcalImporter().importEvents(filePath, imported);
+
+    assertTrue(content.contains("RRULE:FREQ=DAILY;COUNT=51\n"));
+    assertEquals(150, content.split("BEGIN:VEVENT", -1).length - 1);
+    assertEquals(200, imported.getAllEvents().size());
+    assertEquals(serialWrite().replaceAll("DTSTAMP:\\d{8}T\\d{6}Z", "DTSTAMP"),
+        content.replaceAll("DTSTAMP:\\d{8}T\\d{6}Z", "DTSTAMP"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRejectsNonPositiveHeldLimit() {
+    new IcalExporter(ForkJoinPool.commonPool(), 16, 0);
+  }
+}
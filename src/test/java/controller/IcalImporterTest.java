@@ -0,0 +1,397 @@
+package controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import calendar.controller.utils.IcalExporter;
+import calendar.controller.utils.IcalImporter;
+import calendar.controller.utils.ImportResult;
+import calendar.controller.utils.ImporterFactory;
+import calendar.model.Calendar;
+import calendar.model.CalendarImpl;
+import calendar.model.EditSettings;
+import calendar.model.Event;
+import calendar.model.EventStatus;
+import calendar.model.LocationType;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for IcalImporter.
+ */
+public class IcalImporterTest {
+
+  private IcalImporter importer;
+  private List<Path> filesToCleanup;
+  private Calendar calendar;
+
+  /**
+   * Sets up the test environment before each test case.
+   */
+  @Before
+  public void setUp() {
+    importer = new IcalImporter();
+    filesToCleanup = new ArrayList<>();
+    calendar = new CalendarImpl("Imported", ZoneId.of("America/New_York"));
+  }
+
+  /**
+   * Cleans up any files created during the tests.
+   */
+  @After
+  public void cleanup() {
+    for (Path path : filesToCleanup) {
+      try {
+        Files.deleteIfExists(path);
+      } catch (IOException e) {
+        // Ignore cleanup errors
+      }
+    }
+  }
+
+  private Path writeFile(String name, String... lines) throws IOException {
+    Path path = Paths.get(name);
+    filesToCleanup.add(path);
+    Files.write(path, String.join("\r\n", lines).getBytes("UTF-8"));
+    return path;
+  }
+
+  @Test
+  public void testImportUtcEventConvertsToCalendarZone() throws IOException {
+    Path path = writeFile("test-import-utc.ics",
+        "BEGIN:VCALENDAR",
+        "BEGIN:VEVENT",
+        "SUMMARY:Standup",
+        "DTSTART:20250505T130000Z",
+        "DTEND:20250505T133000Z",
+        "END:VEVENT",
+        "END:VCALENDAR");
+
+    ImportResult result = importer.importEvents(path, calendar);
+
+    assertEquals(1, result.getImportedCount());
+    assertEquals(0, result.getSkippedCount());
+    Event event = calendar.getAllEvents().get(0);
+    assertEquals(LocalDateTime.of(2025, 5, 5, 9, 0), event.getStartDateTime());
+    assertEquals(LocalDateTime.of(2025, 5, 5, 9, 30), event.getEndDateTime());
+  }
+
+  @Test
+  public void testImportTzidEventConvertsToCalendarZone() throws IOException {
+    Path path = writeFile("test-import-tzid.ics",
+        "BEGIN:VEVENT",
+        "SUMMARY:Call",
+        "DTSTART;TZID=Europe/Paris:20250505T150000",
+        "DTEND;TZID=Europe/Paris:20250505T160000",
+        "END:VEVENT");
+
+    importer.importEvents(path, calendar);
+
+    Event event = calendar.getAllEvents().get(0);
+    assertEquals(LocalDateTime.of(2025, 5, 5, 9, 0), event.getStartDateTime());
+  }
+
+  @Test
+  public void testImportUnfoldsAndUnescapesText() throws IOException {
+    Path path = writeFile("test-import-fold.ics",
+        "BEGIN:VEVENT",
+        "SUMMARY:Planning\\, review\\; and",
+        "  wrap-up",
+        "DESCRIPTION:Line one\\nLine two with \\\\ backslash",
+        "DTSTART:20250505T130000Z",
+        "DTEND:20250505T140000Z",
+        "END:VEVENT");
+
+    importer.importEvents(path, calendar);
+
+    Event event = calendar.getAllEvents().get(0);
+    assertEquals("Planning, review; and wrap-up", event.getSubject());
+    assertEquals("Line one\nLine two with \\ backslash", event.getDescription().get());
+  }
+
+  @Test
+  public void testImportReadsOptionalProperties() throws IOException {
+    Path path = writeFile("test-import-props.ics",
+        "BEGIN:VEVENT",
+        "SUMMARY:Offsite",
+        "DTSTART:20250505T130000Z",
+        "DTEND:20250505T140000Z",
+        "LOCATION:Building 4",
+        "CLASS:PRIVATE",
+        "BEGIN:VALARM",
+        "DESCRIPTION:Reminder",
+        "END:VALARM",
+        "END:VEVENT");
+
+    importer.importEvents(path, calendar);
+
+    Event event = calendar.getAllEvents().get(0);
+    assertEquals(LocationType.PHYSICAL, event.getLocation());
+    assertEquals(EventStatus.PRIVATE, event.getStatus());
+    assertFalse(event.getDescription().isPresent());
+  }
+
+  @Test
+  public void testImportDateValueIsAllDay() throws IOException {
+    Path path = writeFile("test-import-date.ics",
+        "BEGIN:VEVENT",
+        "SUMMARY:Holiday",
+        "DTSTART;VALUE=DATE:20251225",
+        "END:VEVENT");
+
+    importer.importEvents(path, calendar);
+
+    Event event = calendar.getAllEvents().get(0);
+    assertTrue(event.isAllDayEvent());
+    assertEquals(LocalDate.of(2025, 12, 25), event.getStartDateTime().toLocalDate());
+  }
+
+  @Test
+  public void testImportWeeklyRuleCreatesSeries() throws IOException {
+    Path path = writeFile("test-import-rrule.ics",
+        "BEGIN:VEVENT",
+        "SUMMARY:Standup",
+        "DTSTART:20250505T130000Z",
+        "DTEND:20250505T133000Z",
+        "RRULE:FREQ=WEEKLY;BYDAY=MO,WE,FR;COUNT=6",
+        "LOCATION:Online",
+        "END:VEVENT");
+
+    ImportResult result = importer.importEvents(path, calendar);
+
+    assertEquals(1, result.getImportedCount());
+    List<Event> events = calendar.getAllEvents();
+    assertEquals(6, events.size());
+    String seriesId = events.get(0).getSeriesId().get();
+    for (Event event : events) {
+      assertEquals(seriesId, event.getSeriesId().get());
+      assertEquals(LocationType.ONLINE, event.getLocation());
+      assertEquals(LocalTime.of(9, 0), event.getStartDateTime().toLocalTime());
+    }
+  }
+
+  @Test
+  public void testImportDailyRuleWithUntil() throws IOException {
+    Path path = writeFile("test-import-until.ics",
+        "BEGIN:VEVENT",
+        "SUMMARY:Run",
+        "DTSTART;VALUE=DATE:20250505",
+        "RRULE:FREQ=DAILY;UNTIL=20250511",
+        "END:VEVENT");
+
+    importer.importEvents(path, calendar);
+
+    List<Event> events = calendar.getAllEvents();
+    assertEquals(7, events.size());
+    assertTrue(events.get(0).isInSeries());
+  }
+
+  @Test
+  public void testImportUnsupportedRuleKeepsFirstOccurrence() throws IOException {
+    Path path = writeFile("test-import-monthly.ics",
+        "BEGIN:VEVENT",
+        "SUMMARY:Review",
+        "DTSTART:20250505T130000Z",
+        "DTEND:20250505T140000Z",
+        "RRULE:FREQ=MONTHLY;BYMONTHDAY=5;COUNT=12",
+        "END:VEVENT");
+
+    ImportResult result = importer.importEvents(path, calendar);
+
+    assertEquals(1, result.getImportedCount());
+    assertEquals(1, calendar.getAllEvents().size());
+    assertFalse(calendar.getAllEvents().get(0).isInSeries());
+  }
+
+  @Test
+  public void testImportSkipsDuplicatesAndMalformedEvents() throws IOException {
+    Path path = writeFile("test-import-skip.ics",
+        "BEGIN:VEVENT",
+        "SUMMARY:Standup",
+        "DTSTART:20250505T130000Z",
+        "DTEND:20250505T133000Z",
+        "END:VEVENT",
+        "BEGIN:VEVENT",
+        "SUMMARY:Standup",
+        "DTSTART:20250505T130000Z",
+        "DTEND:20250505T133000Z",
+        "END:VEVENT",
+        "BEGIN:VEVENT",
+        "SUMMARY:Broken",
+        "DTSTART:not-a-date",
+        "END:VEVENT");
+
+    ImportResult result = importer.importEvents(path, calendar);
+
+    assertEquals(1, result.getImportedCount());
+    assertEquals(2, result.getSkippedCount());
+    assertEquals(1, calendar.getAllEvents().size());
+  }
+
+  @Test
+  public void testRoundTripWithExporter() throws Exception {
+    Calendar source = new CalendarImpl("Source", ZoneId.of("America/New_York"));
+    source.createAndAddEvent("Design, review", LocalDateTime.of(2025, 5, 5, 10, 0),
+        LocalDateTime.of(2025, 5, 5, 11, 0), false);
+    source.editEvent("Design, review", LocalDateTime.of(2025, 5, 5, 10, 0), "description",
+        "Bring notes; slides", EditSettings.SINGLE);
+    source.createAllDayEventSeries("Gym", LocalDate.of(2025, 5, 5),
+        EnumSet.of(DayOfWeek.MONDAY), 2);
+
+    Path path = Paths.get("test-import-roundtrip.ics");
+    filesToCleanup.add(path);
+    new IcalExporter().export(source.getAllEvents(), path, source);
+
+    ImportResult result = importer.importEvents(path, calendar);
+
+    assertEquals(2, result.getImportedCount());
+    assertEquals(3, calendar.getAllEvents().size());
+    Event event = calendar.findEvent("Design, review", LocalDateTime.of(2025, 5, 5, 10, 0));
+    assertEquals("Bring notes; slides", event.getDescription().get());
+    assertTrue(calendar.findEvent("Gym", LocalDateTime.of(2025, 5, 12, 8, 0)).isAllDayEvent());
+  }
+
+  @Test
+  public void testFactoryCreatesIcalImporter() {
+    assertTrue(ImporterFactory.createImporter("feed.ics") instanceof IcalImporter);
+    assertTrue(ImporterFactory.createImporter("FEED.ICAL") instanceof IcalImporter);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testFactoryRejectsUnsupportedFormat() {
+    ImporterFactory.createImporter("feed.csv");
+  }
+
+  @Test
+  public void testCompressedSeriesRoundTripsEveryOccurrence() throws Exception {
+    Calendar source = new CalendarImpl("Source", ZoneId.of("America/New_York"));
+    source.createEventSeries("Review", LocalDate.of(2025, 3, 3), LocalTime.of(14, 0),
+        LocalTime.of(15, 0), EnumSet.of(DayOfWeek.MONDAY, DayOfWeek.THURSDAY), 12);
+    source.editEvent("Review", LocalDateTime.of(2025, 3, 13, 14, 0), "location",
+        LocationType.ONLINE, EditSettings.SINGLE);
+    source.editEvent("Review", LocalDateTime.of(2025, 3, 17, 14, 0), "subject",
+        "Budget review", EditSettings.SINGLE);
+    source.editEvent("Review", LocalDateTime.of(2025, 3, 24, 14, 0), "end",
+        LocalDateTime.of(2025, 3, 24, 16, 0), EditSettings.SINGLE);
+
+    Path path = Paths.get("test-import-compressed.ics");
+    filesToCleanup.add(path);
+    new IcalExporter().export(source.getOrderedEvents(), path, source);
+
+    importer.importEvents(path, calendar);
+
+    assertEquals(describe(source), describe(calendar));
+  }
+
+  @Test
+  public void testExdateSplitsSeries() throws IOException {
+    Path path = writeFile("test-import-exdate.ics",
+        "BEGIN:VEVENT",
+        "UID:abc",
+        "SUMMARY:Standup",
+        "DTSTART;TZID=America/New_York:20250505T090000",
+        "DTEND;TZID=America/New_York:20250505T093000",
+        "RRULE:FREQ=DAILY;COUNT=5",
+        "EXDATE;TZID=America/New_York:20250507T090000",
+        "END:VEVENT");
+
+    importer.importEvents(path, calendar);
+
+    List<Event> events = calendar.getAllEvents();
+    assertEquals(4, events.size());
+    assertTrue(calendar.getEventOnDate(LocalDate.of(2025, 5, 7)).isEmpty());
+    assertTrue(events.get(0).isInSeries());
+  }
+
+  @Test
+  public void testUnknownTzidIsReported() throws IOException {
+    Path path = writeFile("test-import-unknown-zone.ics",
+        "BEGIN:VEVENT",
+        "SUMMARY:Call",
+        "DTSTART;TZID=Eastern Standard Time:20250505T090000",
+        "DTEND;TZID=Eastern Standard Time:20250505T100000",
+        "END:VEVENT",
+        "BEGIN:VEVENT",
+        "SUMMARY:Review",
+        "DTSTART;TZID=Europe/Paris:20250506T150000",
+        "DTEND;TZID=Europe/Paris:20250506T160000",
+        "END:VEVENT");
+
+    ImportResult result = importer.importEvents(path, calendar);
+
+    assertEquals(2, result.getImportedCount());
+    assertEquals(Set.of("Eastern Standard Time"), result.getUnknownTimeZones());
+    assertEquals(LocalDateTime.of(2025, 5, 5, 9, 0),
+        calendar.getOrderedEvents().iterator().next().getStartDateTime());
+  }
+
+  @Test
+  public void testSeriesWithDuplicateOccurrenceAddsNothing() throws Exception {
+    calendar.createAndAddEvent("Standup", LocalDateTime.of(2025, 5, 9, 9, 0),
+        LocalDateTime.of(2025, 5, 9, 9, 30), false);
+    Path path = writeFile("test-import-partial.ics",
+        "BEGIN:VEVENT",
+        "UID:abc",
+        "SUMMARY:Standup",
+        "DTSTART;TZID=America/New_York:20250505T090000",
+        "DTEND;TZID=America/New_York:20250505T093000",
+        "RRULE:FREQ=DAILY;COUNT=7",
+        "EXDATE;TZID=America/New_York:20250507T090000",
+        "END:VEVENT");
+
+    ImportResult result = importer.importEvents(path, calendar);
+
+    assertEquals(0, result.getImportedCount());
+    assertEquals(1, result.getSkippedCount());
+    assertEquals(1, calendar.getAllEvents().size());
+  }
+
+  @Test
+  public void testOverridesApplyAfterManySeries() throws Exception {
+    List<String> lines = new ArrayList<>();
+    int seriesCount = 3000;
+    for (int i = 0; i < seriesCount; i++) {
+      lines.addAll(List.of("BEGIN:VEVENT", "UID:s" + i, "SUMMARY:S" + i,
+          "DTSTART:20250505T090000", "DTEND:20250505T093000", "RRULE:FREQ=DAILY;COUNT=3",
+          "END:VEVENT"));
+      lines.addAll(List.of("BEGIN:VEVENT", "UID:s" + i, "SUMMARY:S" + i,
+          "RECURRENCE-ID:20250506T090000", "DTSTART:20250506T090000",
+          "DTEND:20250506T093000", "DESCRIPTION:Moved", "END:VEVENT"));
+    }
+    Path path = writeFile("test-import-many-series.ics", lines.toArray(new String[0]));
+
+    ImportResult result = importer.importEvents(path, calendar);
+
+    assertEquals(seriesCount, result.getImportedCount());
+    assertEquals(3 * seriesCount, calendar.getAllEvents().size());
+    for (int i = 0; i < seriesCount; i += seriesCount / 10) {
+      assertEquals("Moved", calendar.findEvent("S" + i, LocalDateTime.of(2025, 5, 6, 9, 0))
+          .getDescription().orElse(null));
+    }
+  }
+
+  private List<String> describe(Calendar source) {
+    List<String> lines = new ArrayList<>();
+    for (Event event : source.getOrderedEvents()) {
+      lines.add(event.getSubject() + "|" + event.getStartDateTime() + "|"
+          + event.getEndDateTime() + "|" + event.getDescription().orElse("") + "|"
+          + event.getLocation() + "|" + event.getStatus() + "|" + event.isAllDayEvent());
+    }
+    return lines;
+  }
+}
@@ -0,0 +1,150 @@
+package controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import calendar.controller.CalendarController;
+import calendar.controller.commands.CommitBatchCommand;
+import calendar.controller.utils.CommandLines;
+import calendar.controller.utils.CommandParserImpl;
+import calendar.controller.utils.LineSource;
+import calendar.controller.utils.MappedLineSource;
+import calendar.controller.utils.ReaderLineSource;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for ReaderLineSource and MappedLineSource.
+ */
+public class LineSourceTest {
+
+  private Path file;
+
+  /**
+   * Creates the file the mapped sources read.
+   *
+   * @throws IOException if the file cannot be created
+   */
+  @Before
+  public void setUp() throws IOException {
+    file = Files.createTempFile("line-source-test", ".txt");
+  }
+
+  /**
+   * Deletes the file.
+   *
+   * @throws IOException if the file cannot be deleted
+   */
+  @After
+  public void cleanup() throws IOException {
+    Files.deleteIfExists(file);
+  }
+
+  private List<String> readAll(LineSource source) throws IOException {
+    List<String> lines = new ArrayList<>();
+    CharSequence line;
+    while ((line = source.nextLine()) != null) {
+      lines.add(line.toString());
+    }
+    return lines;
+  }
+
+  private List<String> readMapped(String text, int windowSize) throws IOException {
+    Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+    try (MappedLineSource source = new MappedLineSource(file, windowSize)) {
+      return readAll(source);
+    }
+  }
+
+  @Test
+  public void testReaderSourceSplitsLines() throws IOException {
+    ReaderLineSource source = new ReaderLineSource(new StringReader("a\r\nb\n\nc"));
+    assertEquals(List.of("a", "b", "", "c"), readAll(source));
+    assertNull(source.nextLine());
+  }
+
+  @Test
+  public void testMappedSourceSplitsLines() throws IOException {
+    assertEquals(List.of("a", "b", "", "c"), readMapped("a\r\nb\n\nc", 1 << 20));
+  }
+
+  @Test
+  public void testMappedSourceDecodesNonAsciiLines() throws IOException {
+    String subject = "create event Caf\u00e9 \u65e5\u672c";
+    assertEquals(List.of(subject, "exit"), readMapped(subject + "\nexit\n", 1 << 20));
+  }
+
+  @Test
+  public void testMappedSourceMovesWindowAcrossLines() throws IOException {
+    StringBuilder text = new StringBuilder();
+    List<String> expected = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      String line = "line number " + i;
+      expected.add(line);
+      text.append(line).append('\n');
+    }
+    assertEquals(expected, readMapped(text.toString(), 64));
+  }
+
+  @Test
+  public void testMappedSliceSupportsCharSequenceMethods() throws IOException {
+    Files.write(file, "print events\n".getBytes(StandardCharsets.UTF_8));
+    try (MappedLineSource source = new MappedLineSource(file)) {
+      CharSequence line = source.nextLine();
+      assertEquals(12, line.length());
+      assertEquals('p', line.charAt(0));
+      assertEquals("events", line.subSequence(6, 12).toString());
+    }
+  }
+
+  @Test
+  public void testMappedSliceIsTrimmedAndParsedInPlace() throws IOException {
+    Files.write(file, "  commit \nexit\n".getBytes(StandardCharsets.UTF_8));
+    try (MappedLineSource source = new MappedLineSource(file)) {
+      CharSequence commit = CommandLines.trim(source.nextLine());
+      assertFalse(commit instanceof String);
+      assertEquals("commit", commit.toString());
+      assertTrue(new CommandParserImpl().parse(commit) instanceof CommitBatchCommand);
+
+      CharSequence exit = source.nextLine();
+      assertSame(exit, CommandLines.trim(exit));
+      assertTrue(CommandLines.isExit(exit));
+    }
+  }
+
+  @Test
+  public void testMappedSourceReadsEmptyFile() throws IOException {
+    assertEquals(List.of(), readMapped("", 1 << 20));
+  }
+
+  @Test(expected = IOException.class)
+  public void testMappedSourceRejectsLineLongerThanWindow() throws IOException {
+    readMapped("a very long line that does not fit\nexit\n", 8);
+  }
+
+  @Test
+  public void testControllerRunsScriptFromMappedSource() throws IOException {
+    Files.write(file, ("create event Test from 2025-05-05T10:00 to 2025-05-05T11:00\r\n"
+        + "exit\r\n").getBytes(StandardCharsets.UTF_8));
+    MockCalendarManager mockManager = new MockCalendarManager();
+    MockView mockView = new MockView();
+
+    try (MappedLineSource source = new MappedLineSource(file)) {
+      new CalendarController(mockManager, mockView, source, false).run();
+    }
+
+    assertEquals(1, mockManager.getMockCalendar().addEventCallCount);
+    assertEquals(0, mockView.displayErrorCallCount);
+  }
+}
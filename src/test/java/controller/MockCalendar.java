@@ -1,6 +1,7 @@
 package controller;
 
 import calendar.model.Calendar;
+import calendar.model.ChangeSet;
 import calendar.model.EditSettings;
 import calendar.model.Event;
 import calendar.model.EventStatus;
@@ -34,6 +35,14 @@ public class MockCalendar implements Calendar {
   public int getEventsInRangeCallCount = 0;
   public int isBusyCallCount = 0;
   public int getAllEventsCallCount = 0;
+  public int getOrderedEventsCallCount = 0;
+  public int getOrderedEventsInRangeCallCount = 0;
+  public LocalDateTime lastRangeStart;
+  public LocalDateTime lastRangeEnd;
+  public int getChangesSinceCallCount = 0;
+  public String lastChangeToken;
+  public boolean changesAreFullSnapshot = false;
+  public List<Event> removedEventsToReturn = new ArrayList<>();
   public int createAndAddEventCallCount = 0;
 
   public Event lastAddedEvent;
@@ -160,6 +169,33 @@ public class MockCalendar implements Calendar {
     return eventsToReturn;
   }
 
+  @Override
+  public Iterable<Event> getOrderedEvents() {
+    getOrderedEventsCallCount++;
+    return eventsToReturn;
+  }
+
+  @Override
+  public Iterable<Event> getOrderedEventsInRange(LocalDateTime start, LocalDateTime end) {
+    getOrderedEventsInRangeCallCount++;
+    lastRangeStart = start;
+    lastRangeEnd = end;
+    return eventsToReturn;
+  }
+
+  @Override
+  public String getChangeToken() {
+    return "mock-1";
+  }
+
+  @Override
+  public ChangeSet getChangesSince(String token) {
+    getChangesSinceCallCount++;
+    lastChangeToken = token;
+    return new ChangeSet(eventsToReturn, changesAreFullSnapshot ? List.of()
+        : removedEventsToReturn, changesAreFullSnapshot, "mock-2");
+  }
+
   @Override
   public String getCalendarName() {
     return "MockCalendar";
@@ -214,6 +250,18 @@ public class MockCalendar implements Calendar {
     }
   }
 
+  @Override
+  public void createAndAddEvent(String subject, LocalDateTime startDateTime,
+                                LocalDateTime endDateTime, boolean isAllDay, String description,
+                                LocationType location, EventStatus status)
+      throws DuplicateEventException {
+    createAndAddEvent(subject, startDateTime, endDateTime, isAllDay);
+    MockEvent mockEvent = (MockEvent) lastAddedEvent;
+    mockEvent.description = description;
+    mockEvent.location = location;
+    mockEvent.status = status;
+  }
+
 
   /**
    * A simple mock Event implementation for testing.
@@ -313,6 +361,14 @@ public class MockCalendar implements Calendar {
     getEventsInRangeCallCount = 0;
     isBusyCallCount = 0;
     getAllEventsCallCount = 0;
+    getOrderedEventsCallCount = 0;
+    getOrderedEventsInRangeCallCount = 0;
+    lastRangeStart = null;
+    lastRangeEnd = null;
+    getChangesSinceCallCount = 0;
+    lastChangeToken = null;
+    changesAreFullSnapshot = false;
+    removedEventsToReturn = new ArrayList<>();
     createAndAddEventCallCount = 0;
 
     lastAddedEvent = null;
@@ -6,6 +6,7 @@ import calendar.model.exceptions.DuplicateEventException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.List;
 
 /**
  * Mock implementation of CalendarManager for testing.
@@ -19,6 +20,9 @@ public class MockCalendarManager implements CalendarManager {
   public int copyEventCallCount = 0;
   public int copyEventsOnDateCallCount = 0;
   public int copyEventsBetweenCallCount = 0;
+  public int beginBatchCallCount = 0;
+  public int commitBatchCallCount = 0;
+  public int rollbackBatchCallCount = 0;
 
   /**
    * Default constructor initializing the mock calendar manager.
@@ -42,6 +46,11 @@ public class MockCalendarManager implements CalendarManager {
     return mockCalendar;
   }
 
+  @Override
+  public List<Calendar> getAllCalendars() {
+    return List.of(mockCalendar);
+  }
+
   @Override
   public void editCalendar(String name, String property, Object newValue) {
     editCalendarCallCount++;
@@ -67,6 +76,31 @@ public class MockCalendarManager implements CalendarManager {
     copyEventsBetweenCallCount++;
   }
 
+  @Override
+  public void beginBatch() {
+    beginBatchCallCount++;
+  }
+
+  @Override
+  public int commitBatch() {
+    commitBatchCallCount++;
+    return 0;
+  }
+
+  @Override
+  public void rollbackBatch() {
+    rollbackBatchCallCount++;
+  }
+
+  @Override
+  public boolean isBatchOpen() {
+    return false;
+  }
+
+  @Override
+  public void lineStarted(long lineNumber) {
+  }
+
   public MockCalendar getMockCalendar() {
     return mockCalendar;
   }
@@ -81,6 +115,9 @@ public class MockCalendarManager implements CalendarManager {
     copyEventCallCount = 0;
     copyEventsOnDateCallCount = 0;
     copyEventsBetweenCallCount = 0;
+    beginBatchCallCount = 0;
+    commitBatchCallCount = 0;
+    rollbackBatchCallCount = 0;
     mockCalendar.reset();
   }
 }
\ No newline at end of file
@@ -5,7 +5,6 @@ import calendar.model.Calendar;
 import calendar.model.Event;
 import java.io.IOException;
 import java.nio.file.Path;
-import java.util.List;
 
 /**
  * Mock CSV exporter for testing.
@@ -14,12 +13,14 @@ import java.util.List;
 public class MockCsvExporter extends CsvExporter {
 
   public int exportCallCount = 0;
-  public List<Event> lastEvents;
+  public int exportChangesCallCount = 0;
+  public Iterable<Event> lastRemovedEvents;
+  public Iterable<Event> lastEvents;
   public Path lastFilePath;
   public boolean shouldThrowIoException = false;
 
   @Override
-  public String export(List<Event> events, Path filePath, Calendar calendar)
+  public String export(Iterable<Event> events, Path filePath, Calendar calendar)
       throws IOException {
     exportCallCount++;
     lastEvents = events;
@@ -32,12 +33,24 @@ public class MockCsvExporter extends CsvExporter {
     return filePath.toAbsolutePath().toString();
   }
 
+  @Override
+  public String exportChanges(Iterable<Event> changed, Iterable<Event> removed, Path filePath,
+                              Calendar calendar) throws IOException {
+    exportChangesCallCount++;
+    lastEvents = changed;
+    lastRemovedEvents = removed;
+    lastFilePath = filePath;
+    return filePath.toAbsolutePath().toString();
+  }
+
   /**
    * Resets all counters and stored values.
    */
   public void reset() {
     exportCallCount = 0;
+    exportChangesCallCount = 0;
     lastEvents = null;
+    lastRemovedEvents = null;
     lastFilePath = null;
     shouldThrowIoException = false;
   }
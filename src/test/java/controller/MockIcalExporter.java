@@ -6,7 +6,6 @@ import calendar.model.Event;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.time.ZoneId;
-import java.util.List;
 
 /**
  * Mock iCal exporter for testing.
@@ -14,13 +13,13 @@ import java.util.List;
 public class MockIcalExporter extends IcalExporter {
 
   public int exportCallCount = 0;
-  public List<Event> lastEvents;
+  public Iterable<Event> lastEvents;
   public Path lastFilePath;
   public String lastCalendarName;
   public ZoneId lastTimeZone;
 
   @Override
-  public String export(List<Event> events, Path filePath, Calendar calendar)
+  public String export(Iterable<Event> events, Path filePath, Calendar calendar)
       throws IOException {
     exportCallCount++;
     lastEvents = events;
@@ -20,6 +20,10 @@ public class MockView implements View {
   public int displayEventCreatedCallCount = 0;
   public int displayEventEditedCallCount = 0;
   public int displayExportSuccessCallCount = 0;
+  public int flushCallCount = 0;
+  public List<Long> linesStarted = new ArrayList<>();
+  public List<String> commandsStarted = new ArrayList<>();
+  public List<Exception> commandFailures = new ArrayList<>();
 
   public List<String> messages = new ArrayList<>();
   public List<String> errors = new ArrayList<>();
@@ -79,6 +83,26 @@ public class MockView implements View {
     lastExportPath = absolutePath;
   }
 
+  @Override
+  public void lineStarted(long lineNumber) {
+    linesStarted.add(lineNumber);
+  }
+
+  @Override
+  public void commandStarted(String command) {
+    commandsStarted.add(command);
+  }
+
+  @Override
+  public void commandFailed(Exception error) {
+    commandFailures.add(error);
+  }
+
+  @Override
+  public void flush() {
+    flushCallCount++;
+  }
+
   /**
    * Resets all counters and stored values.
    */
@@ -92,6 +116,10 @@ public class MockView implements View {
     displayEventCreatedCallCount = 0;
     displayEventEditedCallCount = 0;
     displayExportSuccessCallCount = 0;
+    flushCallCount = 0;
+    linesStarted.clear();
+    commandsStarted.clear();
+    commandFailures.clear();
 
     messages.clear();
     errors.clear();
@@ -0,0 +1,192 @@
+package controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import calendar.controller.utils.NdjsonExporter;
+import calendar.model.Calendar;
+import calendar.model.CalendarImpl;
+import calendar.model.ChangeSet;
+import calendar.model.EditSettings;
+import calendar.model.EventStatus;
+import calendar.model.LocationType;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for NdjsonExporter.
+ */
+public class NdjsonExporterTest {
+
+  private NdjsonExporter exporter;
+  private List<Path> filesToCleanup;
+  private Calendar testCalendar;
+
+  /**
+   * Sets up the test environment before each test.
+   */
+  @Before
+  public void setUp() {
+    exporter = new NdjsonExporter();
+    filesToCleanup = new java.util.ArrayList<>();
+    testCalendar = new CalendarImpl("TestCalendar", ZoneId.of("America/New_York"));
+  }
+
+  /**
+   * Cleans up any files created during the tests.
+   */
+  @After
+  public void cleanup() {
+    for (Path path : filesToCleanup) {
+      try {
+        Files.deleteIfExists(path);
+      } catch (IOException e) {
+        // do nothing
+      }
+    }
+  }
+
+  private String write() throws IOException {
+    StringWriter writer = new StringWriter();
+    exporter.write(testCalendar.getOrderedEvents(), writer, testCalendar);
+    return writer.toString();
+  }
+
+  @Test
+  public void testExportEmptyCalendar() throws IOException {
+    Path filePath = Paths.get("test-empty.ndjson");
+    filesToCleanup.add(filePath);
+
+    String result = exporter.export(testCalendar.getOrderedEvents(), filePath, testCalendar);
+
+    assertTrue(result.endsWith("test-empty.ndjson"));
+    assertEquals("", Files.readString(filePath));
+  }
+
+  @Test
+  public void testTimedEventIsOneLineWithUtcInstants() throws Exception {
+    testCalendar.createAndAddEvent("Review", LocalDateTime.of(2025, 5, 5, 10, 0),
+        LocalDateTime.of(2025, 5, 5, 11, 30), false, "Quarterly", LocationType.ONLINE,
+        EventStatus.PRIVATE);
+
+    assertEquals("{\"subject\":\"Review\",\"start\":\"2025-05-05T14:00:00Z\","
+        + "\"end\":\"2025-05-05T15:30:00Z\",\"allDay\":false,\"description\":\"Quarterly\","
+        + "\"location\":\"ONLINE\",\"status\":\"PRIVATE\",\"seriesId\":null}\n", write());
+  }
+
+  @Test
+  public void testWinterEventUsesStandardOffset() throws Exception {
+    testCalendar.createAndAddEvent("Party", LocalDateTime.of(2025, 12, 31, 23, 0),
+        LocalDateTime.of(2026, 1, 1, 1, 0), false);
+
+    String line = write();
+    assertTrue(line.contains("\"start\":\"2026-01-01T04:00:00Z\""));
+    assertTrue(line.contains("\"description\":null,\"location\":null,\"status\":\"PUBLIC\""));
+  }
+
+  @Test
+  public void testSeriesEventsCarrySeriesIdAndAllDayFlag() throws Exception {
+    testCalendar.createAllDayEventSeries("Gym", LocalDate.of(2025, 5, 5),
+        EnumSet.of(DayOfWeek.MONDAY), 2);
+
+    String[] lines = write().split("\n");
+    assertEquals(2, lines.length);
+    String seriesId = testCalendar.getAllEvents().get(0).getSeriesId().get();
+    for (String line : lines) {
+      assertTrue(line.contains("\"allDay\":true"));
+      assertTrue(line.endsWith("\"seriesId\":\"" + seriesId + "\"}"));
+    }
+  }
+
+  @Test
+  public void testStringsAreEscaped() throws Exception {
+    testCalendar.createAndAddEvent("Say \"hi\" \\ bye", LocalDateTime.of(2025, 5, 5, 10, 0),
+        LocalDateTime.of(2025, 5, 5, 11, 0), false, "line one\nline\ttwo\u0001",
+        LocationType.NONE, EventStatus.PUBLIC);
+
+    String line = write();
+    assertTrue(line.contains("\"subject\":\"Say \\\"hi\\\" \\\\ bye\""));
+    assertTrue(line.contains("\"description\":\"line one\\nline\\ttwo\\u0001\""));
+    assertEquals(1, line.split("\n").length);
+  }
+
+  @Test
+  public void testChangesFlagRemovedEvents() throws Exception {
+    testCalendar.createAndAddEvent("Call", LocalDateTime.of(2025, 5, 5, 10, 0),
+        LocalDateTime.of(2025, 5, 5, 11, 0), false);
+    String token = testCalendar.getChangeToken();
+    testCalendar.editEvent("Call", LocalDateTime.of(2025, 5, 5, 10, 0), "subject", "Sync",
+        EditSettings.SINGLE);
+    ChangeSet changes = testCalendar.getChangesSince(token);
+
+    StringWriter writer = new StringWriter();
+    exporter.writeChanges(changes.getChangedEvents(), changes.getRemovedEvents(), writer,
+        testCalendar);
+    String[] lines = writer.toString().split("\n");
+
+    assertEquals(2, lines.length);
+    assertTrue(lines[0].startsWith("{\"subject\":\"Sync\""));
+    assertTrue(lines[0].endsWith(",\"removed\":false}"));
+    assertTrue(lines[1].startsWith("{\"subject\":\"Call\""));
+    assertTrue(lines[1].endsWith(",\"removed\":true}"));
+  }
+
+  private void addParallelExportEvents() throws Exception {
+    for (int i = 0; i < 40; i++) {
+      LocalDateTime start = LocalDateTime.of(2025, 3, 1, 8, 0).plusHours(7L * i);
+      String subject = "\u00c9v\u00e9nement " + i + (i % 3 == 0 ? ", \"quoted\"" : "");
+      String description = i % 2 == 0 ? "\u65e5\u672c\u8a9e\nline" : null;
+      testCalendar.createAndAddEvent(subject, start, start.plusMinutes(45), i % 7 == 0,
+          description,
+          i % 4 == 0 ? LocationType.ONLINE : LocationType.NONE,
+          i % 5 == 0 ? EventStatus.PRIVATE : EventStatus.PUBLIC);
+    }
+    testCalendar.createEventSeries("Once", LocalDate.of(2025, 3, 3), LocalTime.of(7, 0),
+        LocalTime.of(7, 30), EnumSet.of(DayOfWeek.MONDAY), 1);
+    testCalendar.createEventSeries("Standup", LocalDate.of(2025, 3, 3), LocalTime.of(9, 0),
+        LocalTime.of(9, 15), EnumSet.of(DayOfWeek.MONDAY, DayOfWeek.THURSDAY), 12);
+    testCalendar.createEventSeries("Retro", LocalDate.of(2025, 3, 7), LocalTime.of(16, 0),
+        LocalTime.of(17, 0), EnumSet.of(DayOfWeek.FRIDAY), 6);
+    testCalendar.editEvent("Retro", LocalDateTime.of(2025, 3, 21, 16, 0), "description",
+        "Moved room", EditSettings.SINGLE);
+  }
+
+  private String serialWrite() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (Writer writer = new OutputStreamWriter(bytes, StandardCharsets.UTF_8)) {
+      exporter.write(testCalendar.getOrderedEvents(), writer, testCalendar);
+    }
+    return bytes.toString(StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void testParallelExportMatchesSerialWrite() throws Exception {
+    addParallelExportEvents();
+    exporter = new NdjsonExporter(new ForkJoinPool(4), 3);
+    Path filePath = Paths.get("test-parallel.ndjson");
+    filesToCleanup.add(filePath);
+
+    exporter.export(testCalendar.getOrderedEvents(), filePath, testCalendar);
+
+    String parallel = Files.readString(filePath, StandardCharsets.UTF_8);
+    assertEquals(serialWrite(), parallel);
+  }
+}
@@ -0,0 +1,202 @@
+package controller;
+
+import static org.junit.Assert.assertEquals;
+
+import calendar.controller.CalendarController;
+import calendar.controller.ParallelController;
+import calendar.controller.utils.ReaderLineSource;
+import calendar.model.Calendar;
+import calendar.model.CalendarManager;
+import calendar.model.CalendarManagerImpl;
+import calendar.model.Event;
+import calendar.view.RecordingView;
+import calendar.view.View;
+import java.io.StringReader;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+
+/**
+ * Test class for ParallelController and RecordingView.
+ */
+public class ParallelControllerTest {
+
+  private ReaderLineSource lines(String script) {
+    return new ReaderLineSource(new StringReader(script));
+  }
+
+  /**
+   * Builds a script that switches between three calendars, copies events between them and
+   * prints and checks them along the way.
+   */
+  private String script() {
+    StringBuilder script = new StringBuilder();
+    String[] names = {"Work", "Home", "Club"};
+    for (String name : names) {
+      script.append("create calendar --name ").append(name).append(" --timezone UTC\n");
+    }
+    LocalDateTime start = LocalDateTime.of(2025, 5, 5, 9, 0);
+    for (int round = 0; round < 40; round++) {
+      String name = names[round % names.length];
+      script.append("use calendar --name ").append(name).append('\n');
+      for (int i = 0; i < 20; i++) {
+        LocalDateTime eventStart = start.plusDays(round).plusMinutes(30L * i);
+        script.append("create event ").append(name).append(round).append('x').append(i)
+            .append(" from ").append(eventStart).append(" to ")
+            .append(eventStart.plusMinutes(20)).append('\n');
+      }
+      script.append("print events on ").append(start.plusDays(round).toLocalDate())
+          .append('\n');
+      script.append("show status on ").append(start.plusDays(round)).append('\n');
+      if (round % 5 == 4) {
+        String target = names[(round + 1) % names.length];
+        script.append("copy events on ").append(start.plusDays(round).toLocalDate())
+            .append(" --target ").append(target).append(" to ")
+            .append(start.plusDays(100 + round).toLocalDate()).append('\n');
+      }
+      if (round == 20) {
+        script.append("create calendar --name Late --timezone UTC\n");
+        script.append("create event broken\n");
+      }
+    }
+    return script.append("exit\n").toString();
+  }
+
+  private Set<String> snapshot(CalendarManager manager) {
+    Set<String> events = new HashSet<>();
+    for (Calendar calendar : manager.getAllCalendars()) {
+      for (Event event : calendar.getAllEvents()) {
+        events.add(calendar.getCalendarName() + ":" + event.getSubject() + "@"
+            + event.getStartDateTime());
+      }
+    }
+    return events;
+  }
+
+  @Test
+  public void testMatchesSerialRunInStateAndOutputOrder() {
+    TranscriptView serialView = new TranscriptView();
+    CalendarManager serial = new CalendarManagerImpl();
+    new CalendarController(serial, serialView, lines(script()), false).run();
+
+    TranscriptView parallelView = new TranscriptView();
+    CalendarManager parallel = new CalendarManagerImpl();
+    new ParallelController(parallel, parallelView, lines(script()), 4).run();
+
+    assertEquals(snapshot(serial), snapshot(parallel));
+    assertEquals(serialView.transcript, parallelView.transcript);
+    assertEquals(serial.getActiveCalendar().getCalendarName(),
+        parallel.getActiveCalendar().getCalendarName());
+  }
+
+  @Test
+  public void testCommandsBeforeUseCalendarFailAsInSerialRun() {
+    MockView mockView = new MockView();
+    new ParallelController(new CalendarManagerImpl(), mockView,
+        lines("create event A from 2025-05-05T09:00 to 2025-05-05T10:00\nexit\n"), 2).run();
+
+    assertEquals(1, mockView.displayErrorCallCount);
+  }
+
+  @Test
+  public void testReportsMissingExit() {
+    MockView mockView = new MockView();
+    new ParallelController(new CalendarManagerImpl(), mockView,
+        lines("create calendar --name Work --timezone UTC\n"), 2).run();
+
+    assertEquals(List.of("Headless mode file must end with 'exit' command"), mockView.errors);
+  }
+
+  @Test
+  public void testRecordingViewReplaysInOrder() {
+    RecordingView recording = new RecordingView();
+    recording.displayEventCreated("A");
+    recording.displayError("bad");
+    recording.displayBusyStatus(true);
+    TranscriptView target = new TranscriptView();
+
+    recording.replay(target);
+
+    assertEquals(List.of("created A", "error bad", "busy true"), target.transcript);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRejectsNonPositiveThreadCount() {
+    new ParallelController(new CalendarManagerImpl(), new MockView(), lines("exit\n"), 0);
+  }
+
+  /**
+   * View that keeps a line of text for every call, in order.
+   */
+  private static class TranscriptView implements View {
+    private final List<String> transcript = new ArrayList<>();
+
+    @Override
+    public void displayMessage(String message) {
+      transcript.add("message " + message);
+    }
+
+    @Override
+    public void displayError(String error) {
+      transcript.add("error " + error);
+    }
+
+    @Override
+    public void displayEvents(List<Event> events) {
+      transcript.add("events " + events.size());
+    }
+
+    @Override
+    public void displayEventsOnDate(List<Event> events, String date) {
+      transcript.add("on " + date + " " + events.size());
+    }
+
+    @Override
+    public void displayEventsInRange(List<Event> events) {
+      transcript.add("range " + events.size());
+    }
+
+    @Override
+    public void displayBusyStatus(boolean isBusy) {
+      transcript.add("busy " + isBusy);
+    }
+
+    @Override
+    public void displayEventCreated(String eventSubject) {
+      transcript.add("created " + eventSubject);
+    }
+
+    @Override
+    public void displayEventEdited(String eventSubject) {
+      transcript.add("edited " + eventSubject);
+    }
+
+    @Override
+    public void displayExportSuccess(String absolutePath) {
+      transcript.add("exported " + absolutePath);
+    }
+
+    @Override
+    public void lineStarted(long lineNumber) {
+      transcript.add("line " + lineNumber);
+    }
+
+    @Override
+    public void commandStarted(String command) {
+      transcript.add("started " + command);
+    }
+
+    @Override
+    public void commandFailed(Exception error) {
+      transcript.add("failed " + error.getClass().getSimpleName());
+    }
+
+    @Override
+    public void flush() {
+      transcript.add("flush");
+    }
+  }
+}
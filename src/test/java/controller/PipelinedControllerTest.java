@@ -0,0 +1,136 @@
+package controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import calendar.controller.CalendarController;
+import calendar.controller.PipelinedController;
+import calendar.controller.utils.LineSource;
+import calendar.controller.utils.ReaderLineSource;
+import calendar.model.CalendarManager;
+import calendar.model.CalendarManagerImpl;
+import calendar.model.Event;
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for PipelinedController.
+ */
+public class PipelinedControllerTest {
+
+  private MockView mockView;
+
+  /**
+   * Sets up the view before each test.
+   */
+  @Before
+  public void setUp() {
+    mockView = new MockView();
+  }
+
+  private ReaderLineSource lines(String script) {
+    return new ReaderLineSource(new StringReader(script));
+  }
+
+  /**
+   * Builds a script long enough to span many batches, where later lines edit events created
+   * by earlier ones, so running them out of order would give a different calendar.
+   */
+  private String longScript() {
+    StringBuilder script = new StringBuilder("create calendar --name Work --timezone UTC\n"
+        + "use calendar --name Work\n");
+    LocalDateTime start = LocalDateTime.of(2025, 1, 1, 9, 0);
+    for (int i = 0; i < 1500; i++) {
+      LocalDateTime eventStart = start.plusHours(i);
+      script.append("create event E").append(i).append(" from ").append(eventStart)
+          .append(" to ").append(eventStart.plusMinutes(30)).append('\n');
+      if (i % 7 == 0) {
+        script.append("edit event subject E").append(i).append(" from ").append(eventStart)
+            .append(" to ").append(eventStart.plusMinutes(30)).append(" with Renamed")
+            .append(i).append('\n');
+      }
+    }
+    return script.append("exit\n").toString();
+  }
+
+  @Test
+  public void testRunsCommandsLikeSerialController() {
+    String script = longScript();
+    CalendarManager serial = new CalendarManagerImpl();
+    new CalendarController(serial, new MockView(), lines(script), false).run();
+
+    CalendarManager pipelined = new CalendarManagerImpl();
+    new PipelinedController(pipelined, mockView, lines(script), 3).run();
+
+    List<Event> expected = serial.getActiveCalendar().getAllEvents();
+    List<Event> actual = pipelined.getActiveCalendar().getAllEvents();
+    assertEquals(1500, actual.size());
+    assertEquals(new HashSet<>(expected), new HashSet<>(actual));
+    assertEquals(0, mockView.displayErrorCallCount);
+  }
+
+  @Test
+  public void testErrorsNameTheirScriptLine() {
+    String script = "create calendar --name Work --timezone UTC\n"
+        + "\n"
+        + "use calendar --name Work\n"
+        + "create event broken\n"
+        + "use calendar --name Missing\n"
+        + "exit\n";
+
+    new PipelinedController(new CalendarManagerImpl(), mockView, lines(script), 2).run();
+
+    assertEquals(2, mockView.errors.size());
+    assertTrue(mockView.errors.get(0).startsWith("Invalid command on line 4: "));
+    assertTrue(mockView.errors.get(1).contains("line 5"));
+  }
+
+  @Test
+  public void testStopsAtExit() {
+    String script = "create calendar --name Work --timezone UTC\n"
+        + "exit\n"
+        + "create calendar --name Home --timezone UTC\n";
+    CalendarManager manager = new CalendarManagerImpl();
+
+    new PipelinedController(manager, mockView, lines(script), 1).run();
+
+    assertEquals(1, manager.getAllCalendars().size());
+    assertEquals(0, mockView.displayErrorCallCount);
+  }
+
+  @Test
+  public void testReportsMissingExit() {
+    new PipelinedController(new CalendarManagerImpl(), mockView,
+        lines("create calendar --name Work --timezone UTC\n"), 1).run();
+
+    assertEquals(List.of("Headless mode file must end with 'exit' command"), mockView.errors);
+  }
+
+  @Test
+  public void testReportsReadErrorsAfterEarlierCommands() {
+    List<String> script = new ArrayList<>(List.of("create calendar --name Work --timezone UTC"));
+    LineSource failing = () -> {
+      if (script.isEmpty()) {
+        throw new IOException("disk gone");
+      }
+      return script.remove(0);
+    };
+    CalendarManager manager = new CalendarManagerImpl();
+
+    new PipelinedController(manager, mockView, failing, 1).run();
+
+    assertEquals(1, manager.getAllCalendars().size());
+    assertEquals(List.of("Error reading input: disk gone"), mockView.errors);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRejectsNonPositiveThreadCount() {
+    new PipelinedController(new CalendarManagerImpl(), mockView, lines("exit\n"), 0);
+  }
+}
@@ -0,0 +1,219 @@
+package controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import calendar.controller.SocketServerController;
+import calendar.controller.utils.DataDirectory;
+import calendar.model.CalendarManagerImpl;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for SocketServerController.
+ * Tests pipelined commands, sessions and the client limit over real connections.
+ */
+public class SocketServerControllerTest {
+
+  private SocketServerController server;
+  private final List<Socket> sockets = new ArrayList<>();
+
+  /**
+   * Starts a server on a free port.
+   *
+   * @throws IOException if the server cannot start
+   */
+  @Before
+  public void setUp() throws IOException {
+    server = new SocketServerController(new CalendarManagerImpl(), new MockView(), 0, 8);
+    server.start();
+  }
+
+  /**
+   * Closes the test's connections and stops the server.
+   *
+   * @throws IOException if a connection cannot be closed
+   */
+  @After
+  public void tearDown() throws IOException {
+    for (Socket socket : sockets) {
+      socket.close();
+    }
+    server.stop();
+  }
+
+  @Test
+  public void testPipelinedCommandsAreAnsweredInOrder() throws IOException {
+    int eventCount = 2000;
+    StringBuilder script = new StringBuilder();
+    script.append("create calendar --name Work --timezone UTC\n");
+    script.append("use calendar --name Work\n");
+    for (int i = 0; i < eventCount; i++) {
+      script.append("create event E").append(i).append(" on 2025-05-05\n");
+    }
+    script.append("\n");
+    script.append("show status on 2025-05-05T10:00\n");
+
+    Socket socket = connect();
+    send(socket, script.toString());
+    BufferedReader replies = reader(socket);
+
+    assertEquals("{\"line\":1,\"command\":\"CreateCalendarCommand\",\"type\":\"message\","
+        + "\"message\":\"Calendar created: Work\"}", replies.readLine());
+    assertEquals("{\"line\":2,\"command\":\"UseCalendarCommand\",\"type\":\"message\","
+        + "\"message\":\"Now using calendar: Work\"}", replies.readLine());
+    for (int i = 0; i < eventCount; i++) {
+      String reply = replies.readLine();
+      assertTrue(reply, reply.startsWith("{\"line\":" + (i + 3) + ","));
+      assertTrue(reply, reply.contains("\"type\":\"created\""));
+    }
+    assertEquals("{\"line\":" + (eventCount + 4) + ",\"command\":\"ShowStatusCommand\","
+        + "\"type\":\"status\",\"busy\":true}", replies.readLine());
+  }
+
+  @Test
+  public void testClientsHaveTheirOwnActiveCalendar() throws IOException {
+    Socket first = connect();
+    Socket second = connect();
+    BufferedReader firstReplies = reader(first);
+    BufferedReader secondReplies = reader(second);
+
+    send(first, "create calendar --name Work --timezone UTC\n"
+        + "create calendar --name Home --timezone UTC\nuse calendar --name Work\n");
+    for (int i = 0; i < 3; i++) {
+      firstReplies.readLine();
+    }
+    send(second, "use calendar --name Home\ncreate event Chores on 2025-05-05\n");
+    secondReplies.readLine();
+    secondReplies.readLine();
+    send(first, "create event Review on 2025-05-05\nprint events on 2025-05-05\n");
+    firstReplies.readLine();
+
+    String listing = firstReplies.readLine();
+    assertTrue(listing, listing.contains("\"subject\":\"Review\""));
+    assertTrue(listing, !listing.contains("Chores"));
+  }
+
+  @Test
+  public void testErrorsCarryTheirLine() throws IOException {
+    Socket socket = connect();
+    send(socket, "create calendar --name Work --timezone UTC\nuse calendar --name Work\n"
+        + "nonsense\nbegin batch\n");
+    BufferedReader replies = reader(socket);
+    replies.readLine();
+    replies.readLine();
+
+    String invalid = replies.readLine();
+    assertTrue(invalid, invalid.startsWith("{\"line\":3,\"type\":\"error\""));
+    String batch = replies.readLine();
+    assertTrue(batch, batch.startsWith("{\"line\":4,\"command\":\"BeginBatchCommand\","
+        + "\"type\":\"error\",\"error\":\"IllegalStateException\""));
+  }
+
+  @Test
+  public void testExitClosesTheConnection() throws IOException {
+    Socket socket = connect();
+    send(socket, "create calendar --name Work --timezone UTC\nexit\nuse calendar --name Work\n");
+    BufferedReader replies = reader(socket);
+
+    assertTrue(replies.readLine().contains("Calendar created: Work"));
+    assertNull(replies.readLine());
+  }
+
+  @Test
+  public void testClientsBeyondLimitAreRefused() throws IOException {
+    server.stop();
+    server = new SocketServerController(new CalendarManagerImpl(), new MockView(), 0, 1);
+    server.start();
+
+    Socket first = connect();
+    send(first, "create calendar --name Work --timezone UTC\n");
+    assertTrue(reader(first).readLine().contains("Calendar created"));
+
+    BufferedReader refused = reader(connect());
+    assertEquals("{\"type\":\"error\",\"message\":\"Server is busy, try again later\"}",
+        refused.readLine());
+    assertNull(refused.readLine());
+  }
+
+  @Test
+  public void testListensOnLoopbackByDefault() {
+    assertTrue(server.getAddress().isLoopbackAddress());
+  }
+
+  @Test
+  public void testFilesAreConfinedToDataDirectory() throws IOException {
+    server.stop();
+    Path directory = Files.createTempDirectory("socket-files");
+    try {
+      server = new SocketServerController(new CalendarManagerImpl(), new MockView(),
+          InetAddress.getLoopbackAddress(), 0, 8, new DataDirectory(directory));
+      server.start();
+      Socket socket = connect();
+      send(socket, "create calendar --name Work --timezone UTC\nuse calendar --name Work\n"
+          + "create event Review on 2025-05-05\nexport cal work.ics\n"
+          + "export cal ../work.ics\nimport cal " + directory.resolve("work.ics") + "\n"
+          + "import cal work.ics\n");
+      BufferedReader replies = reader(socket);
+      StringBuilder output = new StringBuilder();
+      String reply;
+      while (!(reply = replies.readLine()).startsWith("{\"line\":7,")) {
+        output.append(reply).append('\n');
+      }
+      output.append(reply).append('\n');
+
+      assertTrue(Files.exists(directory.resolve("work.ics")));
+      String text = output.toString();
+      assertTrue(text, text.contains("{\"line\":5,\"type\":\"error\""));
+      assertTrue(text, text.contains("inside the data directory"));
+      assertTrue(text, text.contains("{\"line\":6,\"type\":\"error\""));
+      assertTrue(text, text.contains("relative to the data directory"));
+      assertTrue(text, !text.contains("{\"line\":7,\"type\":\"error\""));
+      assertTrue(text, !text.contains("{\"line\":4,\"type\":\"error\""));
+    } finally {
+      try (Stream<Path> files = Files.list(directory)) {
+        for (Path file : (Iterable<Path>) files::iterator) {
+          Files.delete(file);
+        }
+      }
+      Files.delete(directory);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRejectsNonPositiveClientLimit() {
+    new SocketServerController(new CalendarManagerImpl(), new MockView(), 0, 0);
+  }
+
+  private Socket connect() throws IOException {
+    Socket socket = new Socket("localhost", server.getPort());
+    socket.setSoTimeout(10_000);
+    sockets.add(socket);
+    return socket;
+  }
+
+  private static void send(Socket socket, String text) throws IOException {
+    OutputStream out = socket.getOutputStream();
+    out.write(text.getBytes(StandardCharsets.UTF_8));
+    out.flush();
+  }
+
+  private static BufferedReader reader(Socket socket) throws IOException {
+    return new BufferedReader(new InputStreamReader(socket.getInputStream(),
+        StandardCharsets.UTF_8));
+  }
+}
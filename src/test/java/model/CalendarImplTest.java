@@ -9,6 +9,7 @@ import static org.junit.Assert.fail;
 
 import calendar.model.Calendar;
 import calendar.model.CalendarImpl;
+import calendar.model.ChangeSet;
 import calendar.model.EditSettings;
 import calendar.model.Event;
 import calendar.model.EventStatus;
@@ -1196,4 +1197,135 @@ public class CalendarImplTest {
     calendar.editEvent("Meeting", LocalDateTime.of(2025, 5, 5, 10, 0), "location",
         "InvalidString", EditSettings.SINGLE);
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testOrderedEventsAreSortedByStart() throws Exception {
+    calendar.createAndAddEvent("Late", LocalDateTime.of(2025, 5, 7, 15, 0),
+        LocalDateTime.of(2025, 5, 7, 16, 0), false);
+    calendar.createAndAddEvent("Early", LocalDateTime.of(2025, 5, 5, 9, 0),
+        LocalDateTime.of(2025, 5, 5, 10, 0), false);
+    calendar.createAndAddEvent("Middle", LocalDateTime.of(2025, 5, 6, 12, 0),
+        LocalDateTime.of(2025, 5, 6, 13, 0), false);
+
+    StringBuilder order = new StringBuilder();
+    for (Event event : calendar.getOrderedEvents()) {
+      order.append(event.getSubject()).append(' ');
+    }
+    assertEquals("Early Middle Late ", order.toString());
+  }
+
+  @Test
+  public void testOrderedEventsInRangeIncludesOverlappingLongEvents() throws Exception {
+    calendar.createAndAddEvent("Conference", LocalDateTime.of(2025, 4, 28, 9, 0),
+        LocalDateTime.of(2025, 5, 2, 17, 0), false);
+    calendar.createAndAddEvent("Before", LocalDateTime.of(2025, 4, 29, 9, 0),
+        LocalDateTime.of(2025, 4, 29, 10, 0), false);
+    calendar.createAndAddEvent("Inside", LocalDateTime.of(2025, 5, 15, 9, 0),
+        LocalDateTime.of(2025, 5, 15, 10, 0), false);
+    calendar.createAndAddEvent("After", LocalDateTime.of(2025, 6, 1, 0, 0),
+        LocalDateTime.of(2025, 6, 1, 1, 0), false);
+
+    StringBuilder order = new StringBuilder();
+    for (Event event : calendar.getOrderedEventsInRange(LocalDateTime.of(2025, 5, 1, 0, 0),
+        LocalDateTime.of(2025, 6, 1, 0, 0))) {
+      order.append(event.getSubject()).append(' ');
+    }
+    assertEquals("Conference Inside ", order.toString());
+  }
+
+  @Test
+  public void testRangeQueriesSurviveTimeZoneChange() throws Exception {
+    calendar.createAndAddEvent("Call", LocalDateTime.of(2025, 5, 5, 9, 0),
+        LocalDateTime.of(2025, 5, 5, 10, 0), false);
+
+    calendar.setTimeZone(ZoneId.of("Europe/Paris"));
+
+    assertTrue(calendar.isBusy(LocalDateTime.of(2025, 5, 5, 15, 30)));
+    assertEquals(1, calendar.getEventsInRange(LocalDateTime.of(2025, 5, 5, 15, 0),
+        LocalDateTime.of(2025, 5, 5, 16, 0)).size());
+  }
+
+  @Test
+  public void testChangesSinceTokenListsAddsAndEdits() throws Exception {
+    calendar.createAndAddEvent("Kept", LocalDateTime.of(2025, 5, 5, 9, 0),
+        LocalDateTime.of(2025, 5, 5, 10, 0), false);
+    calendar.createAndAddEvent("Moved", LocalDateTime.of(2025, 5, 6, 9, 0),
+        LocalDateTime.of(2025, 5, 6, 10, 0), false);
+    String token = calendar.getChangeToken();
+
+    calendar.createAndAddEvent("New", LocalDateTime.of(2025, 5, 7, 9, 0),
+        LocalDateTime.of(2025, 5, 7, 10, 0), false);
+    calendar.editEvent("Moved", LocalDateTime.of(2025, 5, 6, 9, 0), "start",
+        LocalDateTime.of(2025, 5, 6, 8, 0), EditSettings.SINGLE);
+
+    ChangeSet changes = calendar.getChangesSince(token);
+    assertFalse(changes.isFullSnapshot());
+    assertEquals(2, changes.getChangedEvents().size());
+    assertEquals("Moved", changes.getChangedEvents().get(0).getSubject());
+    assertEquals(LocalDateTime.of(2025, 5, 6, 8, 0),
+        changes.getChangedEvents().get(0).getStartDateTime());
+    assertEquals("New", changes.getChangedEvents().get(1).getSubject());
+    assertEquals(1, changes.getRemovedEvents().size());
+    assertEquals(LocalDateTime.of(2025, 5, 6, 9, 0),
+        changes.getRemovedEvents().get(0).getStartDateTime());
+    assertEquals(calendar.getChangeToken(), changes.getToken());
+    assertTrue(calendar.getChangesSince(changes.getToken()).getChangedEvents().isEmpty());
+  }
+
+  @Test
+  public void testChangesSinceTokenReportsPropertyEditAsChange() throws Exception {
+    calendar.createAndAddEvent("Review", LocalDateTime.of(2025, 5, 5, 9, 0),
+        LocalDateTime.of(2025, 5, 5, 10, 0), false);
+    String token = calendar.getChangeToken();
+
+    calendar.editEvent("Review", LocalDateTime.of(2025, 5, 5, 9, 0), "description",
+        "Quarterly", EditSettings.SINGLE);
+
+    ChangeSet changes = calendar.getChangesSince(token);
+    assertEquals(1, changes.getChangedEvents().size());
+    assertEquals("Quarterly", changes.getChangedEvents().get(0).getDescription().orElse(null));
+    assertTrue(changes.getRemovedEvents().isEmpty());
+  }
+
+  @Test
+  public void testChangesSinceTokenNetsOutShortLivedEvents() throws Exception {
+    String token = calendar.getChangeToken();
+    calendar.createAndAddEvent("Draft", LocalDateTime.of(2025, 5, 5, 9, 0),
+        LocalDateTime.of(2025, 5, 5, 10, 0), false);
+    calendar.editEvent("Draft", LocalDateTime.of(2025, 5, 5, 9, 0), "subject", "Final",
+        EditSettings.SINGLE);
+
+    ChangeSet changes = calendar.getChangesSince(token);
+    assertEquals(1, changes.getChangedEvents().size());
+    assertEquals("Final", changes.getChangedEvents().get(0).getSubject());
+    assertTrue(changes.getRemovedEvents().isEmpty());
+  }
+
+  @Test
+  public void testChangesSinceTimeZoneChangeIsFullSnapshot() throws Exception {
+    calendar.createAndAddEvent("Call", LocalDateTime.of(2025, 5, 5, 9, 0),
+        LocalDateTime.of(2025, 5, 5, 10, 0), false);
+    String token = calendar.getChangeToken();
+
+    calendar.setTimeZone(ZoneId.of("Europe/Paris"));
+
+    ChangeSet changes = calendar.getChangesSince(token);
+    assertTrue(changes.isFullSnapshot());
+    assertEquals(1, changes.getChangedEvents().size());
+    assertFalse(calendar.getChangesSince(changes.getToken()).isFullSnapshot());
+  }
+
+  @Test
+  public void testChangesSinceForeignTokenIsFullSnapshot() throws Exception {
+    Calendar other = new CalendarImpl("Other", ZoneId.of("America/New_York"));
+    calendar.createAndAddEvent("Call", LocalDateTime.of(2025, 5, 5, 9, 0),
+        LocalDateTime.of(2025, 5, 5, 10, 0), false);
+
+    assertTrue(calendar.getChangesSince(other.getChangeToken()).isFullSnapshot());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testChangesSinceRejectsMalformedToken() {
+    calendar.getChangesSince("not a token");
+  }
+}
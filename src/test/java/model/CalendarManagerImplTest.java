@@ -6,15 +6,20 @@ import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import calendar.model.Calendar;
 import calendar.model.CalendarManager;
 import calendar.model.CalendarManagerImpl;
+import calendar.model.EditSettings;
 import calendar.model.Event;
 import calendar.model.exceptions.DuplicateEventException;
+import calendar.model.exceptions.EventNotFoundException;
+import calendar.model.exceptions.UnclearEventException;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.time.ZoneId;
 import java.util.List;
 import java.util.Set;
@@ -66,6 +71,15 @@ public class CalendarManagerImplTest {
     assertEquals("School", manager.getActiveCalendar().getCalendarName());
   }
 
+  @Test
+  public void testGetAllCalendarsReturnsEveryCalendar() {
+    assertTrue(manager.getAllCalendars().isEmpty());
+    manager.createCalendar("Work", ZoneId.of("America/New_York"));
+    manager.createCalendar("Personal", ZoneId.of("Europe/London"));
+
+    assertEquals(2, manager.getAllCalendars().size());
+  }
+
   @Test(expected = IllegalArgumentException.class)
   public void testCreateCalendarDuplicateName() {
     manager.createCalendar("Work", ZoneId.of("America/New_York"));
@@ -874,5 +888,323 @@ public class CalendarManagerImplTest {
     assertTrue(secondCounter > firstCounter);
   }
 
+  @Test
+  public void testBatchStagesEventsUntilCommit() throws Exception {
+    Calendar work = useNewCalendar("Work");
+    manager.beginBatch();
+    manager.getActiveCalendar().createAndAddEvent("A", at(5, 9), at(5, 10), false);
+    manager.getActiveCalendar().createAndAddEvent("B", at(6, 9), at(6, 10), false);
+
+    assertTrue(work.getAllEvents().isEmpty());
+    assertTrue(manager.getActiveCalendar().getAllEvents().isEmpty());
+
+    assertEquals(2, manager.commitBatch());
+    assertEquals(2, work.getAllEvents().size());
+    assertEquals(work, manager.getActiveCalendar());
+  }
+
+  @Test
+  public void testBatchRollbackDiscardsStagedChanges() throws Exception {
+    Calendar work = useNewCalendar("Work");
+    manager.beginBatch();
+    manager.getActiveCalendar().createAndAddEvent("A", at(5, 9), at(5, 10), false);
+    manager.rollbackBatch();
+
+    assertTrue(work.getAllEvents().isEmpty());
+    assertEquals(work, manager.getActiveCalendar());
+  }
+
+  @Test
+  public void testBatchDuplicateOfExistingEventRollsBackWholeBatch() throws Exception {
+    Calendar work = useNewCalendar("Work");
+    work.createAndAddEvent("Existing", at(7, 9), at(7, 10), false);
+    manager.beginBatch();
+    manager.getActiveCalendar().createAndAddEvent("A", at(5, 9), at(5, 10), false);
+    manager.getActiveCalendar().createAndAddEvent("Existing", at(7, 9), at(7, 10), false);
+    manager.getActiveCalendar().createAndAddEvent("B", at(8, 9), at(8, 10), false);
+
+    try {
+      manager.commitBatch();
+      fail("Expected the duplicate to fail the commit");
+    } catch (DuplicateEventException e) {
+      assertEquals(1, work.getAllEvents().size());
+      assertEquals("Existing", work.getAllEvents().get(0).getSubject());
+    }
+  }
+
+  @Test
+  public void testBatchSeriesGetIdsUnusedByEditsBeforeThem() throws Exception {
+    Calendar work = useNewCalendar("Work");
+    work.createEventSeries("A", LocalDate.of(2025, 5, 5), LocalTime.of(9, 0),
+        LocalTime.of(10, 0), Set.of(DayOfWeek.MONDAY), 3);
+    work.createEventSeries("B", LocalDate.of(2025, 5, 6), LocalTime.of(9, 0),
+        LocalTime.of(10, 0), Set.of(DayOfWeek.TUESDAY), 3);
+
+    manager.beginBatch();
+    Calendar staged = manager.getActiveCalendar();
+    staged.createAndAddEvent("Single", at(1, 9), at(1, 10), false);
+    staged.editEvent("A", at(12, 9), "start", at(12, 8), EditSettings.FORWARD);
+    staged.editEvent("B", at(13, 9), "start", at(13, 8), EditSettings.FORWARD);
+    staged.createEventSeries("C", LocalDate.of(2025, 5, 7), LocalTime.of(9, 0),
+        LocalTime.of(10, 0), Set.of(DayOfWeek.WEDNESDAY), 3);
+    manager.commitBatch();
+
+    Set<String> seriesOfC = seriesIds(work, "C");
+    assertEquals(1, seriesOfC.size());
+    for (String subject : new String[] {"A", "B"}) {
+      for (String seriesId : seriesIds(work, subject)) {
+        assertFalse(subject + " shares " + seriesId + " with C", seriesOfC.contains(seriesId));
+      }
+    }
+
+    work.editEvent("C", at(7, 9), "subject", "Renamed", EditSettings.ALL_EVENTS);
+    assertEquals(3, countSubject(work, "B"));
+    assertEquals(3, countSubject(work, "Renamed"));
+  }
+
+  @Test
+  public void testSmallBatchIntoLargeCalendarChecksDuplicates() throws Exception {
+    Calendar work = useNewCalendar("Work");
+    for (int day = 1; day <= 30; day++) {
+      work.createAndAddEvent("Existing", at(day, 9), at(day, 10), false);
+    }
+    manager.beginBatch();
+    manager.getActiveCalendar().createAndAddEvent("New", at(3, 11), at(3, 12), false);
+    manager.getActiveCalendar().createAndAddEvent("Existing", at(4, 9), at(4, 10), false);
+
+    try {
+      manager.commitBatch();
+      fail("Expected the duplicate to fail the commit");
+    } catch (DuplicateEventException e) {
+      assertEquals(30, work.getAllEvents().size());
+    }
+
+    manager.beginBatch();
+    manager.getActiveCalendar().createAndAddEvent("New", at(3, 11), at(3, 12), false);
+    assertEquals(1, manager.commitBatch());
+    assertEquals(2, work.getEventOnDate(LocalDate.of(2025, 5, 3)).size());
+  }
+
+  @Test
+  public void testBatchDuplicateWithinBatchFailsCommit() throws Exception {
+    Calendar work = useNewCalendar("Work");
+    manager.beginBatch();
+    manager.getActiveCalendar().createAndAddEvent("A", at(5, 9), at(5, 10), false);
+    try {
+      manager.getActiveCalendar().createAndAddEvent("A", at(5, 9), at(5, 10), false);
+      fail("Expected the duplicate to be found while staging");
+    } catch (DuplicateEventException e) {
+      // The whole batch is rolled back on commit
+    }
+
+    try {
+      manager.commitBatch();
+      fail("Expected the duplicate to fail the commit");
+    } catch (DuplicateEventException e) {
+      assertTrue(work.getAllEvents().isEmpty());
+    }
+  }
+
+  @Test
+  public void testBatchEditsApplyInOrderWithCreatedEvents() throws Exception {
+    Calendar work = useNewCalendar("Work");
+    manager.beginBatch();
+    Calendar staged = manager.getActiveCalendar();
+    staged.createAndAddEvent("Draft", at(5, 9), at(5, 10), false);
+    staged.editEvent("Draft", at(5, 9), "subject", "Final", EditSettings.SINGLE);
+    staged.createAndAddEvent("Draft", at(5, 9), at(5, 10), false);
+
+    assertEquals(3, manager.commitBatch());
+    List<String> subjects = work.getAllEvents().stream().map(Event::getSubject).sorted()
+        .collect(Collectors.toList());
+    assertEquals(List.of("Draft", "Final"), subjects);
+  }
+
+  @Test
+  public void testBatchFailedEditUndoesEveryChange() throws Exception {
+    Calendar work = useNewCalendar("Work");
+    work.createAndAddEvent("Kept", at(4, 9), at(4, 10), false);
+    manager.beginBatch();
+    Calendar staged = manager.getActiveCalendar();
+    staged.createAndAddEvent("A", at(5, 9), at(5, 10), false);
+    staged.editEvent("Kept", at(4, 9), "subject", "Renamed", EditSettings.SINGLE);
+    staged.editEvent("Missing", at(6, 9), "subject", "B", EditSettings.SINGLE);
+
+    try {
+      manager.commitBatch();
+      fail("Expected the missing event to fail the commit");
+    } catch (EventNotFoundException e) {
+      assertEquals(1, work.getAllEvents().size());
+      assertEquals("Kept", work.getAllEvents().get(0).getSubject());
+    }
+  }
+
+  @Test
+  public void testBatchEditOfMissingEventFailsWhenStaged() throws Exception {
+    Calendar work = useNewCalendar("Work");
+    manager.beginBatch();
+    Calendar staged = manager.getActiveCalendar();
+    manager.lineStarted(2);
+    staged.createAndAddEvent("A", at(5, 9), at(5, 10), false);
+    manager.lineStarted(3);
+    try {
+      staged.editEvent("Missing", at(6, 9), "subject", "B", EditSettings.SINGLE);
+      fail("Expected the missing event to be found while staging");
+    } catch (EventNotFoundException e) {
+      // The whole batch is rolled back on commit
+    }
+
+    try {
+      manager.commitBatch();
+      fail("Expected the missing event to fail the commit");
+    } catch (EventNotFoundException e) {
+      assertTrue(e.getMessage(), e.getMessage().endsWith("(line 3)"));
+      assertTrue(work.getAllEvents().isEmpty());
+    }
+  }
+
+  @Test(expected = UnclearEventException.class)
+  public void testBatchEditMatchingStagedAndExistingEventsIsUnclear() throws Exception {
+    Calendar work = useNewCalendar("Work");
+    work.createAndAddEvent("M", at(5, 9), at(5, 10), false);
+    manager.beginBatch();
+    Calendar staged = manager.getActiveCalendar();
+    staged.createAndAddEvent("M", at(5, 9), at(5, 11), false);
+    staged.editEvent("M", at(5, 9), "description", "Notes", EditSettings.SINGLE);
+  }
+
+  @Test
+  public void testBatchEditFindsEventCreatedBeforeEarlierEdit() throws Exception {
+    Calendar work = useNewCalendar("Work");
+    work.createAndAddEvent("Kept", at(4, 9), at(4, 10), false);
+    manager.beginBatch();
+    Calendar staged = manager.getActiveCalendar();
+    staged.createAndAddEvent("A", at(5, 9), at(5, 10), false);
+    staged.editEvent("Kept", at(4, 9), "description", "Notes", EditSettings.SINGLE);
+    staged.editEvent("A", at(5, 9), "description", "More", EditSettings.SINGLE);
+
+    assertEquals(3, manager.commitBatch());
+  }
+
+  @Test
+  public void testBatchCommitErrorNamesLinesOfFailedChange() throws Exception {
+    Calendar work = useNewCalendar("Work");
+    work.createAndAddEvent("Existing", at(7, 9), at(7, 10), false);
+    manager.beginBatch();
+    Calendar staged = manager.getActiveCalendar();
+    manager.lineStarted(2);
+    staged.createAndAddEvent("A", at(5, 9), at(5, 10), false);
+    manager.lineStarted(4);
+    staged.createAndAddEvent("Existing", at(7, 9), at(7, 10), false);
+
+    try {
+      manager.commitBatch();
+      fail("Expected the duplicate to fail the commit");
+    } catch (DuplicateEventException e) {
+      assertTrue(e.getMessage(), e.getMessage().endsWith("(lines 2-4)"));
+      assertEquals(1, work.getAllEvents().size());
+    }
+  }
+
+  @Test
+  public void testLargeBatchKeepsEventsOrderedAndQueryable() throws Exception {
+    Calendar work = useNewCalendar("Work");
+    for (int day = 1; day <= 20; day++) {
+      work.createAndAddEvent("Existing" + day, at(day, 12), at(day, 13), false);
+    }
+    manager.beginBatch();
+    for (int day = 1; day <= 20; day++) {
+      for (int hour = 0; hour < 24; hour += 2) {
+        manager.getActiveCalendar().createAndAddEvent("Staged" + hour, at(day, hour),
+            at(day, hour).plusMinutes(30), false);
+      }
+    }
+
+    assertEquals(240, manager.commitBatch());
+    List<Event> all = work.getAllEvents();
+    assertEquals(260, all.size());
+    for (int i = 1; i < all.size(); i++) {
+      assertFalse(all.get(i).getStartDateTime().isBefore(all.get(i - 1).getStartDateTime()));
+    }
+    assertEquals(13, work.getEventOnDate(LocalDate.of(2025, 5, 7)).size());
+    assertTrue(work.isBusy(at(9, 12).plusMinutes(15)));
+  }
+
+  @Test
+  public void testBatchSeriesGetTheirOwnSeriesId() throws Exception {
+    Calendar work = useNewCalendar("Work");
+    work.createEventSeries("Old", LocalDate.of(2025, 5, 5), LocalTime.of(9, 0),
+        LocalTime.of(10, 0), Set.of(DayOfWeek.MONDAY), 2);
+    manager.beginBatch();
+    manager.getActiveCalendar().createEventSeries("New", LocalDate.of(2025, 5, 5),
+        LocalTime.of(11, 0), LocalTime.of(12, 0), Set.of(DayOfWeek.MONDAY), 2);
+    manager.commitBatch();
+
+    work.editEvent("New", LocalDateTime.of(2025, 5, 5, 11, 0), "subject", "Renamed",
+        EditSettings.ALL_EVENTS);
+    long renamed = work.getAllEvents().stream().filter(e -> e.getSubject().equals("Renamed"))
+        .count();
+    long old = work.getAllEvents().stream().filter(e -> e.getSubject().equals("Old")).count();
+    assertEquals(2, renamed);
+    assertEquals(2, old);
+  }
+
+  @Test
+  public void testBatchBlocksSwitchingCalendars() {
+    useNewCalendar("Work");
+    manager.createCalendar("Home", ZoneId.of("UTC"));
+    manager.beginBatch();
+
+    manager.useCalendar("Work");
+    try {
+      manager.useCalendar("Home");
+      fail("Expected switching calendars to fail");
+    } catch (IllegalStateException e) {
+      assertEquals("Work", manager.getActiveCalendar().getCalendarName());
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testBeginBatchTwiceFails() {
+    useNewCalendar("Work");
+    manager.beginBatch();
+    manager.beginBatch();
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testBeginBatchWithoutActiveCalendarFails() {
+    manager.beginBatch();
+  }
 
+  @Test(expected = IllegalStateException.class)
+  public void testCommitWithoutBatchFails() throws Exception {
+    useNewCalendar("Work");
+    manager.commitBatch();
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testEditingBatchCalendarFails() {
+    useNewCalendar("Work");
+    manager.beginBatch();
+    manager.editCalendar("Work", "name", "Office");
+  }
+
+  private Calendar useNewCalendar(String name) {
+    manager.createCalendar(name, ZoneId.of("UTC"));
+    manager.useCalendar(name);
+    return manager.getActiveCalendar();
+  }
+
+  private static Set<String> seriesIds(Calendar calendar, String subject) {
+    return calendar.getAllEvents().stream().filter(e -> e.getSubject().equals(subject))
+        .map(e -> e.getSeriesId().orElse(null)).collect(Collectors.toSet());
+  }
+
+  private static long countSubject(Calendar calendar, String subject) {
+    return calendar.getAllEvents().stream().filter(e -> e.getSubject().equals(subject)).count();
+  }
+
+  private static LocalDateTime at(int day, int hour) {
+    return LocalDateTime.of(2025, 5, day, hour, 0);
+  }
 }
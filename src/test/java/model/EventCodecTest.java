@@ -0,0 +1,87 @@
+package model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import calendar.model.Calendar;
+import calendar.model.CalendarImpl;
+import calendar.model.Event;
+import calendar.model.EventCodec;
+import calendar.model.EventStatus;
+import calendar.model.LocationType;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.EnumSet;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for EventCodec.
+ */
+public class EventCodecTest {
+  private Calendar calendar;
+
+  /**
+   * Sets up a new CalendarImpl instance before each test with default name and timezone.
+   */
+  @Before
+  public void setUp() {
+    calendar = new CalendarImpl("TestCalendar", ZoneId.of("America/New_York"));
+  }
+
+  private Event roundTrip(Event event) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    EventCodec.write(event, new DataOutputStream(bytes));
+    return EventCodec.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+  }
+
+  private void assertSameProperties(Event expected, Event actual) {
+    assertEquals(expected, actual);
+    assertEquals(expected.getDescription(), actual.getDescription());
+    assertEquals(expected.getLocation(), actual.getLocation());
+    assertEquals(expected.getStatus(), actual.getStatus());
+    assertEquals(expected.getSeriesId(), actual.getSeriesId());
+    assertEquals(expected.isAllDayEvent(), actual.isAllDayEvent());
+  }
+
+  @Test
+  public void testRoundTripEventWithAllProperties() throws Exception {
+    calendar.createAndAddEvent("R\u00e9union \u65e5\u672c", LocalDateTime.of(2025, 5, 5, 10, 0, 30),
+        LocalDateTime.of(2025, 5, 5, 11, 0), false, "Agenda\nnotes", LocationType.PHYSICAL,
+        EventStatus.PRIVATE);
+    Event event = calendar.getAllEvents().get(0);
+
+    assertSameProperties(event, roundTrip(event));
+  }
+
+  @Test
+  public void testRoundTripAllDaySeriesEvent() throws Exception {
+    calendar.createAllDayEventSeries("Gym", LocalDate.of(2025, 5, 5),
+        EnumSet.of(DayOfWeek.MONDAY), 1);
+    Event event = calendar.getAllEvents().get(0);
+
+    Event copy = roundTrip(event);
+    assertSameProperties(event, copy);
+    assertTrue(copy.getSeriesId().isPresent());
+  }
+
+  @Test(expected = EOFException.class)
+  public void testTruncatedInputFails() throws Exception {
+    calendar.createAndAddEvent("Call", LocalDateTime.of(2025, 5, 5, 10, 0),
+        LocalDateTime.of(2025, 5, 5, 11, 0), false);
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    EventCodec.write(calendar.getAllEvents().get(0), new DataOutputStream(bytes));
+    byte[] truncated = Arrays.copyOf(bytes.toByteArray(), bytes.size() - 2);
+
+    EventCodec.read(new DataInputStream(new ByteArrayInputStream(truncated)));
+  }
+}
@@ -0,0 +1,119 @@
+package model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+import calendar.model.Calendar;
+import calendar.model.CalendarManager;
+import calendar.model.CalendarManagerImpl;
+import calendar.model.Event;
+import calendar.model.EventStatus;
+import calendar.model.LocationType;
+import calendar.model.ManagerSnapshot;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.EnumSet;
+import java.util.HashSet;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for ManagerSnapshot.
+ */
+public class ManagerSnapshotTest {
+  private CalendarManager manager;
+
+  /**
+   * Sets up a manager with two calendars before each test.
+   *
+   * @throws Exception if an event cannot be created
+   */
+  @Before
+  public void setUp() throws Exception {
+    manager = new CalendarManagerImpl();
+    manager.createCalendar("Work", ZoneId.of("America/New_York"));
+    manager.createCalendar("Home", ZoneId.of("Europe/Paris"));
+
+    manager.useCalendar("Home");
+    manager.getActiveCalendar().createAllDayEventSeries("Gym", LocalDate.of(2025, 5, 5),
+        EnumSet.of(DayOfWeek.MONDAY), 3);
+
+    manager.useCalendar("Work");
+    manager.getActiveCalendar().createAndAddEvent("Review", LocalDateTime.of(2025, 5, 5, 10, 0),
+        LocalDateTime.of(2025, 5, 5, 11, 0), false, "Quarterly", LocationType.ONLINE,
+        EventStatus.PRIVATE);
+  }
+
+  private CalendarManager roundTrip(CalendarManager source) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    ManagerSnapshot.write(source, new DataOutputStream(bytes));
+    return ManagerSnapshot.read(new DataInputStream(new ByteArrayInputStream(
+        bytes.toByteArray())));
+  }
+
+  private Calendar find(CalendarManager source, String name) {
+    for (Calendar calendar : source.getAllCalendars()) {
+      if (calendar.getCalendarName().equals(name)) {
+        return calendar;
+      }
+    }
+    throw new AssertionError("No calendar named " + name);
+  }
+
+  @Test
+  public void testRestoresCalendarsEventsAndActiveCalendar() throws Exception {
+    CalendarManager restored = roundTrip(manager);
+
+    assertEquals(2, restored.getAllCalendars().size());
+    assertEquals("Work", restored.getActiveCalendar().getCalendarName());
+    for (String name : new String[] {"Work", "Home"}) {
+      Calendar original = find(manager, name);
+      Calendar copy = find(restored, name);
+      assertEquals(original.getTimeZone(), copy.getTimeZone());
+      assertEquals(new HashSet<>(original.getAllEvents()), new HashSet<>(copy.getAllEvents()));
+    }
+
+    Event review = find(restored, "Work").getAllEvents().get(0);
+    assertEquals("Quarterly", review.getDescription().get());
+    assertEquals(LocationType.ONLINE, review.getLocation());
+    assertEquals(EventStatus.PRIVATE, review.getStatus());
+  }
+
+  @Test
+  public void testRestoresManagerWithNoActiveCalendar() throws Exception {
+    CalendarManager restored = roundTrip(new CalendarManagerImpl());
+
+    assertEquals(0, restored.getAllCalendars().size());
+    assertNull(restored.getActiveCalendar());
+  }
+
+  @Test
+  public void testNewSeriesDoNotReuseRestoredSeriesIds() throws Exception {
+    CalendarManager restored = roundTrip(manager);
+    Calendar home = find(restored, "Home");
+    String gymSeries = home.getAllEvents().get(0).getSeriesId().get();
+
+    home.createEventSeries("Swim", LocalDate.of(2025, 5, 6), LocalTime.of(7, 0),
+        LocalTime.of(8, 0), EnumSet.of(DayOfWeek.TUESDAY), 2);
+
+    for (Event event : home.getAllEvents()) {
+      if (event.getSubject().equals("Swim")) {
+        assertNotEquals(gymSeries, event.getSeriesId().get());
+      }
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void testRejectsInputThatIsNotASnapshot() throws Exception {
+    ManagerSnapshot.read(new DataInputStream(new ByteArrayInputStream(new byte[16])));
+  }
+}
@@ -0,0 +1,135 @@
+package view;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import calendar.view.ChannelWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+
+/**
+ * Test class for ChannelWriter.
+ * Tests buffering, encoding and the background writer thread.
+ */
+public class ChannelWriterTest {
+
+  @Test
+  public void testNothingWrittenUntilFlush() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    ChannelWriter writer = new ChannelWriter(Channels.newChannel(bytes), 64, false);
+
+    writer.write("Event created: Meeting\n");
+    assertEquals(0, bytes.size());
+
+    writer.flush();
+    assertEquals("Event created: Meeting\n", bytes.toString(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testFullBufferIsWrittenWithoutFlush() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    ChannelWriter writer = new ChannelWriter(Channels.newChannel(bytes), 4, false);
+
+    writer.write("abcdef");
+    assertEquals("abcd", bytes.toString(StandardCharsets.UTF_8));
+
+    writer.flush();
+    assertEquals("abcdef", bytes.toString(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testSurrogatePairSplitAcrossBuffers() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    ChannelWriter writer = new ChannelWriter(Channels.newChannel(bytes), 3, false);
+    String text = "ab\uD83D\uDCC5 Caf\u00e9";
+
+    writer.append(text);
+    writer.flush();
+
+    assertEquals(text, bytes.toString(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testBackgroundWriterKeepsOrder() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    StringBuilder expected = new StringBuilder();
+    try (ChannelWriter writer = new ChannelWriter(Channels.newChannel(bytes), 16, true)) {
+      for (int i = 0; i < 1000; i++) {
+        String line = "Event created: Event" + i + "\n";
+        writer.write(line);
+        expected.append(line);
+      }
+      writer.flush();
+      assertEquals(expected.toString(), bytes.toString(StandardCharsets.UTF_8));
+    }
+  }
+
+  @Test
+  public void testWriteFailureReportedOnFlush() throws IOException {
+    for (boolean background : new boolean[] {false, true}) {
+      ChannelWriter writer = new ChannelWriter(new FailingChannel(), 8, background);
+      writer.write("line\n");
+      try {
+        writer.flush();
+        fail("Expected the write failure to be reported");
+      } catch (IOException e) {
+        assertEquals("Broken pipe", e.getMessage());
+      }
+    }
+  }
+
+  @Test
+  public void testCloseClosesChannel() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    WritableByteChannel channel = Channels.newChannel(bytes);
+    ChannelWriter writer = new ChannelWriter(channel, 64, true);
+
+    writer.write("exit\n");
+    writer.close();
+
+    assertFalse(channel.isOpen());
+    assertEquals("exit\n", bytes.toString(StandardCharsets.UTF_8));
+    try {
+      writer.write("more");
+      fail("Expected writing after close to fail");
+    } catch (IOException e) {
+      assertTrue(e.getMessage().contains("closed"));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRejectsTooSmallBufferSize() {
+    new ChannelWriter(Channels.newChannel(new ByteArrayOutputStream()), 1, false);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRejectsNullChannel() {
+    new ChannelWriter(null, 64, false);
+  }
+
+  /**
+   * Channel whose every write fails.
+   */
+  private static class FailingChannel implements WritableByteChannel {
+    @Override
+    public int write(ByteBuffer source) throws IOException {
+      throw new IOException("Broken pipe");
+    }
+
+    @Override
+    public boolean isOpen() {
+      return true;
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+}
@@ -0,0 +1,169 @@
+package view;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import calendar.model.Calendar;
+import calendar.model.CalendarImpl;
+import calendar.model.EventStatus;
+import calendar.model.LocationType;
+import calendar.view.JsonLinesView;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.EnumSet;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for JsonLinesView.
+ * Tests the records written for each kind of output, escaping and buffering.
+ */
+public class JsonLinesViewTest {
+
+  private ByteArrayOutputStream bytes;
+  private JsonLinesView view;
+
+  /**
+   * Initializes test fixtures before each test method.
+   */
+  @Before
+  public void setUp() {
+    bytes = new ByteArrayOutputStream();
+    view = new JsonLinesView(bytes, true);
+  }
+
+  @Test
+  public void testRecordsCarryLineAndCommand() {
+    view.lineStarted(3);
+    view.commandStarted("CreateEventCommand");
+    view.displayEventCreated("Meeting");
+    view.lineStarted(4);
+    view.commandStarted("ShowStatusCommand");
+    view.displayBusyStatus(true);
+
+    assertEquals("{\"line\":3,\"command\":\"CreateEventCommand\",\"type\":\"created\","
+        + "\"subject\":\"Meeting\"}\n"
+        + "{\"line\":4,\"command\":\"ShowStatusCommand\",\"type\":\"status\",\"busy\":true}\n",
+        output());
+  }
+
+  @Test
+  public void testErrorNamesFailureOnlyAfterFailedCommand() {
+    view.lineStarted(7);
+    view.commandFailed(new IllegalArgumentException("bad"));
+    view.displayError("Invalid command: bad");
+    view.displayError("Headless mode file must end with 'exit' command");
+
+    assertEquals("{\"line\":7,\"type\":\"error\",\"error\":\"IllegalArgumentException\","
+        + "\"message\":\"Invalid command: bad\"}\n"
+        + "{\"line\":7,\"type\":\"error\","
+        + "\"message\":\"Headless mode file must end with 'exit' command\"}\n", output());
+  }
+
+  @Test
+  public void testRecordsWithoutLine() {
+    view.displayMessage("Calendar created: Work");
+    view.displayEventEdited("Meeting");
+    view.displayExportSuccess("/tmp/work.csv");
+
+    assertEquals("{\"type\":\"message\",\"message\":\"Calendar created: Work\"}\n"
+        + "{\"type\":\"edited\",\"subject\":\"Meeting\"}\n"
+        + "{\"type\":\"exported\",\"path\":\"/tmp/work.csv\"}\n", output());
+  }
+
+  @Test
+  public void testEventsAreWrittenWithAllFields() throws Exception {
+    Calendar calendar = new CalendarImpl("Work", ZoneId.of("UTC"));
+    LocalDateTime start = LocalDateTime.of(2025, 5, 5, 9, 0);
+    calendar.createAndAddEvent("Standup", start, start.plusMinutes(15), false, "Daily sync",
+        LocationType.ONLINE, EventStatus.PRIVATE);
+    calendar.createAllDayEventSeries("Gym", LocalDate.of(2025, 5, 6),
+        EnumSet.of(DayOfWeek.TUESDAY), 1);
+
+    view.displayEventsOnDate(calendar.getEventOnDate(LocalDate.of(2025, 5, 5)), "2025-05-05");
+    view.displayEventsInRange(List.of());
+
+    String expected = "{\"type\":\"events\",\"date\":\"2025-05-05\",\"events\":["
+        + "{\"subject\":\"Standup\",\"start\":\"2025-05-05T09:00\",\"end\":\"2025-05-05T09:15\","
+        + "\"allDay\":false,\"description\":\"Daily sync\",\"location\":\"ONLINE\","
+        + "\"status\":\"PRIVATE\",\"seriesId\":null}]}\n"
+        + "{\"type\":\"events\",\"events\":[]}\n";
+    assertEquals(expected, output());
+    String series = calendar.getEventOnDate(LocalDate.of(2025, 5, 6)).get(0).getSeriesId()
+        .get();
+    view.displayEvents(calendar.getEventOnDate(LocalDate.of(2025, 5, 6)));
+    assertTrue(output().endsWith("\"allDay\":true,\"description\":null,\"location\":null,"
+        + "\"status\":\"PUBLIC\",\"seriesId\":\"" + series + "\"}]}\n"));
+  }
+
+  @Test
+  public void testStringsAreEscapedAndEncoded() {
+    view.displayMessage("Say \"hi\"\\\n\ttab \u0001 Caf\u00e9 \u20ac \uD83D\uDCC5 \uD800!");
+
+    assertEquals("{\"type\":\"message\",\"message\":\"Say \\\"hi\\\"\\\\\\n\\ttab \\u0001 "
+        + "Caf\u00e9 \u20ac \uD83D\uDCC5 \\ud800!\"}\n", output());
+  }
+
+  @Test
+  public void testBufferedViewWritesOnFlush() {
+    view = new JsonLinesView(bytes, false);
+
+    view.displayBusyStatus(false);
+    assertEquals(0, bytes.size());
+
+    view.flush();
+    assertEquals("{\"type\":\"status\",\"busy\":false}\n", output());
+  }
+
+  @Test
+  public void testLargeOutputFillsBufferInOrder() {
+    view = new JsonLinesView(bytes, false);
+    StringBuilder expected = new StringBuilder();
+    for (int i = 0; i < 5000; i++) {
+      view.displayEventCreated("Event " + i + " \u00e9");
+      expected.append("{\"type\":\"created\",\"subject\":\"Event ").append(i)
+          .append(" \u00e9\"}\n");
+    }
+    view.flush();
+
+    assertEquals(expected.toString(), output());
+  }
+
+  @Test
+  public void testWriteFailureReportedByCheckError() {
+    view = new JsonLinesView(new OutputStream() {
+      @Override
+      public void write(int b) throws IOException {
+        throw new IOException("Broken pipe");
+      }
+    }, false);
+
+    view.displayMessage("lost");
+
+    assertTrue(view.checkError());
+  }
+
+  @Test
+  public void testNoErrorAfterSuccessfulWrites() {
+    view.displayMessage("kept");
+
+    assertFalse(view.checkError());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRejectsNullStream() {
+    new JsonLinesView(null, true);
+  }
+
+  private String output() {
+    return bytes.toString(StandardCharsets.UTF_8);
+  }
+}
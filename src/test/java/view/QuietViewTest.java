@@ -0,0 +1,69 @@
+package view;
+
+import static org.junit.Assert.assertEquals;
+
+import calendar.view.ConsoleView;
+import calendar.view.QuietView;
+import calendar.view.View;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for QuietView.
+ * Tests that command output is dropped and errors are kept only when asked for.
+ */
+public class QuietViewTest {
+
+  private ByteArrayOutputStream outputStream;
+  private View console;
+
+  /**
+   * Initializes test fixtures before each test method.
+   */
+  @Before
+  public void setUp() {
+    outputStream = new ByteArrayOutputStream();
+    console = new ConsoleView(new PrintStream(outputStream));
+  }
+
+  @Test
+  public void testQuietDropsEverything() {
+    View view = new QuietView(console, false);
+
+    displayAll(view);
+
+    assertEquals("", outputStream.toString());
+  }
+
+  @Test
+  public void testErrorsOnlyKeepsErrors() {
+    View view = new QuietView(console, true);
+
+    displayAll(view);
+
+    assertEquals("Error: Invalid command: bad\n", outputStream.toString());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRejectsNullDelegate() {
+    new QuietView(null, true);
+  }
+
+  private static void displayAll(View view) {
+    view.commandStarted("CreateEventCommand");
+    view.displayEventCreated("Meeting");
+    view.displayMessage("Calendar created: Work");
+    view.displayEvents(List.of());
+    view.displayEventsOnDate(List.of(), "2025-05-05");
+    view.displayEventsInRange(List.of());
+    view.displayBusyStatus(true);
+    view.displayEventEdited("Meeting");
+    view.displayExportSuccess("/tmp/work.csv");
+    view.commandFailed(new IllegalArgumentException("bad"));
+    view.displayError("Invalid command: bad");
+    view.flush();
+  }
+}
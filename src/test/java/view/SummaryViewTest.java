@@ -0,0 +1,82 @@
+package view;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import calendar.view.ConsoleView;
+import calendar.view.SummaryView;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for SummaryView.
+ * Tests that commands and errors are counted by kind instead of displayed.
+ */
+public class SummaryViewTest {
+
+  private ByteArrayOutputStream outputStream;
+  private SummaryView view;
+
+  /**
+   * Initializes test fixtures before each test method.
+   */
+  @Before
+  public void setUp() {
+    outputStream = new ByteArrayOutputStream();
+    view = new SummaryView(new ConsoleView(new PrintStream(outputStream)));
+  }
+
+  @Test
+  public void testCommandOutputIsNotDisplayed() {
+    view.commandStarted("CreateEventCommand");
+    view.displayEventCreated("Meeting");
+    view.commandStarted("PrintEventsCommand");
+    view.displayEventsOnDate(List.of(), "2025-05-05");
+    view.displayMessage("Now using calendar: Work");
+    view.commandFailed(new IllegalArgumentException("bad"));
+    view.displayError("Invalid command: bad");
+
+    assertEquals("", outputStream.toString());
+  }
+
+  @Test
+  public void testSummaryCountsCommandsAndErrorsByKind() {
+    view.commandStarted("CreateEventCommand");
+    view.commandStarted("CreateEventCommand");
+    view.commandFailed(new IllegalStateException("duplicate"));
+    view.displayError("Error executing command: duplicate");
+    view.commandStarted("CopyEventCommand");
+    view.commandFailed(new IllegalArgumentException("no calendar"));
+    view.displayError("Invalid command: no calendar");
+    view.commandFailed(new IllegalArgumentException("unknown"));
+    view.displayError("Invalid command: unknown");
+
+    view.displaySummary();
+
+    String[] lines = outputStream.toString().split("\n");
+    assertTrue(lines[0], lines[0].startsWith("Ran 3 commands in "));
+    assertEquals("  CopyEventCommand: 1", lines[1]);
+    assertEquals("  CreateEventCommand: 2", lines[2]);
+    assertEquals("3 errors", lines[3]);
+    assertEquals("  IllegalArgumentException: 2", lines[4]);
+    assertEquals("  IllegalStateException: 1", lines[5]);
+    assertEquals(6, lines.length);
+  }
+
+  @Test
+  public void testErrorsOutsideCommandsAreDisplayed() {
+    view.commandStarted("CreateEventCommand");
+    view.displayError("Headless mode file must end with 'exit' command");
+
+    assertEquals("Error: Headless mode file must end with 'exit' command\n",
+        outputStream.toString());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRejectsNullDelegate() {
+    new SummaryView(null);
+  }
+}
@@ -10,10 +10,15 @@ import calendar.model.CalendarImpl;
 import calendar.model.EditSettings;
 import calendar.model.Event;
 import calendar.model.LocationType;
+import calendar.view.ChannelWriter;
 import calendar.view.ConsoleView;
 import calendar.view.View;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.PrintStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
@@ -244,6 +249,63 @@ public class ViewTest {
     assertTrue(output.contains("17:00"));
   }
 
+  @Test
+  public void testWriterViewMatchesPrintStreamView() throws Exception {
+    testCalendar.createAndAddEvent("Standup", LocalDateTime.of(2025, 5, 5, 9, 0),
+        LocalDateTime.of(2025, 5, 5, 9, 15), false);
+    testCalendar.createAndAddEvent("Review", LocalDateTime.of(2025, 5, 5, 14, 0),
+        LocalDateTime.of(2025, 5, 6, 15, 30), false);
+    List<Event> events = testCalendar.getAllEvents();
+    StringWriter written = new StringWriter();
+    View writerView = new ConsoleView(written);
+
+    for (View target : List.of(view, writerView)) {
+      target.displayEvents(events);
+      target.displayEventsOnDate(events, "2025-05-05");
+      target.displayEventsInRange(events);
+      target.displayEventCreated("Standup");
+      target.flush();
+    }
+
+    assertEquals(outputStream.toString(), written.toString());
+  }
+
+  @Test
+  public void testBufferedViewWritesOnFlush() {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    ConsoleView bufferedView =
+        new ConsoleView(new ChannelWriter(Channels.newChannel(bytes), 1024, false));
+
+    bufferedView.displayMessage("Hello World");
+    bufferedView.displayBusyStatus(false);
+    assertEquals(0, bytes.size());
+
+    bufferedView.flush();
+    assertEquals("Hello World\navailable\n", bytes.toString());
+    assertFalse(bufferedView.checkError());
+  }
+
+  @Test
+  public void testWriterViewReportsWriteFailure() {
+    ConsoleView failingView = new ConsoleView(new Writer() {
+      @Override
+      public void write(char[] chars, int offset, int length) throws IOException {
+        throw new IOException("Broken pipe");
+      }
+
+      @Override
+      public void flush() {
+      }
+
+      @Override
+      public void close() {
+      }
+    });
+
+    failingView.displayMessage("Hello World");
+    assertTrue(failingView.checkError());
+  }
+
   @Test
   public void testDefaultConstructor() {
     View defaultView = new ConsoleView();